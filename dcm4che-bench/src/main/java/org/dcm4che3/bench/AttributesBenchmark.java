@@ -0,0 +1,211 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.bench;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.media.DicomDirReader;
+import org.dcm4che3.media.RecordFactory;
+import org.dcm4che3.media.RecordType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures value access by {@link Attributes#getString}, {@link Attributes#setString} and C-FIND attribute matching
+ * by {@link Attributes#matches(Attributes, boolean, boolean)} and by precompiled {@link MatchKeys} against a data set
+ * and against the records of a DICOMDIR.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributesBenchmark {
+
+    private static final int[] TAGS = {
+            Tag.SOPInstanceUID,
+            Tag.StudyDate,
+            Tag.Modality,
+            Tag.PatientName,
+            Tag.PatientID,
+            Tag.StudyInstanceUID,
+            Tag.SeriesInstanceUID,
+            Tag.InstanceNumber
+    };
+
+    private Attributes dataset;
+    private Attributes uidKeys;
+    private Attributes wildcardKeys;
+    private Attributes dateRangeKeys;
+    private Attributes nonMatchingKeys;
+    private MatchKeys compiledWildcardKeys;
+    private MatchKeys compiledPatientKeys;
+    private MatchKeys compiledStudyKeys;
+    private File dicomdir;
+    private DicomDirReader dicomDirReader;
+    private final RecordFactory recFact = new RecordFactory();
+
+    @Setup
+    public void setup() throws IOException {
+        dataset = TestData.readDataset("MR2_UNC");
+
+        uidKeys = new Attributes();
+        uidKeys.setString(Tag.SOPInstanceUID, VR.UI, dataset.getString(Tag.SOPInstanceUID));
+
+        wildcardKeys = new Attributes();
+        wildcardKeys.setString(Tag.PatientName, VR.PN, "compressed*^M?2");
+        wildcardKeys.setString(Tag.PatientID, VR.LO, "5MR*");
+        wildcardKeys.setString(Tag.Modality, VR.CS, "MR");
+
+        dateRangeKeys = new Attributes();
+        dateRangeKeys.setString(Tag.StudyDate, VR.DA, "20040101-20041231");
+        dateRangeKeys.setString(Tag.StudyTime, VR.TM, "180000-190000");
+
+        nonMatchingKeys = new Attributes();
+        nonMatchingKeys.setString(Tag.PatientName, VR.PN, "Doe*");
+        nonMatchingKeys.setString(Tag.StudyDate, VR.DA, "-19991231");
+
+        compiledWildcardKeys = MatchKeys.compile(wildcardKeys, true, false);
+        compiledPatientKeys = DicomDirReader.matchKeys(RecordType.PATIENT, wildcardKeys, recFact, false, true);
+        compiledStudyKeys = DicomDirReader.matchKeys(RecordType.STUDY, dateRangeKeys, recFact, false, true);
+
+        dicomdir = File.createTempFile("DICOMDIR", null);
+        try (FileOutputStream out = new FileOutputStream(dicomdir)) {
+            out.write(TestData.load("DICOMDIR"));
+        }
+        dicomDirReader = new DicomDirReader(dicomdir);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dicomDirReader.close();
+        dicomdir.delete();
+    }
+
+    @Benchmark
+    public int getString() {
+        int n = 0;
+        for (int tag : TAGS) {
+            String s = dataset.getString(tag);
+            if (s != null)
+                n += s.length();
+        }
+        return n;
+    }
+
+    @Benchmark
+    public Attributes setString() {
+        Attributes attrs = new Attributes(TAGS.length);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4.5.6.7.8.9");
+        attrs.setString(Tag.StudyDate, VR.DA, "20210201");
+        attrs.setString(Tag.Modality, VR.CS, "MR");
+        attrs.setString(Tag.PatientName, VR.PN, "Doe^John");
+        attrs.setString(Tag.PatientID, VR.LO, "4711");
+        attrs.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3.4.5.6.7.8");
+        attrs.setString(Tag.SeriesInstanceUID, VR.UI, "1.2.3.4.5.6.7.8.1");
+        attrs.setString(Tag.InstanceNumber, VR.IS, "1");
+        return attrs;
+    }
+
+    @Benchmark
+    public boolean matchesUID() {
+        return dataset.matches(uidKeys, false, false);
+    }
+
+    @Benchmark
+    public boolean matchesWildcard() {
+        return dataset.matches(wildcardKeys, true, false);
+    }
+
+    @Benchmark
+    public boolean matchesCompiledWildcard() {
+        return dataset.matches(compiledWildcardKeys);
+    }
+
+    @Benchmark
+    public boolean matchesDateRange() {
+        return dataset.matches(dateRangeKeys, false, false);
+    }
+
+    @Benchmark
+    public boolean matchesNot() {
+        return dataset.matches(nonMatchingKeys, true, false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int findDicomDirRecords() throws IOException {
+        int n = 0;
+        for (Attributes patRec = dicomDirReader.findPatientRecord(wildcardKeys, recFact, false, true);
+             patRec != null;
+             patRec = dicomDirReader.findNextPatientRecord(patRec, wildcardKeys, recFact, false, true))
+            for (Attributes studyRec = dicomDirReader.findStudyRecord(patRec, dateRangeKeys, recFact, false, true);
+                 studyRec != null;
+                 studyRec = dicomDirReader.findNextStudyRecord(studyRec, dateRangeKeys, recFact, false, true))
+                n++;
+        return n;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int findDicomDirRecordsCompiled() throws IOException {
+        int n = 0;
+        for (Attributes patRec = dicomDirReader.findRootDirectoryRecord(false, compiledPatientKeys);
+             patRec != null;
+             patRec = dicomDirReader.findNextDirectoryRecord(patRec, false, compiledPatientKeys))
+            for (Attributes studyRec = dicomDirReader.findLowerDirectoryRecord(patRec, false, compiledStudyKeys);
+                 studyRec != null;
+                 studyRec = dicomDirReader.findNextDirectoryRecord(studyRec, false, compiledStudyKeys))
+                n++;
+        return n;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.bench;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.io.DicomInputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DicomInputStream#readDataset()} and {@link DicomInputStream#readDatasetUntilPixelData()}
+ * on sample files with different Transfer Syntaxes: Explicit VR Little Endian (MR2_UNC, NM-MONO2-16-13x-heart),
+ * Explicit VR Big Endian (US-RGB-8-epicard), Deflated Explicit VR Little Endian (report_dfl),
+ * RLE Lossless (US-PAL-8-10x-echo) and Implicit VR Little Endian (OT-PAL-8-face).
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DicomInputStreamBenchmark {
+
+    @Param({ "MR2_UNC", "NM-MONO2-16-13x-heart", "US-RGB-8-epicard", "report_dfl", "US-PAL-8-10x-echo",
+            "OT-PAL-8-face" })
+    public String file;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        data = TestData.load(file);
+    }
+
+    @Benchmark
+    public Attributes readDataset() throws IOException {
+        try (DicomInputStream dis = TestData.open(data)) {
+            return dis.readDataset();
+        }
+    }
+
+    @Benchmark
+    public Attributes readDatasetUntilPixelData() throws IOException {
+        try (DicomInputStream dis = TestData.open(data)) {
+            return dis.readDatasetUntilPixelData();
+        }
+    }
+
+    @Benchmark
+    public Attributes readDatasetLazySequences() throws IOException {
+        try (DicomInputStream dis = TestData.open(data)) {
+            dis.setLazySequences(true);
+            return dis.readDataset();
+        }
+    }
+
+    @Benchmark
+    public Attributes readDatasetWithBulkDataURI() throws IOException {
+        try (DicomInputStream dis = TestData.open(data)) {
+            dis.setIncludeBulkData(DicomInputStream.IncludeBulkData.URI);
+            dis.setURI("file:" + file);
+            return dis.readDataset();
+        }
+    }
+
+    @Benchmark
+    public Attributes readDatasetUntilStudyInstanceUID() throws IOException {
+        try (DicomInputStream dis = TestData.open(data)) {
+            return dis.readDataset(-1, o -> Integer.compareUnsigned(o.tag(), Tag.StudyInstanceUID) > 0);
+        }
+    }
+}
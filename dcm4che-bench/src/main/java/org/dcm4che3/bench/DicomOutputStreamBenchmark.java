@@ -0,0 +1,121 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.bench;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.io.DicomEncodingOptions;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DicomOutputStream#writeDataset(Attributes, Attributes)} of data sets read in advance
+ * from sample files, encoded with different Transfer Syntaxes and encoding options.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DicomOutputStreamBenchmark {
+
+    @Param({ "MR2_UNC", "NM-MONO2-16-13x-heart", "report_dfl", "US-PAL-8-10x-echo" })
+    public String file;
+
+    @Param({ UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian, UID.ExplicitVRBigEndian })
+    public String tsuid;
+
+    @Param({ "true", "false" })
+    public boolean undefLength;
+
+    private static final DicomEncodingOptions DEF_LENGTH =
+            new DicomEncodingOptions(false, false, false, false, false);
+
+    private Attributes fmi;
+    private Attributes dataset;
+    private ByteArrayOutputStream bout;
+
+    @Setup
+    public void setup() throws IOException {
+        try (DicomInputStream dis = TestData.open(TestData.load(file))) {
+            dataset = dis.readDataset();
+            fmi = dataset.createFileMetaInformation(tsuid);
+        }
+        bout = new ByteArrayOutputStream(estimateLength(dataset));
+    }
+
+    private static int estimateLength(Attributes dataset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(out, UID.ExplicitVRLittleEndian)) {
+            dos.writeDataset(null, dataset);
+        }
+        return out.size() + 4096;
+    }
+
+    @Benchmark
+    public int writeDataset() throws IOException {
+        bout.reset();
+        try (DicomOutputStream dos = new DicomOutputStream(bout, tsuid)) {
+            dos.setEncodingOptions(undefLength ? DicomEncodingOptions.DEFAULT : DEF_LENGTH);
+            dos.writeDataset(null, dataset);
+        }
+        return bout.size();
+    }
+
+    @Benchmark
+    public int writeFile() throws IOException {
+        bout.reset();
+        try (DicomOutputStream dos = new DicomOutputStream(bout, UID.ExplicitVRLittleEndian)) {
+            dos.writeDataset(fmi, dataset);
+        }
+        return bout.size();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.bench;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Connection;
+import org.dcm4che3.net.DataWriter;
+import org.dcm4che3.net.DataWriterAdapter;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DimseRSP;
+import org.dcm4che3.net.Priority;
+import org.dcm4che3.net.TransferCapability;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.service.BasicCStoreSCP;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures C-STORE round trips over a loopback Association, which is dominated by fragmenting the
+ * data set into P-DATA-TF PDUs on the requestor and reassembling them on the acceptor.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PDUEncoderBenchmark {
+
+    @Param({ "MR2_UNC", "NM-MONO2-16-13x-heart" })
+    public String file;
+
+    @Param({ "16378", "65536", "1048576" })
+    public int maxPDULength;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private Association as;
+    private String cuid;
+    private String iuid;
+    private DataWriter dataWriter;
+
+    @Setup
+    public void setup() throws Exception {
+        Attributes dataset = TestData.readDataset(file);
+        cuid = dataset.getString(Tag.SOPClassUID);
+        iuid = dataset.getString(Tag.SOPInstanceUID);
+        dataWriter = new DataWriterAdapter(dataset);
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        acceptor = createDevice("ACCEPTOR", freePort());
+        ApplicationEntity scp = aeOf(acceptor);
+        scp.addTransferCapability(new TransferCapability(null, "*", TransferCapability.Role.SCP, "*"));
+        scp.setDimseRQHandler(new BasicCStoreSCP());
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", Connection.NOT_LISTENING);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(cuid, UID.ExplicitVRLittleEndian);
+        as = aeOf(requestor).connect(scp, aarq);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        as.release();
+        as.waitForSocketClose();
+        acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    private Device createDevice(String aet, int port) {
+        Device device = new Device(aet);
+        ApplicationEntity ae = new ApplicationEntity(aet);
+        Connection conn = new Connection(null, "localhost", port);
+        conn.setSendPDULength(maxPDULength);
+        conn.setReceivePDULength(maxPDULength);
+        device.addApplicationEntity(ae);
+        device.addConnection(conn);
+        ae.addConnection(conn);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        return device;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket ss = new ServerSocket(0)) {
+            return ss.getLocalPort();
+        }
+    }
+
+    private static ApplicationEntity aeOf(Device device) {
+        return device.getApplicationEntities().iterator().next();
+    }
+
+    @Benchmark
+    public Attributes cstore() throws IOException, InterruptedException {
+        DimseRSP rsp = as.cstore(cuid, iuid, Priority.NORMAL, dataWriter, UID.ExplicitVRLittleEndian);
+        rsp.next();
+        return rsp.getCommand();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.bench;
+
+import org.dcm4che3.data.SpecificCharacterSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding of Person Names by {@link SpecificCharacterSet} for single-byte
+ * (ISO_IR 100), UTF-8 (ISO_IR 192) and ISO 2022 code extension (ISO 2022 IR 87) Character Sets.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificCharacterSetBenchmark {
+
+    private static final String PN_DELIMS = "^=\\";
+
+    @Param({ "ISO_IR 100", "ISO_IR 192", "ISO 2022 IR 87" })
+    public String charset;
+
+    private SpecificCharacterSet cs;
+    private String value;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        cs = charset.startsWith("ISO 2022")
+                ? SpecificCharacterSet.valueOf(null, charset)
+                : SpecificCharacterSet.valueOf(charset);
+        switch (charset) {
+            case "ISO_IR 100":
+                value = "Buc^Jérôme";
+                break;
+            case "ISO_IR 192":
+                value = "Wang^XiaoDong=王^小東=";
+                break;
+            default:
+                value = "Yamada^Tarou=山田^太郎=やまだ^たろう";
+        }
+        encoded = cs.encode(value, PN_DELIMS);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return cs.encode(value, PN_DELIMS);
+    }
+
+    @Benchmark
+    public String decode() {
+        return cs.decode(encoded);
+    }
+}
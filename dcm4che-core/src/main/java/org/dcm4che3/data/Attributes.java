@@ -43,7 +43,6 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
-import java.util.regex.Pattern;
 
 import org.dcm4che3.data.IOD.DataElement;
 import org.dcm4che3.data.IOD.DataElementType;
@@ -2100,6 +2099,23 @@ public class Attributes implements Serializable {
         return seq;
     }
 
+    /**
+     * Sets a Sequence, which Items are only parsed from the specified encoded Items on first access.
+     *
+     * @param privateCreator private creator of the Sequence
+     * @param tag            tag of the Sequence
+     * @param encodedItems   encoded Items, excluding a terminating Sequence Delimitation Item
+     * @param tsuid          Transfer Syntax of the encoded Items: Implicit VR Little Endian,
+     *                       Explicit VR Little Endian or Explicit VR Big Endian
+     * @return the new Sequence
+     */
+    public Sequence newLazySequence(String privateCreator, int tag, byte[] encodedItems, String tsuid) {
+        ensureModifiable();
+        Sequence seq = new Sequence(this, privateCreator, tag, encodedItems, tsuid);
+        set(privateCreator, tag, VR.SQ, seq);
+        return seq;
+    }
+
     public Sequence ensureSequence(int tag, int initialCapacity) {
         return ensureSequence(null, tag, initialCapacity);
     }
@@ -3135,127 +3151,19 @@ public class Attributes implements Serializable {
 
     public boolean matches(Attributes keys, boolean ignorePNCase,
             boolean matchNoValue) {
-        int[] keyTags = keys.tags;
-        VR[] keyVrs = keys.vrs;
-        Object[] keyValues = keys.values;
-        int keysSize = keys.size;
-        String privateCreator = null;
-        int creatorTag = 0;
-        for (int i = 0; i < keysSize; i++) {
-            int tag = keyTags[i];
-            if (TagUtils.isPrivateCreator(tag))
-                continue;
-
-            if (TagUtils.isPrivateGroup(tag)) {
-                int tmp = TagUtils.creatorTagOf(tag);
-                if (creatorTag != tmp) {
-                    creatorTag = tmp;
-                    privateCreator = keys.getString(creatorTag, null);
-                }
-            } else {
-                creatorTag = 0;
-                privateCreator = null;
-            }
-
-            Object keyValue = keyValues[i];
-            if (isEmpty(keyValue))
-                continue;
-
-            if (keyVrs[i].isStringType()) {
-                if (!matches(privateCreator, tag, keyVrs[i], ignorePNCase,
-                        matchNoValue, keys.getStrings(privateCreator, tag, null)))
-                    return false;
-            } else if (keyValue instanceof Sequence) {
-                if (!matches(privateCreator, tag, ignorePNCase, matchNoValue,
-                        (Sequence) keyValue))
-                    return false;
-            } else {
-                throw new UnsupportedOperationException("Keys with VR: "
-                        + keyVrs[i] + " not supported");
-            }
-        }
-        return true;
+        return matches(MatchKeys.compile(keys, ignorePNCase, matchNoValue));
     }
 
-    private boolean matches(String privateCreator, int tag, VR vr,
-            boolean ignorePNCase, boolean matchNoValue, String[] keyVals) {
-        String[] vals = getStrings(privateCreator, tag, null);
-        if (vals == null || vals.length == 0)
-            return matchNoValue;
-
-        boolean ignoreCase = ignorePNCase && vr == VR.PN;
-        for (String keyVal : keyVals) {
-            DateRange dateRange = null;
-            switch (vr) {
-                case PN:
-                    keyVal = new PersonName(keyVals[0]).toString();
-                    break;
-                case DA:
-                case DT:
-                case TM:
-                    dateRange = toDateRange(keyVal, vr);
-                    break;
-            }
-
-            if (StringUtils.containsWildCard(keyVal)) {
-                Pattern pattern = StringUtils.compilePattern(keyVal, ignoreCase);
-                for (String val : vals) {
-                    if (val == null)
-                        if (matchNoValue)
-                            return true;
-                        else
-                            continue;
-                    if (vr == VR.PN)
-                        val = new PersonName(val).toString();
-                    if (pattern.matcher(val).matches())
-                        return true;
-                }
-            } else {
-                for (String val : vals) {
-                    if (val == null)
-                        if (matchNoValue)
-                            return true;
-                        else
-                            continue;
-                    if (dateRange != null)
-                        if (dateRange.contains(
-                                vr.toDate(val, getTimeZone(), 0, false, null, new DatePrecision())))
-                            return true;
-                        else
-                            continue;
-                    if (vr == VR.PN)
-                        val = new PersonName(val).toString();
-                    if (ignoreCase ? keyVal.equalsIgnoreCase(val)
-                                   : keyVal.equals(val))
-                        return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean matches(String privateCreator, int tag, boolean ignorePNCase, 
-            boolean matchNoValue, Sequence keySeq) {
-        int n = keySeq.size();
-        if (n > 1)
-            throw new IllegalArgumentException("Keys contain Sequence "
-                    + TagUtils.toString(tag) + " with " + n + " Items");
-
-        Attributes keys = keySeq.get(0);
-        if (keys.isEmpty())
-            return true;
-
-        Object value = getValue(privateCreator, tag);
-        if (value == null || isEmpty(value))
-            return matchNoValue;
-
-        if (value instanceof Sequence) {
-            Sequence sq = (Sequence) value;
-            for (Attributes item : sq)
-                if (item.matches(keys, ignorePNCase, matchNoValue))
-                    return true;
-        }
-        return false;
+    /**
+     * Test if this attributes matches precompiled matching keys. Prefer this
+     * method over {@link #matches(Attributes, boolean, boolean)} for matching
+     * the same keys against a large number of candidates.
+     *
+     * @param keys compiled matching keys
+     * @return {@code true} if this attributes matches all keys
+     */
+    public boolean matches(MatchKeys keys) {
+        return keys.matches(this);
     }
 
     private static final long serialVersionUID = 7868714416968825241L;
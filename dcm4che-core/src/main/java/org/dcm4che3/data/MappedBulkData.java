@@ -0,0 +1,138 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.data;
+
+import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.SafeBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bulk Data backed by a read-only slice of a memory-mapped file, as created by
+ * {@link org.dcm4che3.io.DicomInputStream} with
+ * {@link org.dcm4che3.io.DicomInputStream#setMemoryMappedBulkData(boolean) memory-mapped bulk data} enabled.
+ * Provides access to the value by {@link #toByteBuffer()} without copying it onto the heap.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class MappedBulkData extends BulkData {
+
+    private final ByteBuffer buffer;
+
+    public MappedBulkData(String uri, long offset, ByteBuffer buffer, boolean bigEndian) {
+        super(uri, offset, buffer.remaining(), bigEndian);
+        this.buffer = buffer.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a new read-only buffer sharing the mapped content of this Bulk Data, with position 0, limit
+     * {@link #length()} and the byte order of the encoded value.
+     *
+     * @return read-only view of the mapped value
+     */
+    public ByteBuffer toByteBuffer() {
+        return buffer.duplicate().order(bigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public InputStream openStream() {
+        return new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    @Override
+    public byte[] toBytes(VR vr, boolean bigEndian) throws IOException {
+        if (length() == 0)
+            return ByteUtils.EMPTY_BYTES;
+
+        byte[] b = new byte[length()];
+        buffer.duplicate().get(b);
+        if (bigEndian() != bigEndian)
+            vr.toggleEndian(b, false);
+        return b;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedBulkData[uri=" + getURI() + ", bigEndian=" + bigEndian() + "]";
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0)
+                return 0;
+            int remaining = buf.remaining();
+            if (remaining == 0)
+                return -1;
+            int n = Math.min(len, remaining);
+            buf.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skip = (int) Math.max(0, Math.min(n, buf.remaining()));
+            SafeBuffer.position(buf, buf.position() + skip);
+            return skip;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.data;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.dcm4che3.util.StringUtils;
+import org.dcm4che3.util.TagUtils;
+import org.dcm4che3.util.WildcardPattern;
+
+/**
+ * Matching keys compiled once for repeated use by
+ * {@link Attributes#matches(MatchKeys)}. Wildcard patterns, normalized Person
+ * Name key values and date/time ranges are prepared at compile time, so
+ * matching a key against a large number of candidate records - e.g. the
+ * directory records of a DICOMDIR scanned by a C-FIND SCP - does not
+ * recompile regular expressions or reparse key values per record.
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public final class MatchKeys {
+
+    private static final Key[] NO_KEYS = {};
+
+    private final Key[] keys;
+    private final boolean matchNoValue;
+
+    private MatchKeys(Key[] keys, boolean matchNoValue) {
+        this.keys = keys;
+        this.matchNoValue = matchNoValue;
+    }
+
+    /**
+     * Compiles matching keys.
+     *
+     * @param keys          matching keys
+     * @param ignorePNCase  {@code true} if values of PN keys shall be matched case-insensitive
+     * @param matchNoValue  {@code true} if candidates without value for a key shall match
+     * @return compiled matching keys
+     * @throws UnsupportedOperationException if {@code keys} contains a key with a non-string
+     *         and non-sequence VR
+     * @throws IllegalArgumentException if {@code keys} contains a Sequence key with more than one Item
+     */
+    public static MatchKeys compile(Attributes keys, boolean ignorePNCase, boolean matchNoValue) {
+        Compiler compiler = new Compiler(ignorePNCase, matchNoValue);
+        try {
+            keys.accept(compiler, false);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return new MatchKeys(compiler.keys.isEmpty()
+                ? NO_KEYS
+                : compiler.keys.toArray(new Key[compiler.keys.size()]),
+                matchNoValue);
+    }
+
+    public boolean isMatchNoValue() {
+        return matchNoValue;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Test if the specified attributes matches all keys.
+     *
+     * @param attrs candidate attributes
+     * @return {@code true} if {@code attrs} matches all keys
+     */
+    public boolean matches(Attributes attrs) {
+        for (Key key : keys)
+            if (!key.matches(attrs, matchNoValue))
+                return false;
+        return true;
+    }
+
+    private static final class Compiler implements Attributes.Visitor {
+        final ArrayList<Key> keys = new ArrayList<>();
+        final boolean ignorePNCase;
+        final boolean matchNoValue;
+
+        Compiler(boolean ignorePNCase, boolean matchNoValue) {
+            this.ignorePNCase = ignorePNCase;
+            this.matchNoValue = matchNoValue;
+        }
+
+        @Override
+        public boolean visit(Attributes attrs, int tag, VR vr, Object value) {
+            if (TagUtils.isPrivateCreator(tag))
+                return true;
+
+            if ((value instanceof Value) && ((Value) value).isEmpty())
+                return true;
+
+            String privateCreator = attrs.getPrivateCreator(tag);
+            if (vr.isStringType()) {
+                String[] keyVals = attrs.getStrings(privateCreator, tag, null);
+                if (keyVals != null)
+                    keys.add(new StringKey(privateCreator, tag, vr, ignorePNCase, keyVals));
+            } else if (value instanceof Sequence) {
+                Sequence keySeq = (Sequence) value;
+                int n = keySeq.size();
+                if (n > 1)
+                    throw new IllegalArgumentException("Keys contain Sequence "
+                            + TagUtils.toString(tag) + " with " + n + " Items");
+                Attributes item = keySeq.get(0);
+                if (!item.isEmpty())
+                    keys.add(new SequenceKey(privateCreator, tag,
+                            compile(item, ignorePNCase, matchNoValue)));
+            } else {
+                throw new UnsupportedOperationException("Keys with VR: "
+                        + vr + " not supported");
+            }
+            return true;
+        }
+    }
+
+    private static abstract class Key {
+        final String privateCreator;
+        final int tag;
+
+        Key(String privateCreator, int tag) {
+            this.privateCreator = privateCreator;
+            this.tag = tag;
+        }
+
+        abstract boolean matches(Attributes attrs, boolean matchNoValue);
+    }
+
+    private static final class StringKey extends Key {
+        final VR vr;
+        final ValueMatcher[] matchers;
+
+        StringKey(String privateCreator, int tag, VR vr, boolean ignorePNCase, String[] keyVals) {
+            super(privateCreator, tag);
+            this.vr = vr;
+            this.matchers = new ValueMatcher[keyVals.length];
+            boolean ignoreCase = ignorePNCase && vr == VR.PN;
+            for (int i = 0; i < keyVals.length; i++)
+                matchers[i] = matcherOf(vr, ignoreCase, keyVals[i]);
+        }
+
+        @Override
+        boolean matches(Attributes attrs, boolean matchNoValue) {
+            String[] vals = attrs.getStrings(privateCreator, tag, null);
+            if (vals == null || vals.length == 0)
+                return matchNoValue;
+
+            for (String val : vals) {
+                if (val == null) {
+                    if (matchNoValue)
+                        return true;
+                    continue;
+                }
+                if (vr == VR.PN && !isNormalizedPN(val))
+                    val = new PersonName(val).toString();
+                for (ValueMatcher matcher : matchers)
+                    if (matcher.matches(attrs, val))
+                        return true;
+            }
+            return false;
+        }
+    }
+
+    private static ValueMatcher matcherOf(VR vr, boolean ignoreCase, String keyVal) {
+        if (keyVal == null)
+            return NO_MATCH;
+
+        if (vr == VR.PN)
+            keyVal = new PersonName(keyVal).toString();
+
+        if (StringUtils.containsWildCard(keyVal))
+            return new WildcardMatcher(WildcardPattern.compile(keyVal, ignoreCase));
+
+        switch (vr) {
+            case DA:
+            case DT:
+            case TM:
+                return new DateRangeMatcher(vr, keyVal);
+        }
+        return new EqualsMatcher(keyVal, ignoreCase);
+    }
+
+    /**
+     * Test if a Person Name value is already in the normalized form returned by
+     * {@link PersonName#toString()}, so it can be matched without parsing it.
+     */
+    static boolean isNormalizedPN(String s) {
+        int len = s.length();
+        int groups = 0;
+        int components = 0;
+        char prev = '=';
+        for (int i = 0; i < len; i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '=':
+                    if (prev == '^' || ++groups > 2)
+                        return false;
+                    components = 0;
+                    break;
+                case '^':
+                    if (++components > 4)
+                        return false;
+                    break;
+                default:
+                    if (ch <= ' ' && (prev == '=' || prev == '^' || i + 1 == len
+                            || s.charAt(i + 1) == '=' || s.charAt(i + 1) == '^'))
+                        return false;
+            }
+            prev = ch;
+        }
+        return prev != '^' && (prev != '=' || len == 0);
+    }
+
+    private interface ValueMatcher {
+        boolean matches(Attributes attrs, String val);
+    }
+
+    private static final ValueMatcher NO_MATCH = new ValueMatcher() {
+        @Override
+        public boolean matches(Attributes attrs, String val) {
+            return false;
+        }
+    };
+
+    private static final class WildcardMatcher implements ValueMatcher {
+        final WildcardPattern pattern;
+
+        WildcardMatcher(WildcardPattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(Attributes attrs, String val) {
+            return pattern.matches(val);
+        }
+    }
+
+    private static final class EqualsMatcher implements ValueMatcher {
+        final String keyVal;
+        final boolean ignoreCase;
+
+        EqualsMatcher(String keyVal, boolean ignoreCase) {
+            this.keyVal = keyVal;
+            this.ignoreCase = ignoreCase;
+        }
+
+        @Override
+        public boolean matches(Attributes attrs, String val) {
+            return ignoreCase ? keyVal.equalsIgnoreCase(val) : keyVal.equals(val);
+        }
+    }
+
+    private static final class DateRangeMatcher implements ValueMatcher {
+        final VR vr;
+        final String start;
+        final String end;
+        volatile CachedRange cached;
+
+        DateRangeMatcher(VR vr, String keyVal) {
+            this.vr = vr;
+            int delim = keyVal.indexOf('-');
+            if (delim == -1) {
+                start = end = keyVal;
+            } else {
+                start = delim > 0 ? keyVal.substring(0, delim) : null;
+                end = delim < keyVal.length() - 1 ? keyVal.substring(delim + 1) : null;
+            }
+        }
+
+        @Override
+        public boolean matches(Attributes attrs, String val) {
+            TimeZone tz = attrs.getTimeZone();
+            return rangeFor(tz).contains(
+                    vr.toDate(val, tz, 0, false, null, new DatePrecision()));
+        }
+
+        private DateRange rangeFor(TimeZone tz) {
+            CachedRange c = cached;
+            if (c == null || !c.isFor(tz)) {
+                DatePrecision precision = new DatePrecision();
+                Date startDate = start == null ? null
+                        : vr.toDate(start, tz, 0, false, null, precision);
+                Date endDate = end == null ? null
+                        : vr.toDate(end, tz, 0, true, null, precision);
+                cached = c = new CachedRange(tz, new DateRange(startDate, endDate));
+            }
+            return c.range;
+        }
+    }
+
+    private static final class CachedRange {
+        final TimeZone tz;
+        final DateRange range;
+
+        CachedRange(TimeZone tz, DateRange range) {
+            this.tz = tz;
+            this.range = range;
+        }
+
+        /**
+         * {@link TimeZone#getDefault()} returns a new clone on each call, so zones are compared by ID and rules
+         * rather than by identity.
+         */
+        boolean isFor(TimeZone other) {
+            return tz == other || tz.getID().equals(other.getID()) && tz.hasSameRules(other);
+        }
+    }
+
+    private static final class SequenceKey extends Key {
+        final MatchKeys itemKeys;
+
+        SequenceKey(String privateCreator, int tag, MatchKeys itemKeys) {
+            super(privateCreator, tag);
+            this.itemKeys = itemKeys;
+        }
+
+        @Override
+        boolean matches(Attributes attrs, boolean matchNoValue) {
+            Object value = attrs.getValue(privateCreator, tag);
+            if (value == null || (value instanceof Value) && ((Value) value).isEmpty())
+                return matchNoValue;
+
+            if (value instanceof Sequence)
+                for (Attributes item : (Sequence) value)
+                    if (itemKeys.matches(item))
+                        return true;
+
+            return false;
+        }
+    }
+}
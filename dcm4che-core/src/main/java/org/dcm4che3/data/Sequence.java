@@ -38,16 +38,31 @@
 
 package org.dcm4che3.data;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import org.dcm4che3.io.DicomEncodingOptions;
+import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.util.TagUtils;
 
 
 /**
+ * Sequence of Items. Items read by {@link DicomInputStream} with
+ * {@link DicomInputStream#setLazySequences(boolean) lazy sequences} enabled are kept encoded and only parsed
+ * on first access of this Sequence.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
  */
 public class Sequence extends ArrayList<Attributes> implements Value {
@@ -59,6 +74,8 @@ public class Sequence extends ArrayList<Attributes> implements Value {
     private final int tag;
     private volatile int length = -1;
     private volatile boolean readOnly;
+    private volatile byte[] encodedItems;
+    private String encodedItemsTransferSyntax;
 
     Sequence(Attributes parent, String privateCreator, int tag, int initialCapacity) {
         super(initialCapacity);
@@ -67,11 +84,53 @@ public class Sequence extends ArrayList<Attributes> implements Value {
         this.tag = tag;
     }
 
+    Sequence(Attributes parent, String privateCreator, int tag, byte[] encodedItems, String tsuid) {
+        super(0);
+        this.parent = parent;
+        this.privateCreator = privateCreator;
+        this.tag = tag;
+        this.encodedItems = encodedItems;
+        this.encodedItemsTransferSyntax = tsuid;
+    }
+
+    /**
+     * Returns {@code true} if the Items of this Sequence are still encoded and were not yet parsed.
+     */
+    public boolean isLazy() {
+        return encodedItems != null;
+    }
+
+    private void parseEncodedItems() {
+        if (encodedItems == null)
+            return;
+        synchronized (this) {
+            byte[] b = encodedItems;
+            if (b == null)
+                return;
+            try (DicomInputStream dis = new DicomInputStream(new ByteArrayInputStream(b),
+                    encodedItemsTransferSyntax)) {
+                dis.setLazySequences(true);
+                while (dis.getPosition() < b.length && dis.readItemHeader()) {
+                    Attributes item = new Attributes(parent.bigEndian());
+                    super.add(item.setParent(parent, privateCreator, tag));
+                    dis.readItemValue(item, dis.length());
+                    item.trimToSize();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to parse Items of " + TagUtils.toString(tag), e);
+            }
+            super.trimToSize();
+            encodedItems = null;
+            encodedItemsTransferSyntax = null;
+        }
+    }
+
     public boolean isReadOnly() {
         return readOnly;
     }
 
     public void setReadOnly() {
+        parseEncodedItems();
         this.readOnly = true;
         for (Attributes attrs : this) {
             attrs.setReadOnly();
@@ -79,6 +138,7 @@ public class Sequence extends ArrayList<Attributes> implements Value {
     }
 
     private void ensureModifiable() {
+        parseEncodedItems();
         if (readOnly) {
             throw new UnsupportedOperationException("read-only");
         }
@@ -96,6 +156,125 @@ public class Sequence extends ArrayList<Attributes> implements Value {
                 attrs.trimToSize(recursive);
     }
 
+    @Override
+    public int size() {
+        parseEncodedItems();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        parseEncodedItems();
+        return super.isEmpty();
+    }
+
+    @Override
+    public Attributes get(int index) {
+        parseEncodedItems();
+        return super.get(index);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        parseEncodedItems();
+        return super.lastIndexOf(o);
+    }
+
+    @Override
+    public Object[] toArray() {
+        parseEncodedItems();
+        return super.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        parseEncodedItems();
+        return super.toArray(a);
+    }
+
+    @Override
+    public Iterator<Attributes> iterator() {
+        parseEncodedItems();
+        return super.iterator();
+    }
+
+    @Override
+    public ListIterator<Attributes> listIterator() {
+        parseEncodedItems();
+        return super.listIterator();
+    }
+
+    @Override
+    public ListIterator<Attributes> listIterator(int index) {
+        parseEncodedItems();
+        return super.listIterator(index);
+    }
+
+    @Override
+    public List<Attributes> subList(int fromIndex, int toIndex) {
+        parseEncodedItems();
+        return super.subList(fromIndex, toIndex);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Attributes> action) {
+        parseEncodedItems();
+        super.forEach(action);
+    }
+
+    @Override
+    public Spliterator<Attributes> spliterator() {
+        parseEncodedItems();
+        return super.spliterator();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Attributes> filter) {
+        ensureModifiable();
+        return super.removeIf(filter);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        ensureModifiable();
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        ensureModifiable();
+        return super.retainAll(c);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Attributes> operator) {
+        ensureModifiable();
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public void sort(Comparator<? super Attributes> c) {
+        ensureModifiable();
+        super.sort(c);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        parseEncodedItems();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        parseEncodedItems();
+        return super.hashCode();
+    }
+
     @Override
     public int indexOf(Object o) {
         ListIterator<Attributes> it = listIterator();
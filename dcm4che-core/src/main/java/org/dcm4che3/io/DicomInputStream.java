@@ -39,7 +39,9 @@
 package org.dcm4che3.io;
 
 import org.dcm4che3.data.*;
+import org.dcm4che3.util.ByteArrayPool;
 import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.SafeBuffer;
 import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StreamUtils;
 import org.dcm4che3.util.TagUtils;
@@ -47,6 +49,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -116,6 +127,11 @@ public class DicomInputStream extends FilterInputStream
     private boolean includeBulkDataURI;
 
     private boolean catBlkFiles = true;
+    private boolean lazySequences;
+    private boolean memoryMappedBulkData;
+    private FileChannel mappedChannel;
+    private MappedByteBuffer mappedWindow;
+    private long mappedWindowPos;
     private String blkFilePrefix = "blk";
     private String blkFileSuffix;
     private File blkDirectory;
@@ -245,6 +261,39 @@ public class DicomInputStream extends FilterInputStream
         this.catBlkFiles = catBlkFiles;
     }
 
+    public final boolean isLazySequences() {
+        return lazySequences;
+    }
+
+    /**
+     * Enables lazy parsing of Sequences. If enabled, only the element headers of Sequence Items are scanned;
+     * the Items are kept encoded in the returned {@link Attributes} and only parsed on first access of the
+     * {@link Sequence}. Values of other attributes are always kept encoded until accessed.
+     * <p>
+     * Only effective if no custom {@link DicomInputHandler} is set and {@link #getIncludeBulkData()} is
+     * {@link IncludeBulkData#YES}.
+     *
+     * @param lazySequences {@code true} to defer parsing of Sequence Items until their first access
+     */
+    public final void setLazySequences(boolean lazySequences) {
+        this.lazySequences = lazySequences;
+    }
+
+    public final boolean isMemoryMappedBulkData() {
+        return memoryMappedBulkData;
+    }
+
+    /**
+     * Enables memory-mapping of bulk data. If enabled, bulk data read with {@link IncludeBulkData#URI} from a
+     * file is returned as {@link MappedBulkData}, exposing the value as read-only slice of the memory-mapped
+     * file. Has no effect if the data set is not read from a file or is deflated.
+     *
+     * @param memoryMappedBulkData {@code true} to return bulk data as {@link MappedBulkData}
+     */
+    public final void setMemoryMappedBulkData(boolean memoryMappedBulkData) {
+        this.memoryMappedBulkData = memoryMappedBulkData;
+    }
+
     public final List<File> getBulkDataFiles() {
         if (blkFiles != null)
             return blkFiles;
@@ -338,9 +387,22 @@ public class DicomInputStream extends FilterInputStream
     @Override
     public void close() throws IOException {
         SafeClose.close(blkOut);
+        SafeClose.close(mappedChannel);
+        mappedChannel = null;
+        mappedWindow = null;
+        if (byteBuf != null) {
+            ByteArrayPool.getDefault().release(byteBuf);
+            byteBuf = null;
+        }
         super.close();
     }
 
+    private byte[] byteBuf() {
+        if (byteBuf == null)
+            byteBuf = ByteArrayPool.getDefault().acquire(BYTE_BUF_LENGTH);
+        return byteBuf;
+    }
+
     @Override
     public synchronized void mark(int readlimit) {
         super.mark(readlimit);
@@ -399,9 +461,7 @@ public class DicomInputStream extends FilterInputStream
                     ("off < 0 || len < 0 || off + len > s.length!");
         }
 
-        if (byteBuf == null)
-            byteBuf = new byte[BYTE_BUF_LENGTH];
-
+        byte[] byteBuf = byteBuf();
         while (len > 0) {
             int nelts = Math.min(len, byteBuf.length/2);
             readFully(byteBuf, 0, nelts*2);
@@ -631,7 +691,10 @@ public class DicomInputStream extends FilterInputStream
     public BulkData createBulkData(DicomInputStream dis) throws IOException {
             BulkData bulkData;
         if (uri != null && !(super.in instanceof InflaterInputStream)) {
-            bulkData = new BulkData(uri, pos, length, bigEndian);
+            ByteBuffer mapped = memoryMappedBulkData ? map(pos, length) : null;
+            bulkData = mapped != null
+                    ? new MappedBulkData(uri, pos, mapped, bigEndian)
+                    : new BulkData(uri, pos, length, bigEndian);
             skipFully(length);
         } else {
             if (blkOut == null) {
@@ -645,7 +708,7 @@ public class DicomInputStream extends FilterInputStream
                 blkOutPos = 0L;
             }
             try {
-                StreamUtils.copy(this, blkOut, length);
+                StreamUtils.copy(this, blkOut, length, byteBuf());
             } finally {
                 if (!catBlkFiles) {
                     SafeClose.close(blkOut);
@@ -658,6 +721,33 @@ public class DicomInputStream extends FilterInputStream
         return bulkData;
     }
 
+    private ByteBuffer map(long offset, int len) throws IOException {
+        if (mappedWindow == null || offset < mappedWindowPos
+                || offset + len > mappedWindowPos + mappedWindow.capacity()) {
+            if (mappedChannel == null) {
+                Path path;
+                try {
+                    path = Paths.get(new URI(uri));
+                } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+                    LOG.info("Cannot memory-map bulk data of {} - fall back to BulkData", uri);
+                    memoryMappedBulkData = false;
+                    return null;
+                }
+                mappedChannel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            long size = Math.min(mappedChannel.size() - offset, Integer.MAX_VALUE);
+            if (size < len)
+                throw new EOFException();
+            mappedWindow = mappedChannel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+            mappedWindowPos = offset;
+        }
+        ByteBuffer buf = mappedWindow.duplicate();
+        int start = (int) (offset - mappedWindowPos);
+        SafeBuffer.limit(buf, start + len);
+        SafeBuffer.position(buf, start);
+        return buf.slice();
+    }
+
     private boolean isBulkData(Attributes attrs) {
         return bulkDataDescriptor.isBulkData(itemPointers,
                 attrs.getPrivateCreator(tag), tag, vr, length);
@@ -723,6 +813,10 @@ public class DicomInputStream extends FilterInputStream
             attrs.setNull(sqtag, VR.SQ);
             return;
         }
+        if (isLazySequence()) {
+            readLazySequence(len, attrs, sqtag);
+            return;
+        }
         Sequence seq = attrs.newSequence(sqtag, 10);
         String privateCreator = attrs.getPrivateCreator(sqtag);
         boolean undefLen = len == -1;
@@ -747,6 +841,82 @@ public class DicomInputStream extends FilterInputStream
             seq.trimToSize();
     }
 
+    private boolean isLazySequence() {
+        return lazySequences && handler == this && includeBulkData == IncludeBulkData.YES
+                && !(super.in instanceof ObjectInputStream);
+    }
+
+    private void readLazySequence(int len, Attributes attrs, int sqtag) throws IOException {
+        boolean explicitVR0 = explicitVR;
+        boolean bigEndian0 = bigEndian;
+        if (encodedVR == 0x554e // UN
+                && !probeExplicitVR()) {
+            explicitVR = false;
+            bigEndian = false;
+        }
+        String tsuid = explicitVR
+                ? bigEndian ? UID.ExplicitVRBigEndian : UID.ExplicitVRLittleEndian
+                : UID.ImplicitVRLittleEndian;
+        String privateCreator = attrs.getPrivateCreator(sqtag);
+        boolean undefLen = len == -1;
+        long endPos = pos + (len & 0xffffffffL);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len > 0 ? Math.min(len, 0x10000) : 256);
+        for (int i = 0; (undefLen || pos < endPos) && readItemHeader(); ++i) {
+            addItemPointer(sqtag, privateCreator, i);
+            copyAttributeTo(out);
+            removeItemPointer();
+        }
+        explicitVR = explicitVR0;
+        bigEndian = bigEndian0;
+        if (out.size() == 0)
+            attrs.setNull(sqtag, VR.SQ);
+        else
+            attrs.newLazySequence(privateCreator, sqtag, out.toByteArray(), tsuid);
+    }
+
+    private void copyAttributeTo(ByteArrayOutputStream out) throws IOException {
+        byte[] buf = buffer;
+        if (pos - tagPos == 12) {
+            out.write(buf, 0, 4);
+            out.write(encodedVR >> 8);
+            out.write(encodedVR);
+            out.write(0);
+            out.write(0);
+            out.write(buf, 4, 4);
+        } else {
+            out.write(buf, 0, 8);
+        }
+        if (length != -1) {
+            copyValueTo(out, length);
+            return;
+        }
+        boolean explicitVR0 = explicitVR;
+        boolean bigEndian0 = bigEndian;
+        if (encodedVR == 0x554e // UN
+                && !probeExplicitVR()) {
+            explicitVR = false;
+            bigEndian = false;
+        }
+        int nestedTag;
+        do {
+            readHeader();
+            nestedTag = tag;
+            copyAttributeTo(out);
+        } while (nestedTag != Tag.ItemDelimitationItem && nestedTag != Tag.SequenceDelimitationItem);
+        explicitVR = explicitVR0;
+        bigEndian = bigEndian0;
+    }
+
+    private void copyValueTo(ByteArrayOutputStream out, int len) throws IOException {
+        byte[] byteBuf = byteBuf();
+        while (len > 0) {
+            int n = Math.min(len, byteBuf.length);
+            readFully(byteBuf, 0, n);
+            out.write(byteBuf, 0, n);
+            len -= n;
+        }
+    }
+
     private boolean probeExplicitVR() throws IOException {
         byte[] buf = new byte[14];
         if (in.markSupported()) {
@@ -45,6 +45,7 @@ import java.io.RandomAccessFile;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.io.DicomInputStream;
 import org.dcm4che3.io.RAFInputStreamAdapter;
@@ -210,7 +211,12 @@ public class DicomDirReader implements Closeable {
             boolean ignoreCaseOfPN, boolean matchNoValue)
             throws IOException {
         return findRecordInUse(getOffsetOfFirstRootDirectoryRecord(), ignorePrivate,
-                keys, ignoreCaseOfPN, matchNoValue);
+                compile(keys, ignoreCaseOfPN, matchNoValue));
+    }
+
+    public Attributes findRootDirectoryRecord(boolean ignorePrivate, MatchKeys keys)
+            throws IOException {
+        return findRecordInUse(getOffsetOfFirstRootDirectoryRecord(), ignorePrivate, keys);
     }
 
     public Attributes findRootDirectoryRecord(boolean ignorePrivate, Attributes keys,
@@ -225,9 +231,14 @@ public class DicomDirReader implements Closeable {
 
     public Attributes findNextDirectoryRecord(Attributes rec, boolean ignorePrivate,
             Attributes keys, boolean ignoreCaseOfPN, boolean matchNoValue) throws IOException {
+        return findNextDirectoryRecord(rec, ignorePrivate,
+                compile(keys, ignoreCaseOfPN, matchNoValue));
+    }
+
+    public Attributes findNextDirectoryRecord(Attributes rec, boolean ignorePrivate,
+            MatchKeys keys) throws IOException {
         return findRecordInUse(
-                rec.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0), ignorePrivate,
-                keys, ignoreCaseOfPN, matchNoValue);
+                rec.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0), ignorePrivate, keys);
     }
 
     public Attributes findLowerDirectoryRecordInUse(Attributes rec, boolean ignorePrivate)
@@ -238,9 +249,14 @@ public class DicomDirReader implements Closeable {
     public Attributes findLowerDirectoryRecord(Attributes rec, boolean ignorePrivate,
             Attributes keys, boolean ignoreCaseOfPN, boolean matchNoValue)
             throws IOException {
+        return findLowerDirectoryRecord(rec, ignorePrivate,
+                compile(keys, ignoreCaseOfPN, matchNoValue));
+    }
+
+    public Attributes findLowerDirectoryRecord(Attributes rec, boolean ignorePrivate,
+            MatchKeys keys) throws IOException {
         return findRecordInUse(
-                rec.getInt(Tag.OffsetOfReferencedLowerLevelDirectoryEntity, 0), ignorePrivate,
-                keys, ignoreCaseOfPN, matchNoValue);
+                rec.getInt(Tag.OffsetOfReferencedLowerLevelDirectoryEntity, 0), ignorePrivate, keys);
     }
 
     public Attributes findPatientRecord(String... ids) throws IOException {
@@ -361,7 +377,7 @@ public class DicomDirReader implements Closeable {
         return pk;
     }
 
-    private Attributes keys(RecordType type, Attributes attrs, RecordFactory recFact) {
+    private static Attributes keys(RecordType type, Attributes attrs, RecordFactory recFact) {
         int[] selection = recFact.getRecordKeys(type);
         Attributes keys = new Attributes(selection.length + 1);
         keys.setString(Tag.DirectoryRecordType, VR.CS, type.name());
@@ -369,7 +385,7 @@ public class DicomDirReader implements Closeable {
         return keys;
     }
 
-    private Attributes keys(Attributes attrs, RecordFactory recFact) {
+    private static Attributes keys(Attributes attrs, RecordFactory recFact) {
         int[] selection = recFact.getRecordKeys(RecordType.SR_DOCUMENT);
         Attributes keys = new Attributes(selection.length + 1);
         String[] iuids = attrs.getStrings(Tag.SOPInstanceUID);
@@ -379,20 +395,53 @@ public class DicomDirReader implements Closeable {
         return keys;
     }
 
-    private Attributes findRecordInUse(int offset, boolean ignorePrivate, Attributes keys,
-            boolean ignoreCaseOfPN, boolean matchNoValue)
+    /**
+     * Compiles matching keys for directory records of the specified type from the
+     * query keys of a C-FIND request, for repeated use by
+     * {@link #findRootDirectoryRecord(boolean, MatchKeys)},
+     * {@link #findNextDirectoryRecord(Attributes, boolean, MatchKeys)} and
+     * {@link #findLowerDirectoryRecord(Attributes, boolean, MatchKeys)}.
+     */
+    public static MatchKeys matchKeys(RecordType type, Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return MatchKeys.compile(keys(type, keys, recFact), ignoreCaseOfPN, matchNoValue);
+    }
+
+    /**
+     * Compiles matching keys for instance level directory records from the
+     * query keys of a C-FIND request.
+     *
+     * @see #matchKeys(RecordType, Attributes, RecordFactory, boolean, boolean)
+     */
+    public static MatchKeys matchInstanceKeys(Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return MatchKeys.compile(keys(keys, recFact), ignoreCaseOfPN, matchNoValue);
+    }
+
+    private static MatchKeys compile(Attributes keys, boolean ignoreCaseOfPN, boolean matchNoValue) {
+        return keys != null ? MatchKeys.compile(keys, ignoreCaseOfPN, matchNoValue) : null;
+    }
+
+    private Attributes findRecordInUse(int offset, boolean ignorePrivate, MatchKeys keys)
             throws IOException {
         while (offset != 0) {
             Attributes item = readRecord(offset);
             if (inUse(item) && !(ignorePrivate && isPrivate(item))
-                    && (keys == null || item.matches(keys, ignoreCaseOfPN, matchNoValue)))
+                    && (keys == null || item.matches(keys)))
                 return item;
             offset = item.getInt(Tag.OffsetOfTheNextDirectoryRecord, 0);
         }
         return null;
     }
 
-    private synchronized Attributes readRecord(int offset) throws IOException {
+    /**
+     * Reads the directory record at the specified offset, or returns it from
+     * the cache of already read records.
+     *
+     * @param offset offset of the directory record in the DICOMDIR file
+     * @return the directory record or {@code null}, if {@code offset} is 0
+     */
+    public synchronized Attributes readRecord(int offset) throws IOException {
         if (offset == 0)
             return null;
 
@@ -0,0 +1,134 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.util;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Pool of {@code byte[]} buffers for transient use, like copy buffers of streams or PDU buffers of Associations.
+ * <p>
+ * A buffer obtained by {@link #acquire(int)} may be longer than requested. It must not be accessed after it was
+ * passed to {@link #release(byte[])}, and must be released at most once. Buffers which are handed over to other
+ * components - like attribute values stored in {@link org.dcm4che3.data.Attributes} - must not be released.
+ * <p>
+ * The default pool is the first implementation found by {@link ServiceLoader}, or a
+ * {@link SizeClassByteArrayPool} with default configuration. It can be replaced by {@link #setDefault}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public abstract class ByteArrayPool {
+
+    /**
+     * Pool which always allocates new buffers and discards released buffers.
+     */
+    public static final ByteArrayPool NONE = new ByteArrayPool() {
+        @Override
+        public byte[] acquire(int minLength) {
+            return new byte[minLength];
+        }
+
+        @Override
+        public void release(byte[] b) {
+        }
+
+        @Override
+        public long getHitCount() {
+            return 0L;
+        }
+
+        @Override
+        public long getMissCount() {
+            return 0L;
+        }
+    };
+
+    private static volatile ByteArrayPool defaultPool;
+
+    public static ByteArrayPool getDefault() {
+        ByteArrayPool pool = defaultPool;
+        if (pool == null) {
+            synchronized (ByteArrayPool.class) {
+                if ((pool = defaultPool) == null)
+                    defaultPool = pool = loadDefault();
+            }
+        }
+        return pool;
+    }
+
+    public static void setDefault(ByteArrayPool pool) {
+        if (pool == null)
+            throw new NullPointerException("pool");
+        defaultPool = pool;
+    }
+
+    private static ByteArrayPool loadDefault() {
+        Iterator<ByteArrayPool> iter = ServiceLoader.load(ByteArrayPool.class).iterator();
+        return iter.hasNext() ? iter.next() : new SizeClassByteArrayPool();
+    }
+
+    /**
+     * Returns a buffer with at least the specified length.
+     *
+     * @param minLength minimal length of the buffer
+     * @return buffer with at least the specified length
+     */
+    public abstract byte[] acquire(int minLength);
+
+    /**
+     * Returns a buffer obtained by {@link #acquire(int)} to the pool.
+     *
+     * @param b buffer to release
+     */
+    public abstract void release(byte[] b);
+
+    /**
+     * Returns the number of {@link #acquire(int)} calls served by a pooled buffer.
+     */
+    public abstract long getHitCount();
+
+    /**
+     * Returns the number of {@link #acquire(int)} calls which allocated a new buffer.
+     */
+    public abstract long getMissCount();
+}
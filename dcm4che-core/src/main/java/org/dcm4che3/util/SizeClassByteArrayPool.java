@@ -0,0 +1,189 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ByteArrayPool} with size classes of powers of two. A buffer released by the thread which acquired it is
+ * first kept in a per-thread slot of its size class, if it is not larger than {@link #getMaxThreadLocalLength()}.
+ * Otherwise - in particular if it is released by another thread - it is kept in a bounded queue of its size class
+ * shared by all threads. Requested lengths exceeding {@link #getMaxLength()} are allocated without pooling.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class SizeClassByteArrayPool extends ByteArrayPool {
+
+    public static final int DEF_MIN_LENGTH = 0x100; // 256B
+    public static final int DEF_MAX_LENGTH = 0x400000; // 4MiB
+    public static final int DEF_MAX_THREAD_LOCAL_LENGTH = 0x10000; // 64KiB
+    public static final int DEF_MAX_POOLED_BYTES_PER_SIZE_CLASS = 0x1000000; // 16MiB
+
+    private final int minShift;
+    private final int maxLength;
+    private final int maxThreadLocalLength;
+    private final ArrayBlockingQueue<byte[]>[] queues;
+    private final ThreadLocal<Slots> threadLocal;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SizeClassByteArrayPool() {
+        this(DEF_MIN_LENGTH, DEF_MAX_LENGTH, DEF_MAX_THREAD_LOCAL_LENGTH, DEF_MAX_POOLED_BYTES_PER_SIZE_CLASS);
+    }
+
+    public SizeClassByteArrayPool(int minLength, int maxLength, int maxThreadLocalLength,
+            int maxPooledBytesPerSizeClass) {
+        if (minLength <= 0 || Integer.bitCount(minLength) != 1)
+            throw new IllegalArgumentException("minLength: " + minLength);
+        if (maxLength < minLength || Integer.bitCount(maxLength) != 1)
+            throw new IllegalArgumentException("maxLength: " + maxLength);
+        if (maxPooledBytesPerSizeClass <= 0)
+            throw new IllegalArgumentException("maxPooledBytesPerSizeClass: " + maxPooledBytesPerSizeClass);
+        this.minShift = Integer.numberOfTrailingZeros(minLength);
+        this.maxLength = maxLength;
+        this.maxThreadLocalLength = maxThreadLocalLength;
+        int numSizeClasses = Integer.numberOfTrailingZeros(maxLength) - minShift + 1;
+        this.queues = newQueues(numSizeClasses);
+        for (int i = 0; i < numSizeClasses; i++)
+            queues[i] = new ArrayBlockingQueue<>(Math.max(1, maxPooledBytesPerSizeClass >>> (minShift + i)));
+        int numThreadLocal = maxThreadLocalLength < minLength ? 0
+                : Integer.numberOfTrailingZeros(Integer.highestOneBit(Math.min(maxThreadLocalLength, maxLength)))
+                        - minShift + 1;
+        this.threadLocal = ThreadLocal.withInitial(() -> new Slots(numThreadLocal));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBlockingQueue<byte[]>[] newQueues(int numSizeClasses) {
+        return (ArrayBlockingQueue<byte[]>[]) new ArrayBlockingQueue<?>[numSizeClasses];
+    }
+
+    public final int getMinLength() {
+        return 1 << minShift;
+    }
+
+    public final int getMaxLength() {
+        return maxLength;
+    }
+
+    public final int getMaxThreadLocalLength() {
+        return maxThreadLocalLength;
+    }
+
+    @Override
+    public byte[] acquire(int minLength) {
+        if (minLength > maxLength) {
+            misses.increment();
+            return new byte[minLength];
+        }
+        int sizeClass = sizeClassOf(minLength);
+        Slots slots = threadLocal.get();
+        byte[] b;
+        if (sizeClass < slots.cached.length && (b = slots.cached[sizeClass]) != null) {
+            slots.cached[sizeClass] = null;
+            hits.increment();
+        } else if ((b = queues[sizeClass].poll()) != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            b = new byte[1 << (minShift + sizeClass)];
+        }
+        if (sizeClass < slots.lent.length)
+            slots.lent[sizeClass] = b;
+        return b;
+    }
+
+    @Override
+    public void release(byte[] b) {
+        int length = b.length;
+        if (length > maxLength || length < (1 << minShift) || Integer.bitCount(length) != 1)
+            return;
+
+        int sizeClass = Integer.numberOfTrailingZeros(length) - minShift;
+        Slots slots = threadLocal.get();
+        if (sizeClass < slots.lent.length && slots.lent[sizeClass] == b) {
+            slots.lent[sizeClass] = null;
+            if (slots.cached[sizeClass] == null) {
+                slots.cached[sizeClass] = b;
+                return;
+            }
+        }
+        queues[sizeClass].offer(b);
+    }
+
+    private int sizeClassOf(int length) {
+        int shift = length > 1 ? 32 - Integer.numberOfLeadingZeros(length - 1) : 0;
+        return Math.max(shift - minShift, 0);
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Per-thread slots of size classes not larger than {@link #getMaxThreadLocalLength()}: the released buffer
+     * kept for the thread, and the buffer last acquired by the thread, which identifies a release by the acquiring
+     * thread.
+     */
+    private static final class Slots {
+        final byte[][] cached;
+        final byte[][] lent;
+
+        Slots(int numSizeClasses) {
+            cached = new byte[numSizeClasses][];
+            lent = new byte[numSizeClasses][];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SizeClassByteArrayPool[min=" + getMinLength() + ", max=" + maxLength
+                + ", hits=" + hits.sum() + ", misses=" + misses.sum() + ']';
+    }
+}
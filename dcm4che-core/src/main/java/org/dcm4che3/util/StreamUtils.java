@@ -97,7 +97,13 @@ public class StreamUtils {
 
     public static  void copy(InputStream in, OutputStream out)
             throws IOException {
-        copy(in, out, new byte[COPY_BUFFER_SIZE]);
+        ByteArrayPool pool = ByteArrayPool.getDefault();
+        byte[] buf = pool.acquire(COPY_BUFFER_SIZE);
+        try {
+            copy(in, out, buf);
+        } finally {
+            pool.release(buf);
+        }
     }
 
     public static  void copy(InputStream in, OutputStream out, int len, byte buf[]) throws IOException {
@@ -121,7 +127,13 @@ public class StreamUtils {
     }
 
     public static  void copy(InputStream in, OutputStream out, long len) throws IOException {
-        copy(in, out, (long) len, new byte[(int) Math.min(len, COPY_BUFFER_SIZE)]);
+        ByteArrayPool pool = ByteArrayPool.getDefault();
+        byte[] buf = pool.acquire((int) Math.min(len, COPY_BUFFER_SIZE));
+        try {
+            copy(in, out, len, buf);
+        } finally {
+            pool.release(buf);
+        }
     }
 
     public static void copy(InputStream in, OutputStream out, int len,
@@ -162,8 +174,13 @@ public class StreamUtils {
 
     public static void copy(InputStream in, OutputStream out, int len,
             int swapBytes) throws IOException {
-        copy(in, out, len, swapBytes,
-                new byte[Math.min(len, COPY_BUFFER_SIZE)]);
+        ByteArrayPool pool = ByteArrayPool.getDefault();
+        byte[] buf = pool.acquire(Math.min(len, COPY_BUFFER_SIZE));
+        try {
+            copy(in, out, len, swapBytes, buf);
+        } finally {
+            pool.release(buf);
+        }
     }
 
     public static InputStream openFileOrURL(String name) throws IOException {
@@ -0,0 +1,114 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.util;
+
+/**
+ * Compiled DICOM wildcard pattern, where {@code *} matches any sequence of
+ * characters, including the empty sequence, and {@code ?} matches any single
+ * character. Unlike {@link StringUtils#compilePattern}, matching does not
+ * involve {@link java.util.regex.Pattern} and does not allocate.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public final class WildcardPattern {
+
+    private final char[] pattern;
+    private final boolean ignoreCase;
+
+    private WildcardPattern(String pattern, boolean ignoreCase) {
+        this.pattern = pattern.toCharArray();
+        this.ignoreCase = ignoreCase;
+    }
+
+    public static WildcardPattern compile(String pattern, boolean ignoreCase) {
+        return new WildcardPattern(pattern, ignoreCase);
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public boolean matches(CharSequence s) {
+        char[] p = pattern;
+        int plen = p.length;
+        int slen = s.length();
+        int pi = 0;
+        int si = 0;
+        int star = -1;
+        int backtrack = 0;
+        while (si < slen) {
+            if (pi < plen) {
+                char pc = p[pi];
+                if (pc == '*') {
+                    star = pi++;
+                    backtrack = si;
+                    continue;
+                }
+                if (pc == '?' || equals(pc, s.charAt(si))) {
+                    pi++;
+                    si++;
+                    continue;
+                }
+            }
+            if (star < 0)
+                return false;
+            pi = star + 1;
+            si = ++backtrack;
+        }
+        while (pi < plen && p[pi] == '*')
+            pi++;
+        return pi == plen;
+    }
+
+    private boolean equals(char pc, char sc) {
+        return pc == sc || ignoreCase
+                && (Character.toUpperCase(pc) == Character.toUpperCase(sc)
+                    || Character.toLowerCase(pc) == Character.toLowerCase(sc));
+    }
+
+    @Override
+    public String toString() {
+        return new String(pattern);
+    }
+}
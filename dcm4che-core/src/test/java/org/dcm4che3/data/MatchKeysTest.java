@@ -0,0 +1,139 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class MatchKeysTest {
+
+    private static Attributes record() {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.PatientName, VR.PN, "Doe^John^^^");
+        attrs.setString(Tag.PatientID, VR.LO, "4711");
+        attrs.setString(Tag.StudyDate, VR.DA, "20040615");
+        attrs.setString(Tag.ModalitiesInStudy, VR.CS, "CT", "MR");
+        Attributes item = new Attributes();
+        item.setString(Tag.CodeValue, VR.SH, "T-A0100");
+        item.setString(Tag.CodingSchemeDesignator, VR.SH, "SRT");
+        attrs.newSequence(Tag.AnatomicRegionSequence, 1).add(item);
+        return attrs;
+    }
+
+    private static Attributes keys(int tag, VR vr, String... vals) {
+        Attributes keys = new Attributes();
+        keys.setString(tag, vr, vals);
+        return keys;
+    }
+
+    private static boolean matches(Attributes keys, boolean ignorePNCase, boolean matchNoValue) {
+        boolean expected = record().matches(keys, ignorePNCase, matchNoValue);
+        assertEquals(expected, MatchKeys.compile(keys, ignorePNCase, matchNoValue).matches(record()));
+        return expected;
+    }
+
+    @Test
+    public void testPersonName() {
+        assertTrue(matches(keys(Tag.PatientName, VR.PN, "Doe^John"), false, false));
+        assertTrue(matches(keys(Tag.PatientName, VR.PN, " Doe ^John^"), false, false));
+        assertFalse(matches(keys(Tag.PatientName, VR.PN, "DOE^JOHN"), false, false));
+        assertTrue(matches(keys(Tag.PatientName, VR.PN, "DOE^JOHN"), true, false));
+        assertTrue(matches(keys(Tag.PatientName, VR.PN, "d*^j?hn"), true, false));
+        assertFalse(matches(keys(Tag.PatientName, VR.PN, "d*^j?hn"), false, false));
+    }
+
+    @Test
+    public void testMultipleValues() {
+        assertTrue(matches(keys(Tag.PatientID, VR.LO, "0815", "4711"), false, false));
+        assertTrue(matches(keys(Tag.ModalitiesInStudy, VR.CS, "M?"), false, false));
+        assertFalse(matches(keys(Tag.ModalitiesInStudy, VR.CS, "US", "XA"), false, false));
+    }
+
+    @Test
+    public void testDateRange() {
+        assertTrue(matches(keys(Tag.StudyDate, VR.DA, "20040101-20041231"), false, false));
+        assertTrue(matches(keys(Tag.StudyDate, VR.DA, "20040615"), false, false));
+        assertTrue(matches(keys(Tag.StudyDate, VR.DA, "-20040615"), false, false));
+        assertFalse(matches(keys(Tag.StudyDate, VR.DA, "20040616-"), false, false));
+    }
+
+    @Test
+    public void testMatchNoValue() {
+        Attributes keys = keys(Tag.AccessionNumber, VR.SH, "A*");
+        assertFalse(matches(keys, false, false));
+        assertTrue(matches(keys, false, true));
+    }
+
+    @Test
+    public void testSequence() {
+        Attributes keys = new Attributes();
+        Attributes item = new Attributes();
+        item.setString(Tag.CodeValue, VR.SH, "T-A0100");
+        keys.newSequence(Tag.AnatomicRegionSequence, 1).add(item);
+        assertTrue(matches(keys, false, false));
+        item.setString(Tag.CodingSchemeDesignator, VR.SH, "DCM");
+        assertFalse(matches(keys, false, false));
+    }
+
+    @Test
+    public void testUniversalMatching() {
+        Attributes keys = new Attributes();
+        keys.setNull(Tag.PatientName, VR.PN);
+        keys.setNull(Tag.AccessionNumber, VR.SH);
+        assertTrue(MatchKeys.compile(keys, false, false).isEmpty());
+        assertTrue(matches(keys, false, false));
+    }
+
+    @Test
+    public void testIsNormalizedPN() {
+        for (String s : new String[]{ "", "Doe", "Doe^John", "^John", "Doe^^^^Jr.", "=Yamada",
+                "Doe^John=Yamada^Tarou=", "Doe^John ^", " Doe", "Doe^^", "Doe^=Yamada", "Doe=^", "A=B=C=D",
+                "Doe^John Robert" })
+            assertEquals(s, new PersonName(s, true).toString().equals(s), MatchKeys.isNormalizedPN(s));
+    }
+}
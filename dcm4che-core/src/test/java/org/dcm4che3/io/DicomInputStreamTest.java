@@ -1,14 +1,19 @@
 package org.dcm4che3.io;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 
 import org.dcm4che3.data.*;
 import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
+import org.dcm4che3.util.StreamUtils;
 import org.junit.Test;
 
 /**
@@ -16,6 +21,8 @@ import org.junit.Test;
  */
 public class DicomInputStreamTest {
 
+    private static final String PRIVATE_CREATOR = "LAZY SEQUENCE TEST";
+
     @Test
     public void testPart10ExplicitVR() throws Exception {
         Attributes attrs = readFrom("DICOMDIR", IncludeBulkData.YES);
@@ -79,6 +86,127 @@ public class DicomInputStreamTest {
         }
     }
 
+    @Test
+    public void testLazySequences() throws Exception {
+        for (String name : new String[]{ "DICOMDIR", "report_dfl", "US-RGB-8-epicard", "OT-PAL-8-face" }) {
+            Attributes expected = readFrom(name, IncludeBulkData.YES);
+            Attributes lazy = readLazyFrom(name);
+            assertEquals(name, expected, lazy);
+        }
+    }
+
+    @Test
+    public void testLazySequenceParsedOnAccess() throws Exception {
+        Attributes attrs = readLazyFrom("report_dfl");
+        Sequence seq = (Sequence) attrs.getValue(Tag.ContentSequence);
+        assertTrue(seq.isLazy());
+        assertEquals(5, seq.size());
+        assertFalse(seq.isLazy());
+        Sequence nested = (Sequence) seq.get(2).getValue(Tag.ContentSequence);
+        assertNotNull(nested);
+        assertTrue(nested.isLazy());
+        Attributes expected = readFrom("report_dfl", IncludeBulkData.YES);
+        Sequence expectedNested = expected.getSequence(Tag.ContentSequence).get(2).getSequence(Tag.ContentSequence);
+        assertEquals(expectedNested.size(), nested.size());
+        assertFalse(nested.isLazy());
+        assertEquals(expectedNested, nested);
+    }
+
+    @Test
+    public void testLazyPrivateSequence() throws Exception {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.PatientID, VR.LO, "P1");
+        Sequence seq = attrs.newSequence(PRIVATE_CREATOR, 0x00091010, 2);
+        Attributes item1 = new Attributes();
+        item1.setString(Tag.PatientName, VR.PN, "Doe^John");
+        seq.add(item1);
+        Attributes item2 = new Attributes();
+        item2.newSequence(PRIVATE_CREATOR, 0x00091020, 1).add(new Attributes(item1));
+        seq.add(item2);
+        for (DicomEncodingOptions encOpts : new DicomEncodingOptions[]{
+                DicomEncodingOptions.DEFAULT,
+                new DicomEncodingOptions(false, false, false, false, false) }) {
+            Attributes lazy = readLazyFrom(writeDataset(attrs, encOpts));
+            Sequence lazySeq = lazy.getSequence(PRIVATE_CREATOR, 0x00091010);
+            assertNotNull(lazySeq);
+            assertTrue(lazySeq.isLazy());
+            assertEquals(2, lazySeq.size());
+            assertFalse(lazySeq.isLazy());
+            assertEquals(PRIVATE_CREATOR, lazySeq.get(0).getParentSequencePrivateCreator());
+            assertEquals("Doe^John", lazySeq.get(0).getString(Tag.PatientName));
+            Sequence nested = lazySeq.get(1).getSequence(PRIVATE_CREATOR, 0x00091020);
+            assertNotNull(nested);
+            assertTrue(nested.isLazy());
+            assertEquals(1, nested.size());
+            assertEquals("Doe^John", nested.get(0).getString(Tag.PatientName));
+            assertEquals(attrs, lazy);
+        }
+    }
+
+    @Test
+    public void testLazySequenceWriteTo() throws Exception {
+        Attributes attrs = readLazyFrom("DICOMDIR");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(out, UID.ExplicitVRLittleEndian)) {
+            dos.writeDataset(null, attrs);
+        }
+        try (DicomInputStream in = new DicomInputStream(new ByteArrayInputStream(out.toByteArray()),
+                UID.ExplicitVRLittleEndian)) {
+            assertEquals(44, in.readDataset().getSequence(Tag.DirectoryRecordSequence).size());
+        }
+    }
+
+    @Test
+    public void testMemoryMappedBulkData() throws Exception {
+        Attributes expected = readFrom("US-PAL-8-10x-echo", IncludeBulkData.YES);
+        Attributes attrs;
+        try (DicomInputStream in = new DicomInputStream(new File("target/test-data/US-PAL-8-10x-echo"))) {
+            in.setIncludeBulkData(IncludeBulkData.URI);
+            in.setMemoryMappedBulkData(true);
+            attrs = in.readDataset();
+        }
+        Fragments expectedFrags = (Fragments) expected.getValue(Tag.PixelData);
+        Fragments frags = (Fragments) attrs.getValue(Tag.PixelData);
+        assertEquals(expectedFrags.size(), frags.size());
+        for (int i = 1; i < frags.size(); i++) {
+            MappedBulkData bulkData = (MappedBulkData) frags.get(i);
+            byte[] expectedBytes = (byte[]) expectedFrags.get(i);
+            assertArrayEquals(expectedBytes, bulkData.toBytes(VR.OB, false));
+            ByteBuffer buf = bulkData.toByteBuffer();
+            assertTrue(buf.isReadOnly());
+            assertEquals(expectedBytes.length, buf.remaining());
+            byte[] fromStream = new byte[expectedBytes.length];
+            try (InputStream in = bulkData.openStream()) {
+                StreamUtils.readFully(in, fromStream, 0, fromStream.length);
+                assertEquals(-1, in.read());
+            }
+            assertArrayEquals(expectedBytes, fromStream);
+        }
+    }
+
+    private static byte[] writeDataset(Attributes attrs, DicomEncodingOptions encOpts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(out, UID.ExplicitVRLittleEndian)) {
+            dos.setEncodingOptions(encOpts);
+            dos.writeDataset(null, attrs);
+        }
+        return out.toByteArray();
+    }
+
+    private static Attributes readLazyFrom(byte[] b) throws IOException {
+        try (DicomInputStream in = new DicomInputStream(new ByteArrayInputStream(b), UID.ExplicitVRLittleEndian)) {
+            in.setLazySequences(true);
+            return in.readDataset();
+        }
+    }
+
+    private static Attributes readLazyFrom(String name) throws Exception {
+        try (DicomInputStream in = new DicomInputStream(new File("target/test-data/" + name))) {
+            in.setLazySequences(true);
+            return in.readDataset();
+        }
+    }
+
     private static Attributes readFrom(String name, IncludeBulkData includeBulkData) throws Exception {
         try ( DicomInputStream in = new DicomInputStream(new File("target/test-data/" + name))) {
             in.setIncludeBulkData(includeBulkData);
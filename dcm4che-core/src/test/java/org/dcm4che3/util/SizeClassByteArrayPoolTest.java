@@ -0,0 +1,126 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class SizeClassByteArrayPoolTest {
+
+    @Test
+    public void testAcquireRoundsUpToSizeClass() {
+        SizeClassByteArrayPool pool = new SizeClassByteArrayPool(256, 0x10000, 0x1000, 0x100000);
+        assertEquals(256, pool.acquire(0).length);
+        assertEquals(256, pool.acquire(256).length);
+        assertEquals(512, pool.acquire(257).length);
+        assertEquals(16384, pool.acquire(16378).length);
+        assertEquals(0x10001, pool.acquire(0x10001).length);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(5, pool.getMissCount());
+    }
+
+    @Test
+    public void testThreadLocalHit() {
+        SizeClassByteArrayPool pool = new SizeClassByteArrayPool(256, 0x10000, 0x1000, 0x100000);
+        byte[] b = pool.acquire(1000);
+        pool.release(b);
+        assertSame(b, pool.acquire(1000));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+    }
+
+    @Test
+    public void testSharedHit() throws Exception {
+        SizeClassByteArrayPool pool = new SizeClassByteArrayPool(256, 0x10000, 0x1000, 0x100000);
+        byte[] b = pool.acquire(0x8000);
+        CompletableFuture.runAsync(() -> pool.release(b)).get();
+        assertSame(b, pool.acquire(0x8000));
+        byte[] small = pool.acquire(300);
+        CompletableFuture.runAsync(() -> pool.release(small)).get();
+        assertSame("not kept by releasing thread", small, pool.acquire(300));
+        assertEquals(2, pool.getHitCount());
+    }
+
+    @Test
+    public void testThreadLocalOnlyForAcquiringThread() throws Exception {
+        SizeClassByteArrayPool pool = new SizeClassByteArrayPool(256, 0x10000, 0x1000, 0x100000);
+        byte[] b = pool.acquire(1000);
+        pool.release(b);
+        assertNotSame(b, CompletableFuture.supplyAsync(() -> pool.acquire(1000)).get());
+        byte[] other = CompletableFuture.supplyAsync(() -> pool.acquire(1000)).get();
+        pool.release(other);
+        assertSame(b, pool.acquire(1000));
+        assertSame(other, pool.acquire(1000));
+    }
+
+    @Test
+    public void testReleaseForeignBuffer() {
+        SizeClassByteArrayPool pool = new SizeClassByteArrayPool(256, 0x10000, 0x1000, 0x100000);
+        pool.release(new byte[1000]);
+        pool.release(new byte[0x20000]);
+        pool.release(new byte[128]);
+        pool.acquire(1000);
+        pool.acquire(128);
+        assertEquals(0, pool.getHitCount());
+    }
+
+    @Test
+    public void testBoundedSizeClass() {
+        SizeClassByteArrayPool pool = new SizeClassByteArrayPool(256, 0x10000, 0, 0x10000);
+        byte[][] bs = new byte[3][];
+        for (int i = 0; i < bs.length; i++)
+            bs[i] = pool.acquire(0x8000);
+        for (byte[] b : bs)
+            pool.release(b);
+        for (int i = 0; i < bs.length; i++)
+            pool.acquire(0x8000);
+        assertEquals(2, pool.getHitCount());
+        assertEquals(4, pool.getMissCount());
+    }
+}
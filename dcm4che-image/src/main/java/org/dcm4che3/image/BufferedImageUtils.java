@@ -54,6 +54,7 @@ import java.awt.image.*;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -86,6 +87,20 @@ public class BufferedImageUtils {
     }
     
     public static BufferedImage convertYBRtoRGB(BufferedImage src, BufferedImage dst) {
+        return convertYBRtoRGB(src, dst, null);
+    }
+
+    /**
+     * Convert YBR image to RGB. Rasters of unsigned byte data with {@link ComponentSampleModel}s, or with a
+     * {@link SampledComponentSampleModel} of YBR 4:2:2 pixel data, are converted by {@link RGBConverter}, optionally
+     * splitting rows across the specified {@code ForkJoinPool}.
+     *
+     * @param src  YBR image
+     * @param dst  RGB image or {@code null}
+     * @param pool fork-join pool used to convert rows in parallel or {@code null}
+     * @return RGB image
+     */
+    public static BufferedImage convertYBRtoRGB(BufferedImage src, BufferedImage dst, ForkJoinPool pool) {
         if (src.getColorModel().getTransferType() != DataBuffer.TYPE_BYTE) {
             throw new UnsupportedOperationException(
                 "Cannot convert color model to RGB: unsupported transferType" + src.getColorModel().getTransferType());
@@ -108,6 +123,13 @@ public class BufferedImageUtils {
         WritableRaster raster = src.getRaster();
         ColorSpace cs = src.getColorModel().getColorSpace();
         ColorSpace dstcs = dst.getColorModel().getColorSpace();
+        if (cs instanceof YBRColorSpace && dstcs.isCS_sRGB()) {
+            RGBConverter converter = RGBConverter.of(((YBRColorSpace) cs).getYBR());
+            if (converter.isSupported(raster, rasterDst)) {
+                converter.convert(raster, rasterDst, pool);
+                return dst;
+            }
+        }
         byte[] ba = new byte[3];
         float[] fba = new float[3];
         for (int y = 0; y < height; y++) {
@@ -128,6 +150,19 @@ public class BufferedImageUtils {
     }
 
     public static BufferedImage convertPalettetoRGB(BufferedImage src, BufferedImage dst) {
+        return convertPalettetoRGB(src, dst, null);
+    }
+
+    /**
+     * Convert Palette Color image to RGB. Rasters with {@link ComponentSampleModel}s are converted by
+     * {@link RGBConverter}, optionally splitting rows across the specified {@code ForkJoinPool}.
+     *
+     * @param src  Palette Color image
+     * @param dst  RGB image or {@code null}
+     * @param pool fork-join pool used to convert rows in parallel or {@code null}
+     * @return RGB image
+     */
+    public static BufferedImage convertPalettetoRGB(BufferedImage src, BufferedImage dst, ForkJoinPool pool) {
         ColorModel pcm = src.getColorModel();
         if (!(pcm instanceof PaletteColorModel || pcm instanceof IndexColorModel)) {
             throw new UnsupportedOperationException(
@@ -146,6 +181,11 @@ public class BufferedImageUtils {
         }
         WritableRaster rasterDst = dst.getRaster();
         WritableRaster raster = src.getRaster();
+        RGBConverter converter = RGBConverter.of(pcm);
+        if (converter.isSupported(raster, rasterDst)) {
+            converter.convert(raster, rasterDst, pool);
+            return dst;
+        }
         byte[] b = new byte[3];
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
@@ -62,6 +62,7 @@ public class PaletteColorModel extends ColorModel {
     private static final int[] opaqueBits = {8, 8, 8};
 
     private final LUT lut;
+    private transient volatile int[] rgbTable;
 
     public PaletteColorModel(int bits, int dataType, ColorSpace cs,
             Attributes ds) {
@@ -289,6 +290,19 @@ public class PaletteColorModel extends ColorModel {
                     w, h, 1, null);
     }
 
+    /**
+     * Returns the RGB values of all pixel values, used by {@link RGBConverter}.
+     */
+    int[] rgbTable() {
+        int[] rgb = rgbTable;
+        if (rgb == null)
+            rgbTable = rgb = lut instanceof LUT.Packed && ((LUT.Packed) lut).offset == 0
+                    && ((LUT.Packed) lut).rgb.length == 1 << pixel_bits
+                    ? ((LUT.Packed) lut).rgb
+                    : RGBConverter.rgbTable(this);
+        return rgb;
+    }
+
     public BufferedImage convertToIntDiscrete(Raster raster) {
         if (!isCompatibleRaster(raster))
             throw new IllegalArgumentException(
@@ -0,0 +1,454 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.image;
+
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Converts YBR or Palette Color pixel data to RGB, operating directly on the {@code byte[]} resp. {@code short[]}
+ * arrays of banked or interleaved rasters, or - for YBR_FULL and YBR_PARTIAL - of rasters with horizontally
+ * subsampled chroma ({@link ColorSubsampling#YBR_XXX_422}). YBR is converted by precomputed fixed-point lookup
+ * tables, Palette Color by a lookup table of packed RGB values. Rows may be split across a {@link ForkJoinPool}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public abstract class RGBConverter {
+
+    private static final int MIN_PIXELS_PER_TASK = 1 << 16;
+
+    public static final RGBConverter YBR_FULL = new YBRTable(YBR.FULL);
+
+    public static final RGBConverter YBR_PARTIAL = new YBRTable(YBR.PARTIAL);
+
+    /**
+     * Irreversible Color Transformation of JPEG 2000, which uses the same coefficients as YBR_FULL.
+     */
+    public static final RGBConverter YBR_ICT = YBR_FULL;
+
+    /**
+     * Reversible Color Transformation of JPEG 2000.
+     */
+    public static final RGBConverter YBR_RCT = new RCT();
+
+    public static RGBConverter of(YBR ybr) {
+        return ybr == YBR.FULL ? YBR_FULL : YBR_PARTIAL;
+    }
+
+    /**
+     * Returns the converter for the specified Photometric Interpretation.
+     *
+     * @param pmi YBR Photometric Interpretation
+     * @return converter for the specified Photometric Interpretation
+     * @throws IllegalArgumentException if the specified Photometric Interpretation is not YBR
+     */
+    public static RGBConverter of(PhotometricInterpretation pmi) {
+        switch (pmi) {
+            case YBR_FULL:
+                return YBR_FULL;
+            case YBR_FULL_422:
+            case YBR_PARTIAL_420:
+            case YBR_PARTIAL_422:
+                // consistent with PhotometricInterpretation#createColorModel
+                return YBR_PARTIAL;
+            case YBR_ICT:
+                return YBR_ICT;
+            case YBR_RCT:
+                return YBR_RCT;
+        }
+        throw new IllegalArgumentException("Not YBR: " + pmi);
+    }
+
+    /**
+     * Returns converter of pixel data with the specified {@link PaletteColorModel} or
+     * {@link java.awt.image.IndexColorModel}.
+     *
+     * @param cm Palette Color Model
+     * @return converter of pixel data with the specified Palette Color Model
+     */
+    public static RGBConverter of(ColorModel cm) {
+        return new Palette(cm instanceof PaletteColorModel
+                ? ((PaletteColorModel) cm).rgbTable()
+                : rgbTable(cm));
+    }
+
+    static int[] rgbTable(ColorModel cm) {
+        int[] rgb = new int[1 << cm.getPixelSize()];
+        for (int i = 0; i < rgb.length; i++)
+            rgb[i] = cm.getRGB(i);
+        return rgb;
+    }
+
+    /**
+     * Returns if the specified rasters are supported by {@link #convert}: both rasters have to use a
+     * {@link ComponentSampleModel} - interleaved or banked - of unsigned byte data, with 3 bands for the destination
+     * raster and 3 bands - or for Palette Color 1 band of unsigned byte or short data - for the source raster. For
+     * YBR_FULL and YBR_PARTIAL, the source raster may also use a {@link SampledComponentSampleModel} with
+     * {@link ColorSubsampling#YBR_XXX_422} of even width, starting at an even column.
+     *
+     * @param src source raster
+     * @param dst destination raster
+     * @return {@code true} if the specified rasters are supported
+     */
+    public boolean isSupported(Raster src, Raster dst) {
+        return src.getWidth() == dst.getWidth() && src.getHeight() == dst.getHeight()
+                && isSupportedSource(src)
+                && dst.getSampleModel() instanceof ComponentSampleModel
+                && dst.getNumBands() == 3
+                && dst.getDataBuffer() instanceof DataBufferByte;
+    }
+
+    boolean isSupportedSource(Raster src) {
+        SampleModel sm = src.getSampleModel();
+        return sm instanceof ComponentSampleModel && sm.getNumBands() == 3
+                && src.getDataBuffer() instanceof DataBufferByte;
+    }
+
+    public void convert(Raster src, WritableRaster dst) {
+        convert(src, dst, null);
+    }
+
+    /**
+     * Convert pixel data of the source raster to RGB in the destination raster.
+     *
+     * @param src  source raster
+     * @param dst  destination raster
+     * @param pool fork-join pool used to convert rows in parallel or {@code null}
+     * @throws IllegalArgumentException if the specified rasters are not {@link #isSupported supported}
+     */
+    public void convert(Raster src, WritableRaster dst, ForkJoinPool pool) {
+        if (!isSupported(src, dst))
+            throw new IllegalArgumentException("Unsupported rasters: " + src + ", " + dst);
+
+        Pixels in = new Pixels(src);
+        Pixels out = new Pixels(dst);
+        int width = src.getWidth();
+        int height = src.getHeight();
+        if (pool == null || (long) width * height < MIN_PIXELS_PER_TASK << 1)
+            convertRows(in, out, width, 0, height);
+        else
+            pool.invoke(new Rows(in, out, width, 0, height, Math.max(1, MIN_PIXELS_PER_TASK / width)));
+    }
+
+    abstract void convertRows(Pixels in, Pixels out, int width, int y0, int y1);
+
+    private static int clamp(int v) {
+        return v < 0 ? 0 : v > 255 ? 255 : v;
+    }
+
+    static final class Pixels {
+        final Object[] data;
+        final int[] offsets;
+        final int pixelStride;
+        final int scanlineStride;
+        final boolean subsampled;
+
+        Pixels(Raster raster) {
+            if (raster.getSampleModel() instanceof SampledComponentSampleModel) {
+                // YBR_XXX_422: Y0 Y1 Cb Cr per pair of pixels
+                DataBufferByte db = (DataBufferByte) raster.getDataBuffer();
+                pixelStride = 2;
+                scanlineStride = raster.getSampleModel().getWidth() * 2;
+                data = new Object[]{ db.getData() };
+                offsets = new int[]{ db.getOffset()
+                        + (raster.getMinY() - raster.getSampleModelTranslateY()) * scanlineStride
+                        + (raster.getMinX() - raster.getSampleModelTranslateX()) * pixelStride };
+                subsampled = true;
+                return;
+            }
+            subsampled = false;
+            ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+            DataBuffer db = raster.getDataBuffer();
+            int numBands = sm.getNumBands();
+            int[] bankIndices = sm.getBankIndices();
+            int[] bandOffsets = sm.getBandOffsets();
+            pixelStride = sm.getPixelStride();
+            scanlineStride = sm.getScanlineStride();
+            int origin = (raster.getMinY() - raster.getSampleModelTranslateY()) * scanlineStride
+                    + (raster.getMinX() - raster.getSampleModelTranslateX()) * pixelStride;
+            data = new Object[numBands];
+            offsets = new int[numBands];
+            for (int b = 0; b < numBands; b++) {
+                int bank = bankIndices[b];
+                data[b] = db instanceof DataBufferByte
+                        ? ((DataBufferByte) db).getData(bank)
+                        : ((DataBufferUShort) db).getData(bank);
+                offsets[b] = db.getOffsets()[bank] + bandOffsets[b] + origin;
+            }
+        }
+
+        byte[] bytes(int band) {
+            return (byte[]) data[band];
+        }
+    }
+
+    private final class Rows extends RecursiveAction {
+        private static final long serialVersionUID = -3174592378416598230L;
+
+        private final Pixels in;
+        private final Pixels out;
+        private final int width;
+        private final int y0;
+        private final int y1;
+        private final int minRows;
+
+        Rows(Pixels in, Pixels out, int width, int y0, int y1, int minRows) {
+            this.in = in;
+            this.out = out;
+            this.width = width;
+            this.y0 = y0;
+            this.y1 = y1;
+            this.minRows = minRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (y1 - y0 <= minRows) {
+                convertRows(in, out, width, y0, y1);
+            } else {
+                int mid = (y0 + y1) >>> 1;
+                invokeAll(new Rows(in, out, width, y0, mid, minRows), new Rows(in, out, width, mid, y1, minRows));
+            }
+        }
+    }
+
+    private static final class YBRTable extends RGBConverter {
+        private static final int SHIFT = 16;
+        private static final int ROUND = 1 << (SHIFT - 1);
+
+        // [R|G|B][Y|Cb|Cr][0..255], constant terms and rounding folded into the Y tables
+        private final int[][][] tables = new int[3][3][256];
+
+        YBRTable(YBR ybr) {
+            double[] m = ybr.toRGBMatrix();
+            for (int rgbIndex = 0; rgbIndex < 3; rgbIndex++) {
+                for (int c = 0; c < 3; c++) {
+                    double a = m[rgbIndex * 4 + c] * (1 << SHIFT);
+                    double b = c == 0 ? m[rgbIndex * 4 + 3] * 255 * (1 << SHIFT) + ROUND : 0;
+                    int[] table = tables[rgbIndex][c];
+                    for (int i = 0; i < 256; i++)
+                        table[i] = (int) Math.floor(a * i + b);
+                }
+            }
+        }
+
+        @Override
+        boolean isSupportedSource(Raster src) {
+            if (!(src.getSampleModel() instanceof SampledComponentSampleModel))
+                return super.isSupportedSource(src);
+
+            SampledComponentSampleModel sm = (SampledComponentSampleModel) src.getSampleModel();
+            return sm.getSubsampling() == ColorSubsampling.YBR_XXX_422
+                    && (sm.getWidth() & 1) == 0
+                    && ((src.getMinX() - src.getSampleModelTranslateX()) & 1) == 0;
+        }
+
+        @Override
+        void convertRows(Pixels in, Pixels out, int width, int y0, int y1) {
+            if (in.subsampled) {
+                convertRows422(in, out, width, y0, y1);
+                return;
+            }
+            byte[] ya = in.bytes(0), cba = in.bytes(1), cra = in.bytes(2);
+            byte[] ra = out.bytes(0), ga = out.bytes(1), ba = out.bytes(2);
+            int[] rY = tables[0][0], rCb = tables[0][1], rCr = tables[0][2];
+            int[] gY = tables[1][0], gCb = tables[1][1], gCr = tables[1][2];
+            int[] bY = tables[2][0], bCb = tables[2][1], bCr = tables[2][2];
+            int inStride = in.pixelStride, outStride = out.pixelStride;
+            for (int y = y0; y < y1; y++) {
+                int yi = in.offsets[0] + y * in.scanlineStride;
+                int cbi = in.offsets[1] + y * in.scanlineStride;
+                int cri = in.offsets[2] + y * in.scanlineStride;
+                int ri = out.offsets[0] + y * out.scanlineStride;
+                int gi = out.offsets[1] + y * out.scanlineStride;
+                int bi = out.offsets[2] + y * out.scanlineStride;
+                for (int x = 0; x < width; x++) {
+                    int l = ya[yi] & 0xff;
+                    int cb = cba[cbi] & 0xff;
+                    int cr = cra[cri] & 0xff;
+                    ra[ri] = (byte) clamp((rY[l] + rCb[cb] + rCr[cr]) >> SHIFT);
+                    ga[gi] = (byte) clamp((gY[l] + gCb[cb] + gCr[cr]) >> SHIFT);
+                    ba[bi] = (byte) clamp((bY[l] + bCb[cb] + bCr[cr]) >> SHIFT);
+                    yi += inStride;
+                    cbi += inStride;
+                    cri += inStride;
+                    ri += outStride;
+                    gi += outStride;
+                    bi += outStride;
+                }
+            }
+        }
+
+        /**
+         * Converts pixel pairs sharing one Cb and Cr sample, which is applied to both pixels - as by
+         * {@link SampledComponentSampleModel#getDataElements} - so the chroma terms are only looked up once per pair.
+         */
+        private void convertRows422(Pixels in, Pixels out, int width, int y0, int y1) {
+            byte[] src = in.bytes(0);
+            byte[] ra = out.bytes(0), ga = out.bytes(1), ba = out.bytes(2);
+            int[] rY = tables[0][0], rCb = tables[0][1], rCr = tables[0][2];
+            int[] gY = tables[1][0], gCb = tables[1][1], gCr = tables[1][2];
+            int[] bY = tables[2][0], bCb = tables[2][1], bCr = tables[2][2];
+            int outStride = out.pixelStride;
+            for (int y = y0; y < y1; y++) {
+                int si = in.offsets[0] + y * in.scanlineStride;
+                int ri = out.offsets[0] + y * out.scanlineStride;
+                int gi = out.offsets[1] + y * out.scanlineStride;
+                int bi = out.offsets[2] + y * out.scanlineStride;
+                for (int x = 0; x < width; x += 2, si += 4) {
+                    int cb = src[si + 2] & 0xff;
+                    int cr = src[si + 3] & 0xff;
+                    int rc = rCb[cb] + rCr[cr];
+                    int gc = gCb[cb] + gCr[cr];
+                    int bc = bCb[cb] + bCr[cr];
+                    int l = src[si] & 0xff;
+                    ra[ri] = (byte) clamp((rY[l] + rc) >> SHIFT);
+                    ga[gi] = (byte) clamp((gY[l] + gc) >> SHIFT);
+                    ba[bi] = (byte) clamp((bY[l] + bc) >> SHIFT);
+                    ri += outStride;
+                    gi += outStride;
+                    bi += outStride;
+                    if (x + 1 < width) {
+                        l = src[si + 1] & 0xff;
+                        ra[ri] = (byte) clamp((rY[l] + rc) >> SHIFT);
+                        ga[gi] = (byte) clamp((gY[l] + gc) >> SHIFT);
+                        ba[bi] = (byte) clamp((bY[l] + bc) >> SHIFT);
+                        ri += outStride;
+                        gi += outStride;
+                        bi += outStride;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class RCT extends RGBConverter {
+
+        @Override
+        void convertRows(Pixels in, Pixels out, int width, int y0, int y1) {
+            byte[] ya = in.bytes(0), cba = in.bytes(1), cra = in.bytes(2);
+            byte[] ra = out.bytes(0), ga = out.bytes(1), ba = out.bytes(2);
+            int inStride = in.pixelStride, outStride = out.pixelStride;
+            for (int y = y0; y < y1; y++) {
+                int yi = in.offsets[0] + y * in.scanlineStride;
+                int cbi = in.offsets[1] + y * in.scanlineStride;
+                int cri = in.offsets[2] + y * in.scanlineStride;
+                int ri = out.offsets[0] + y * out.scanlineStride;
+                int gi = out.offsets[1] + y * out.scanlineStride;
+                int bi = out.offsets[2] + y * out.scanlineStride;
+                for (int x = 0; x < width; x++) {
+                    int cb = (cba[cbi] & 0xff) - 128;
+                    int cr = (cra[cri] & 0xff) - 128;
+                    int g = (ya[yi] & 0xff) - ((cb + cr) >> 2);
+                    ra[ri] = (byte) clamp(cr + g);
+                    ga[gi] = (byte) clamp(g);
+                    ba[bi] = (byte) clamp(cb + g);
+                    yi += inStride;
+                    cbi += inStride;
+                    cri += inStride;
+                    ri += outStride;
+                    gi += outStride;
+                    bi += outStride;
+                }
+            }
+        }
+    }
+
+    private static final class Palette extends RGBConverter {
+        private final int[] rgb;
+        private final int mask;
+
+        Palette(int[] rgb) {
+            this.rgb = rgb;
+            this.mask = rgb.length - 1;
+        }
+
+        @Override
+        boolean isSupportedSource(Raster src) {
+            SampleModel sm = src.getSampleModel();
+            DataBuffer db = src.getDataBuffer();
+            return sm instanceof ComponentSampleModel && sm.getNumBands() == 1
+                    && (db instanceof DataBufferByte || db instanceof DataBufferUShort);
+        }
+
+        @Override
+        void convertRows(Pixels in, Pixels out, int width, int y0, int y1) {
+            byte[] ra = out.bytes(0), ga = out.bytes(1), ba = out.bytes(2);
+            int inStride = in.pixelStride, outStride = out.pixelStride;
+            byte[] bytes = in.data[0] instanceof byte[] ? in.bytes(0) : null;
+            short[] shorts = bytes == null ? (short[]) in.data[0] : null;
+            for (int y = y0; y < y1; y++) {
+                int pi = in.offsets[0] + y * in.scanlineStride;
+                int ri = out.offsets[0] + y * out.scanlineStride;
+                int gi = out.offsets[1] + y * out.scanlineStride;
+                int bi = out.offsets[2] + y * out.scanlineStride;
+                if (bytes != null) {
+                    for (int x = 0; x < width; x++, pi += inStride, ri += outStride, gi += outStride,
+                            bi += outStride) {
+                        int v = rgb[(bytes[pi] & 0xff) & mask];
+                        ra[ri] = (byte) (v >> 16);
+                        ga[gi] = (byte) (v >> 8);
+                        ba[bi] = (byte) v;
+                    }
+                } else {
+                    for (int x = 0; x < width; x++, pi += inStride, ri += outStride, gi += outStride,
+                            bi += outStride) {
+                        int v = rgb[(shorts[pi] & 0xffff) & mask];
+                        ra[ri] = (byte) (v >> 16);
+                        ga[gi] = (byte) (v >> 8);
+                        ba[bi] = (byte) v;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -90,6 +90,14 @@ public enum YBR {
         1.1644154634373545, 2.017290682233469, -1.3527300480981362E-4, -1.0813536710791642, 
     };
 
+    /**
+     * Returns coefficients of the conversion to RGB as 3x4 matrix in row-major order: the 4th column contains the
+     * constant term, values are normalized to [0,1].
+     */
+    double[] toRGBMatrix() {
+        return this == FULL ? FROM_YBR_FULL : FROM_YBR_PARTIAL;
+    }
+
     public abstract float[] toRGB(float[] ybr);
 
     public abstract float[] fromRGB(float[] rgb);
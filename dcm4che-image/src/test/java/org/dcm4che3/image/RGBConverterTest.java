@@ -0,0 +1,305 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.image;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares {@link RGBConverter} with the per-pixel {@link ColorSpace} path of {@link BufferedImageUtils}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class RGBConverterTest {
+
+    private static final int WIDTH = 512;
+    private static final int HEIGHT = 512;
+    private static final ColorSpace SRGB = ColorSpace.getInstance(ColorSpace.CS_sRGB);
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setUpClass() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testYBRFullInterleaved() {
+        testYBR(ybrImage(YBR.FULL, WIDTH, HEIGHT, false));
+    }
+
+    @Test
+    public void testYBRFullBanked() {
+        testYBR(ybrImage(YBR.FULL, WIDTH, HEIGHT, true));
+    }
+
+    @Test
+    public void testYBRPartialInterleaved() {
+        testYBR(ybrImage(YBR.PARTIAL, WIDTH, HEIGHT, false));
+    }
+
+    @Test
+    public void testYBRPartialBanked() {
+        testYBR(ybrImage(YBR.PARTIAL, WIDTH, HEIGHT, true));
+    }
+
+    @Test
+    public void testYBRFull422() {
+        testYBR(ybrImage(PhotometricInterpretation.YBR_FULL_422, WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void testYBRPartial422() {
+        testYBR(ybrImage(PhotometricInterpretation.YBR_PARTIAL_422, WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void testAllYBRValues() {
+        for (YBR ybr : YBR.values()) {
+            RGBConverter converter = RGBConverter.of(ybr);
+            BufferedImage src = ybrImage(ybr, 4096, 4096, false);
+            byte[] data = ((DataBufferByte) src.getRaster().getDataBuffer()).getData();
+            for (int i = 0, v = 0; i < data.length; v++) {
+                data[i++] = (byte) (v >> 16);
+                data[i++] = (byte) (v >> 8);
+                data[i++] = (byte) v;
+            }
+            BufferedImage dst = rgbImage(4096, 4096, false);
+            converter.convert(src.getRaster(), dst.getRaster(), pool);
+            assertMaxDiff(1, perPixel(src), dst);
+        }
+    }
+
+    @Test
+    public void testRCT() {
+        Random rnd = new Random(0);
+        BufferedImage src = ybrImage(YBR.FULL, WIDTH, HEIGHT, false);
+        BufferedImage expected = rgbImage(WIDTH, HEIGHT, false);
+        WritableRaster raster = src.getRaster();
+        WritableRaster rgbRaster = expected.getRaster();
+        int[] rgb = new int[3];
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++) {
+                int g = rnd.nextInt(256);
+                int r = Math.max(0, Math.min(255, g - 128 + rnd.nextInt(256)));
+                int b = Math.max(0, Math.min(255, g - 128 + rnd.nextInt(256)));
+                rgbRaster.setPixel(x, y, new int[]{ r, g, b });
+                rgb[0] = (r + 2 * g + b) >> 2;
+                rgb[1] = b - g + 128;
+                rgb[2] = r - g + 128;
+                raster.setPixel(x, y, rgb);
+            }
+        for (boolean banked : new boolean[]{ false, true }) {
+            BufferedImage dst = rgbImage(WIDTH, HEIGHT, banked);
+            RGBConverter.YBR_RCT.convert(raster, dst.getRaster());
+            assertMaxDiff(0, expected, dst);
+            dst = rgbImage(WIDTH, HEIGHT, banked);
+            RGBConverter.YBR_RCT.convert(raster, dst.getRaster(), pool);
+            assertMaxDiff(0, expected, dst);
+        }
+    }
+
+    @Test
+    public void testPalette8() {
+        testPalette(8, DataBuffer.TYPE_BYTE);
+    }
+
+    @Test
+    public void testPalette16() {
+        testPalette(16, DataBuffer.TYPE_USHORT);
+    }
+
+    @Test
+    public void testOddWidth422NotSupported() {
+        BufferedImage src = ybrImage(PhotometricInterpretation.YBR_FULL_422, WIDTH - 1, 2);
+        RGBConverter converter = RGBConverter.of(YBR.PARTIAL);
+        assertFalse(converter.isSupported(src.getRaster(), rgbImage(WIDTH - 1, 2, false).getRaster()));
+    }
+
+    private static void testYBR(BufferedImage src) {
+        BufferedImage expected = perPixel(src);
+        RGBConverter converter = RGBConverter.of(((YBRColorSpace) src.getColorModel().getColorSpace()).getYBR());
+        for (boolean dstBanked : new boolean[]{ false, true }) {
+            BufferedImage dst = rgbImage(WIDTH, HEIGHT, dstBanked);
+            assertTrue(converter.isSupported(src.getRaster(), dst.getRaster()));
+            converter.convert(src.getRaster(), dst.getRaster());
+            assertMaxDiff(1, expected, dst);
+            BufferedImage parallel = rgbImage(WIDTH, HEIGHT, dstBanked);
+            converter.convert(src.getRaster(), parallel.getRaster(), pool);
+            assertMaxDiff(0, dst, parallel);
+        }
+        assertMaxDiff(1, expected, BufferedImageUtils.convertYBRtoRGB(src, null, pool));
+        WritableRaster child = src.getRaster().createWritableChild(64, 32, 128, 64, 0, 0, null);
+        BufferedImage childImage = new BufferedImage(src.getColorModel(), child, false, null);
+        assertMaxDiff(1, perPixel(childImage), BufferedImageUtils.convertYBRtoRGB(childImage, null));
+    }
+
+    private static void testPalette(int bits, int dataType) {
+        Random rnd = new Random(0);
+        int size = 1 << bits;
+        byte[] r = new byte[size];
+        byte[] g = new byte[size];
+        byte[] b = new byte[size];
+        rnd.nextBytes(r);
+        rnd.nextBytes(g);
+        rnd.nextBytes(b);
+        IndexColorModel cm = new IndexColorModel(bits, size, r, g, b);
+        WritableRaster raster = Raster.createInterleavedRaster(dataType, WIDTH, HEIGHT, 1, null);
+        DataBuffer db = raster.getDataBuffer();
+        for (int i = 0; i < db.getSize(); i++)
+            db.setElem(i, rnd.nextInt(size));
+        BufferedImage src = new BufferedImage(cm, raster, false, null);
+        BufferedImage expected = rgbImage(WIDTH, HEIGHT, false);
+        WritableRaster expectedRaster = expected.getRaster();
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++) {
+                int rgb = cm.getRGB(raster.getSample(x, y, 0));
+                expectedRaster.setPixel(x, y, new int[]{ (rgb >> 16) & 0xff, (rgb >> 8) & 0xff, rgb & 0xff });
+            }
+        RGBConverter converter = RGBConverter.of(cm);
+        for (boolean banked : new boolean[]{ false, true }) {
+            BufferedImage dst = rgbImage(WIDTH, HEIGHT, banked);
+            assertTrue(converter.isSupported(raster, dst.getRaster()));
+            converter.convert(raster, dst.getRaster());
+            assertMaxDiff(0, expected, dst);
+            dst = rgbImage(WIDTH, HEIGHT, banked);
+            converter.convert(raster, dst.getRaster(), pool);
+            assertMaxDiff(0, expected, dst);
+        }
+        assertMaxDiff(0, expected, BufferedImageUtils.convertPalettetoRGB(src, null, pool));
+    }
+
+    private static BufferedImage ybrImage(YBR ybr, int width, int height, boolean banked) {
+        ColorModel cm = ColorModelFactory.createYBRFullColorModel(8, DataBuffer.TYPE_BYTE,
+                new YBRColorSpace(SRGB, ybr));
+        return randomImage(cm,
+                PhotometricInterpretation.YBR_FULL.createSampleModel(DataBuffer.TYPE_BYTE, width, height, 3, banked));
+    }
+
+    private static BufferedImage ybrImage(PhotometricInterpretation pmi, int width, int height) {
+        return randomImage(pmi.createColorModel(8, DataBuffer.TYPE_BYTE, SRGB, null),
+                pmi.createSampleModel(DataBuffer.TYPE_BYTE, width, height, 3, false));
+    }
+
+    private static BufferedImage randomImage(ColorModel cm, SampleModel sm) {
+        WritableRaster raster = Raster.createWritableRaster(sm, null);
+        DataBufferByte db = (DataBufferByte) raster.getDataBuffer();
+        Random rnd = new Random(0);
+        for (int bank = 0; bank < db.getNumBanks(); bank++)
+            rnd.nextBytes(db.getData(bank));
+        return new BufferedImage(cm, raster, false, null);
+    }
+
+    private static BufferedImage rgbImage(int width, int height, boolean banked) {
+        ColorModel cm = PhotometricInterpretation.RGB.createColorModel(8, DataBuffer.TYPE_BYTE, SRGB, null);
+        WritableRaster raster = Raster.createWritableRaster(
+                PhotometricInterpretation.RGB.createSampleModel(DataBuffer.TYPE_BYTE, width, height, 3, banked),
+                null);
+        return new BufferedImage(cm, raster, false, null);
+    }
+
+    /**
+     * Same conversion as the fallback of {@link BufferedImageUtils#convertYBRtoRGB}.
+     */
+    private static BufferedImage perPixel(BufferedImage src) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        BufferedImage dst = rgbImage(width, height, false);
+        Raster raster = src.getRaster();
+        WritableRaster rasterDst = dst.getRaster();
+        ColorSpace cs = src.getColorModel().getColorSpace();
+        ColorSpace dstcs = dst.getColorModel().getColorSpace();
+        byte[] ba = new byte[3];
+        float[] fba = new float[3];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.getDataElements(x, y, ba);
+                for (int i = 0; i < 3; i++)
+                    fba[i] = (ba[i] & 0xff) / 255f;
+                float[] color = dstcs.fromRGB(cs.toRGB(fba));
+                for (int i = 0; i < 3; i++)
+                    ba[i] = (byte) (color[i] * 255 + 0.5f);
+                rasterDst.setDataElements(x, y, ba);
+            }
+        }
+        return dst;
+    }
+
+    private static void assertMaxDiff(int maxDiff, BufferedImage expected, BufferedImage actual) {
+        Raster expectedRaster = expected.getRaster();
+        Raster actualRaster = actual.getRaster();
+        assertEquals(expectedRaster.getWidth(), actualRaster.getWidth());
+        assertEquals(expectedRaster.getHeight(), actualRaster.getHeight());
+        int[] e = new int[3];
+        int[] a = new int[3];
+        for (int y = 0; y < expectedRaster.getHeight(); y++)
+            for (int x = 0; x < expectedRaster.getWidth(); x++) {
+                expectedRaster.getPixel(x, y, e);
+                actualRaster.getPixel(x, y, a);
+                for (int b = 0; b < 3; b++)
+                    if (Math.abs(e[b] - a[b]) > maxDiff)
+                        fail("pixel[" + x + "," + y + "] band " + b + ": expected " + e[b] + " but was " + a[b]);
+            }
+    }
+}
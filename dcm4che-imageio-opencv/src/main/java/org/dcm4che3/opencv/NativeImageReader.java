@@ -41,6 +41,7 @@
 
 package org.dcm4che3.opencv;
 
+import java.awt.Rectangle;
 import java.awt.Transparency;
 import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
@@ -68,6 +69,7 @@ import org.dcm4che3.imageio.codec.ImageDescriptor;
 import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfDouble;
+import org.opencv.core.Rect;
 import org.opencv.imgcodecs.Imgcodecs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -248,7 +250,7 @@ public class NativeImageReader extends ImageReader implements Closeable {
 
     @Override
     public BufferedImage read(int imageIndex, ImageReadParam param) throws IOException {
-        PlanarImage img = getNativeImage(param);
+        PlanarImage img = cropToSourceRegion(getNativeImage(param), param);
         BufferedImage bufferedImage = ImageConversion.toBufferedImage(img);
         if (img != null) {
             img.release();
@@ -256,6 +258,32 @@ public class NativeImageReader extends ImageReader implements Closeable {
         return bufferedImage;
     }
 
+    /**
+     * Crops the decoded image to the source region of {@code param}, so only the pixels of the source region are
+     * converted to a {@link BufferedImage}. OpenCV does not provide a decode of a source region or of a reduced
+     * resolution, so the whole frame is still decoded. Source subsampling is not applied.
+     */
+    private static PlanarImage cropToSourceRegion(PlanarImage img, ImageReadParam param) {
+        Rectangle region = param != null ? param.getSourceRegion() : null;
+        if (img == null || region == null)
+            return img;
+
+        region = region.intersection(new Rectangle(img.width(), img.height()));
+        if (region.isEmpty() || region.width == img.width() && region.height == img.height())
+            return img;
+
+        Mat roi = null;
+        try {
+            roi = img.toMat().submat(new Rect(region.x, region.y, region.width, region.height));
+            ImageCV cropped = new ImageCV();
+            roi.copyTo(cropped);
+            return cropped;
+        } finally {
+            closeMat(roi);
+            img.release();
+        }
+    }
+
     private PlanarImage getNativeImage(ImageReadParam param) throws IOException {
         StreamSegment seg = StreamSegment.getStreamSegment(iis, param);
         ImageDescriptor desc = seg.getImageDescriptor();
@@ -107,6 +107,8 @@ public class RLEImageReader extends ImageReader {
         super.setInput(input, seekForwardOnly, ignoreMetadata);
         resetInternalState();
         iis = (ImageInputStream) input;
+        if (iis == null)
+            return;
         try {
             headerPos = iis.getStreamPosition();
         } catch (IOException e) {
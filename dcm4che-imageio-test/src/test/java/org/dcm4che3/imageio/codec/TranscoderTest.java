@@ -40,6 +40,7 @@
 
 package org.dcm4che3.imageio.codec;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -55,6 +56,7 @@ import org.dcm4che3.io.DicomInputStream;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -185,6 +187,13 @@ public class TranscoderTest {
         assertEquals(1, jpegPixelRepresentation("test16signed-J2KI.dcm"));
     }
 
+    @Test
+    public void testParallelDecompressPaletteMF() throws Exception {
+        assertArrayEquals(
+                transcode("US-PAL-8-10x-echo", UID.ExplicitVRLittleEndian, 1),
+                transcode("US-PAL-8-10x-echo", UID.ExplicitVRLittleEndian, 4));
+    }
+
     private int jpegBitsPerSample(String ofname) throws IOException {
         final File ofile = new File("target/test-out/" + ofname);
         long jpegPos = jpegPos(ofile);
@@ -210,6 +219,23 @@ public class TranscoderTest {
         }
     }
 
+    private static byte[] transcode(String ifname, String outts, int parallelism) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Transcoder.Handler handler = new Transcoder.Handler() {
+            @Override
+            public OutputStream newOutputStream(Transcoder transcoder, Attributes dataset) {
+                return out;
+            }
+        };
+        try (Transcoder transcoder = new Transcoder(new File("target/test-data/" + ifname))) {
+            transcoder.setIncludeFileMetaInformation(true);
+            transcoder.setDestinationTransferSyntax(outts);
+            transcoder.setParallelism(parallelism);
+            transcoder.transcode(handler);
+        }
+        return out.toByteArray();
+    }
+
     private void test(String ifname, String ofname, final String outts, boolean fmi)
             throws IOException {
         final File ifile = new File("target/test-data/" + ifname);
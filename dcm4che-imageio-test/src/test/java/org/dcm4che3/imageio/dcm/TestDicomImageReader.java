@@ -39,7 +39,10 @@
 package org.dcm4che3.imageio.dcm;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
 
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferUShort;
@@ -52,6 +55,7 @@ import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
 import javax.imageio.stream.FileImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 import javax.xml.bind.annotation.adapters.HexBinaryAdapter;
@@ -285,6 +289,39 @@ public class TestDicomImageReader {
         testReadRasterFromAttributes(CPLX_P02, 1, IncludeBulkData.URI);
     }
 
+    @Test
+    public void testReadSourceRegionFromCompressedImageInputStream() throws IOException {
+        testReadSourceRegion(US_MF_RLE);
+    }
+
+    @Test
+    public void testReadSourceRegionFromImageInputStream() throws IOException {
+        testReadSourceRegion(NM_MF);
+    }
+
+    private void testReadSourceRegion(String ifname) throws IOException {
+        try (FileImageInputStream iis = new FileImageInputStream(new File(TEST_DATA_DIR + ifname))) {
+            reader.setInput(iis);
+            Raster fullRaster = reader.readRaster(1, reader.getDefaultReadParam());
+            BufferedImage fullImage = reader.read(1, reader.getDefaultReadParam());
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(new Rectangle(10, 20, 40, 30));
+            param.setSourceSubsampling(2, 3, 1, 1);
+            Raster raster = reader.readRaster(1, param);
+            BufferedImage bi = reader.read(1, param);
+            assertEquals(20, raster.getWidth());
+            assertEquals(10, raster.getHeight());
+            assertEquals(20, bi.getWidth());
+            assertEquals(10, bi.getHeight());
+            for (int y = 0; y < 10; y++)
+                for (int x = 0; x < 20; x++) {
+                    assertEquals(fullRaster.getSample(11 + x * 2, 21 + y * 3, 0), raster.getSample(x, y, 0));
+                    if (fullImage.getColorModel().getNumComponents() > 1)
+                        assertEquals(fullImage.getRGB(11 + x * 2, 21 + y * 3), bi.getRGB(x, y));
+                }
+        }
+    }
+
     private Raster testReadRasterFromImageInputStream(String ifname, int imageIndex)
             throws IOException {
         FileImageInputStream iis = new FileImageInputStream(new File("target/test-data/" + ifname));
@@ -0,0 +1,112 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.codec;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.nio.ByteBuffer;
+
+/**
+ * Image input stream over the bytes of one compressed frame, read in advance from the encapsulated Pixel Data, so
+ * the frame can be decompressed independently of the stream it was read from.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+final class ByteBufferImageInputStream extends ImageInputStreamImpl
+        implements BytesWithImageImageDescriptor {
+
+    private final ByteBuffer bytes;
+    private final ImageDescriptor imageDescriptor;
+
+    public ByteBufferImageInputStream(ByteBuffer bytes, ImageDescriptor imageDescriptor) {
+        this.bytes = bytes.slice();
+        this.imageDescriptor = imageDescriptor;
+    }
+
+    @Override
+    public ImageDescriptor getImageDescriptor() {
+        return imageDescriptor;
+    }
+
+    @Override
+    public ByteBuffer getBytes() {
+        ByteBuffer bb = bytes.duplicate();
+        bb.position((int) Math.min(streamPos, bb.limit()));
+        return bb.slice();
+    }
+
+    @Override
+    public long length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public int read() {
+        if (streamPos >= bytes.limit())
+            return -1;
+
+        bitOffset = 0;
+        return bytes.get((int) streamPos++) & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off + len > b.length)
+            throw new IndexOutOfBoundsException();
+
+        if (len == 0)
+            return 0;
+
+        int remaining = bytes.limit() - (int) Math.min(streamPos, bytes.limit());
+        if (remaining <= 0)
+            return -1;
+
+        bitOffset = 0;
+        int n = Math.min(len, remaining);
+        ByteBuffer bb = bytes.duplicate();
+        bb.position((int) streamPos);
+        bb.get(b, off, n);
+        streamPos += n;
+        return n;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.codec;
+
+import org.dcm4che3.data.*;
+import org.dcm4che3.util.ByteUtils;
+import org.dcm4che3.util.TagUtils;
+
+import javax.imageio.stream.ImageInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Positions of the frames of encapsulated Pixel Data, which allows to seek to any frame without parsing the
+ * preceding Data Fragments. Offsets are relative to the first byte of the Item Tag of the first Data Fragment
+ * following the Basic Offset Table, as in the Basic and the Extended Offset Table. Lengths are the length of the
+ * (single) Data Fragment of each frame, or {@code -1} if unknown.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public final class FrameIndex implements Serializable {
+
+    private static final long serialVersionUID = -2390437893271694517L;
+
+    private final long[] offsets;
+    private final long[] lengths;
+
+    private FrameIndex(long[] offsets, long[] lengths) {
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    public static FrameIndex of(long[] offsets, long[] lengths) {
+        if (offsets.length != lengths.length)
+            throw new IllegalArgumentException("offsets.length: " + offsets.length
+                    + " != lengths.length: " + lengths.length);
+        return new FrameIndex(offsets.clone(), lengths.clone());
+    }
+
+    /**
+     * Returns frame index from the Extended Offset Table (7FE0,0001) and Extended Offset Table Lengths (7FE0,0002)
+     * of the specified Data Set.
+     *
+     * @param attrs Data Set
+     * @return frame index or {@code null}, if the Data Set does not contain a valid Extended Offset Table
+     */
+    public static FrameIndex fromExtendedOffsetTable(Attributes attrs) {
+        long[] offsets = attrs.getLongs(Tag.ExtendedOffsetTable);
+        long[] lengths = attrs.getLongs(Tag.ExtendedOffsetTableLengths);
+        if (offsets == null || offsets.length == 0 || lengths == null || lengths.length != offsets.length)
+            return null;
+
+        return new FrameIndex(offsets, lengths);
+    }
+
+    /**
+     * Returns frame index from the Basic Offset Table. Offsets of frames beyond 4 GB are assumed to wrap modulo
+     * 2<sup>32</sup>.
+     *
+     * @param basicOffsetTable value of the first Item of the encapsulated Pixel Data
+     * @param frames           Number of Frames
+     * @return frame index or {@code null}, if the Basic Offset Table is empty or does not contain an offset for
+     * each frame
+     */
+    public static FrameIndex fromBasicOffsetTable(byte[] basicOffsetTable, int frames) {
+        if (frames <= 0 || basicOffsetTable.length < frames * 4)
+            return null;
+
+        long[] offsets = new long[frames];
+        long lastOffset = 0;
+        for (int i = 0; i < frames; i++) {
+            long offset = ByteUtils.bytesToIntLE(basicOffsetTable, i * 4) & 0xffffffffL;
+            offset |= lastOffset & 0xffffffff00000000L;
+            if (offset < lastOffset)
+                offset += 0x100000000L;
+            offsets[i] = lastOffset = offset;
+        }
+        long[] lengths = new long[frames];
+        Arrays.fill(lengths, -1L);
+        return new FrameIndex(offsets, lengths);
+    }
+
+    /**
+     * Scans the Item headers of the Data Fragments of encapsulated Pixel Data. Applies the same rules as
+     * {@link org.dcm4che3.imageio.stream.EncapsulatedPixelDataImageInputStream} to detect frames spanning
+     * several Data Fragments.
+     *
+     * @param iis      stream containing the encapsulated Pixel Data
+     * @param start    stream position of the Item Tag of the first Data Fragment following the Basic Offset Table
+     * @param frames   Number of Frames
+     * @param tsType   Transfer Syntax Type of the encapsulated Pixel Data
+     * @return frame index
+     * @throws IOException if the stream does not contain Data Fragments of {@code frames} frames
+     */
+    public static FrameIndex scan(ImageInputStream iis, long start, int frames, TransferSyntaxType tsType)
+            throws IOException {
+        long[] offsets = new long[frames];
+        long[] lengths = new long[frames];
+        byte[] header = new byte[8];
+        int frame = -1;
+        int frameStartWord = -1;
+        long pos = start;
+        for (;;) {
+            iis.seek(pos);
+            iis.readFully(header);
+            int tag = ByteUtils.bytesToTagLE(header, 0);
+            if (tag == Tag.SequenceDelimitationItem)
+                break;
+            if (tag != Tag.Item)
+                throw new IOException("Expected Item at position " + pos + " but was " + TagUtils.toString(tag));
+            long length = ByteUtils.bytesToIntLE(header, 4) & 0xffffffffL;
+            int startWord = length >= 2 ? (iis.read() << 8) | iis.read() : -1;
+            if (frame < 0 || frames > 1 && frame + 1 < frames
+                    && (!tsType.mayFrameSpanMultipleFragments() || startWord == frameStartWord)) {
+                if (++frame == 0)
+                    frameStartWord = startWord;
+                offsets[frame] = pos - start;
+                lengths[frame] = length;
+            } else {
+                lengths[frame] = -1L;
+            }
+            pos += 8 + length;
+        }
+        if (frame + 1 < frames)
+            throw new EOFException("Data Fragments only contains " + (frame + 1) + " frames");
+        return new FrameIndex(offsets, lengths);
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * @param frameIndex index of the frame
+     * @return offset of the Item Tag of the first Data Fragment of the frame
+     */
+    public long offset(int frameIndex) {
+        return offsets[frameIndex];
+    }
+
+    /**
+     * @param frameIndex index of the frame
+     * @return length of the Data Fragment of the frame or {@code -1}, if the frame spans several Data Fragments
+     * or its length is unknown
+     */
+    public long length(int frameIndex) {
+        return lengths[frameIndex];
+    }
+
+    /**
+     * @return {@code true} if each frame is contained in one Data Fragment of known length, which is required for
+     * encoding the index as Extended Offset Table
+     */
+    public boolean isExtendedOffsetTableEncodable() {
+        for (long length : lengths)
+            if (length < 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Encodes frame index as Extended Offset Table (7FE0,0001) and Extended Offset Table Lengths (7FE0,0002) in the
+     * specified Data Set.
+     *
+     * @param attrs Data Set
+     * @throws IllegalStateException if a frame spans several Data Fragments or its length is unknown
+     */
+    public void setExtendedOffsetTable(Attributes attrs) {
+        if (!isExtendedOffsetTableEncodable())
+            throw new IllegalStateException("Frame lengths not known");
+
+        attrs.setLong(Tag.ExtendedOffsetTable, VR.OV, offsets.clone());
+        attrs.setLong(Tag.ExtendedOffsetTableLengths, VR.OV, lengths.clone());
+    }
+
+    /**
+     * Adds one Bulk Data referencing the (first) Data Fragment of each frame to the specified Fragments. The
+     * length of frames spanning several Data Fragments is set to the distance to the next frame, if known.
+     *
+     * @param fragments Fragments containing the Basic Offset Table
+     * @param start     stream position of the Item Tag of the first Data Fragment following the Basic Offset Table
+     */
+    public void addTo(Fragments fragments, long start) {
+        for (int i = 0; i < offsets.length; i++) {
+            long length = lengths[i];
+            if (length < 0 && i + 1 < offsets.length)
+                length = offsets[i + 1] - offsets[i] - 8;
+            BulkData frag = new BulkData("compressedPixelData://", start + offsets[i] + 8, -1, false);
+            if (length >= 0)
+                frag.setLength(length);
+            fragments.add(frag);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FrameIndex[frames=" + offsets.length + "]";
+    }
+}
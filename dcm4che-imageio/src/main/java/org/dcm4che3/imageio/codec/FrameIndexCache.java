@@ -0,0 +1,144 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.codec;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LRU cache of {@link FrameIndex} instances, keyed by file path, last modification time and size of the file, so
+ * a modified file invalidates its cached frame index.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class FrameIndexCache {
+
+    public static final int DEF_MAX_SIZE = 1000;
+
+    private static final FrameIndexCache defaultCache = new FrameIndexCache(DEF_MAX_SIZE);
+
+    private final LinkedHashMap<Key, FrameIndex> map = new LinkedHashMap<Key, FrameIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, FrameIndex> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private int maxSize;
+
+    public FrameIndexCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    public static FrameIndexCache getDefault() {
+        return defaultCache;
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public FrameIndex get(File file) {
+        Key key = new Key(file);
+        synchronized (this) {
+            return map.get(key);
+        }
+    }
+
+    public void put(File file, FrameIndex frameIndex) {
+        Key key = new Key(file);
+        Objects.requireNonNull(frameIndex);
+        synchronized (this) {
+            map.put(key, frameIndex);
+        }
+    }
+
+    public FrameIndex remove(File file) {
+        Key key = new Key(file);
+        synchronized (this) {
+            return map.remove(key);
+        }
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    private static final class Key {
+        final String path;
+        final long lastModified;
+        final long length;
+
+        Key(File file) {
+            this.path = file.getAbsolutePath();
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return lastModified == other.lastModified && length == other.length && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified, length);
+        }
+    }
+}
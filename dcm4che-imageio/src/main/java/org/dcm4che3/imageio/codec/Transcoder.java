@@ -57,12 +57,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
 import java.awt.color.ColorSpace;
 import java.awt.image.*;
 import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.*;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -142,29 +146,29 @@ public class Transcoder implements Closeable {
 
     private ImageReaderFactory.ImageReaderParam decompressorParam;
 
-    private ImageReader decompressor;
-
-    private ImageReadParam decompressParam;
-
     private ImageWriterFactory.ImageWriterParam compressorParam;
 
-    private ImageWriter compressor;
-
-    private ImageWriteParam compressParam;
+    private final List<Property> compressProperties = new ArrayList<>();
 
-    private ImageReader verifier;
+    private ImageReaderFactory.ImageReaderParam verifierParam;
 
-    private ImageReadParam verifyParam;
+    private final FrameCodec codec = new FrameCodec();
 
     private boolean ybr2rgb;
 
     private boolean palette2rgb;
 
-    private BufferedImage originalBi;
+    private ColorModel colorModel;
+
+    private int parallelism = 1;
+
+    private int maxFramesInFlight;
 
-    private BufferedImage bi;
+    private Executor executor;
 
-    private BufferedImage bi2;
+    private boolean extendedOffsetTable;
+
+    private List<ExtMemoryCacheImageOutputStream> pendingItems;
 
     private String pixelDataBulkDataURI;
 
@@ -261,6 +265,70 @@ public class Transcoder implements Closeable {
         this.nullifyPixelData = nullifyPixelData;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of frames of multi-frame images decompressed and/or compressed in parallel, each by its own
+     * {@code ImageReader} and/or {@code ImageWriter} instance. Frames are still read and written in order by the
+     * thread invoking {@link #transcode}. {@code 1} (= default) processes all frames by the invoking thread.
+     *
+     * @param parallelism number of frames processed in parallel
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxFramesInFlight() {
+        return maxFramesInFlight;
+    }
+
+    /**
+     * Set the maximal number of frames read but not yet written, which bounds the memory used for parallel
+     * processing of frames.
+     *
+     * @param maxFramesInFlight maximal number of frames read but not yet written or {@code 0} (= twice the
+     *                          {@link #setParallelism parallelism})
+     */
+    public void setMaxFramesInFlight(int maxFramesInFlight) {
+        if (maxFramesInFlight < 0)
+            throw new IllegalArgumentException("maxFramesInFlight: " + maxFramesInFlight);
+        this.maxFramesInFlight = maxFramesInFlight;
+    }
+
+    public boolean isExtendedOffsetTable() {
+        return extendedOffsetTable;
+    }
+
+    /**
+     * Set if compressed multi-frame images are encoded with an Extended Offset Table (7FE0,0001) and Extended
+     * Offset Table Lengths (7FE0,0002), which allows random access to each frame without parsing the preceding Data
+     * Fragments. Because the Extended Offset Table precedes the Pixel Data, all compressed frames are kept in
+     * memory until the last frame is compressed.
+     *
+     * @param extendedOffsetTable if compressed multi-frame images are encoded with an Extended Offset Table
+     */
+    public void setExtendedOffsetTable(boolean extendedOffsetTable) {
+        this.extendedOffsetTable = extendedOffsetTable;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Set the executor used for parallel processing of frames. If not set, a thread pool with
+     * {@link #setParallelism parallelism} threads is created for each transcoded multi-frame image.
+     *
+     * @param executor executor used for parallel processing of frames or {@code null}
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     public ImageDescriptor getImageDescriptor() {
         return imageDescriptor;
     }
@@ -338,10 +406,7 @@ public class Transcoder implements Closeable {
             throw new UnsupportedOperationException(
                     "Unsupported Transfer Syntax: " + srcTransferSyntax);
 
-        this.decompressor = ImageReaderFactory.getImageReader(decompressorParam);
-        LOG.debug("Decompressor: {}", decompressor.getClass().getName());
-
-        this.decompressParam = decompressor.getDefaultReadParam();
+        codec.initDecompressor();
     }
 
     private void initCompressor(String tsuid) {
@@ -350,10 +415,8 @@ public class Transcoder implements Closeable {
             throw new UnsupportedOperationException(
                     "Unsupported Transfer Syntax: " + tsuid);
 
-        this.compressor = ImageWriterFactory.getImageWriter(compressorParam);
-        LOG.debug("Compressor: {}", compressor.getClass().getName());
-
-        this.compressParam = compressor.getDefaultWriteParam();
+        compressProperties.clear();
+        codec.initCompressor();
         setCompressParams(compressorParam.getImageWriteParams());
     }
 
@@ -368,33 +431,24 @@ public class Transcoder implements Closeable {
             else if (name.equals("bitsCompressed"))
                 this.bitsCompressed = ((Number) property.getValue()).intValue();
             else {
-                if (compressParam.getCompressionMode() != ImageWriteParam.MODE_EXPLICIT)
-                    compressParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-                property.setAt(compressParam);
+                compressProperties.add(property);
+                codec.setCompressParam(property);
             }
         }
         if (maxPixelValueError >= 0) {
-            ImageReaderFactory.ImageReaderParam readerParam =
-                    ImageReaderFactory.getImageReaderParam(destTransferSyntax);
-            if (readerParam == null)
+            verifierParam = ImageReaderFactory.getImageReaderParam(destTransferSyntax);
+            if (verifierParam == null)
                 throw new UnsupportedOperationException(
                         "Unsupported Transfer Syntax: " + destTransferSyntax);
 
-            this.verifier = ImageReaderFactory.getImageReader(readerParam);
-            this.verifyParam = verifier.getDefaultReadParam();
-            LOG.debug("Verifier: {}", verifier.getClass().getName());
+            codec.initVerifier();
         }
     }
 
 
     @Override
     public void close() throws IOException {
-        if (decompressor != null)
-            decompressor.dispose();
-        if (compressor != null)
-            compressor.dispose();
-        if (verifier != null)
-            verifier.dispose();
+        codec.dispose();
         if (closeInputStream)
             SafeClose.close(dis);
         if (deleteBulkDataFiles)
@@ -409,7 +463,7 @@ public class Transcoder implements Closeable {
         dis.readAllAttributes(dataset);
 
         if (dos == null) {
-            if (compressor != null) { // Adjust destination Transfer Syntax if no pixeldata
+            if (compressorParam != null) { // Adjust destination Transfer Syntax if no pixeldata
                 destTransferSyntax = UID.ExplicitVRLittleEndian;
                 destTransferSyntaxType = TransferSyntaxType.NATIVE;
                 lossyCompression = false;
@@ -470,13 +524,13 @@ public class Transcoder implements Closeable {
     };
 
     private void processPixelData() throws IOException {
-        if (decompressor != null)
+        if (decompressorParam != null)
             initEncapsulatedPixelData();
         VR vr;
-        if (compressor != null) {
+        if (compressorParam != null) {
             vr = VR.OB;
             compressPixelData();
-        } else if (decompressor != null) {
+        } else if (decompressorParam != null) {
             vr = VR.OW;
             decompressPixelData();
         } else {
@@ -494,11 +548,17 @@ public class Transcoder implements Closeable {
         int length = imageDescriptor.getLength();
         int padding = length & 1;
         adjustDataset();
+        initColorModel();
         writeDataset();
         dos.writeHeader(Tag.PixelData, VR.OW, length + padding);
-        for (int i = 0; i < imageDescriptor.getFrames(); i++) {
+        int frames = imageDescriptor.getFrames();
+        for (int i = 0; i < frames; i++) {
+            if (i == 1 && isParallel(frames)) {
+                new FramePipeline(false).run(i, frames);
+                break;
+            }
             decompressFrame(i);
-            writeFrame();
+            writeFrame(codec.originalBi);
         }
         if (padding != 0)
             dos.write(0);
@@ -530,39 +590,69 @@ public class Transcoder implements Closeable {
 
     private void compressPixelData() throws IOException {
         int padding = dis.length() - imageDescriptor.getLength();
-        for (int i = 0; i < imageDescriptor.getFrames(); i++) {
-            if (decompressor == null)
-                readFrame();
+        int frames = imageDescriptor.getFrames();
+        initColorModel();
+        if (extendedOffsetTable && frames > 1)
+            pendingItems = new ArrayList<>(frames);
+        for (int i = 0; i < frames; i++) {
+            if (i == 1 && isParallel(frames)) {
+                new FramePipeline(true).run(i, frames);
+                break;
+            }
+            if (decompressorParam == null)
+                readFrame(codec.initBufferedImage());
             else
                 decompressFrame(i);
 
             if (i == 0) {
                 extractEmbeddedOverlays();
                 adjustDataset();
-                writeDataset();
-                dos.writeHeader(Tag.PixelData, VR.OB, -1);
-                dos.writeHeader(Tag.Item, null, 0);
+                if (pendingItems == null)
+                    writeDatasetAndEncapsulatedPixelDataHeader();
             }
-            nullifyUnusedBits();
-            bi = palette2rgb ? BufferedImageUtils.convertPalettetoRGB(originalBi, bi)
-                    : ybr2rgb ? BufferedImageUtils.convertYBRtoRGB(originalBi, bi)
-                    : imageDescriptor.is16BitsAllocated8BitsStored()
-                    ? BufferedImageUtils.convertShortsToBytes(originalBi, bi) // workaround for JPEG codec issue
-                    : originalBi;
-            compressFrame(i);
+            nullifyUnusedBits(codec.originalBi);
+            writeItem(codec.compressFrame(codec.originalBi, i));
         }
         dis.skipFully(padding);
+        if (pendingItems != null)
+            writePendingItems();
         dos.writeHeader(Tag.SequenceDelimitationItem, null, 0);
     }
 
+    private void writeDatasetAndEncapsulatedPixelDataHeader() throws IOException {
+        writeDataset();
+        dos.writeHeader(Tag.PixelData, VR.OB, -1);
+        dos.writeHeader(Tag.Item, null, 0);
+    }
+
+    private void writePendingItems() throws IOException {
+        List<ExtMemoryCacheImageOutputStream> items = pendingItems;
+        pendingItems = null;
+        long[] offsets = new long[items.size()];
+        long[] lengths = new long[items.size()];
+        long offset = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offset;
+            lengths[i] = items.get(i).length();
+            offset += 8 + lengths[i];
+        }
+        FrameIndex.of(offsets, lengths).setExtendedOffsetTable(dataset);
+        writeDatasetAndEncapsulatedPixelDataHeader();
+        for (ExtMemoryCacheImageOutputStream item : items)
+            writeItem(item);
+    }
+
     private void setPixelDataBulkData(VR vr) {
         if (pixelDataBulkDataURI != null)
             dataset.setValue(Tag.PixelData, vr, new BulkData(null, pixelDataBulkDataURI, false));
     }
 
     private void adjustDataset() {
+        // offsets of frames in the source Pixel Data are no longer valid
+        dataset.remove(Tag.ExtendedOffsetTable);
+        dataset.remove(Tag.ExtendedOffsetTableLengths);
         PhotometricInterpretation pmi = imageDescriptor.getPhotometricInterpretation();
-        if (decompressor != null) {
+        if (decompressorParam != null) {
             if (imageDescriptor.getSamples() == 3) {
                 if (pmi.isYBR() && TransferSyntaxType.isYBRCompression(srcTransferSyntax)) {
                     pmi = PhotometricInterpretation.RGB;
@@ -576,7 +666,7 @@ public class Transcoder implements Closeable {
                 }
             }
         }
-        if (compressor != null) {
+        if (compressorParam != null) {
             if (pmi == PhotometricInterpretation.PALETTE_COLOR && lossyCompression) {
                 palette2rgb = true;
                 dataset.removeSelected(cmTags);
@@ -633,7 +723,7 @@ public class Transcoder implements Closeable {
             int mask = 1 << ovlyBitPosition;
             int ovlyLength = ovlyRow * ovlyColumns;
             byte[] ovlyData = new byte[(((ovlyLength+7)>>>3)+1)&(~1)];
-            Overlays.extractFromPixeldata(originalBi.getRaster(), mask, ovlyData, 0, ovlyLength);
+            Overlays.extractFromPixeldata(codec.originalBi.getRaster(), mask, ovlyData, 0, ovlyLength);
             dataset.setInt(Tag.OverlayBitsAllocated | gg0000, VR.US, 1);
             dataset.setInt(Tag.OverlayBitPosition | gg0000, VR.US, 0);
             dataset.setBytes(Tag.OverlayData | gg0000, VR.OB, ovlyData);
@@ -641,7 +731,7 @@ public class Transcoder implements Closeable {
         }
     }
 
-    private void nullifyUnusedBits() {
+    private void nullifyUnusedBits(BufferedImage originalBi) {
         if (imageDescriptor.getBitsStored() < imageDescriptor.getBitsAllocated()) {
             DataBuffer db = originalBi.getRaster().getDataBuffer();
             switch (db.getDataType()) {
@@ -667,64 +757,35 @@ public class Transcoder implements Closeable {
             data[i] = (short) ((data[i] << unused) >> unused);
     }
 
-    private BufferedImage decompressFrame(int frameIndex) throws IOException {
-        decompressor.setInput(decompressorParam.patchJPEGLS != null
-                ? new PatchJPEGLSImageInputStream(encapsulatedPixelData, decompressorParam.patchJPEGLS)
-                : encapsulatedPixelData);
-        if (srcTransferSyntaxType == TransferSyntaxType.RLE)
-            initBufferedImage();
-        decompressParam.setDestination(originalBi);
-        long start = System.currentTimeMillis();
-        originalBi = adjustColorModel(decompressor.read(0, decompressParam));
-        long end = System.currentTimeMillis();
-        if (LOG.isDebugEnabled())
-            LOG.debug("Decompressed frame #{} in {} ms, ratio 1:{}", frameIndex + 1, end - start,
-                    (float) imageDescriptor.getFrameLength() / encapsulatedPixelData.getStreamPosition());
+    private void decompressFrame(int frameIndex) throws IOException {
+        codec.decompressFrame(encapsulatedPixelData, frameIndex, true);
         encapsulatedPixelData.seekNextFrame();
-        return originalBi;
     }
 
     private BufferedImage adjustColorModel(BufferedImage bi) {
         PhotometricInterpretation pmi = imageDescriptor.getPhotometricInterpretation();
         if (pmi == PhotometricInterpretation.PALETTE_COLOR
             && !(bi.getColorModel() instanceof PaletteColorModel)) {
-            ColorModel cm;
-            if (originalBi != null) {
-                cm = originalBi.getColorModel();
-            } else {
-                int bitsStored = Math.min(imageDescriptor.getBitsStored(), destTransferSyntaxType.getMaxBitsStored());
-                int dataType = bi.getSampleModel().getDataType();
-                cm = pmi.createColorModel(bitsStored, dataType, sRGB, dataset);
-            }
+            int dataType = bi.getSampleModel().getDataType();
+            ColorModel cm = colorModel.getTransferType() == dataType
+                    ? colorModel
+                    : createColorModel(dataType);
             bi = new BufferedImage(cm, bi.getRaster(), false, null);
         }
         return bi;
     }
 
-    private void compressFrame(int frameIndex) throws IOException {
-        ExtMemoryCacheImageOutputStream ios = new ExtMemoryCacheImageOutputStream(compressorImageDescriptor);
-        compressor.setOutput(compressorParam.patchJPEGLS != null
-                ? new PatchJPEGLSImageOutputStream(ios, compressorParam.patchJPEGLS)
-                : ios);
-        long start = System.currentTimeMillis();
-        compressor.write(null, new IIOImage(bi, null, null), compressParam);
-        long end = System.currentTimeMillis();
-        int length = (int) ios.getStreamPosition();
-        if (LOG.isDebugEnabled())
-            LOG.debug("Compressed frame #{} in {} ms, ratio {}:1", frameIndex + 1, end - start,
-                    (float) imageDescriptor.getFrameLength() / length);
-        verify(ios, frameIndex);
-        if ((length & 1) != 0) {
-            ios.write(0);
-            length++;
+    private void writeItem(ExtMemoryCacheImageOutputStream ios) throws IOException {
+        if (pendingItems != null) {
+            pendingItems.add(ios);
+            return;
         }
-        dos.writeHeader(Tag.Item, null, length);
+        dos.writeHeader(Tag.Item, null, (int) ios.length());
         ios.setOutputStream(dos);
         ios.flush();
     }
 
-    private void readFrame() throws IOException {
-        initBufferedImage();
+    private void readFrame(BufferedImage originalBi) throws IOException {
         WritableRaster raster = originalBi.getRaster();
         DataBuffer dataBuffer = raster.getDataBuffer();
         switch (dataBuffer.getDataType()) {
@@ -786,7 +847,7 @@ public class Transcoder implements Closeable {
         return buffer;
     }
 
-    private void writeFrame() throws IOException {
+    private void writeFrame(BufferedImage originalBi) throws IOException {
         WritableRaster raster = originalBi.getRaster();
         SampleModel sm = raster.getSampleModel();
         DataBuffer db = raster.getDataBuffer();
@@ -896,48 +957,36 @@ public class Transcoder implements Closeable {
         fileMetaInformation = fmi;
     }
 
-    private void initBufferedImage() {
-        if (originalBi != null)
-            return;
+    /**
+     * Creates the color model of the frame buffers once on the transcoding thread, before any frame is processed by
+     * {@link FramePipeline} worker threads and before {@link #adjustDataset()} may remove the palette color lookup
+     * tables from the data set.
+     */
+    private void initColorModel() {
+        colorModel = createColorModel(dataType());
+    }
 
-        int rows = imageDescriptor.getRows();
-        int cols = imageDescriptor.getColumns();
-        int samples = imageDescriptor.getSamples();
-        int bitsAllocated = imageDescriptor.getBitsAllocated();
+    private ColorModel createColorModel(int dataType) {
         int bitsStored = Math.min(imageDescriptor.getBitsStored(), destTransferSyntaxType.getMaxBitsStored());
+        return imageDescriptor.getPhotometricInterpretation().createColorModel(bitsStored, dataType, sRGB, dataset);
+    }
+
+    private int dataType() {
         boolean signed = imageDescriptor.isSigned() && destTransferSyntaxType.canEncodeSigned();
-        boolean banded = imageDescriptor.isBanded() || srcTransferSyntaxType == TransferSyntaxType.RLE;
-        PhotometricInterpretation pmi = imageDescriptor.getPhotometricInterpretation();
-        int dataType = bitsAllocated > 8
+        return imageDescriptor.getBitsAllocated() > 8
                 ? (signed ? DataBuffer.TYPE_SHORT : DataBuffer.TYPE_USHORT)
                 : DataBuffer.TYPE_BYTE;
-        ColorModel cm = pmi.createColorModel(bitsStored, dataType, sRGB, dataset);
-        SampleModel sm = pmi.createSampleModel(dataType, cols, rows, samples, banded);
-        WritableRaster raster = Raster.createWritableRaster(sm, null);
-        originalBi = new BufferedImage(cm, raster, false, null);
     }
 
-    private void verify(ImageOutputStream cache, int index)
-            throws IOException {
-        if (verifier == null)
-            return;
-
-        long prevStreamPosition = cache.getStreamPosition();
-        int prevBitOffset = cache.getBitOffset();
-        cache.seek(0);
-        verifier.setInput(cache);
-        verifyParam.setDestination(bi2);
-        long start = System.currentTimeMillis();
-        bi2 = verifier.read(0, verifyParam);
-        int maxDiff = maxDiff(bi.getRaster(), bi2.getRaster());
-        long end = System.currentTimeMillis();
-        if (LOG.isDebugEnabled())
-            LOG.debug("Verified compressed frame #{} in {} ms - max pixel value error: {}",
-                    new Object[] { index + 1, end - start, maxDiff });
-        if (maxDiff > maxPixelValueError)
-            throw new CompressionVerificationException(maxDiff);
-        cache.seek(prevStreamPosition);
-        cache.setBitOffset(prevBitOffset);
+    private BufferedImage createBufferedImage() {
+        int rows = imageDescriptor.getRows();
+        int cols = imageDescriptor.getColumns();
+        int samples = imageDescriptor.getSamples();
+        boolean banded = imageDescriptor.isBanded() || srcTransferSyntaxType == TransferSyntaxType.RLE;
+        PhotometricInterpretation pmi = imageDescriptor.getPhotometricInterpretation();
+        SampleModel sm = pmi.createSampleModel(colorModel.getTransferType(), cols, rows, samples, banded);
+        WritableRaster raster = Raster.createWritableRaster(sm, null);
+        return new BufferedImage(colorModel, raster, false, null);
     }
 
     private int maxDiff(WritableRaster raster, WritableRaster raster2) {
@@ -1031,4 +1080,270 @@ public class Transcoder implements Closeable {
         }
         return maxDiff;
     }
+
+    private boolean isParallel(int frames) {
+        return parallelism > 1 && frames > 2;
+    }
+
+    private FrameCodec createFrameCodec() {
+        FrameCodec frameCodec = new FrameCodec();
+        if (decompressorParam != null)
+            frameCodec.initDecompressor();
+        if (compressorParam != null) {
+            frameCodec.initCompressor();
+            for (Property property : compressProperties)
+                frameCodec.setCompressParam(property);
+            if (verifierParam != null)
+                frameCodec.initVerifier();
+        }
+        return frameCodec;
+    }
+
+    /**
+     * Image reader and writer instances and frame buffers used for decompression and/or compression of frames by
+     * one thread.
+     */
+    private final class FrameCodec {
+        private ImageReader decompressor;
+        private ImageReadParam decompressParam;
+        private ImageWriter compressor;
+        private ImageWriteParam compressParam;
+        private ImageReader verifier;
+        private ImageReadParam verifyParam;
+        private BufferedImage originalBi;
+        private BufferedImage bi;
+        private BufferedImage bi2;
+
+        void initDecompressor() {
+            decompressor = ImageReaderFactory.getImageReader(decompressorParam);
+            LOG.debug("Decompressor: {}", decompressor.getClass().getName());
+            decompressParam = decompressor.getDefaultReadParam();
+        }
+
+        void initCompressor() {
+            compressor = ImageWriterFactory.getImageWriter(compressorParam);
+            LOG.debug("Compressor: {}", compressor.getClass().getName());
+            compressParam = compressor.getDefaultWriteParam();
+        }
+
+        void setCompressParam(Property property) {
+            if (compressParam.getCompressionMode() != ImageWriteParam.MODE_EXPLICIT)
+                compressParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            property.setAt(compressParam);
+        }
+
+        void initVerifier() {
+            verifier = ImageReaderFactory.getImageReader(verifierParam);
+            verifyParam = verifier.getDefaultReadParam();
+            LOG.debug("Verifier: {}", verifier.getClass().getName());
+        }
+
+        BufferedImage initBufferedImage() {
+            if (originalBi == null)
+                originalBi = createBufferedImage();
+            return originalBi;
+        }
+
+        /**
+         * Decompress frame from specified stream.
+         *
+         * @param iis        stream positioned at the begin of the compressed frame
+         * @param frameIndex index of the frame, only used for logging
+         * @param reuse      if the previous decompressed frame buffer may be overwritten
+         * @return decompressed frame
+         */
+        BufferedImage decompressFrame(ImageInputStream iis, int frameIndex, boolean reuse) throws IOException {
+            decompressor.setInput(decompressorParam.patchJPEGLS != null
+                    ? new PatchJPEGLSImageInputStream(iis, decompressorParam.patchJPEGLS)
+                    : iis);
+            if (!reuse)
+                originalBi = null;
+            if (srcTransferSyntaxType == TransferSyntaxType.RLE)
+                initBufferedImage();
+            decompressParam.setDestination(originalBi);
+            long start = System.currentTimeMillis();
+            originalBi = adjustColorModel(decompressor.read(0, decompressParam));
+            long end = System.currentTimeMillis();
+            if (LOG.isDebugEnabled())
+                LOG.debug("Decompressed frame #{} in {} ms, ratio 1:{}", frameIndex + 1, end - start,
+                        (float) imageDescriptor.getFrameLength() / iis.getStreamPosition());
+            return originalBi;
+        }
+
+        ExtMemoryCacheImageOutputStream compressFrame(BufferedImage originalBi, int frameIndex)
+                throws IOException {
+            bi = palette2rgb ? BufferedImageUtils.convertPalettetoRGB(originalBi, bi)
+                    : ybr2rgb ? BufferedImageUtils.convertYBRtoRGB(originalBi, bi)
+                    : imageDescriptor.is16BitsAllocated8BitsStored()
+                    ? BufferedImageUtils.convertShortsToBytes(originalBi, bi) // workaround for JPEG codec issue
+                    : originalBi;
+            ExtMemoryCacheImageOutputStream ios = new ExtMemoryCacheImageOutputStream(compressorImageDescriptor);
+            compressor.setOutput(compressorParam.patchJPEGLS != null
+                    ? new PatchJPEGLSImageOutputStream(ios, compressorParam.patchJPEGLS)
+                    : ios);
+            long start = System.currentTimeMillis();
+            compressor.write(null, new IIOImage(bi, null, null), compressParam);
+            long end = System.currentTimeMillis();
+            int length = (int) ios.getStreamPosition();
+            if (LOG.isDebugEnabled())
+                LOG.debug("Compressed frame #{} in {} ms, ratio {}:1", frameIndex + 1, end - start,
+                        (float) imageDescriptor.getFrameLength() / length);
+            verify(ios, frameIndex);
+            if ((length & 1) != 0)
+                ios.write(0);
+            return ios;
+        }
+
+        private void verify(ImageOutputStream cache, int index) throws IOException {
+            if (verifier == null)
+                return;
+
+            long prevStreamPosition = cache.getStreamPosition();
+            int prevBitOffset = cache.getBitOffset();
+            cache.seek(0);
+            verifier.setInput(cache);
+            verifyParam.setDestination(bi2);
+            long start = System.currentTimeMillis();
+            bi2 = verifier.read(0, verifyParam);
+            int maxDiff = maxDiff(bi.getRaster(), bi2.getRaster());
+            long end = System.currentTimeMillis();
+            if (LOG.isDebugEnabled())
+                LOG.debug("Verified compressed frame #{} in {} ms - max pixel value error: {}",
+                        new Object[] { index + 1, end - start, maxDiff });
+            if (maxDiff > maxPixelValueError)
+                throw new CompressionVerificationException(maxDiff);
+            cache.seek(prevStreamPosition);
+            cache.setBitOffset(prevBitOffset);
+        }
+
+        void dispose() {
+            if (decompressor != null)
+                decompressor.dispose();
+            if (compressor != null)
+                compressor.dispose();
+            if (verifier != null)
+                verifier.dispose();
+        }
+    }
+
+    /**
+     * Processes frames of a multi-frame image in parallel. Frames are read and written in order by the invoking
+     * thread, decompressed and/or compressed by worker threads, each using its own {@link FrameCodec}. The number of
+     * frames read but not yet written is limited by {@link #getMaxFramesInFlight()}.
+     */
+    private final class FramePipeline {
+        private final boolean compress;
+        private final int window;
+        private final int numCodecs;
+        private final BlockingQueue<FrameCodec> codecs;
+        private final ArrayDeque<Future<Object>> inFlight = new ArrayDeque<>();
+        private final ExecutorService ownExecutor;
+        private final Executor executor;
+        private int createdCodecs;
+
+        FramePipeline(boolean compress) {
+            this.compress = compress;
+            this.window = maxFramesInFlight > 0 ? maxFramesInFlight : parallelism * 2;
+            this.numCodecs = Math.min(parallelism, window);
+            this.codecs = new ArrayBlockingQueue<>(numCodecs);
+            if (Transcoder.this.executor != null) {
+                this.ownExecutor = null;
+                this.executor = Transcoder.this.executor;
+            } else {
+                this.ownExecutor = Executors.newFixedThreadPool(numCodecs);
+                this.executor = ownExecutor;
+            }
+        }
+
+        void run(int startFrame, int frames) throws IOException {
+            try {
+                for (; createdCodecs < numCodecs; createdCodecs++)
+                    codecs.add(createFrameCodec());
+                for (int i = startFrame; i < frames; i++) {
+                    if (inFlight.size() >= window)
+                        writeNextFrame();
+                    submit(i);
+                }
+                while (!inFlight.isEmpty())
+                    writeNextFrame();
+            } finally {
+                for (Future<Object> future : inFlight)
+                    future.cancel(false);
+                if (ownExecutor != null)
+                    ownExecutor.shutdown();
+                disposeCodecs();
+            }
+        }
+
+        private void submit(int frameIndex) throws IOException {
+            Callable<Object> task;
+            if (decompressorParam != null) {
+                ByteBufferImageInputStream iis =
+                        new ByteBufferImageInputStream(encapsulatedPixelData.getBytes(), imageDescriptor);
+                encapsulatedPixelData.seekNextFrame();
+                task = () -> process(iis, null, frameIndex);
+            } else {
+                BufferedImage originalBi = createBufferedImage();
+                readFrame(originalBi);
+                task = () -> process(null, originalBi, frameIndex);
+            }
+            FutureTask<Object> future = new FutureTask<>(task);
+            inFlight.add(future);
+            executor.execute(future);
+        }
+
+        private Object process(ImageInputStream iis, BufferedImage originalBi, int frameIndex)
+                throws IOException, InterruptedException {
+            FrameCodec frameCodec = codecs.take();
+            try {
+                if (iis != null)
+                    originalBi = frameCodec.decompressFrame(iis, frameIndex, compress);
+                if (!compress)
+                    return originalBi;
+
+                nullifyUnusedBits(originalBi);
+                return frameCodec.compressFrame(originalBi, frameIndex);
+            } finally {
+                codecs.add(frameCodec);
+            }
+        }
+
+        private void writeNextFrame() throws IOException {
+            Object result = await(inFlight.remove());
+            if (compress)
+                writeItem((ExtMemoryCacheImageOutputStream) result);
+            else
+                writeFrame((BufferedImage) result);
+        }
+
+        private Object await(Future<Object> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException) cause;
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new IOException(cause);
+            }
+        }
+
+        private void disposeCodecs() {
+            // wait until running tasks returned their codec
+            for (int i = 0; i < createdCodecs; i++) {
+                try {
+                    codecs.take().dispose();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
 }
@@ -38,6 +38,8 @@
 
 package org.dcm4che3.imageio.plugins.dcm;
 
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.color.ColorSpace;
 import java.awt.image.*;
 import java.io.EOFException;
@@ -68,6 +70,8 @@ import org.dcm4che3.data.UID;
 import org.dcm4che3.data.VR;
 import org.dcm4che3.image.*;
 import org.dcm4che3.image.LookupTable;
+import org.dcm4che3.imageio.codec.FrameIndex;
+import org.dcm4che3.imageio.codec.FrameIndexCache;
 import org.dcm4che3.imageio.codec.ImageDescriptor;
 import org.dcm4che3.imageio.codec.ImageReaderFactory;
 import org.dcm4che3.imageio.codec.ImageReaderFactory.ImageReaderParam;
@@ -87,8 +91,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Reads header and image data from a DICOM object.
  * 
- * Supports compressed and uncompressed images from a DicomMetaData object, an InputStream/DicomInputStream or an ImageInputStream.
- * For ImageInputStream, the access supports random/out of order reading from the input for everything except deflated streams.
+ * Supports compressed and uncompressed images from a DicomMetaData object, an InputStream/DicomInputStream, an ImageInputStream or a File.
+ * For ImageInputStream and File, the access supports random/out of order reading from the input for everything except deflated streams.
+ * For File, the frame positions of encapsulated pixel data may be cached by a {@link FrameIndexCache}.
  * For InputStream type data, only sequential access to images is supported, including deflated.
  * For DicomMetaData, random access is fully supported, and can have been read from a deflated stream.
  * Objects without pixel data are also supported, although only the metadata can be read from them (mostly for the use case that it is unknown whether or not there is
@@ -110,6 +115,12 @@ public class DicomImageReader extends ImageReader implements Closeable {
 
     private ImageInputStream iis;
 
+    private File inputFile;
+
+    private FrameIndexCache frameIndexCache;
+
+    private FrameIndex pixelDataFrameIndex;
+
     private DicomInputStream dis;
 
     private EncapsulatedPixelDataImageInputStream epdiis;
@@ -176,6 +187,13 @@ public class DicomImageReader extends ImageReader implements Closeable {
             } catch (IOException e) {
                throw new IllegalArgumentException(e.getMessage());
             }
+        } else if (input instanceof File) {
+            try {
+                inputFile = (File) input;
+                iis = new FileImageInputStream(inputFile);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
         } else if (input instanceof DicomMetaData) {
             DicomMetaData metadata = (DicomMetaData) input;
             initPixelDataFromAttributes(metadata.getAttributes());
@@ -186,6 +204,32 @@ public class DicomImageReader extends ImageReader implements Closeable {
         }
     }
 
+    public FrameIndexCache getFrameIndexCache() {
+        return frameIndexCache;
+    }
+
+    /**
+     * Set cache of frame positions of encapsulated Pixel Data, used if the input was set to a {@code File}. If
+     * the file contains neither a Basic nor an Extended Offset Table, the Data Fragments of all frames are scanned
+     * once and the resulting {@link FrameIndex} is put into the cache.
+     *
+     * @param frameIndexCache cache of frame positions or {@code null}
+     */
+    public void setFrameIndexCache(FrameIndexCache frameIndexCache) {
+        this.frameIndexCache = frameIndexCache;
+    }
+
+    /**
+     * Returns the frame positions of encapsulated Pixel Data read from an {@code ImageInputStream} or {@code File}.
+     *
+     * @return frame positions or {@code null}, if not available
+     * @throws IOException if an I/O error occurs
+     */
+    public FrameIndex getFrameIndex() throws IOException {
+        readMetadata();
+        return pixelDataFrameIndex;
+    }
+
     private void initPixelDataFromAttributes(Attributes ds) {
         VR.Holder holder = new VR.Holder();
         Object value = ds.getValue(Tag.PixelData, holder);
@@ -357,12 +401,23 @@ public class DicomImageReader extends ImageReader implements Closeable {
         return true;
     }
 
+    /**
+     * Reads the raster of the specified frame. A source region and source subsampling specified by {@code param} is
+     * passed to the decompressor, or applied to the decoded raster, if the decompressor does not support it. Source
+     * region and source subsampling are ignored for uncompressed Pixel Data with sub-sampled chroma (YBR_FULL_422).
+     */
     @Override
     public Raster readRaster(int frameIndex, ImageReadParam param)
             throws IOException {
         readMetadata();
         checkIndex(frameIndex);
 
+        Raster raster = readFrameRaster(frameIndex, param);
+        Raster subsampled = subsample(raster, decompressor != null, param);
+        return subsampled != null ? subsampled : raster;
+    }
+
+    private Raster readFrameRaster(int frameIndex, ImageReadParam param) throws IOException {
         openiis();
         try {
             if (decompressor != null) {
@@ -371,8 +426,8 @@ public class DicomImageReader extends ImageReader implements Closeable {
                 if (LOG.isDebugEnabled())
                     LOG.debug("Start decompressing frame #" + (frameIndex + 1));
                 Raster wr = pmiAfterDecompression == pmi && decompressor.canReadRaster()
-                        ? decompressor.readRaster(0, decompressParam(param))
-                        : decompressor.read(0, decompressParam(param)).getRaster();
+                        ? decompressor.readRaster(0, decompressParam(param, true))
+                        : decompressor.read(0, decompressParam(param, true)).getRaster();
                 if (LOG.isDebugEnabled())
                     LOG.debug("Finished decompressing frame #" + (frameIndex + 1));
                 return wr;
@@ -412,10 +467,21 @@ public class DicomImageReader extends ImageReader implements Closeable {
             }
             return wr;
         } finally {
+            releaseDecompressorInput();
             closeiis();
         }
     }
 
+    /**
+     * Detaches the frame stream from the decompressor, while the underlying stream is still open. After reading
+     * only a source region, decompressors may reposition the previous input on {@code setInput}, which would move
+     * the stream shared with the next frame stream.
+     */
+    private void releaseDecompressorInput() {
+        if (decompressor != null)
+            decompressor.setInput(null);
+    }
+
     private boolean bigEndian() {
         return metadata.bigEndian();
     }
@@ -424,13 +490,21 @@ public class DicomImageReader extends ImageReader implements Closeable {
         return metadata.getTransferSyntaxUID();
     }
 
-    private ImageReadParam decompressParam(ImageReadParam param) {
+    private ImageReadParam decompressParam(ImageReadParam param, boolean sourceRegion) {
         ImageReadParam decompressParam = decompressor.getDefaultReadParam();
         ImageTypeSpecifier imageType = null;
         BufferedImage dest = null;
         if (param != null) {
             imageType = param.getDestinationType();
             dest = param.getDestination();
+            if (sourceRegion && hasSourceRegionOrSubsampling(param)) {
+                decompressParam.setSourceRegion(sourceRegion(param));
+                decompressParam.setSourceSubsampling(
+                        param.getSourceXSubsampling(),
+                        param.getSourceYSubsampling(),
+                        param.getSubsamplingXOffset(),
+                        param.getSubsamplingYOffset());
+            }
         }
         if (rle && imageType == null && dest == null)
             imageType = createImageType(bitsStored, dataType, true, sRGB);
@@ -439,12 +513,21 @@ public class DicomImageReader extends ImageReader implements Closeable {
         return decompressParam;
     }
 
+    /**
+     * Reads and renders the specified frame. A source region and source subsampling specified by {@code param} is
+     * applied before the Modality, VOI and Presentation LUTs, so only the pixels of the returned image are
+     * transformed, and an auto-windowing is calculated from the pixels of the returned image. Only if overlays are
+     * activated, which are positioned relative to the whole frame, the whole frame is rendered before the source
+     * region and source subsampling is applied.
+     */
     @Override
     public BufferedImage read(int frameIndex, ImageReadParam param)
             throws IOException {
         readMetadata();
         checkIndex(frameIndex);
 
+        boolean subsampleFirst = hasSourceRegionOrSubsampling(param)
+                && getActiveOverlayGroupOffsets(param).length == 0;
         BufferedImage bi = null;
         WritableRaster raster;
         if (decompressor != null) {
@@ -455,18 +538,134 @@ public class DicomImageReader extends ImageReader implements Closeable {
                 iisOfFrame.length();
                 decompressor.setInput(iisOfFrame);
                 LOG.debug("Start decompressing frame #{}", (frameIndex + 1));
-                bi = decompressor.read(0, decompressParam(param));
+                bi = decompressor.read(0, decompressParam(param, subsampleFirst));
                 LOG.debug("Finished decompressing frame #{}", (frameIndex + 1));
             } finally {
+                releaseDecompressorInput();
                 closeiis();
             }
             raster = bi.getRaster();
         } else {
-            raster = (WritableRaster) readRaster(frameIndex, param);
+            raster = (WritableRaster) readFrameRaster(frameIndex, param);
+        }
+        // source region passed to the decompressor, which may return a raster of the source region only
+        boolean regionDecompressed = decompressor != null && subsampleFirst;
+        if (subsampleFirst) {
+            WritableRaster subsampled = (WritableRaster) subsample(raster, regionDecompressed, param);
+            if (subsampled == null) {
+                subsampleFirst = false;
+            } else if (subsampled != raster) {
+                raster = subsampled;
+                if (bi != null)
+                    bi = new BufferedImage(bi.getColorModel(), raster, bi.isAlphaPremultiplied(), null);
+            }
         }
-        return pmi.isMonochrome()
+        bi = pmi.isMonochrome()
                 ? applyGrayscaleTransformations(frameIndex, param, raster)
                 : applyColorTransformations(frameIndex, param, raster, bi);
+        return subsampleFirst || !hasSourceRegionOrSubsampling(param)
+                ? bi
+                : subsample(bi, regionDecompressed, param);
+    }
+
+    private static boolean hasSourceRegionOrSubsampling(ImageReadParam param) {
+        return param != null
+                && (param.getSourceRegion() != null
+                || param.getSourceXSubsampling() != 1
+                || param.getSourceYSubsampling() != 1);
+    }
+
+    private Rectangle sourceRegion(ImageReadParam param) {
+        Rectangle frame = new Rectangle(width, height);
+        Rectangle region = param.getSourceRegion();
+        if (region == null)
+            return frame;
+
+        region = region.intersection(frame);
+        if (region.isEmpty())
+            throw new IllegalArgumentException("Source region " + param.getSourceRegion()
+                    + " outside of image " + frame);
+        return region;
+    }
+
+    /**
+     * Applies source region and source subsampling to the raster of a whole frame, or of the source region, if
+     * the decompressor only supports source regions. Only pixels of the resulting raster are copied.
+     *
+     * @param regionDecompressed {@code true} if the source region and source subsampling was passed to the
+     *                           decompressor, which may have applied it, applied only the source region or ignored it
+     * @return resulting raster, {@code raster} if the decompressor already applied source region and subsampling,
+     * or {@code null} if the sample model of {@code raster} is not supported
+     */
+    private Raster subsample(Raster raster, boolean regionDecompressed, ImageReadParam param) {
+        if (!hasSourceRegionOrSubsampling(param))
+            return raster;
+
+        int xSubsampling = param.getSourceXSubsampling();
+        int ySubsampling = param.getSourceYSubsampling();
+        Rectangle region = sourceRegion(param);
+        int w = (region.width - param.getSubsamplingXOffset() + xSubsampling - 1) / xSubsampling;
+        int h = (region.height - param.getSubsamplingYOffset() + ySubsampling - 1) / ySubsampling;
+        if (raster.getWidth() == w && raster.getHeight() == h && (regionDecompressed || w == width && h == height))
+            return raster;
+
+        if (!(raster.getSampleModel() instanceof ComponentSampleModel))
+            return null;
+
+        Point origin = subsampleOrigin(raster.getWidth(), raster.getHeight(), regionDecompressed, param);
+        int x0 = origin.x;
+        int y0 = origin.y;
+        WritableRaster dest = raster.createCompatibleWritableRaster(w, h);
+        Object pixel = null;
+        for (int y = 0, srcY = y0; y < h; y++, srcY += ySubsampling)
+            for (int x = 0, srcX = x0; x < w; x++, srcX += xSubsampling) {
+                pixel = raster.getDataElements(srcX, srcY, pixel);
+                dest.setDataElements(x, y, pixel);
+            }
+        return dest;
+    }
+
+    private BufferedImage subsample(BufferedImage bi, boolean regionDecompressed, ImageReadParam param) {
+        WritableRaster raster = (WritableRaster) subsample(bi.getRaster(), regionDecompressed, param);
+        if (raster != null)
+            return raster == bi.getRaster()
+                    ? bi
+                    : new BufferedImage(bi.getColorModel(), raster, bi.isAlphaPremultiplied(), null);
+
+        // sub-sampled chroma: convert to RGB
+        Rectangle region = sourceRegion(param);
+        int xSubsampling = param.getSourceXSubsampling();
+        int ySubsampling = param.getSourceYSubsampling();
+        Point origin = subsampleOrigin(bi.getWidth(), bi.getHeight(), regionDecompressed, param);
+        int x0 = origin.x;
+        int y0 = origin.y;
+        int w = (region.width - param.getSubsamplingXOffset() + xSubsampling - 1) / xSubsampling;
+        int h = (region.height - param.getSubsamplingYOffset() + ySubsampling - 1) / ySubsampling;
+        BufferedImage dest = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0, srcY = y0; y < h; y++, srcY += ySubsampling)
+            for (int x = 0, srcX = x0; x < w; x++, srcX += xSubsampling)
+                dest.setRGB(x, y, bi.getRGB(srcX, srcY));
+        return dest;
+    }
+
+    /**
+     * Returns the position of the first sample of the source region, adjusted by the subsampling offsets, in a
+     * raster of the whole frame, or - if the source region was passed to the decompressor and the decompressor
+     * returned a raster of the size of the source region - in that raster.
+     */
+    private Point subsampleOrigin(int rasterWidth, int rasterHeight, boolean regionDecompressed,
+            ImageReadParam param) {
+        Rectangle region = sourceRegion(param);
+        Point origin = new Point(param.getSubsamplingXOffset(), param.getSubsamplingYOffset());
+        if (regionDecompressed && rasterWidth == region.width && rasterHeight == region.height)
+            return origin;
+
+        if (rasterWidth != width || rasterHeight != height)
+            throw new IllegalStateException("Unexpected size of decompressed raster: "
+                    + rasterWidth + "x" + rasterHeight);
+
+        origin.translate(region.x, region.y);
+        return origin;
     }
 
     private BufferedImage applyGrayscaleTransformations(int frameIndex, ImageReadParam param, WritableRaster raster) {
@@ -477,10 +676,10 @@ public class DicomImageReader extends ImageReader implements Closeable {
         }
         SampleModel sm = new PixelInterleavedSampleModel(
                 DataBuffer.TYPE_BYTE,
-                width,
-                height,
+                raster.getWidth(),
+                raster.getHeight(),
                 1,
-                width,
+                raster.getWidth(),
                 new int[1]);
         raster = applyLUTs(raster, frameIndex, param, sm, 8);
         for (int i = 0; i < overlayGroupOffsets.length; i++) {
@@ -778,8 +977,24 @@ public class DicomImageReader extends ImageReader implements Closeable {
         long start = dis.getPosition();
         pixelDataFragments = new Fragments(pixelDataVR, dis.bigEndian(), frames);
         pixelDataFragments.add(b);
-        
-        generateOffsetLengths(pixelDataFragments, frames,b, start);
+
+        pixelDataFrameIndex = frameIndexCache != null && inputFile != null ? frameIndexCache.get(inputFile) : null;
+        if (pixelDataFrameIndex == null) {
+            pixelDataFrameIndex = FrameIndex.fromExtendedOffsetTable(metadata.getAttributes());
+            if (pixelDataFrameIndex == null)
+                pixelDataFrameIndex = FrameIndex.fromBasicOffsetTable(b, frames);
+            if (frameIndexCache != null && inputFile != null) {
+                if (pixelDataFrameIndex == null && frames > 1)
+                    pixelDataFrameIndex = FrameIndex.scan(iis, start, frames,
+                            TransferSyntaxType.forUID(getTransferSyntaxUID()));
+                if (pixelDataFrameIndex != null)
+                    frameIndexCache.put(inputFile, pixelDataFrameIndex);
+            }
+        }
+        if (pixelDataFrameIndex != null && pixelDataFrameIndex.size() == frames)
+            pixelDataFrameIndex.addTo(pixelDataFragments, start);
+        else
+            generateOffsetLengths(pixelDataFragments, frames,b, start);
     }
 
     /** Creates an offset/length table based on the frame positions */
@@ -874,6 +1089,14 @@ public class DicomImageReader extends ImageReader implements Closeable {
     }
 
     private void resetInternalState() {
+        if (inputFile != null) {
+            try {
+                iis.close();
+            } catch (IOException ignore) {}
+            iis = null;
+            inputFile = null;
+        }
+        pixelDataFrameIndex = null;
         dis = null;
         metadata = null;
         pixelData = null;
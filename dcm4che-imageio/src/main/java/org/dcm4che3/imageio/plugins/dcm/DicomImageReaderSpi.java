@@ -38,6 +38,7 @@
 
 package org.dcm4che3.imageio.plugins.dcm;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Locale;
@@ -59,7 +60,8 @@ public class DicomImageReaderSpi extends ImageReaderSpi {
     private static final String[] formatNames = { "dicom", "DICOM" };
     private static final String[] suffixes = { "dcm", "dic", "dicm", "dicom" };
     private static final String[] MIMETypes = { "application/dicom" };
-    private static final Class<?>[] inputTypes = { ImageInputStream.class, InputStream.class, DicomMetaData.class };
+    private static final Class<?>[] inputTypes =
+            { ImageInputStream.class, InputStream.class, DicomMetaData.class, File.class };
 
     public DicomImageReaderSpi() {
         super(vendorName, version, formatNames, suffixes, MIMETypes, 
@@ -84,6 +86,9 @@ public class DicomImageReaderSpi extends ImageReaderSpi {
 
     @Override
     public boolean canDecodeInput(Object source) throws IOException {
+        if (!(source instanceof ImageInputStream))
+            return false;
+
         ImageInputStream iis = (ImageInputStream) source;
         iis.mark();
         try {
@@ -0,0 +1,132 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import org.dcm4che3.imageio.codec.FrameIndexCache;
+import org.dcm4che3.imageio.plugins.dcm.DicomImageReader;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of idle {@link DicomImageReader} instances. A reader is reset by {@link ImageReader#reset()} before it is
+ * returned to the pool, which also closes the file it was reading from.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class ImageReaderPool {
+
+    public static final int DEF_MAX_IDLE = 16;
+
+    private final ConcurrentLinkedDeque<DicomImageReader> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+    private final FrameIndexCache frameIndexCache;
+
+    public ImageReaderPool() {
+        this(DEF_MAX_IDLE, FrameIndexCache.getDefault());
+    }
+
+    /**
+     * @param maxIdle         maximal number of idle readers kept in the pool
+     * @param frameIndexCache cache of frame positions of encapsulated Pixel Data set on created readers or
+     *                        {@code null}
+     */
+    public ImageReaderPool(int maxIdle, FrameIndexCache frameIndexCache) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle: " + maxIdle);
+        this.maxIdle = maxIdle;
+        this.frameIndexCache = frameIndexCache;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    public DicomImageReader borrow() {
+        DicomImageReader reader = idle.pollFirst();
+        if (reader == null)
+            return create();
+
+        idleCount.decrementAndGet();
+        return reader;
+    }
+
+    public void release(DicomImageReader reader) {
+        reader.reset();
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(reader);
+        } else {
+            idleCount.decrementAndGet();
+            reader.dispose();
+        }
+    }
+
+    public void clear() {
+        DicomImageReader reader;
+        while ((reader = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            reader.dispose();
+        }
+    }
+
+    private DicomImageReader create() {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("DICOM");
+        while (readers.hasNext()) {
+            ImageReader reader = readers.next();
+            if (reader instanceof DicomImageReader) {
+                ((DicomImageReader) reader).setFrameIndexCache(frameIndexCache);
+                return (DicomImageReader) reader;
+            }
+        }
+        throw new IllegalStateException("No DICOM Image Reader registered");
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of idle {@link ImageWriter} instances per output format. A writer is reset by {@link ImageWriter#reset()}
+ * before it is returned to the pool.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class ImageWriterPool {
+
+    public static final int DEF_MAX_IDLE = 16;
+
+    private final Map<String, Idle> idleByFormat = new ConcurrentHashMap<>();
+    private final int maxIdle;
+
+    public ImageWriterPool() {
+        this(DEF_MAX_IDLE);
+    }
+
+    /**
+     * @param maxIdle maximal number of idle writers kept in the pool per output format
+     */
+    public ImageWriterPool(int maxIdle) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle: " + maxIdle);
+        this.maxIdle = maxIdle;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public int getIdleCount(String formatName) {
+        Idle idle = idleByFormat.get(formatName.toUpperCase());
+        return idle != null ? idle.count.get() : 0;
+    }
+
+    public ImageWriter borrow(String formatName) {
+        Idle idle = idleByFormat.get(formatName.toUpperCase());
+        ImageWriter writer = idle != null ? idle.writers.pollFirst() : null;
+        if (writer == null)
+            return create(formatName);
+
+        idle.count.decrementAndGet();
+        return writer;
+    }
+
+    public void release(String formatName, ImageWriter writer) {
+        writer.reset();
+        Idle idle = idleByFormat.computeIfAbsent(formatName.toUpperCase(), key -> new Idle());
+        if (idle.count.incrementAndGet() <= maxIdle) {
+            idle.writers.offerFirst(writer);
+        } else {
+            idle.count.decrementAndGet();
+            writer.dispose();
+        }
+    }
+
+    public void clear() {
+        for (Idle idle : idleByFormat.values()) {
+            ImageWriter writer;
+            while ((writer = idle.writers.pollFirst()) != null) {
+                idle.count.decrementAndGet();
+                writer.dispose();
+            }
+        }
+    }
+
+    private static ImageWriter create(String formatName) {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext())
+            throw new IllegalArgumentException("No Image Writer for format: " + formatName);
+
+        return writers.next();
+    }
+
+    private static final class Idle {
+        final ConcurrentLinkedDeque<ImageWriter> writers = new ConcurrentLinkedDeque<>();
+        final AtomicInteger count = new AtomicInteger();
+    }
+}
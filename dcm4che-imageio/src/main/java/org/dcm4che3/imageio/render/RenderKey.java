@@ -0,0 +1,165 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import java.util.Objects;
+
+/**
+ * Identifies a rendered frame of a DICOM image by SOP Instance UID, frame number, Window Center/Width, output size
+ * and output image format.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public final class RenderKey {
+
+    private final String sopInstanceUID;
+    private final int frame;
+    private final float windowCenter;
+    private final float windowWidth;
+    private final int columns;
+    private final int rows;
+    private final String formatName;
+
+    /**
+     * @param sopInstanceUID SOP Instance UID of the image
+     * @param frame          frame number, starting with 1
+     * @param windowCenter   Window Center, ignored if {@code windowWidth} is {@code 0}
+     * @param windowWidth    Window Width or {@code 0}, to apply the VOI LUT or Window of the image or auto-windowing
+     * @param columns        width of the rendered image or {@code 0}, to derive it from {@code rows}
+     * @param rows           height of the rendered image or {@code 0}, to derive it from {@code columns}
+     * @param formatName     informal name of the output format, e.g. {@code "JPEG"} or {@code "PNG"}
+     */
+    public RenderKey(String sopInstanceUID, int frame, float windowCenter, float windowWidth,
+            int columns, int rows, String formatName) {
+        if (frame <= 0)
+            throw new IllegalArgumentException("frame: " + frame);
+        if (columns < 0)
+            throw new IllegalArgumentException("columns: " + columns);
+        if (rows < 0)
+            throw new IllegalArgumentException("rows: " + rows);
+        this.sopInstanceUID = Objects.requireNonNull(sopInstanceUID, "sopInstanceUID");
+        this.frame = frame;
+        this.windowCenter = windowWidth != 0 ? windowCenter : 0;
+        this.windowWidth = windowWidth;
+        this.columns = columns;
+        this.rows = rows;
+        this.formatName = formatName.toUpperCase();
+    }
+
+    public String getSOPInstanceUID() {
+        return sopInstanceUID;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public float getWindowCenter() {
+        return windowCenter;
+    }
+
+    public float getWindowWidth() {
+        return windowWidth;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public String getFormatName() {
+        return formatName;
+    }
+
+    /**
+     * Returns a name for a file containing the rendered image, which only consists of characters valid in file names.
+     *
+     * @return file name
+     */
+    String toFileName() {
+        StringBuilder sb = new StringBuilder(sopInstanceUID.length() + 48);
+        for (char c : sopInstanceUID.toCharArray())
+            sb.append(c == '.' || c >= '0' && c <= '9' ? c : '_');
+        return sb.append('-').append(frame)
+                .append('-').append(Integer.toHexString(Float.floatToIntBits(windowCenter)))
+                .append('-').append(Integer.toHexString(Float.floatToIntBits(windowWidth)))
+                .append('-').append(columns)
+                .append('x').append(rows)
+                .append('.').append(formatName.toLowerCase())
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RenderKey)) return false;
+        RenderKey other = (RenderKey) o;
+        return frame == other.frame
+                && Float.compare(windowCenter, other.windowCenter) == 0
+                && Float.compare(windowWidth, other.windowWidth) == 0
+                && columns == other.columns
+                && rows == other.rows
+                && sopInstanceUID.equals(other.sopInstanceUID)
+                && formatName.equals(other.formatName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sopInstanceUID, frame, windowCenter, windowWidth, columns, rows, formatName);
+    }
+
+    @Override
+    public String toString() {
+        return "RenderKey[iuid=" + sopInstanceUID
+                + ", frame=" + frame
+                + ", wc=" + windowCenter
+                + ", ww=" + windowWidth
+                + ", size=" + columns + 'x' + rows
+                + ", format=" + formatName
+                + ']';
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import org.dcm4che3.imageio.plugins.dcm.DicomImageReadParam;
+import org.dcm4che3.imageio.plugins.dcm.DicomImageReader;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Renders frames of DICOM images to encoded images, e.g. JPEG or PNG, as requested by WADO-URI retrieve requests.
+ * Rendered images are cached in a {@link RenderedImageCache}. Concurrent requests for the same {@link RenderKey} are
+ * coalesced, so the frame is only rendered once. {@code DicomImageReader} and {@code ImageWriter} instances are
+ * taken from an {@link ImageReaderPool} and an {@link ImageWriterPool}.
+ * <p>
+ * If the requested size does not match the size of the frame, the frame is read with the largest source subsampling
+ * which does not reduce it below the requested size, and the result is scaled to the requested size with bilinear
+ * interpolation.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class RenderService {
+
+    private final RenderedImageCache cache;
+    private final ImageReaderPool readerPool;
+    private final ImageWriterPool writerPool;
+    private final ConcurrentHashMap<RenderKey, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private volatile Float compressionQuality;
+
+    public RenderService(RenderedImageCache cache) {
+        this(cache, new ImageReaderPool(), new ImageWriterPool());
+    }
+
+    public RenderService(RenderedImageCache cache, ImageReaderPool readerPool, ImageWriterPool writerPool) {
+        this.cache = Objects.requireNonNull(cache);
+        this.readerPool = Objects.requireNonNull(readerPool);
+        this.writerPool = Objects.requireNonNull(writerPool);
+    }
+
+    public RenderedImageCache getCache() {
+        return cache;
+    }
+
+    public ImageReaderPool getReaderPool() {
+        return readerPool;
+    }
+
+    public ImageWriterPool getWriterPool() {
+        return writerPool;
+    }
+
+    public Float getCompressionQuality() {
+        return compressionQuality;
+    }
+
+    /**
+     * Set compression quality used by image writers supporting compression. Rendered images already cached are not
+     * affected.
+     *
+     * @param compressionQuality compression quality between {@code 0} and {@code 1} or {@code null}, to use the
+     *                           default of the image writer
+     */
+    public void setCompressionQuality(Float compressionQuality) {
+        if (compressionQuality != null && (compressionQuality < 0 || compressionQuality > 1))
+            throw new IllegalArgumentException("compressionQuality: " + compressionQuality);
+        this.compressionQuality = compressionQuality;
+    }
+
+    /**
+     * Returns the rendered image from the cache, or renders it from the specified file in the current thread. If
+     * the same image is already rendered by another thread, waits for and returns its result.
+     *
+     * @param key  identifies the rendered image
+     * @param file DICOM file containing the SOP Instance identified by {@code key}
+     * @return encoded image, which shall not be modified
+     * @throws IOException if the image cannot be read, rendered or encoded
+     */
+    public byte[] render(RenderKey key, File file) throws IOException {
+        byte[] b = cache.get(key);
+        if (b != null)
+            return b;
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> prev = pending.putIfAbsent(key, future);
+        if (prev != null)
+            return join(prev);
+
+        renderAndCache(key, file, future);
+        return join(future);
+    }
+
+    /**
+     * Returns the rendered image from the cache as completed future, or renders it from the specified file by the
+     * specified executor. If the same image is already rendered, returns the future of that rendering.
+     *
+     * @param key      identifies the rendered image
+     * @param file     DICOM file containing the SOP Instance identified by {@code key}
+     * @param executor executor used for rendering
+     * @return future of the encoded image, which shall not be modified
+     */
+    public CompletableFuture<byte[]> renderAsync(RenderKey key, File file, Executor executor) {
+        byte[] b = cache.get(key);
+        if (b != null)
+            return CompletableFuture.completedFuture(b);
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> prev = pending.putIfAbsent(key, future);
+        if (prev != null)
+            return prev;
+
+        try {
+            executor.execute(() -> renderAndCache(key, file, future));
+        } catch (RuntimeException e) {
+            pending.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Removes all rendered images of the specified SOP Instance from the cache, e.g. after the instance was updated
+     * or deleted. Renderings of the instance still in progress are detached, so subsequent requests render the
+     * instance again, and their results are not cached.
+     *
+     * @param sopInstanceUID SOP Instance UID
+     * @return number of removed images
+     */
+    public int remove(String sopInstanceUID) {
+        pending.keySet().removeIf(key -> key.getSOPInstanceUID().equals(sopInstanceUID));
+        return cache.remove(sopInstanceUID);
+    }
+
+    private void renderAndCache(RenderKey key, File file, CompletableFuture<byte[]> future) {
+        try {
+            long generation = cache.getGeneration();
+            byte[] b = encode(key, read(key, file));
+            cache.put(key, b, generation);
+            future.complete(b);
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            pending.remove(key, future);
+        }
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    private BufferedImage read(RenderKey key, File file) throws IOException {
+        DicomImageReader reader = readerPool.borrow();
+        try {
+            reader.setInput(file);
+            int frameIndex = key.getFrame() - 1;
+            int width = reader.getWidth(frameIndex);
+            int height = reader.getHeight(frameIndex);
+            int columns = key.getColumns();
+            int rows = key.getRows();
+            if (columns == 0 && rows == 0) {
+                columns = width;
+                rows = height;
+            } else if (columns == 0) {
+                columns = Math.max(1, (int) ((long) width * rows / height));
+            } else if (rows == 0) {
+                rows = Math.max(1, (int) ((long) height * columns / width));
+            }
+            DicomImageReadParam param = (DicomImageReadParam) reader.getDefaultReadParam();
+            if (key.getWindowWidth() != 0) {
+                param.setWindowCenter(key.getWindowCenter());
+                param.setWindowWidth(key.getWindowWidth());
+            }
+            int subsampling = Math.min(width / columns, height / rows);
+            if (subsampling > 1)
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return scale(reader.read(frameIndex, param), columns, rows);
+        } finally {
+            readerPool.release(reader);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage bi, int columns, int rows) {
+        if (bi.getWidth() == columns && bi.getHeight() == rows)
+            return bi;
+
+        BufferedImage scaled = new BufferedImage(columns, rows,
+                bi.getColorModel().getNumColorComponents() == 1
+                        ? BufferedImage.TYPE_BYTE_GRAY
+                        : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(bi, 0, 0, columns, rows, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(RenderKey key, BufferedImage bi) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = writerPool.borrow(key.getFormatName());
+        try {
+            try (ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+                writer.setOutput(ios);
+                writer.write(null, new IIOImage(bi, null, null), writeParam(writer));
+            }
+        } finally {
+            writerPool.release(key.getFormatName(), writer);
+        }
+        return out.toByteArray();
+    }
+
+    private ImageWriteParam writeParam(ImageWriter writer) {
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        Float compressionQuality = this.compressionQuality;
+        if (compressionQuality != null && param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionType() == null)
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            param.setCompressionQuality(compressionQuality);
+        }
+        return param;
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of encoded rendered images, bounded by the total size of the cached images. Images may be held on the
+ * Java heap or in direct buffers outside of the heap. If a spill directory is configured, images evicted from memory
+ * are written to files in that directory, which are bounded by a separate size limit. An image found in the spill
+ * directory is moved back into memory.
+ * <p>
+ * The spill directory shall be dedicated to one cache instance: files of a previous instance are neither reused nor
+ * deleted.
+ * <p>
+ * Images rendered from a SOP Instance, which was removed from the cache by {@link #remove(String)} - or by
+ * {@link #clear()} - after the rendering started, shall not be cached. Therefore callers rendering an image obtain
+ * the current {@link #getGeneration() generation} before reading the SOP Instance and pass it to
+ * {@link #put(RenderKey, byte[], long)}, which discards the image if the SOP Instance was removed since then.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class RenderedImageCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RenderedImageCache.class);
+
+    public static final long DEF_MAX_MEMORY_SIZE = 64L << 20;
+
+    private static final int MAX_REMOVED = 1000;
+
+    private final LinkedHashMap<RenderKey, Object> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<RenderKey, Long> spilled = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong spillHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final LinkedHashMap<String, Long> removed = new LinkedHashMap<String, Long>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            if (size() <= MAX_REMOVED)
+                return false;
+
+            removedAllGeneration = Math.max(removedAllGeneration, eldest.getValue());
+            return true;
+        }
+    };
+    private long generation;
+    private long removedAllGeneration;
+    private long maxMemorySize;
+    private long memorySize;
+    private boolean offHeap;
+    private Path spillDirectory;
+    private long maxSpillSize;
+    private long spillSize;
+
+    public RenderedImageCache() {
+        this(DEF_MAX_MEMORY_SIZE);
+    }
+
+    public RenderedImageCache(long maxMemorySize) {
+        setMaxMemorySize(maxMemorySize);
+    }
+
+    public synchronized long getMaxMemorySize() {
+        return maxMemorySize;
+    }
+
+    public void setMaxMemorySize(long maxMemorySize) {
+        if (maxMemorySize <= 0)
+            throw new IllegalArgumentException("maxMemorySize: " + maxMemorySize);
+        List<Map.Entry<RenderKey, Object>> evicted;
+        long generation;
+        synchronized (this) {
+            this.maxMemorySize = maxMemorySize;
+            evicted = evictFromMemory();
+            generation = this.generation;
+        }
+        spill(evicted, generation);
+    }
+
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    public synchronized boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Specifies if images shall be held in direct buffers outside of the Java heap. Only affects images put into
+     * the cache afterwards.
+     *
+     * @param offHeap {@code true} if images shall be held outside of the Java heap
+     */
+    public synchronized void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    public synchronized Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public synchronized long getMaxSpillSize() {
+        return maxSpillSize;
+    }
+
+    public synchronized long getSpillSize() {
+        return spillSize;
+    }
+
+    /**
+     * Set directory to which images evicted from memory are written.
+     *
+     * @param spillDirectory directory or {@code null}, to discard images evicted from memory
+     * @param maxSpillSize   maximal total size of files in the spill directory
+     * @throws IOException if the directory cannot be created
+     */
+    public void setSpillDirectory(Path spillDirectory, long maxSpillSize) throws IOException {
+        if (spillDirectory != null) {
+            if (maxSpillSize <= 0)
+                throw new IllegalArgumentException("maxSpillSize: " + maxSpillSize);
+            Files.createDirectories(spillDirectory);
+        }
+        List<Path> evicted;
+        synchronized (this) {
+            if (!Objects.equals(this.spillDirectory, spillDirectory)) {
+                evicted = removeAllSpilled();
+            } else {
+                evicted = new ArrayList<>();
+            }
+            this.spillDirectory = spillDirectory;
+            this.maxSpillSize = spillDirectory != null ? maxSpillSize : 0L;
+            evictFromSpillDirectory(evicted);
+        }
+        deleteFiles(evicted);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getSpillHitCount() {
+        return spillHitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the current generation of the cache, which is incremented by each {@link #remove(String)} and
+     * {@link #clear()}.
+     *
+     * @return current generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the encoded image from memory or from the spill directory.
+     *
+     * @param key identifies the rendered image
+     * @return encoded image or {@code null}, if the image is not cached. The returned array may be shared with the
+     * cache and shall not be modified.
+     */
+    public byte[] get(RenderKey key) {
+        Object value;
+        Path file = null;
+        long generation;
+        synchronized (this) {
+            value = memory.get(key);
+            if (value == null && spilled.get(key) != null)
+                file = spillDirectory.resolve(key.toFileName());
+            generation = this.generation;
+        }
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return toBytes(value);
+        }
+        if (file != null) {
+            byte[] b = readSpilled(key, file);
+            if (b != null) {
+                spillHitCount.incrementAndGet();
+                put(key, b, generation);
+                return b;
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Puts the encoded image into memory, regardless of previous removals of its SOP Instance. Images exceeding the
+     * maximal memory size are directly written to the spill directory, if one is configured, without evicting other
+     * images from memory.
+     *
+     * @param key   identifies the rendered image
+     * @param image encoded image, which shall not be modified afterwards
+     */
+    public void put(RenderKey key, byte[] image) {
+        put(key, image, Long.MAX_VALUE);
+    }
+
+    /**
+     * Puts the encoded image into memory, if its SOP Instance was not removed from the cache since the specified
+     * generation. Images exceeding the maximal memory size are directly written to the spill directory, if one is
+     * configured, without evicting other images from memory.
+     *
+     * @param key        identifies the rendered image
+     * @param image      encoded image, which shall not be modified afterwards
+     * @param generation value of {@link #getGeneration()} before the SOP Instance was read for rendering the image
+     * @return {@code false} if the image was discarded, because its SOP Instance was removed since
+     * {@code generation}
+     */
+    public boolean put(RenderKey key, byte[] image, long generation) {
+        Objects.requireNonNull(key);
+        List<Map.Entry<RenderKey, Object>> evicted;
+        long spillGeneration;
+        synchronized (this) {
+            if (isRemovedSince(key, generation))
+                return false;
+
+            spillGeneration = this.generation;
+            if (image.length > maxMemorySize) {
+                memorySize -= sizeOf(memory.remove(key));
+                evicted = new ArrayList<>(1);
+                if (spillDirectory != null && image.length <= maxSpillSize && !spilled.containsKey(key))
+                    evicted.add(new AbstractMap.SimpleImmutableEntry<>(key, image));
+            } else {
+                Object value = offHeap ? toDirectBuffer(image) : image;
+                memorySize += image.length - sizeOf(memory.put(key, value));
+                evicted = evictFromMemory();
+            }
+        }
+        spill(evicted, spillGeneration);
+        return true;
+    }
+
+    /**
+     * Removes all rendered images of the specified SOP Instance, e.g. after the instance was updated or deleted.
+     *
+     * @param sopInstanceUID SOP Instance UID
+     * @return number of removed images
+     */
+    public int remove(String sopInstanceUID) {
+        int count = 0;
+        List<Path> files = new ArrayList<>();
+        synchronized (this) {
+            removed.put(sopInstanceUID, ++generation);
+            for (Iterator<Map.Entry<RenderKey, Object>> it = memory.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<RenderKey, Object> entry = it.next();
+                if (entry.getKey().getSOPInstanceUID().equals(sopInstanceUID)) {
+                    memorySize -= sizeOf(entry.getValue());
+                    it.remove();
+                    count++;
+                }
+            }
+            for (Iterator<Map.Entry<RenderKey, Long>> it = spilled.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<RenderKey, Long> entry = it.next();
+                if (entry.getKey().getSOPInstanceUID().equals(sopInstanceUID)) {
+                    spillSize -= entry.getValue();
+                    files.add(spillDirectory.resolve(entry.getKey().toFileName()));
+                    it.remove();
+                    count++;
+                }
+            }
+        }
+        deleteFiles(files);
+        return count;
+    }
+
+    public void clear() {
+        List<Path> files;
+        synchronized (this) {
+            removed.clear();
+            removedAllGeneration = ++generation;
+            memory.clear();
+            memorySize = 0L;
+            files = removeAllSpilled();
+        }
+        deleteFiles(files);
+    }
+
+    /**
+     * Returns {@code true} if the SOP Instance of the specified key was removed after the specified generation.
+     * Generations before the removal of SOP Instances, which are no longer recorded, are considered as removed for
+     * all SOP Instances.
+     */
+    private boolean isRemovedSince(RenderKey key, long generation) {
+        if (generation < removedAllGeneration)
+            return true;
+
+        Long removedGeneration = removed.get(key.getSOPInstanceUID());
+        return removedGeneration != null && generation < removedGeneration;
+    }
+
+    private List<Map.Entry<RenderKey, Object>> evictFromMemory() {
+        List<Map.Entry<RenderKey, Object>> evicted = new ArrayList<>();
+        Iterator<Map.Entry<RenderKey, Object>> it = memory.entrySet().iterator();
+        while (memorySize > maxMemorySize && it.hasNext()) {
+            Map.Entry<RenderKey, Object> eldest = it.next();
+            memorySize -= sizeOf(eldest.getValue());
+            it.remove();
+            if (spillDirectory != null && !spilled.containsKey(eldest.getKey()))
+                evicted.add(eldest);
+        }
+        return evicted;
+    }
+
+    private void evictFromSpillDirectory(List<Path> evicted) {
+        Iterator<Map.Entry<RenderKey, Long>> it = spilled.entrySet().iterator();
+        while (spillSize > maxSpillSize && it.hasNext()) {
+            Map.Entry<RenderKey, Long> eldest = it.next();
+            spillSize -= eldest.getValue();
+            evicted.add(spillDirectory.resolve(eldest.getKey().toFileName()));
+            it.remove();
+        }
+    }
+
+    private List<Path> removeAllSpilled() {
+        List<Path> files = new ArrayList<>(spilled.size());
+        for (RenderKey key : spilled.keySet())
+            files.add(spillDirectory.resolve(key.toFileName()));
+        spilled.clear();
+        spillSize = 0L;
+        return files;
+    }
+
+    private void spill(List<Map.Entry<RenderKey, Object>> evicted, long generation) {
+        for (Map.Entry<RenderKey, Object> entry : evicted) {
+            Path dir;
+            synchronized (this) {
+                dir = spillDirectory;
+            }
+            if (dir == null)
+                return;
+
+            RenderKey key = entry.getKey();
+            byte[] b = toBytes(entry.getValue());
+            Path file = dir.resolve(key.toFileName());
+            try {
+                Path tmp = Files.createTempFile(dir, null, ".part");
+                try {
+                    Files.write(tmp, b);
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException e) {
+                LOG.warn("Failed to write {} to {}", key, file, e);
+                continue;
+            }
+            List<Path> files = new ArrayList<>();
+            synchronized (this) {
+                if (!dir.equals(spillDirectory)) {
+                    files.add(file);
+                } else if (isRemovedSince(key, generation)) {
+                    if (!spilled.containsKey(key))
+                        files.add(file);
+                } else {
+                    spillSize += b.length - sizeOf(spilled.put(key, (long) b.length));
+                    evictFromSpillDirectory(files);
+                }
+            }
+            deleteFiles(files);
+        }
+    }
+
+    private byte[] readSpilled(RenderKey key, Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            LOG.debug("{} was removed from spill directory", key);
+        } catch (IOException e) {
+            LOG.warn("Failed to read {} from {}", key, file, e);
+        }
+        return null;
+    }
+
+    private static void deleteFiles(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.info("Failed to delete {}", file, e);
+            }
+        }
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] b) {
+        ByteBuffer bb = ByteBuffer.allocateDirect(b.length);
+        bb.put(b);
+        bb.flip();
+        return bb;
+    }
+
+    private static byte[] toBytes(Object value) {
+        if (value instanceof byte[])
+            return (byte[]) value;
+
+        ByteBuffer bb = ((ByteBuffer) value).duplicate();
+        byte[] b = new byte[bb.remaining()];
+        bb.get(b);
+        return b;
+    }
+
+    private static long sizeOf(Object value) {
+        return value == null ? 0L
+                : value instanceof byte[] ? ((byte[]) value).length
+                : value instanceof Long ? (Long) value
+                : ((ByteBuffer) value).remaining();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.codec;
+
+import org.dcm4che3.data.BulkData;
+import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.util.ByteUtils;
+import org.junit.Test;
+
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class FrameIndexTest {
+
+    private static final int START = 16;
+    private static final byte[] SOI = { (byte) 0xFF, (byte) 0xD8, 0, 0 };
+    private static final byte[] CONT = { 0x12, 0x34 };
+
+    @Test
+    public void testFromBasicOffsetTable() {
+        FrameIndex index = FrameIndex.fromBasicOffsetTable(basicOffsetTable(0, 100, 200), 3);
+        assertNotNull(index);
+        assertEquals(3, index.size());
+        assertEquals(0L, index.offset(0));
+        assertEquals(100L, index.offset(1));
+        assertEquals(200L, index.offset(2));
+        assertEquals(-1L, index.length(1));
+        assertFalse(index.isExtendedOffsetTableEncodable());
+    }
+
+    @Test
+    public void testFromBasicOffsetTableBeyond4GB() {
+        FrameIndex index = FrameIndex.fromBasicOffsetTable(
+                basicOffsetTable(0, 0xffffff00, 0x100, 0x80000000, 0x10), 5);
+        assertNotNull(index);
+        assertEquals(0L, index.offset(0));
+        assertEquals(0xffffff00L, index.offset(1));
+        assertEquals(0x100000100L, index.offset(2));
+        assertEquals(0x180000000L, index.offset(3));
+        assertEquals(0x200000010L, index.offset(4));
+    }
+
+    @Test
+    public void testFromBasicOffsetTableIncomplete() {
+        assertNull(FrameIndex.fromBasicOffsetTable(new byte[0], 2));
+        assertNull(FrameIndex.fromBasicOffsetTable(basicOffsetTable(0), 2));
+        assertNull(FrameIndex.fromBasicOffsetTable(basicOffsetTable(0), 0));
+    }
+
+    @Test
+    public void testScanSingleFragmentFrames() throws Exception {
+        byte[] data = fragments(item(SOI, 10), item(SOI, 6), item(SOI, 4));
+        FrameIndex index = FrameIndex.scan(iis(data), START, 3, TransferSyntaxType.JPEG_BASELINE);
+        assertEquals(3, index.size());
+        assertEquals(0L, index.offset(0));
+        assertEquals(18L, index.offset(1));
+        assertEquals(32L, index.offset(2));
+        assertEquals(10L, index.length(0));
+        assertEquals(6L, index.length(1));
+        assertEquals(4L, index.length(2));
+        assertTrue(index.isExtendedOffsetTableEncodable());
+    }
+
+    @Test
+    public void testScanMultiFragmentFrames() throws Exception {
+        byte[] data = fragments(item(SOI, 10), item(CONT, 6), item(SOI, 4), item(CONT, 2), item(CONT, 2));
+        FrameIndex index = FrameIndex.scan(iis(data), START, 2, TransferSyntaxType.JPEG_BASELINE);
+        assertEquals(2, index.size());
+        assertEquals(0L, index.offset(0));
+        assertEquals(32L, index.offset(1));
+        assertEquals(-1L, index.length(0));
+        assertEquals(-1L, index.length(1));
+        assertFalse(index.isExtendedOffsetTableEncodable());
+
+        Fragments fragments = new Fragments(VR.OB, false, 3);
+        fragments.add(new byte[0]);
+        index.addTo(fragments, START);
+        BulkData frame1 = (BulkData) fragments.get(1);
+        assertEquals(START + 8, frame1.offset());
+        assertEquals(24, frame1.length());
+        BulkData frame2 = (BulkData) fragments.get(2);
+        assertEquals(START + 32 + 8, frame2.offset());
+        assertEquals(-1, frame2.length());
+    }
+
+    @Test
+    public void testScanRLE() throws Exception {
+        byte[] data = fragments(item(CONT, 10), item(CONT, 6));
+        FrameIndex index = FrameIndex.scan(iis(data), START, 2, TransferSyntaxType.RLE);
+        assertEquals(0L, index.offset(0));
+        assertEquals(18L, index.offset(1));
+        assertEquals(10L, index.length(0));
+        assertEquals(6L, index.length(1));
+    }
+
+    @Test
+    public void testScanSingleFrameSpanningFragments() throws Exception {
+        byte[] data = fragments(item(SOI, 10), item(SOI, 6));
+        FrameIndex index = FrameIndex.scan(iis(data), START, 1, TransferSyntaxType.JPEG_2000);
+        assertEquals(1, index.size());
+        assertEquals(0L, index.offset(0));
+        assertEquals(-1L, index.length(0));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testScanMissingFrames() throws Exception {
+        FrameIndex.scan(iis(fragments(item(SOI, 10))), START, 2, TransferSyntaxType.JPEG_BASELINE);
+    }
+
+    private static byte[] basicOffsetTable(int... offsets) {
+        byte[] b = new byte[offsets.length * 4];
+        for (int i = 0; i < offsets.length; i++)
+            ByteUtils.intToBytesLE(offsets[i], b, i * 4);
+        return b;
+    }
+
+    private static byte[] item(byte[] startBytes, int length) {
+        byte[] b = new byte[8 + length];
+        ByteUtils.tagToBytesLE(0xFFFEE000, b, 0);
+        ByteUtils.intToBytesLE(length, b, 4);
+        System.arraycopy(startBytes, 0, b, 8, Math.min(startBytes.length, length));
+        return b;
+    }
+
+    private static byte[] fragments(byte[]... items) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[START], 0, START);
+        for (byte[] item : items)
+            out.write(item, 0, item.length);
+        byte[] seqDelim = new byte[8];
+        ByteUtils.tagToBytesLE(0xFFFEE0DD, seqDelim, 0);
+        out.write(seqDelim, 0, 8);
+        return out.toByteArray();
+    }
+
+    private static ImageInputStream iis(byte[] data) {
+        return new MemoryCacheImageInputStream(new ByteArrayInputStream(data));
+    }
+}
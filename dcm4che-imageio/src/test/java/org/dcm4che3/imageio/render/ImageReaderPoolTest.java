@@ -0,0 +1,103 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import org.dcm4che3.imageio.codec.FrameIndexCache;
+import org.dcm4che3.imageio.plugins.dcm.DicomImageReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class ImageReaderPoolTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testResetBeforeReuse() throws Exception {
+        FrameIndexCache frameIndexCache = new FrameIndexCache(10);
+        ImageReaderPool pool = new ImageReaderPool(1, frameIndexCache);
+        DicomImageReader reader = pool.borrow();
+        File file = tmp.newFile();
+        reader.setInput(file);
+        assertSame(file, reader.getInput());
+        pool.release(reader);
+        assertEquals(1, pool.getIdleCount());
+
+        DicomImageReader reused = pool.borrow();
+        assertSame(reader, reused);
+        assertEquals(0, pool.getIdleCount());
+        assertNull(reused.getInput());
+        assertSame(frameIndexCache, reused.getFrameIndexCache());
+    }
+
+    @Test
+    public void testMaxIdle() {
+        ImageReaderPool pool = new ImageReaderPool(1, null);
+        DicomImageReader reader1 = pool.borrow();
+        DicomImageReader reader2 = pool.borrow();
+        assertNotSame(reader1, reader2);
+        pool.release(reader1);
+        pool.release(reader2);
+        assertEquals(1, pool.getIdleCount());
+        assertSame(reader1, pool.borrow());
+        assertNotSame(reader2, pool.borrow());
+    }
+
+    @Test
+    public void testClear() {
+        ImageReaderPool pool = new ImageReaderPool(2, null);
+        pool.release(pool.borrow());
+        assertEquals(1, pool.getIdleCount());
+        pool.clear();
+        assertEquals(0, pool.getIdleCount());
+    }
+}
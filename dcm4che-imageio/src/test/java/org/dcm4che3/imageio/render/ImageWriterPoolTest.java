@@ -0,0 +1,109 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class ImageWriterPoolTest {
+
+    @Test
+    public void testResetBeforeReuse() throws Exception {
+        ImageWriterPool pool = new ImageWriterPool(1);
+        ImageWriter writer = pool.borrow("png");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(new BufferedImage(4, 4, BufferedImage.TYPE_BYTE_GRAY));
+        }
+        assertNotNull(writer.getOutput());
+        pool.release("png", writer);
+        assertEquals(1, pool.getIdleCount("PNG"));
+
+        ImageWriter reused = pool.borrow("PNG");
+        assertSame(writer, reused);
+        assertEquals(0, pool.getIdleCount("png"));
+        assertNull(reused.getOutput());
+    }
+
+    @Test
+    public void testPoolPerFormat() {
+        ImageWriterPool pool = new ImageWriterPool(1);
+        ImageWriter png = pool.borrow("png");
+        pool.release("png", png);
+        ImageWriter jpeg = pool.borrow("jpeg");
+        assertNotSame(png, jpeg);
+        pool.release("jpeg", jpeg);
+        assertEquals(1, pool.getIdleCount("png"));
+        assertEquals(1, pool.getIdleCount("jpeg"));
+    }
+
+    @Test
+    public void testMaxIdle() {
+        ImageWriterPool pool = new ImageWriterPool(1);
+        ImageWriter writer1 = pool.borrow("png");
+        ImageWriter writer2 = pool.borrow("png");
+        assertNotSame(writer1, writer2);
+        pool.release("png", writer1);
+        pool.release("png", writer2);
+        assertEquals(1, pool.getIdleCount("png"));
+        assertSame(writer1, pool.borrow("png"));
+        assertNotSame(writer2, pool.borrow("png"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoWriterForFormat() {
+        new ImageWriterPool().borrow("no-such-format");
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.imageio.render;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class RenderedImageCacheTest {
+
+    private static final String IUID1 = "1.2.3.1";
+    private static final String IUID2 = "1.2.3.2";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private RenderedImageCache cache;
+    private Path spillDir;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new RenderedImageCache(100);
+        spillDir = tmp.newFolder("spill").toPath();
+    }
+
+    @Test
+    public void testGet() {
+        RenderKey key = key(IUID1, 1);
+        assertNull(cache.get(key));
+        cache.put(key, image(40));
+        assertArrayEquals(image(40), cache.get(key));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(40, cache.getMemorySize());
+    }
+
+    @Test
+    public void testGetOffHeap() {
+        cache.setOffHeap(true);
+        cache.put(key(IUID1, 1), image(40));
+        assertArrayEquals(image(40), cache.get(key(IUID1, 1)));
+        assertEquals(40, cache.getMemorySize());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        cache.put(key(IUID1, 1), image(40));
+        cache.put(key(IUID1, 2), image(40));
+        cache.get(key(IUID1, 1));
+        cache.put(key(IUID1, 3), image(40));
+        assertNotNull(cache.get(key(IUID1, 1)));
+        assertNull(cache.get(key(IUID1, 2)));
+        assertNotNull(cache.get(key(IUID1, 3)));
+        assertEquals(80, cache.getMemorySize());
+    }
+
+    @Test
+    public void testPutExceedingMaxMemorySize() throws Exception {
+        cache.setSpillDirectory(spillDir, 1000);
+        cache.put(key(IUID1, 1), image(40));
+        cache.put(key(IUID1, 2), image(40));
+        cache.put(key(IUID1, 3), image(150));
+        assertEquals(80, cache.getMemorySize());
+        assertEquals(150, cache.getSpillSize());
+        assertNotNull(cache.get(key(IUID1, 1)));
+        assertNotNull(cache.get(key(IUID1, 2)));
+        assertArrayEquals(image(150), cache.get(key(IUID1, 3)));
+        assertEquals(1, cache.getSpillHitCount());
+        assertEquals(80, cache.getMemorySize());
+    }
+
+    @Test
+    public void testPutExceedingMaxMemorySizeWithoutSpillDirectory() {
+        cache.put(key(IUID1, 1), image(40));
+        cache.put(key(IUID1, 2), image(150));
+        assertEquals(40, cache.getMemorySize());
+        assertNotNull(cache.get(key(IUID1, 1)));
+        assertNull(cache.get(key(IUID1, 2)));
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        cache.setSpillDirectory(spillDir, 1000);
+        cache.put(key(IUID1, 1), image(60));
+        cache.put(key(IUID1, 2), image(60));
+        assertEquals(60, cache.getMemorySize());
+        assertEquals(60, cache.getSpillSize());
+        assertArrayEquals(image(60), cache.get(key(IUID1, 1)));
+        assertEquals(1, cache.getSpillHitCount());
+    }
+
+    @Test
+    public void testEvictFromSpillDirectory() throws Exception {
+        cache.setSpillDirectory(spillDir, 100);
+        cache.put(key(IUID1, 1), image(60));
+        cache.put(key(IUID1, 2), image(60));
+        cache.put(key(IUID1, 3), image(60));
+        assertEquals(60, cache.getSpillSize());
+        assertNull(cache.get(key(IUID1, 1)));
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        cache.setSpillDirectory(spillDir, 1000);
+        cache.put(key(IUID1, 1), image(60));
+        cache.put(key(IUID1, 2), image(60));
+        cache.put(key(IUID2, 1), image(30));
+        assertEquals(2, cache.remove(IUID1));
+        assertEquals(30, cache.getMemorySize());
+        assertEquals(0, cache.getSpillSize());
+        assertEquals(0, fileCount());
+        assertNull(cache.get(key(IUID1, 1)));
+        assertNull(cache.get(key(IUID1, 2)));
+        assertNotNull(cache.get(key(IUID2, 1)));
+    }
+
+    @Test
+    public void testPutAfterRemove() {
+        long generation = cache.getGeneration();
+        cache.remove(IUID1);
+        assertFalse(cache.put(key(IUID1, 1), image(40), generation));
+        assertTrue(cache.put(key(IUID2, 1), image(40), generation));
+        assertNull(cache.get(key(IUID1, 1)));
+        assertTrue(cache.put(key(IUID1, 1), image(40), cache.getGeneration()));
+        assertNotNull(cache.get(key(IUID1, 1)));
+    }
+
+    @Test
+    public void testPutAfterClear() {
+        long generation = cache.getGeneration();
+        cache.clear();
+        assertFalse(cache.put(key(IUID1, 1), image(40), generation));
+        assertNull(cache.get(key(IUID1, 1)));
+    }
+
+    @Test
+    public void testPutAfterRemoveOfManyInstances() {
+        long generation = cache.getGeneration();
+        cache.remove(IUID1);
+        for (int i = 0; i < 1000; i++)
+            cache.remove("1.2.4." + i);
+        assertFalse(cache.put(key(IUID1, 1), image(40), generation));
+    }
+
+    @Test
+    public void testSpillHitAfterRemove() throws Exception {
+        cache.setSpillDirectory(spillDir, 1000);
+        cache.put(key(IUID1, 1), image(60));
+        cache.put(key(IUID1, 2), image(60));
+        cache.remove(IUID1);
+        assertNull(cache.get(key(IUID1, 1)));
+        assertEquals(0, cache.getMemorySize());
+        assertEquals(0, fileCount());
+    }
+
+    private long fileCount() throws Exception {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.count();
+        }
+    }
+
+    private static RenderKey key(String iuid, int frame) {
+        return new RenderKey(iuid, frame, 0, 0, 0, 0, "JPEG");
+    }
+
+    private static byte[] image(int length) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++)
+            b[i] = (byte) i;
+        return b;
+    }
+}
@@ -96,6 +96,12 @@ import org.slf4j.LoggerFactory;
  * </code>
  * </pre>
  *
+ * <p> Attached to a {@link org.dcm4che3.io.DicomInputStream}, attribute values are written as soon as they are read
+ * and are not kept in the returned {@code Attributes}. Sequence Items and Data Fragments are released after they
+ * were written, so heap usage does not grow with the size of the data set. Use
+ * {@link org.dcm4che3.io.DicomInputStream.IncludeBulkData#URI} to write bulk data as {@code BulkDataURI}
+ * without reading its value.
+ *
  * @author Gunter Zeilinger <gunterze@gmail.com>
  *
  */
@@ -232,6 +238,8 @@ public class JSONWriter implements DicomInputHandler {
                 dis.readValue(dis, attrs);
                 if (hasItems.removeLast())
                     gen.writeEnd();
+                // Items or Data Fragments were already written
+                attrs.remove(tag);
             } else if (len > 0) {
                 if (dis.isIncludeBulkDataURI()) {
                     writeBulkData(dis.createBulkData(dis));
@@ -447,6 +455,7 @@ public class JSONWriter implements DicomInputHandler {
         gen.writeStartObject();
         dis.readValue(dis, seq);
         gen.writeEnd();
+        seq.remove(seq.size() - 1);
     }
 
     @Override
@@ -39,7 +39,11 @@
 package org.dcm4che3.json;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.StringWriter;
 
 import javax.json.Json;
@@ -49,9 +53,12 @@ import javax.json.stream.JsonGenerator;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.BulkData;
 import org.dcm4che3.data.Fragments;
+import org.dcm4che3.data.Sequence;
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
 import org.dcm4che3.data.VR;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomOutputStream;
 import org.junit.Test;
 
 /**
@@ -192,4 +199,40 @@ public class JSONWriterTest {
         assertEquals(INFINITY_AND_NAN, writer.toString());
     }
 
+    @Test
+    public void testStreaming() throws IOException {
+        Attributes dataset = new Attributes();
+        dataset.setString(Tag.SOPInstanceUID, VR.UI, "1.2.3.4");
+        dataset.setString("PRIVATE", 0x00090002, VR.LO, "private");
+        Sequence seq = dataset.newSequence(Tag.PerFrameFunctionalGroupsSequence, 100);
+        for (int i = 1; i <= 100; i++) {
+            Attributes item = new Attributes(1);
+            Attributes frameContent = new Attributes(1);
+            frameContent.setInt(Tag.InStackPositionNumber, VR.UL, i);
+            item.newSequence(Tag.FrameContentSequence, 1).add(frameContent);
+            seq.add(item);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (DicomOutputStream dos = new DicomOutputStream(bout, UID.ExplicitVRLittleEndian)) {
+            dos.writeDataset(null, dataset);
+        }
+
+        StringWriter expected = new StringWriter();
+        JsonGenerator gen = Json.createGenerator(expected);
+        new JSONWriter(gen).write(dataset);
+        gen.flush();
+
+        StringWriter streamed = new StringWriter();
+        gen = Json.createGenerator(streamed);
+        Attributes read;
+        try (DicomInputStream dis = new DicomInputStream(
+                new ByteArrayInputStream(bout.toByteArray()), UID.ExplicitVRLittleEndian)) {
+            dis.setDicomInputHandler(new JSONWriter(gen));
+            read = dis.readDataset();
+        }
+        gen.flush();
+        assertEquals(expected.toString(), streamed.toString());
+        assertFalse(read.contains(Tag.SOPInstanceUID));
+        assertFalse(read.contains(Tag.PerFrameFunctionalGroupsSequence));
+    }
 }
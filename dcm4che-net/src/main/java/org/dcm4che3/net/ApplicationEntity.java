@@ -100,6 +100,7 @@ public class ApplicationEntity implements Serializable {
     private final LinkedHashMap<Class<? extends AEExtension>,AEExtension> extensions = new LinkedHashMap<>();
 
     private transient DimseRQHandler dimseRQHandler;
+    private transient AssociationPool associationPool;
 
     public ApplicationEntity() {
     }
@@ -454,6 +455,22 @@ public class ApplicationEntity implements Serializable {
         this.dimseRQHandler = dimseRQHandler;
     }
 
+    public final AssociationPool getAssociationPool() {
+        return associationPool;
+    }
+
+    /**
+     * Set pool of outgoing Associations used by {@link #lease(Connection, Connection, AAssociateRQ)} and
+     * {@link #release(Association)}.
+     *
+     * @param associationPool pool of outgoing Associations or {@code null}
+     */
+    public final void setAssociationPool(AssociationPool associationPool) {
+        if (associationPool != null && associationPool.getApplicationEntity() != this)
+            throw new IllegalArgumentException("Association pool of other Application Entity");
+        this.associationPool = associationPool;
+    }
+
     private void checkInstalled() {
         if (!isInstalled())
             throw new IllegalStateException("Not installed");
@@ -625,8 +642,16 @@ public class ApplicationEntity implements Serializable {
             rq.setCallingAET(getCallingAETitle(rq.getCalledAET()));
         rq.setMaxOpsInvoked(local.getMaxOpsInvoked());
         rq.setMaxOpsPerformed(local.getMaxOpsPerformed());
-        rq.setMaxPDULength(local.getReceivePDULength());
-        Socket sock = local.connect(remote);
+        ConnectionAutoTuning tuning = device.getDeviceExtension(ConnectionAutoTuning.class);
+        int bufferSize = 0;
+        if (tuning != null) {
+            ConnectionAutoTuning.RemoteProfile profile = tuning.profileOf(rq.getCalledAET());
+            rq.setMaxPDULength(tuning.receivePDULength(profile, local));
+            bufferSize = tuning.socketBufferSize(profile);
+        } else {
+            rq.setMaxPDULength(local.getReceivePDULength());
+        }
+        Socket sock = local.connect(remote, bufferSize);
         AssociationMonitor monitor = device.getAssociationMonitor();
         Association as = null;
         try {
@@ -649,6 +674,35 @@ public class ApplicationEntity implements Serializable {
         return connect(findCompatibleConnection(remote), remote, rq);
     }
 
+    /**
+     * Leases an Association from the configured {@link AssociationPool}, or opens a new Association, if no
+     * Association pool is configured.
+     *
+     * @param local local Connection
+     * @param remote remote Connection
+     * @param rq A-ASSOCIATE-RQ
+     * @return Association, which shall be returned by {@link #release(Association)}
+     */
+    public Association lease(Connection local, Connection remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        AssociationPool pool = associationPool;
+        return pool != null ? pool.lease(local, remote, rq) : connect(local, remote, rq);
+    }
+
+    /**
+     * Returns an Association obtained by {@link #lease} to the configured {@link AssociationPool}, or releases
+     * it, if no Association pool is configured.
+     *
+     * @param as Association
+     */
+    public void release(Association as) throws IOException, InterruptedException {
+        AssociationPool pool = associationPool;
+        if (pool != null)
+            pool.release(as);
+        else
+            as.release();
+    }
+
     public Connection findCompatibleConnection(Connection remoteConn)
             throws IncompatibleConnectionException {
         for (Connection conn : conns)
@@ -40,12 +40,21 @@ package org.dcm4che3.net;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.SocketChannel;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
@@ -58,7 +67,6 @@ import org.dcm4che3.net.pdu.AAssociateRQ;
 import org.dcm4che3.net.pdu.CommonExtendedNegotiation;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.RoleSelection;
-import org.dcm4che3.util.IntHashMap;
 import org.dcm4che3.util.ReverseDNS;
 import org.dcm4che3.util.SafeClose;
 import org.slf4j.Logger;
@@ -82,10 +90,16 @@ public class Association {
     private ApplicationEntity ae;
     private final Device device;
     private final AssociationMonitor monitor;
+    private final DeviceMetrics metrics;
+    private final ConnectionAutoTuning tuning;
+    private final DeviceMetrics.ConnectionMetrics connMetrics;
+    private final ConcurrentHashMap<Integer, DeviceMetrics.DimseTimer> invokedTimers;
+    private final ConcurrentHashMap<Integer, DeviceMetrics.DimseTimer> performedTimers;
     private final Connection conn;
     private final Socket sock;
     private final InputStream in;
     private final OutputStream out;
+    private final NioAssociationChannel nioChannel;
     private final PDUEncoder encoder;
     private PDUDecoder decoder;
     private State state;
@@ -95,13 +109,20 @@ public class Association {
 
     private HashMap<String, Object> properties;
     private int maxOpsInvoked;
+    private int maxOpsPerformed;
     private int maxPDULength;
+    private boolean packPDV;
+    private ConnectionAutoTuning.RemoteProfile tuningProfile;
+    private long rqSentTime;
     private int performing;
     private Timeout timeout;
-    private final IntHashMap<DimseRSPHandler> rspHandlerForMsgId =
-            new IntHashMap<DimseRSPHandler>();
-    private final IntHashMap<CancelRQHandler> cancelHandlerForMsgId =
-            new IntHashMap<CancelRQHandler>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final ConcurrentHashMap<Integer, DimseRSPHandler> rspHandlerForMsgId =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CancelRQHandler> cancelHandlerForMsgId =
+            new ConcurrentHashMap<>();
+    private Semaphore invokeWindow;
     private final HashMap<String,HashMap<String,PresentationContext>> pcMap =
             new HashMap<String,HashMap<String,PresentationContext>>();
     private final LinkedList<AssociationListener> listeners = new LinkedList<>();
@@ -118,9 +139,29 @@ public class Association {
         this.conn = local;
         this.device = local.getDevice();
         this.monitor = device.getAssociationMonitor();
+        this.metrics = device.getDeviceExtension(DeviceMetrics.class);
+        this.tuning = device.getDeviceExtension(ConnectionAutoTuning.class);
+        this.packPDV = local.isPackPDV();
+        if (metrics != null) {
+            this.connMetrics = metrics.connectionMetrics(local);
+            this.invokedTimers = new ConcurrentHashMap<>();
+            this.performedTimers = new ConcurrentHashMap<>();
+        } else {
+            this.connMetrics = null;
+            this.invokedTimers = null;
+            this.performedTimers = null;
+        }
         this.sock = sock;
-        this.in = sock.getInputStream();
-        this.out = sock.getOutputStream();
+        SocketChannel ch = sock.getChannel();
+        if (ch != null && conn.isNonBlockingIO()) {
+            this.nioChannel = new NioAssociationChannel(this, ch, device.nioSelector());
+            this.in = nioChannel.getInputStream();
+            this.out = nioChannel.getOutputStream();
+        } else {
+            this.nioChannel = null;
+            this.in = ch != null ? SocketChannelStreams.newInputStream(ch) : sock.getInputStream();
+            this.out = ch != null ? SocketChannelStreams.newOutputStream(ch) : sock.getOutputStream();
+        }
         this.encoder = new PDUEncoder(this, out);
         if (requestor) {
             enterState(State.Sta4);
@@ -131,6 +172,10 @@ public class Association {
         activate();
     }
 
+    final boolean isNonBlockingIO() {
+        return nioChannel != null;
+    }
+
     public long getConnectTimeInMillis() {
         return connectTime;
     }
@@ -163,6 +208,41 @@ public class Association {
         dimseCounters.getAndIncrement(dimse.ordinal());
     }
 
+    void onPDUReceived(int pdutype, int pdulen) {
+        if (metrics != null)
+            metrics.onPDUReceived(connMetrics, pdutype, 6L + (pdulen & 0xFFFFFFFFL));
+    }
+
+    void onPDUSent(int pdutype, int length) {
+        if (metrics != null)
+            metrics.onPDUSent(connMetrics, pdutype, length);
+    }
+
+    private void startInvokedTimer(Attributes cmd) {
+        Dimse dimse = Dimse.valueOf(cmd.getInt(Tag.CommandField, 0));
+        invokedTimers.put(cmd.getInt(Tag.MessageID, -1),
+                new DeviceMetrics.DimseTimer(dimse, cmd.getString(dimse.tagOfSOPClassUID())));
+        metrics.onInvoke();
+    }
+
+    private void stopInvokedTimer(int msgId, boolean completed) {
+        DeviceMetrics.DimseTimer timer = invokedTimers.remove(msgId);
+        if (timer != null)
+            metrics.onInvokeCompleted(completed ? timer : null, getRemoteAET());
+    }
+
+    private void startPerformedTimer(Dimse dimse, Attributes cmd) {
+        performedTimers.put(cmd.getInt(Tag.MessageID, -1),
+                new DeviceMetrics.DimseTimer(dimse, cmd.getString(dimse.tagOfSOPClassUID())));
+        metrics.onPerform();
+    }
+
+    private void stopPerformedTimer(Attributes cmd) {
+        DeviceMetrics.DimseTimer timer = performedTimers.remove(cmd.getInt(Tag.MessageIDBeingRespondedTo, -1));
+        if (timer != null)
+            metrics.onPerformCompleted(timer, getRemoteAET());
+    }
+
     void incReceivedCount(Dimse dimse) {
         dimseCounters.getAndIncrement(23 + dimse.ordinal());
     }
@@ -328,7 +408,11 @@ public class Association {
     }
 
     boolean isPackPDV() {
-        return conn.isPackPDV();
+        return packPDV;
+    }
+
+    boolean isGatheringWrite() {
+        return conn.isGatheringWrite();
     }
 
     public void release() throws IOException {
@@ -348,18 +432,30 @@ public class Association {
         }
     }
 
-    private synchronized void closeSocket() {
-        state.closeSocket(this);
+    private void closeSocket() {
+        lock.lock();
+        try {
+            state.closeSocket(this);
+        } finally {
+            lock.unlock();
+        }
     }
 
     void doCloseSocket() {
         LOG.info("{}: close {}", name, sock);
         SafeClose.close(sock);
         enterState(State.Sta1);
+        if (nioChannel != null)
+            nioChannel.closed();
     }
 
-    synchronized private void closeSocketDelayed() {
-        state.closeSocketDelayed(this);
+    private void closeSocketDelayed() {
+        lock.lock();
+        try {
+            state.closeSocketDelayed(this);
+        } finally {
+            lock.unlock();
+        }
     }
 
     void doCloseSocketDelayed() {
@@ -378,14 +474,19 @@ public class Association {
             closeSocket();
     }
 
-    synchronized void onIOException(IOException e) {
-        if (ex != null)
-            return;
+    void onIOException(IOException e) {
+        lock.lock();
+        try {
+            if (ex != null)
+                return;
 
-        ex = e;
-        LOG.info("{}: i/o exception: {} in State: {}",
-                new Object[] { name, e, state });
-        closeSocket();
+            ex = e;
+            LOG.info("{}: i/o exception: {} in State: {}",
+                    new Object[] { name, e, state });
+            closeSocket();
+        } finally {
+            lock.unlock();
+        }
     }
 
     void write(AAbort aa) throws IOException  {
@@ -433,13 +534,16 @@ public class Association {
 
     private void startSendTimeout(int timeout) {
         if (timeout > 0) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 stopTimeout();
                 this.timeout = Timeout.start(this,
                         "{}: start send timeout of {}ms",
                         "{}: send timeout expired",
                         "{}: stop send timeout",
                         timeout);
+            } finally {
+                lock.unlock();
             }
         }
     }
@@ -447,45 +551,76 @@ public class Association {
     private void startTimeout(String startMsg, String expiredMsg,
             String cancelMsg, int timeout, State state) {
         if (timeout > 0 && performing == 0 && rspHandlerForMsgId.isEmpty()) {
-            synchronized (this) {
+            lock.lock();
+            try {
                 if (this.state == state) {
                     stopTimeout();
                     this.timeout = Timeout.start(this, startMsg, expiredMsg,
                             cancelMsg, timeout);
                 }
+            } finally {
+                lock.unlock();
             }
         }
     }
 
     private void startTimeout(final int msgID, int timeout, boolean stopOnPending) {
         if (timeout > 0) {
-            synchronized (rspHandlerForMsgId) {
-                DimseRSPHandler rspHandler = rspHandlerForMsgId.get(msgID);
-                if (rspHandler != null) {
-                    rspHandler.setTimeout(Timeout.start(this,
-                        "{}: start " + msgID + ":DIMSE-RSP timeout of {}ms",
-                        "{}: " + msgID + ":DIMSE-RSP timeout expired",
-                        "{}: stop " + msgID + ":DIMSE-RSP timeout",
-                        timeout), stopOnPending);
-                }
+            DimseRSPHandler rspHandler = rspHandlerForMsgId.get(msgID);
+            if (rspHandler != null) {
+                rspHandler.setTimeout(Timeout.start(this,
+                    "{}: start " + msgID + ":DIMSE-RSP timeout of {}ms",
+                    "{}: " + msgID + ":DIMSE-RSP timeout expired",
+                    "{}: stop " + msgID + ":DIMSE-RSP timeout",
+                    timeout), stopOnPending);
             }
         }
     }
 
-    private synchronized void stopTimeout() {
-        if (timeout != null) {
-            timeout.stop();
-            timeout = null;
+    private void stopTimeout() {
+        lock.lock();
+        try {
+            if (timeout != null) {
+                timeout.stop();
+                timeout = null;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     public void waitForOutstandingRSP() throws InterruptedException {
-        synchronized (rspHandlerForMsgId) {
-            while (!rspHandlerForMsgId.isEmpty())
-                rspHandlerForMsgId.wait();
+        Iterator<DimseRSPHandler> iter;
+        while ((iter = rspHandlerForMsgId.values().iterator()).hasNext())
+            awaitCompletion(iter.next());
+    }
+
+    private static void awaitCompletion(DimseRSPHandler rspHandler) throws InterruptedException {
+        try {
+            rspHandler.completion().get();
+        } catch (ExecutionException e) {
+            throw new AssertionError(e); // never completed exceptionally
         }
     }
 
+    /**
+     * Returns the negotiated maximum number of outstanding operations this Association may invoke asynchronously.
+     *
+     * @return maximum number of operations invoked asynchronously, {@code 0} if unlimited
+     */
+    public int getMaxOpsInvoked() {
+        return maxOpsInvoked;
+    }
+
+    /**
+     * Returns the negotiated maximum number of operations this Association may perform asynchronously.
+     *
+     * @return maximum number of operations performed asynchronously, {@code 0} if unlimited
+     */
+    public int getMaxOpsPerformed() {
+        return maxOpsPerformed;
+    }
+
     /**
      * Block if the number of outstanding DIMSE responses has reached the negotiated value
      * for the maximum number of outstanding operations it may invoke asynchronously.
@@ -494,11 +629,11 @@ public class Association {
      *         while the current thread was waiting
      */
     public void waitForNonBlockingInvoke() throws InterruptedException {
-        if (maxOpsInvoked > 0)
-            synchronized (rspHandlerForMsgId) {
-                while (rspHandlerForMsgId.size() >= maxOpsInvoked)
-                    rspHandlerForMsgId.wait();
-            }
+        Semaphore window = invokeWindow;
+        if (window != null) {
+            window.acquire();
+            window.release();
+        }
     }
 
     void write(AAssociateRQ rq) throws IOException {
@@ -507,6 +642,11 @@ public class Association {
         LOG.info("{} << A-ASSOCIATE-RQ", name);
         LOG.debug("{}", rq);
         enterState(State.Sta5);
+        if (tuning != null) {
+            tuningProfile = tuning.profileOf(rq.getCalledAET());
+            packPDV = tuning.packPDV(tuningProfile, conn);
+            rqSentTime = System.nanoTime();
+        }
         encoder.write(rq);
         startAcceptTimeout();
     }
@@ -530,28 +670,43 @@ public class Association {
             throw ex;
     }
 
-    private synchronized void enterState(State newState) {
-        LOG.debug("{}: enter state: {}", name, newState);
-        this.state = newState;
-        notifyAll();
+    private void enterState(State newState) {
+        lock.lock();
+        try {
+            LOG.debug("{}: enter state: {}", name, newState);
+            this.state = newState;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public final State getState() {
         return state;
     }
 
-    synchronized void waitForLeaving(State state)
+    void waitForLeaving(State state)
             throws InterruptedException, IOException {
-        while (this.state == state)
-            wait();
-        checkException();
+        lock.lock();
+        try {
+            while (this.state == state)
+                stateChanged.await();
+            checkException();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    synchronized void waitForEntering(State state)
+    void waitForEntering(State state)
             throws InterruptedException, IOException {
-        while (this.state != state)
-            wait();
-        checkException();
+        lock.lock();
+        try {
+            while (this.state != state)
+                stateChanged.await();
+            checkException();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void waitForSocketClose()
@@ -559,7 +714,18 @@ public class Association {
         waitForEntering(State.Sta1);
     }
 
-    private void activate() {
+    private void activate() throws IOException {
+        if (nioChannel != null) {
+            decoder = new PDUDecoder(this, in);
+            device.addAssociation(this);
+            try {
+                nioChannel.register();
+            } catch (IOException e) {
+                onIOException(e);
+                throw e;
+            }
+            return;
+        }
         device.execute(new Runnable() {
 
             @Override
@@ -576,28 +742,64 @@ public class Association {
                 } catch (Exception e) {
                     onIOException(new IOException("Unexpected Error", e));
                 } finally {
-                    device.removeAssociation(Association.this);
-                    onClose();
+                    onTerminated();
                 }
             }
         });
     }
 
+    /**
+     * Decodes the PDUs buffered by the non-blocking transport.
+     *
+     * @return {@code false} if the Association was terminated
+     */
+    boolean decodeBufferedPDUs() {
+        try {
+            decoder.enter();
+            while (!(state == State.Sta1 || state == State.Sta13)) {
+                if (!nioChannel.hasBufferedPDU())
+                    return true;
+                decoder.nextPDU();
+            }
+        } catch (AAbort aa) {
+            abort(aa);
+        } catch (IOException e) {
+            onIOException(e);
+        } catch (Exception e) {
+            onIOException(new IOException("Unexpected Error", e));
+        }
+        onTerminated();
+        return false;
+    }
+
+    private void onTerminated() {
+        device.removeAssociation(this);
+        onClose();
+        if (decoder != null)
+            decoder.release();
+        encoder.release();
+        if (nioChannel != null)
+            nioChannel.release();
+    }
+
+    void awaitWritable() throws IOException {
+        if (nioChannel != null)
+            nioChannel.awaitWritable();
+    }
+
     private void onClose() {
         stopTimeout();
-        synchronized (rspHandlerForMsgId) {
-            IntHashMap.Visitor<DimseRSPHandler> visitor =
-                    new IntHashMap.Visitor<DimseRSPHandler>() {
-
-                @Override
-                public boolean visit(int key, DimseRSPHandler value) {
-                    value.onClose(Association.this);
-                    return true;
-                }
-            };
-            rspHandlerForMsgId.accept(visitor);
-            rspHandlerForMsgId.clear();
-            rspHandlerForMsgId.notifyAll();
+        for (Integer msgId : rspHandlerForMsgId.keySet()) {
+            DimseRSPHandler rspHandler = rspHandlerForMsgId.get(msgId);
+            if (rspHandler != null) {
+                rspHandler.onClose(this);
+                removeDimseRSPHandler(msgId);
+            }
+        }
+        if (metrics != null) {
+            metrics.onClose(invokedTimers.size(), performedTimers.size());
+            invokedTimers.clear();
+            performedTimers.clear();
         }
         if (ae != null)
             ae.getDevice().getAssociationHandler().onClose(this);
@@ -621,8 +823,13 @@ public class Association {
             ac = device.getAssociationHandler().negotiate(this, rq);
             initPCMap();
             maxOpsInvoked = ac.getMaxOpsPerformed();
+            maxOpsPerformed = ac.getMaxOpsInvoked();
+            initInvokeWindow();
+            if (tuning != null) {
+                tune(tuning.profileOf(rq.getCallingAET()));
+            }
             maxPDULength = Association.minZeroAsMax(
-                    rq.getMaxPDULength(), conn.getSendPDULength());
+                    rq.getMaxPDULength(), sendPDULength());
             write(ac);
             if (monitor != null)
                 monitor.onAssociationAccepted(this);
@@ -644,12 +851,47 @@ public class Association {
         this.ac = ac;
         initPCMap();
         maxOpsInvoked = ac.getMaxOpsInvoked();
+        maxOpsPerformed = ac.getMaxOpsPerformed();
+        initInvokeWindow();
         maxPDULength = Association.minZeroAsMax(
-                ac.getMaxPDULength(), conn.getSendPDULength());
+                ac.getMaxPDULength(), sendPDULength());
+        if (tuningProfile != null)
+            tuningProfile.onRoundTrip(System.nanoTime() - rqSentTime);
         enterState(State.Sta6);
         startIdleTimeout();
     }
 
+    private void tune(ConnectionAutoTuning.RemoteProfile profile) throws IOException {
+        tuningProfile = profile;
+        packPDV = tuning.packPDV(profile, conn);
+        if (ac.getMaxPDULength() == conn.getReceivePDULength())
+            ac.setMaxPDULength(tuning.receivePDULength(profile, conn));
+        Connection.raiseBufferSizes(sock, tuning.socketBufferSize(profile));
+        LOG.debug("{}: tuned by {}", name, profile);
+    }
+
+    private int sendPDULength() {
+        return tuningProfile != null
+                ? tuning.sendPDULength(tuningProfile, conn)
+                : conn.getSendPDULength();
+    }
+
+    void onDataSent(long bytes, long nanos) {
+        if (tuningProfile == null)
+            return;
+        try {
+            if (bytes < 4L * sock.getSendBufferSize())
+                return; // mostly absorbed by the socket send buffer
+        } catch (SocketException e) {
+            return;
+        }
+        tuningProfile.onTransfer(bytes, nanos);
+    }
+
+    private void initInvokeWindow() {
+        invokeWindow = maxOpsInvoked > 0 ? new Semaphore(maxOpsInvoked) : null;
+    }
+
     void onAAssociateRJ(AAssociateRJ rj) throws IOException {
         LOG.info("{} >> {}", name, rj.toString());
         state.onAAssociateRJ(this, rj);
@@ -679,13 +921,18 @@ public class Association {
         closeSocketDelayed();
     }
 
-    private synchronized void waitForPerformingOps() {
-        while (performing > 0 && state == State.Sta8) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    private void waitForPerformingOps() {
+        lock.lock();
+        try {
+            while (performing > 0 && state == State.Sta8) {
+                try {
+                    stateChanged.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -750,18 +997,89 @@ public class Association {
     void onDimseRQ(PresentationContext pc, Dimse dimse, Attributes cmd,
             PDVInputStream data) throws IOException {
         stopTimeout();
+        if (metrics != null)
+            startPerformedTimer(dimse, cmd);
+        if (conn.isAsyncDimseRQ() && maxOpsPerformed != 1) {
+            dispatchDimseRQ(pc, dimse, cmd, data);
+            return;
+        }
         incPerforming();
         incReceivedCount(dimse);
         ae.onDimseRQ(this, pc, dimse, cmd, data);
     }
 
-    private synchronized void incPerforming() {
-        ++performing;
+    private void dispatchDimseRQ(final PresentationContext pc, final Dimse dimse,
+            final Attributes cmd, PDVInputStream data) throws IOException {
+        awaitPerforming(maxOpsPerformed > 0 ? maxOpsPerformed : conn.getMaxAsyncDimseRQ());
+        incReceivedCount(dimse);
+        final SpooledPDVInputStream spooled;
+        try {
+            spooled = data != null
+                    ? SpooledPDVInputStream.spool(data,
+                        conn.getAsyncDimseRQSpoolThreshold(), conn.getAsyncDimseRQSpoolDirectory())
+                    : null;
+        } catch (IOException e) {
+            decPerforming();
+            throw e;
+        }
+        if (metrics != null)
+            metrics.onDispatchQueued();
+        device.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                if (metrics != null)
+                    metrics.onDispatchStarted();
+                try {
+                    ae.onDimseRQ(Association.this, pc, dimse, cmd, spooled);
+                } catch (AAbort aa) {
+                    abort(aa);
+                } catch (IOException e) {
+                    onIOException(e);
+                } catch (Exception e) {
+                    onIOException(new IOException("Unexpected Error", e));
+                } finally {
+                    SafeClose.close(spooled);
+                }
+            }
+        });
+    }
+
+    private void incPerforming() {
+        lock.lock();
+        try {
+            ++performing;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private synchronized void decPerforming() {
-        --performing;
-        notifyAll();
+    private void awaitPerforming(int maxOps) throws InterruptedIOException {
+        lock.lock();
+        try {
+            while (maxOps > 0 && performing >= maxOps
+                    && (state == State.Sta6 || state == State.Sta7)) {
+                try {
+                    stateChanged.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            ++performing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int decPerforming() {
+        lock.lock();
+        try {
+            stateChanged.signalAll();
+            return --performing;
+        } finally {
+            lock.unlock();
+        }
     }
 
     void onDimseRSP(Dimse dimse, Attributes cmd, Attributes data) throws AAbort {
@@ -781,40 +1099,51 @@ public class Association {
         } else {
             incReceivedCount(dimse);
             removeDimseRSPHandler(msgId);
+            if (metrics != null)
+                stopInvokedTimer(msgId, true);
             if (rspHandlerForMsgId.isEmpty() && performing == 0)
                 startIdleOrReleaseTimeout();
         }
     }
 
-    private synchronized void startIdleOrReleaseTimeout() {
-        if (state == State.Sta6)
-            startIdleTimeout();
-        else if (state == State.Sta7)
-            startReleaseTimeout();
+    private void startIdleOrReleaseTimeout() {
+        lock.lock();
+        try {
+            if (state == State.Sta6)
+                startIdleTimeout();
+            else if (state == State.Sta7)
+                startReleaseTimeout();
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void addDimseRSPHandler(DimseRSPHandler rspHandler)
             throws InterruptedException {
-        synchronized (rspHandlerForMsgId) {
-            while (maxOpsInvoked > 0
-                    && rspHandlerForMsgId.size() >= maxOpsInvoked)
-                rspHandlerForMsgId.wait();
-            rspHandlerForMsgId.put(rspHandler.getMessageID(), rspHandler);
+        Semaphore window = invokeWindow;
+        if (window != null)
+            window.acquire();
+        DimseRSPHandler prev = rspHandlerForMsgId.put(rspHandler.getMessageID(), rspHandler);
+        if (prev != null) {
+            if (window != null)
+                window.release();
+            prev.completion().complete(null);
         }
     }
 
     private DimseRSPHandler getDimseRSPHandler(int msgId) {
-        synchronized (rspHandlerForMsgId ) {
-            return rspHandlerForMsgId.get(msgId);
-        }
+        return rspHandlerForMsgId.get(msgId);
     }
 
     private DimseRSPHandler removeDimseRSPHandler(int msgId) {
-        synchronized (rspHandlerForMsgId ) {
-            DimseRSPHandler tmp = rspHandlerForMsgId.remove(msgId);
-            rspHandlerForMsgId.notifyAll();
-            return tmp;
+        DimseRSPHandler tmp = rspHandlerForMsgId.remove(msgId);
+        if (tmp != null) {
+            Semaphore window = invokeWindow;
+            if (window != null)
+                window.release();
+            tmp.completion().complete(null);
         }
+        return tmp;
     }
 
     void cancel(PresentationContext pc, int msgId) throws IOException {
@@ -856,8 +1185,10 @@ public class Association {
         cmd.setInt(Tag.CommandDataSetType, VR.US, datasetType);
         encoder.writeDIMSE(pc, cmd, writer);
         if (!Status.isPending(cmd.getInt(Tag.Status, 0))) {
-            decPerforming();
-            startIdleTimeout();
+            if (metrics != null)
+                stopPerformedTimer(cmd);
+            if (decPerforming() == 0)
+                startIdleTimeout();
         }
     }
 
@@ -870,15 +1201,11 @@ public class Association {
     }
 
     public void addCancelRQHandler(int msgId, CancelRQHandler handler) {
-        synchronized (cancelHandlerForMsgId) {
-            cancelHandlerForMsgId.put(msgId, handler);
-        }
+        cancelHandlerForMsgId.put(msgId, handler);
     }
 
     public CancelRQHandler removeCancelRQHandler(int msgId) {
-        synchronized (cancelHandlerForMsgId) {
-            return cancelHandlerForMsgId.remove(msgId);
-        }
+        return cancelHandlerForMsgId.remove(msgId);
     }
 
     private void initPCMap() {
@@ -1063,6 +1390,114 @@ public class Association {
         return rsp;
     }
 
+    /**
+     * Send C-ECHO-RQ returning a future completed with the C-ECHO-RSP command.
+     *
+     * @return future of the C-ECHO-RSP command, completed exceptionally if the C-ECHO-RQ could not be sent or the
+     * Association was closed before receive of the C-ECHO-RSP
+     */
+    public CompletableFuture<Attributes> cechoAsync() {
+        return cechoAsync(UID.Verification);
+    }
+
+    public CompletableFuture<Attributes> cechoAsync(String cuid) {
+        return invokeAsync(rsp -> {
+            PresentationContext pc = pcFor(cuid, null);
+            checkIsSCU(cuid);
+            Attributes cechorq = Commands.mkCEchoRQ(rsp.getMessageID(), cuid);
+            invoke(pc, cechorq, null, rsp, conn.getSendTimeout(), conn.getResponseTimeout());
+        });
+    }
+
+    /**
+     * Send C-STORE-RQ returning a future completed with the C-STORE-RSP command. Does not block until the
+     * C-STORE-RSP is received, but - as {@link #cstore(String, String, int, DataWriter, String)} - until the
+     * C-STORE-RQ is sent, which includes waiting for a free slot in the window of outstanding operations.
+     *
+     * @param cuid     SOP Class UID
+     * @param iuid     SOP Instance UID
+     * @param priority priority of the C-STORE operation. 0 = MEDIUM, 1 = HIGH, 2 = LOW
+     * @param data     writer of the Data Set to store
+     * @param tsuid    Transfer Syntax used to encode the Data Set
+     * @return future of the C-STORE-RSP command, completed exceptionally if the C-STORE-RQ could not be sent or
+     * the Association was closed before receive of the C-STORE-RSP
+     */
+    public CompletableFuture<Attributes> cstoreAsync(String cuid, String iuid, int priority,
+            DataWriter data, String tsuid) {
+        return invokeAsync(rsp -> cstore(cuid, iuid, priority, data, tsuid, rsp));
+    }
+
+    public CompletableFuture<Attributes> cstoreAsync(String cuid, String iuid, int priority,
+            String moveOriginatorAET, int moveOriginatorMsgId, DataWriter data, String tsuid) {
+        return invokeAsync(rsp -> cstore(cuid, iuid, priority, moveOriginatorAET, moveOriginatorMsgId,
+                data, tsuid, rsp));
+    }
+
+    /**
+     * Send C-MOVE-RQ returning a future completed with the final C-MOVE-RSP command. Pending C-MOVE-RSPs are
+     * ignored.
+     *
+     * @param cuid        SOP Class UID associated with the operation
+     * @param priority    priority of the C-MOVE operation. 0 = MEDIUM, 1 = HIGH, 2 = LOW
+     * @param data        Data Set that encodes the Identifier
+     * @param tsuid       Transfer Syntax used to encode the Identifier
+     * @param destination Move Destination AE Title
+     * @return future of the final C-MOVE-RSP command
+     */
+    public CompletableFuture<Attributes> cmoveAsync(String cuid, int priority, Attributes data,
+            String tsuid, String destination) {
+        return invokeAsync(rsp -> cmove(cuid, priority, data, tsuid, destination, rsp));
+    }
+
+    /**
+     * Returns a publisher of the Identifiers of pending C-FIND-RSPs. The C-FIND-RQ is sent on subscription. If
+     * more than {@code bufferSize} Identifiers were received, but not yet requested by the subscriber, the
+     * operation is canceled by a C-CANCEL-RQ.
+     *
+     * @param cuid       SOP Class UID associated with the operation
+     * @param priority   priority of the C-FIND operation. 0 = MEDIUM, 1 = HIGH, 2 = LOW
+     * @param data       Data Set that encodes the Identifier to be matched
+     * @param tsuid      Transfer Syntax used to encode the Identifier
+     * @param bufferSize maximal number of buffered Identifiers not yet requested by the subscriber
+     * @return publisher of the Identifiers of pending C-FIND-RSPs
+     */
+    public DimseRSPPublisher cfindAsync(String cuid, int priority, Attributes data, String tsuid,
+            int bufferSize) {
+        return new DimseRSPPublisher(this, true, bufferSize,
+                rsp -> cfind(cuid, priority, data, tsuid, rsp));
+    }
+
+    /**
+     * Returns a publisher of pending C-GET-RSP commands. The C-GET-RQ is sent on subscription. If more than
+     * {@code bufferSize} pending C-GET-RSPs were received, but not yet requested by the subscriber, the
+     * operation is canceled by a C-CANCEL-RQ.
+     *
+     * @param cuid       SOP Class UID associated with the operation
+     * @param priority   priority of the C-GET operation. 0 = MEDIUM, 1 = HIGH, 2 = LOW
+     * @param data       Data Set that encodes the Identifier
+     * @param tsuid      Transfer Syntax used to encode the Identifier
+     * @param bufferSize maximal number of buffered pending C-GET-RSPs not yet requested by the subscriber
+     * @return publisher of pending C-GET-RSP commands
+     */
+    public DimseRSPPublisher cgetAsync(String cuid, int priority, Attributes data, String tsuid,
+            int bufferSize) {
+        return new DimseRSPPublisher(this, false, bufferSize,
+                rsp -> cget(cuid, priority, data, tsuid, rsp));
+    }
+
+    private CompletableFuture<Attributes> invokeAsync(DimseRSPPublisher.Invocation invocation) {
+        CompletableDimseRSP rsp = new CompletableDimseRSP(nextMessageID());
+        try {
+            invocation.invoke(rsp);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rsp.future.completeExceptionally(e);
+        } catch (Exception e) {
+            rsp.future.completeExceptionally(e);
+        }
+        return rsp.future;
+    }
+
     public void neventReport(String cuid, String iuid, int eventTypeId,
             Attributes data, String tsuid, DimseRSPHandler rspHandler)
             throws IOException, InterruptedException {
@@ -1280,6 +1715,8 @@ public class Association {
         checkException();
         rspHandler.setPC(pc);
         addDimseRSPHandler(rspHandler);
+        if (metrics != null)
+            startInvokedTimer(cmd);
         startSendTimeout(sendTimeout);
         try {
             encoder.writeDIMSE(pc, cmd, data);
@@ -1290,6 +1727,8 @@ public class Association {
             // waiting forever for a spot to write into the queue
             // if we don't handle an exception here.
             removeDimseRSPHandler(rspHandler.getMessageID());
+            if (metrics != null)
+                stopInvokedTimer(rspHandler.getMessageID(), false);
             throw e;
         }
     }
@@ -0,0 +1,553 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.pdu.RoleSelection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of outgoing Associations of an Application Entity, which are kept open after use, to be reused by
+ * subsequent requests to the same remote Application Entity, avoiding the overhead of TCP and TLS handshake and
+ * of Association negotiation.
+ * <p>
+ * Associations are pooled per calling AE Title, called AE Title and remote host, port and TLS usage. An idle
+ * Association is only leased for an A-ASSOCIATE-RQ, if it was negotiated by an A-ASSOCIATE-RQ which proposed all
+ * Presentation Contexts and SCP/SCU Role Selections of the new request. A-ASSOCIATE-RQs with User Identity
+ * negotiation are not pooled. If an idle Association was not used longer than the configured validation interval,
+ * it is verified by a C-ECHO before it is leased, if the Verification SOP Class was negotiated. Idle Associations
+ * are released after the configured idle timeout.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ * @see ApplicationEntity#setAssociationPool(AssociationPool)
+ */
+public class AssociationPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssociationPool.class);
+
+    public static final int DEF_MAX_SIZE = 4;
+    public static final int DEF_IDLE_TIMEOUT = 60000;
+    public static final int DEF_VALIDATE_AFTER_IDLE = 10000;
+
+    private final ApplicationEntity ae;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final HashMap<Key, Entry> entries = new HashMap<>();
+    private final IdentityHashMap<Association, Pooled> leased = new IdentityHashMap<>();
+    private int maxSize = DEF_MAX_SIZE;
+    private int idleTimeout = DEF_IDLE_TIMEOUT;
+    private int validateAfterIdle = DEF_VALIDATE_AFTER_IDLE;
+    private int leaseTimeout;
+    private ScheduledFuture<?> evictor;
+    private boolean closed;
+    private long hitCount;
+    private long missCount;
+
+    public AssociationPool(ApplicationEntity ae) {
+        this.ae = Objects.requireNonNull(ae);
+    }
+
+    public final ApplicationEntity getApplicationEntity() {
+        return ae;
+    }
+
+    public final int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Set maximal number of leased and idle Associations to one remote Application Entity.
+     *
+     * @param maxSize maximal number of Associations per remote Application Entity
+     */
+    public final void setMaxSize(int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    public final int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Set timeout in ms after which idle Associations are released; {@code 0} to keep them open, until they
+     * are closed by the remote Application Entity.
+     *
+     * @param idleTimeout idle timeout in ms
+     */
+    public final void setIdleTimeout(int idleTimeout) {
+        if (idleTimeout < 0)
+            throw new IllegalArgumentException("idleTimeout: " + idleTimeout);
+        this.idleTimeout = idleTimeout;
+    }
+
+    public final int getValidateAfterIdle() {
+        return validateAfterIdle;
+    }
+
+    /**
+     * Set time in ms an Association has to be idle, before it is verified by a C-ECHO on lease;
+     * {@code -1} to never verify idle Associations by C-ECHO.
+     *
+     * @param validateAfterIdle idle time in ms after which Associations are verified on lease
+     */
+    public final void setValidateAfterIdle(int validateAfterIdle) {
+        this.validateAfterIdle = validateAfterIdle;
+    }
+
+    public final int getLeaseTimeout() {
+        return leaseTimeout;
+    }
+
+    /**
+     * Set maximal time in ms to wait for the return of a leased Association, if the maximal number of
+     * Associations to the remote Application Entity is reached; {@code 0} to wait without limit.
+     *
+     * @param leaseTimeout lease timeout in ms
+     */
+    public final void setLeaseTimeout(int leaseTimeout) {
+        if (leaseTimeout < 0)
+            throw new IllegalArgumentException("leaseTimeout: " + leaseTimeout);
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Returns the number of leases served by an idle Association.
+     */
+    public long getHitCount() {
+        lock.lock();
+        try {
+            return hitCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of leases which opened a new Association.
+     */
+    public long getMissCount() {
+        lock.lock();
+        try {
+            return missCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumberOfIdleAssociations() {
+        lock.lock();
+        try {
+            int n = 0;
+            for (Entry entry : entries.values())
+                n += entry.idle.size();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumberOfLeasedAssociations() {
+        lock.lock();
+        try {
+            return leased.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Leases an idle Association, which was negotiated for all Presentation Contexts of the specified
+     * A-ASSOCIATE-RQ, or opens a new Association. Blocks, if the maximal number of Associations to the remote
+     * Application Entity is reached, until a leased Association is returned by {@link #release(Association)}.
+     *
+     * @param local local Connection
+     * @param remote remote Connection
+     * @param rq A-ASSOCIATE-RQ with the Called AE Title
+     * @return leased Association, which must be returned by {@link #release(Association)}
+     */
+    public Association lease(Connection local, Connection remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        if (rq.getCallingAET() == null)
+            rq.setCallingAET(ae.getCallingAETitle(rq.getCalledAET()));
+        if (rq.getUserIdentityRQ() != null)
+            return ae.connect(local, remote, rq);
+
+        Key key = new Key(rq.getCallingAET(), rq.getCalledAET(), remote);
+        long deadline = leaseTimeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeout) : 0L;
+        for (;;) {
+            Entry entry;
+            Pooled pooled;
+            List<Association> discarded = new ArrayList<>();
+            lock.lock();
+            try {
+                if (closed)
+                    throw new IllegalStateException("Association pool closed");
+                entry = entries.get(key);
+                if (entry == null)
+                    entries.put(key, entry = new Entry());
+                while ((pooled = entry.pollIdle(rq, discarded)) == null && entry.size >= maxSize) {
+                    Pooled incompatible = entry.idle.pollLast();
+                    if (incompatible != null) {
+                        discarded.add(incompatible.as);
+                        entry.size--;
+                    } else if (deadline == 0L) {
+                        returned.await();
+                    } else {
+                        long nanos = deadline - System.nanoTime();
+                        if (nanos <= 0L)
+                            throw new IOException("Timeout waiting for Association to " + rq.getCalledAET());
+                        returned.awaitNanos(nanos);
+                    }
+                }
+                if (pooled != null) {
+                    hitCount++;
+                } else {
+                    missCount++;
+                    entry.size++;
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (Association as : discarded)
+                releaseQuietly(as);
+            if (pooled == null)
+                return connect(entry, key, local, remote, rq);
+            if (validate(pooled)) {
+                lock.lock();
+                try {
+                    leased.put(pooled.as, pooled);
+                } finally {
+                    lock.unlock();
+                }
+                LOG.debug("{}: leased from pool", pooled.as);
+                return pooled.as;
+            }
+            discard(pooled);
+        }
+    }
+
+    private Association connect(Entry entry, Key key, Connection local, Connection remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        Association as = null;
+        try {
+            as = ae.connect(local, remote, rq);
+            return as;
+        } finally {
+            lock.lock();
+            try {
+                if (as != null)
+                    leased.put(as, new Pooled(entry, as));
+                else {
+                    entry.size--;
+                    returned.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Leases an Association to the remote Application Entity.
+     *
+     * @param remote remote Application Entity
+     * @param rq A-ASSOCIATE-RQ
+     * @return leased Association, which must be returned by {@link #release(Association)}
+     * @see #lease(Connection, Connection, AAssociateRQ)
+     */
+    public Association lease(ApplicationEntity remote, AAssociateRQ rq)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        CompatibleConnection cc = ae.findCompatibleConnection(remote);
+        if (rq.getCalledAET() == null)
+            rq.setCalledAET(remote.getAETitle());
+        return lease(cc.getLocalConnection(), cc.getRemoteConnection(), rq);
+    }
+
+    /**
+     * Returns a leased Association to the pool, after waiting for outstanding responses. Associations which
+     * were not leased from this pool, or which are no longer ready for data transfer, are released.
+     *
+     * @param as Association to return
+     */
+    public void release(Association as) throws IOException, InterruptedException {
+        Pooled pooled;
+        lock.lock();
+        try {
+            pooled = leased.remove(as);
+        } finally {
+            lock.unlock();
+        }
+        if (pooled == null) {
+            as.release();
+            return;
+        }
+        as.waitForOutstandingRSP();
+        boolean pool = false;
+        lock.lock();
+        try {
+            if (!closed && as.isReadyForDataTransfer()) {
+                pooled.lastUsed = System.currentTimeMillis();
+                pooled.entry.idle.addFirst(pooled);
+                startEvictor();
+                pool = true;
+            } else {
+                pooled.entry.size--;
+            }
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (pool)
+            LOG.debug("{}: returned to pool", as);
+        else if (as.isReadyForDataTransfer())
+            as.release();
+    }
+
+    /**
+     * Releases all idle Associations. Associations leased at that time are released on their return.
+     */
+    public void close() {
+        List<Association> idle = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            if (evictor != null) {
+                evictor.cancel(false);
+                evictor = null;
+            }
+            for (Entry entry : entries.values()) {
+                for (Pooled pooled : entry.idle)
+                    idle.add(pooled.as);
+                entry.size -= entry.idle.size();
+                entry.idle.clear();
+            }
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Association as : idle)
+            releaseQuietly(as);
+    }
+
+    private boolean validate(Pooled pooled) {
+        Association as = pooled.as;
+        if (!as.isReadyForDataTransfer())
+            return false;
+        if (validateAfterIdle < 0
+                || System.currentTimeMillis() - pooled.lastUsed < validateAfterIdle
+                || as.getTransferSyntaxesFor(UID.Verification).isEmpty())
+            return true;
+        try {
+            DimseRSP rsp = as.cecho();
+            rsp.next();
+            return rsp.getCommand().getInt(Tag.Status, -1) == Status.Success;
+        } catch (Exception e) {
+            LOG.info("{}: validation of pooled association failed:", as, e);
+            return false;
+        }
+    }
+
+    private void discard(Pooled pooled) {
+        lock.lock();
+        try {
+            pooled.entry.size--;
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        releaseQuietly(pooled.as);
+    }
+
+    private static void releaseQuietly(Association as) {
+        if (as.isReadyForDataTransfer()) {
+            try {
+                as.release();
+            } catch (IOException e) {
+                LOG.info("{}: failed to release pooled association:", as, e);
+            }
+        }
+    }
+
+    private void startEvictor() {
+        if (evictor != null || idleTimeout == 0)
+            return;
+
+        long period = Math.max(1000L, idleTimeout / 2);
+        evictor = ae.getDevice().scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evict();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void evict() {
+        List<Association> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            for (Entry entry : entries.values()) {
+                for (Iterator<Pooled> iter = entry.idle.iterator(); iter.hasNext();) {
+                    Pooled pooled = iter.next();
+                    if (now - pooled.lastUsed >= idleTimeout || !pooled.as.isReadyForDataTransfer()) {
+                        iter.remove();
+                        entry.size--;
+                        expired.add(pooled.as);
+                    }
+                }
+            }
+            if (!expired.isEmpty())
+                returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Association as : expired) {
+            LOG.debug("{}: evict idle association from pool", as);
+            releaseQuietly(as);
+        }
+    }
+
+    /**
+     * Checks if the pooled Association accepted one of the Transfer Syntaxes of each requested Presentation Context
+     * and the requested SCU/SCP roles.
+     */
+    private static boolean isCompatible(Association pooled, AAssociateRQ rq) {
+        for (PresentationContext pc : rq.getPresentationContexts())
+            if (Collections.disjoint(pooled.getTransferSyntaxesFor(pc.getAbstractSyntax()),
+                    Arrays.asList(pc.getTransferSyntaxes())))
+                return false;
+        for (RoleSelection rs : rq.getRoleSelections()) {
+            String cuid = rs.getSOPClassUID();
+            if (rs.isSCU() && !pooled.isSCUFor(cuid) || rs.isSCP() && !pooled.isSCPFor(cuid))
+                return false;
+        }
+        return true;
+    }
+
+    private static final class Key {
+        final String callingAET;
+        final String calledAET;
+        final String hostname;
+        final int port;
+        final boolean tls;
+
+        Key(String callingAET, String calledAET, Connection remote) {
+            this.callingAET = callingAET;
+            this.calledAET = calledAET;
+            this.hostname = remote.getHostname();
+            this.port = remote.getPort();
+            this.tls = remote.isTls();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return port == other.port && tls == other.tls
+                    && Objects.equals(callingAET, other.callingAET)
+                    && Objects.equals(calledAET, other.calledAET)
+                    && Objects.equals(hostname, other.hostname);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(callingAET, calledAET, hostname, port, tls);
+        }
+    }
+
+    private static final class Entry {
+        final ArrayDeque<Pooled> idle = new ArrayDeque<>();
+        int size;
+
+        Pooled pollIdle(AAssociateRQ rq, List<Association> discarded) {
+            for (Iterator<Pooled> iter = idle.iterator(); iter.hasNext();) {
+                Pooled pooled = iter.next();
+                if (!pooled.as.isReadyForDataTransfer()) {
+                    iter.remove();
+                    size--;
+                    discarded.add(pooled.as);
+                } else if (isCompatible(pooled.as, rq)) {
+                    iter.remove();
+                    return pooled;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Pooled {
+        final Entry entry;
+        final Association as;
+        long lastUsed;
+
+        Pooled(Entry entry, Association as) {
+            this.entry = entry;
+            this.as = as;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
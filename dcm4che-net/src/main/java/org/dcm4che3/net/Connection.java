@@ -40,6 +40,7 @@ package org.dcm4che3.net;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -49,6 +50,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
@@ -101,6 +103,8 @@ public class Connection implements Serializable {
     public static final int DEF_SOCKETDELAY = 50;
     public static final int DEF_BUFFERSIZE = 0;
     public static final int DEF_MAX_PDU_LENGTH = 16378;
+    public static final int DEF_ASYNC_DIMSE_RQ_SPOOL_THRESHOLD = 0x100000;
+    public static final int DEF_MAX_ASYNC_DIMSE_RQ = 64;
     // to fit into SunJSSE TLS Application Data Length 16408
 
     public static final String TLS_RSA_WITH_NULL_SHA = "SSL_RSA_WITH_NULL_SHA";
@@ -119,6 +123,9 @@ public class Connection implements Serializable {
     private int connectTimeout;
     private int requestTimeout;
     private int acceptTimeout;
+    private int tlsHandshakeTimeout;
+    private int maxAcceptRate;
+    private int maxPendingAcceptsPerAddress;
     private int releaseTimeout;
     private int sendTimeout;
     private int storeTimeout;
@@ -135,6 +142,13 @@ public class Connection implements Serializable {
     private int maxOpsInvoked = SYNCHRONOUS_MODE;
     private boolean packPDV = true;
     private boolean tcpNoDelay = true;
+    private boolean socketChannel;
+    private boolean nonBlockingIO;
+    private boolean asyncDimseRQ;
+    private int asyncDimseRQSpoolThreshold = DEF_ASYNC_DIMSE_RQ_SPOOL_THRESHOLD;
+    private File asyncDimseRQSpoolDirectory;
+    private int maxAsyncDimseRQ = DEF_MAX_ASYNC_DIMSE_RQ;
+    private boolean gatheringWrite;
     private boolean tlsNeedClientAuth = true;
     private String[] tlsCipherSuites = {};
     private String[] tlsProtocols = DEFAULT_TLS_PROTOCOLS;
@@ -450,6 +464,69 @@ public class Connection implements Serializable {
         this.acceptTimeout = timeout;
     }
 
+    /**
+     * Timeout in ms for completing the TLS handshake of accepted connections.
+     *
+     * @return Timeout in ms or {@code 0} (= no timeout).
+     */
+    public final int getTlsHandshakeTimeout() {
+        return tlsHandshakeTimeout;
+    }
+
+    /**
+     * Timeout in ms for completing the TLS handshake of accepted connections.
+     *
+     * @param timeout Timeout in ms or {@code 0} (= no timeout).
+     */
+    public final void setTlsHandshakeTimeout(int timeout) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("timeout: " + timeout);
+        this.tlsHandshakeTimeout = timeout;
+    }
+
+    /**
+     * Maximal number of connections accepted per second. Further connections are rejected.
+     *
+     * @return Maximal number of connections per second or {@code 0} (= no limit).
+     */
+    public final int getMaxAcceptRate() {
+        return maxAcceptRate;
+    }
+
+    /**
+     * Maximal number of connections accepted per second. Further connections are rejected.
+     *
+     * @param maxAcceptRate Maximal number of connections per second or {@code 0} (= no limit).
+     */
+    public final void setMaxAcceptRate(int maxAcceptRate) {
+        if (maxAcceptRate < 0)
+            throw new IllegalArgumentException("maxAcceptRate: " + maxAcceptRate);
+        this.maxAcceptRate = maxAcceptRate;
+    }
+
+    /**
+     * Maximal number of accepted connections from one remote address, for which the TLS handshake is not yet
+     * completed. Further connections from that address are rejected.
+     *
+     * @return Maximal number of pending connections per address or {@code 0} (= no limit).
+     */
+    public final int getMaxPendingAcceptsPerAddress() {
+        return maxPendingAcceptsPerAddress;
+    }
+
+    /**
+     * Maximal number of accepted connections from one remote address, for which the TLS handshake is not yet
+     * completed. Further connections from that address are rejected.
+     *
+     * @param maxPendingAcceptsPerAddress Maximal number of pending connections per address or {@code 0}
+     *                                    (= no limit).
+     */
+    public final void setMaxPendingAcceptsPerAddress(int maxPendingAcceptsPerAddress) {
+        if (maxPendingAcceptsPerAddress < 0)
+            throw new IllegalArgumentException("maxPendingAcceptsPerAddress: " + maxPendingAcceptsPerAddress);
+        this.maxPendingAcceptsPerAddress = maxPendingAcceptsPerAddress;
+    }
+
 
     /**
      * Timeout in ms for receiving A-RELEASE-RP.
@@ -740,6 +817,167 @@ public class Connection implements Serializable {
         this.packPDV = packPDV;
     }
 
+    /**
+     * Determine if sockets of non-TLS connections are backed by a {@link SocketChannel}.
+     *
+     * @return boolean True if sockets are backed by a {@link SocketChannel}.
+     */
+    public final boolean isSocketChannel() {
+        return socketChannel;
+    }
+
+    /**
+     * Set whether sockets of outgoing and accepted non-TLS connections, which
+     * are not tunneled through a HTTP proxy, shall be backed by a
+     * {@link SocketChannel}. That enables zero-copy sending of file content
+     * by {@link FileDataWriter}.
+     *
+     * @param socketChannel
+     *            boolean True if sockets shall be backed by a
+     *            {@link SocketChannel}.
+     */
+    public final void setSocketChannel(boolean socketChannel) {
+        this.socketChannel = socketChannel;
+    }
+
+    /**
+     * Determine if Associations over non-TLS connections are served by non-blocking I/O.
+     *
+     * @return boolean True if Associations are served by non-blocking I/O.
+     */
+    public final boolean isNonBlockingIO() {
+        return nonBlockingIO;
+    }
+
+    /**
+     * Set whether Associations over outgoing and accepted non-TLS connections,
+     * which are not tunneled through a HTTP proxy, shall be served by
+     * non-blocking I/O. Their sockets are backed by a {@link SocketChannel},
+     * which is multiplexed with others by the event loop threads of the
+     * Device, so no thread is bound to an idle Association. As consequence,
+     * the streams of {@link Association#getSocket()} cannot be used.
+     *
+     * @param nonBlockingIO
+     *            boolean True if Associations shall be served by non-blocking
+     *            I/O.
+     * @see Device#setNioSelectorThreads(int)
+     */
+    public final void setNonBlockingIO(boolean nonBlockingIO) {
+        this.nonBlockingIO = nonBlockingIO;
+    }
+
+    /**
+     * Determine if received DIMSE requests are dispatched asynchronously.
+     *
+     * @return boolean True if received DIMSE requests are dispatched
+     *         asynchronously.
+     */
+    public final boolean isAsyncDimseRQ() {
+        return asyncDimseRQ;
+    }
+
+    /**
+     * Set whether DIMSE requests received over Associations of this connection
+     * shall be processed by threads of the Device executor, instead by the
+     * thread reading the PDUs. Data sets of such requests are spooled into
+     * pooled buffers, or into a temporary file above
+     * {@link #getAsyncDimseRQSpoolThreshold()}, before dispatching, so the
+     * reader continues to decode the next request, as long as less than the
+     * negotiated maximal number of asynchronous operations, or
+     * {@link #getMaxAsyncDimseRQ()} if unlimited, are performed. Has no effect on Associations
+     * negotiated with synchronous operations mode.
+     *
+     * @param asyncDimseRQ
+     *            boolean True if received DIMSE requests shall be dispatched
+     *            asynchronously.
+     * @see #setMaxOpsPerformed(int)
+     */
+    public final void setAsyncDimseRQ(boolean asyncDimseRQ) {
+        this.asyncDimseRQ = asyncDimseRQ;
+    }
+
+    public final int getAsyncDimseRQSpoolThreshold() {
+        return asyncDimseRQSpoolThreshold;
+    }
+
+    /**
+     * Set the maximal number of bytes of the data set of an asynchronously
+     * dispatched DIMSE request kept in memory. Exceeding data is spilled over
+     * into a temporary file in {@link #getAsyncDimseRQSpoolDirectory()}.
+     *
+     * @param threshold
+     *            maximal number of bytes spooled into memory per request
+     */
+    public final void setAsyncDimseRQSpoolThreshold(int threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("threshold: " + threshold);
+        this.asyncDimseRQSpoolThreshold = threshold;
+    }
+
+    public final File getAsyncDimseRQSpoolDirectory() {
+        return asyncDimseRQSpoolDirectory;
+    }
+
+    /**
+     * Set the directory of temporary files holding data sets of
+     * asynchronously dispatched DIMSE requests exceeding
+     * {@link #getAsyncDimseRQSpoolThreshold()}.
+     *
+     * @param directory
+     *            spool directory or {@code null} for the default
+     *            temporary-file directory
+     */
+    public final void setAsyncDimseRQSpoolDirectory(File directory) {
+        this.asyncDimseRQSpoolDirectory = directory;
+    }
+
+    public final int getMaxAsyncDimseRQ() {
+        return maxAsyncDimseRQ;
+    }
+
+    /**
+     * Set the maximal number of asynchronously dispatched DIMSE requests
+     * performed concurrently on Associations negotiated with an unlimited
+     * number of asynchronous operations. Further requests are not read
+     * from the connection until one of them has completed.
+     *
+     * @param maxAsyncDimseRQ
+     *            maximal number of concurrently performed DIMSE requests
+     * @see #setAsyncDimseRQ(boolean)
+     */
+    public final void setMaxAsyncDimseRQ(int maxAsyncDimseRQ) {
+        if (maxAsyncDimseRQ <= 0)
+            throw new IllegalArgumentException("maxAsyncDimseRQ: " + maxAsyncDimseRQ);
+        this.maxAsyncDimseRQ = maxAsyncDimseRQ;
+    }
+
+    /**
+     * Determine if P-DATA-TF PDUs are sent by gathering writes.
+     *
+     * @return boolean True if P-DATA-TF PDUs are sent by gathering writes.
+     */
+    public final boolean isGatheringWrite() {
+        return gatheringWrite;
+    }
+
+    /**
+     * Set whether data written by a {@link DataWriter} from byte arrays larger
+     * than the remaining space of the current P-DATA-TF PDU shall be sent
+     * directly from the provided array, instead of copying it into the PDU
+     * buffer. PDU and PDV headers are then sent together with the data by
+     * {@link java.nio.channels.GatheringByteChannel#write(java.nio.ByteBuffer[])},
+     * if the Association's socket is backed by a socket channel, or by
+     * subsequent writes to the socket's output stream, otherwise.
+     *
+     * @param gatheringWrite
+     *            boolean True if P-DATA-TF PDUs shall be sent by gathering
+     *            writes.
+     * @see #setSocketChannel(boolean)
+     */
+    public final void setGatheringWrite(boolean gatheringWrite) {
+        this.gatheringWrite = gatheringWrite;
+    }
+
     /**
      * Determine if this network connection is using Nagle's algorithm as part
      * of its network communication.
@@ -857,6 +1095,15 @@ public class Connection implements Serializable {
         }
     }
 
+    static void raiseBufferSizes(Socket s, int size) throws SocketException {
+        if (size > 0) {
+            if (s.getReceiveBufferSize() < size)
+                s.setReceiveBufferSize(size);
+            if (s.getSendBufferSize() < size)
+                s.setSendBufferSize(size);
+        }
+    }
+
     private void setReceiveBufferSize(Socket s) throws SocketException {
         int size = s.getReceiveBufferSize();
         if (receiveBufferSize == 0) {
@@ -1008,6 +1255,11 @@ public class Connection implements Serializable {
 
     public Socket connect(Connection remoteConn)
             throws IOException, IncompatibleConnectionException, GeneralSecurityException {
+        return connect(remoteConn, 0);
+    }
+
+    Socket connect(Connection remoteConn, int bufferSize)
+            throws IOException, IncompatibleConnectionException, GeneralSecurityException {
         checkInstalled();
         if (!protocol.isTCP())
             throw new IllegalStateException("Not a TCP Connection");
@@ -1017,7 +1269,9 @@ public class Connection implements Serializable {
         int remotePort = remoteConn.getPort();
         LOG.info("Initiate connection from {} to {}:{}",
                 bindPoint, remoteHostname, remotePort);
-        Socket s = new Socket();
+        Socket s = (socketChannel || nonBlockingIO) && !isTls() && remoteConn.getHttpProxy() == null
+                ? SocketChannel.open().socket()
+                : new Socket();
         ConnectionMonitor monitor = device != null
                 ? device.getConnectionMonitor()
                 : null;
@@ -1025,6 +1279,7 @@ public class Connection implements Serializable {
             s.bind(bindPoint);
             setReceiveBufferSize(s);
             setSocketSendOptions(s);
+            raiseBufferSizes(s, bufferSize);
             String remoteProxy = remoteConn.getHttpProxy();
             if (remoteProxy != null) {
                 String userauth = null;
@@ -1223,6 +1478,9 @@ public class Connection implements Serializable {
         setConnectTimeout(from.connectTimeout);
         setRequestTimeout(from.requestTimeout);
         setAcceptTimeout(from.acceptTimeout);
+        setTlsHandshakeTimeout(from.tlsHandshakeTimeout);
+        setMaxAcceptRate(from.maxAcceptRate);
+        setMaxPendingAcceptsPerAddress(from.maxPendingAcceptsPerAddress);
         setReleaseTimeout(from.releaseTimeout);
         setSendTimeout(from.sendTimeout);
         setStoreTimeout(from.storeTimeout);
@@ -1238,6 +1496,13 @@ public class Connection implements Serializable {
         setMaxOpsInvoked(from.maxOpsInvoked);
         setPackPDV(from.packPDV);
         setTcpNoDelay(from.tcpNoDelay);
+        setSocketChannel(from.socketChannel);
+        setNonBlockingIO(from.nonBlockingIO);
+        setAsyncDimseRQ(from.asyncDimseRQ);
+        setAsyncDimseRQSpoolThreshold(from.asyncDimseRQSpoolThreshold);
+        setAsyncDimseRQSpoolDirectory(from.asyncDimseRQSpoolDirectory);
+        setMaxAsyncDimseRQ(from.maxAsyncDimseRQ);
+        setGatheringWrite(from.gatheringWrite);
         setTlsNeedClientAuth(from.tlsNeedClientAuth);
         setTlsCipherSuites(from.tlsCipherSuites);
         setTlsProtocols(from.tlsProtocols);
@@ -0,0 +1,308 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Device extension which adapts the PDU length, socket buffer sizes and PDV packing of Associations to the
+ * network path to the remote Application Entity.
+ * <p>
+ * For each remote AE, the round trip time is measured by the time for the Association establishment - or
+ * explicitly by {@link #probe(Association)} - and the throughput by the time for sending data sets, which are
+ * large compared to the socket send buffer. If the round trip time to a remote AE exceeds
+ * {@link #getLanRoundTripTime()}, subsequent Associations with that AE
+ * <ul>
+ * <li>propose and accept a maximal PDU length, sized by the bandwidth-delay product of the path, but at least
+ * the configured {@link Connection#getReceivePDULength()} and {@link Connection#getSendPDULength()} and at most
+ * {@link #getMaxPDULength()},</li>
+ * <li>set the socket send and receive buffer size to twice the bandwidth-delay product, but at most
+ * {@link #getMaxBufferSize()},</li>
+ * <li>pack command and data set PDVs into one P-DATA-TF PDU.</li>
+ * </ul>
+ * Associations with AEs on the local network use the configured {@link Connection} parameters unchanged. The
+ * learned {@link RemoteProfile}s are part of the extension and therefore persist with the {@link Device}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class ConnectionAutoTuning extends DeviceExtension {
+
+    private static final long serialVersionUID = 4873610526932950573L;
+
+    public static final int DEF_LAN_ROUND_TRIP_TIME = 5;
+    public static final int DEF_MAX_PDU_LENGTH = 0x100000; // 1MiB
+    public static final int DEF_MAX_BUFFER_SIZE = 0x800000; // 8MiB
+    private static final int MIN_BUFFER_SIZE = 0x10000; // 64KiB
+    private static final int DEF_WAN_PDU_LENGTH = 0x10000; // 64KiB
+
+    private int lanRoundTripTime = DEF_LAN_ROUND_TRIP_TIME;
+    private int maxPDULength = DEF_MAX_PDU_LENGTH;
+    private int maxBufferSize = DEF_MAX_BUFFER_SIZE;
+    private final ConcurrentHashMap<String, RemoteProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Get the round trip time in ms, up to which remote AEs are considered on the local network.
+     *
+     * @return round trip time in ms
+     */
+    public final int getLanRoundTripTime() {
+        return lanRoundTripTime;
+    }
+
+    /**
+     * Set the round trip time in ms, up to which remote AEs are considered on the local network. Associations with
+     * such AEs are not tuned.
+     *
+     * @param lanRoundTripTime round trip time in ms
+     */
+    public final void setLanRoundTripTime(int lanRoundTripTime) {
+        if (lanRoundTripTime < 0)
+            throw new IllegalArgumentException("lanRoundTripTime: " + lanRoundTripTime);
+        this.lanRoundTripTime = lanRoundTripTime;
+    }
+
+    public final int getMaxPDULength() {
+        return maxPDULength;
+    }
+
+    /**
+     * Set the upper limit of the PDU length proposed and accepted for tuned Associations.
+     *
+     * @param maxPDULength maximal PDU length
+     */
+    public final void setMaxPDULength(int maxPDULength) {
+        if (maxPDULength < Connection.DEF_MAX_PDU_LENGTH)
+            throw new IllegalArgumentException("maxPDULength: " + maxPDULength);
+        this.maxPDULength = maxPDULength;
+    }
+
+    public final int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    /**
+     * Set the upper limit of the socket send and receive buffer size of tuned Associations.
+     *
+     * @param maxBufferSize maximal socket buffer size
+     */
+    public final void setMaxBufferSize(int maxBufferSize) {
+        if (maxBufferSize < MIN_BUFFER_SIZE)
+            throw new IllegalArgumentException("maxBufferSize: " + maxBufferSize);
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Returns the learned profiles by remote AE Title.
+     *
+     * @return unmodifiable map of the learned profiles by remote AE Title
+     */
+    public Map<String, RemoteProfile> getRemoteProfiles() {
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    public RemoteProfile getRemoteProfile(String aet) {
+        return profiles.get(aet);
+    }
+
+    public void setRemoteProfile(String aet, RemoteProfile profile) {
+        profiles.put(aet, profile);
+    }
+
+    public RemoteProfile removeRemoteProfile(String aet) {
+        return profiles.remove(aet);
+    }
+
+    RemoteProfile profileOf(String aet) {
+        return profiles.computeIfAbsent(aet, k -> new RemoteProfile());
+    }
+
+    /**
+     * Measures the round trip time of a C-ECHO over the specified Association and updates the profile of the
+     * remote AE accordingly.
+     *
+     * @param as Association with negotiated Verification SOP Class
+     * @return measured round trip time in ns
+     */
+    public long probe(Association as) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        as.cecho().next();
+        long rtt = System.nanoTime() - start;
+        profileOf(as.getRemoteAET()).onRoundTrip(rtt);
+        return rtt;
+    }
+
+    @Override
+    public void reconfigure(DeviceExtension from) {
+        ConnectionAutoTuning src = (ConnectionAutoTuning) from;
+        setLanRoundTripTime(src.lanRoundTripTime);
+        setMaxPDULength(src.maxPDULength);
+        setMaxBufferSize(src.maxBufferSize);
+    }
+
+    boolean isWAN(RemoteProfile profile) {
+        return profile.getRoundTripTime() > TimeUnit.MILLISECONDS.toNanos(lanRoundTripTime);
+    }
+
+    int receivePDULength(RemoteProfile profile, Connection conn) {
+        return tunePDULength(profile, conn.getReceivePDULength());
+    }
+
+    int sendPDULength(RemoteProfile profile, Connection conn) {
+        return tunePDULength(profile, conn.getSendPDULength());
+    }
+
+    private int tunePDULength(RemoteProfile profile, int pduLength) {
+        if (pduLength == 0 || !isWAN(profile))
+            return pduLength;
+
+        long bdp = profile.getBandwidthDelayProduct();
+        long target = bdp > 0 ? bdp / 8 : DEF_WAN_PDU_LENGTH;
+        return (int) Math.max(pduLength, Math.min(target, maxPDULength));
+    }
+
+    int socketBufferSize(RemoteProfile profile) {
+        long bdp = profile.getBandwidthDelayProduct();
+        if (bdp == 0 || !isWAN(profile))
+            return 0;
+
+        return (int) Math.max(MIN_BUFFER_SIZE, Math.min(bdp * 2, maxBufferSize));
+    }
+
+    boolean packPDV(RemoteProfile profile, Connection conn) {
+        return conn.isPackPDV() || isWAN(profile);
+    }
+
+    /**
+     * Network characteristics of the path to a remote Application Entity.
+     */
+    public static final class RemoteProfile implements Serializable {
+
+        private static final long serialVersionUID = -6530815426386574651L;
+
+        private static final long MIN_TRANSFER_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+        private long roundTripTime;
+        private long throughput;
+        private int samples;
+
+        public RemoteProfile() {
+        }
+
+        public RemoteProfile(long roundTripTime, long throughput) {
+            this.roundTripTime = roundTripTime;
+            this.throughput = throughput;
+        }
+
+        /**
+         * Returns the estimated round trip time in ns.
+         *
+         * @return estimated round trip time in ns or {@code 0}, if not yet measured
+         */
+        public synchronized long getRoundTripTime() {
+            return roundTripTime;
+        }
+
+        /**
+         * Returns the estimated throughput in bytes/s.
+         *
+         * @return estimated throughput in bytes/s or {@code 0}, if not yet measured
+         */
+        public synchronized long getThroughput() {
+            return throughput;
+        }
+
+        public synchronized int getSamples() {
+            return samples;
+        }
+
+        /**
+         * Returns the estimated bandwidth-delay product in bytes.
+         *
+         * @return estimated bandwidth-delay product in bytes or {@code 0}, if not yet measured
+         */
+        public synchronized long getBandwidthDelayProduct() {
+            return throughput * roundTripTime / 1000000000L;
+        }
+
+        /**
+         * Updates the estimated round trip time by a measured round trip time. Because the measured values include
+         * processing times of the remote AE, lower values replace the estimate immediately, while higher values
+         * only raise it gradually.
+         *
+         * @param nanos measured round trip time in ns
+         */
+        synchronized void onRoundTrip(long nanos) {
+            if (nanos <= 0)
+                return;
+            roundTripTime = roundTripTime == 0 || nanos < roundTripTime
+                    ? nanos
+                    : roundTripTime + (nanos - roundTripTime) / 8;
+            samples++;
+        }
+
+        /**
+         * Updates the estimated throughput by the time needed for sending the specified number of bytes.
+         *
+         * @param bytes number of sent bytes
+         * @param nanos time in ns
+         */
+        synchronized void onTransfer(long bytes, long nanos) {
+            if (nanos < MIN_TRANSFER_NANOS)
+                return;
+            long sample = bytes * 1000000000L / nanos;
+            throughput = throughput == 0 ? sample : throughput + (sample - throughput) / 4;
+            samples++;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "RemoteProfile[rtt=" + roundTripTime / 1000 + "us, throughput=" + throughput
+                    + "B/s, samples=" + samples + ']';
+        }
+    }
+}
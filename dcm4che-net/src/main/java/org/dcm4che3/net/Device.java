@@ -49,6 +49,7 @@ import java.util.concurrent.*;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.TrustManager;
 
 import org.dcm4che3.data.Code;
@@ -70,6 +71,10 @@ public class Device implements Serializable {
 
     private static final long serialVersionUID = -5816872456184522866L;
 
+    public static final int DEF_TLS_SESSION_CACHE_SIZE = 20480;
+    public static final int DEF_TLS_SESSION_TIMEOUT = 86400;
+    public static final int DEF_TLS_HANDSHAKE_QUEUE_SIZE = 256;
+
     private String deviceName;
     private String deviceUID;
     private String description;
@@ -104,6 +109,8 @@ public class Device implements Serializable {
     private String[] relatedDeviceRefs = {};
     private byte[][] vendorData = {};
     private int limitOpenAssociations;
+    private int tlsSessionCacheSize = DEF_TLS_SESSION_CACHE_SIZE;
+    private int tlsSessionTimeout = DEF_TLS_SESSION_TIMEOUT;
     private boolean installed = true;
     private boolean roleSelectionNegotiationLenient;
     private TimeZone timeZoneOfDevice;
@@ -130,6 +137,12 @@ public class Device implements Serializable {
 
     private transient Executor executor;
     private transient ScheduledExecutorService scheduledExecutor;
+    private transient int nioSelectorThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private transient NioSelector[] nioSelectors;
+    private transient int tlsHandshakeThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private transient int tlsHandshakeQueueSize = DEF_TLS_HANDSHAKE_QUEUE_SIZE;
+    private transient ThreadPoolExecutor tlsHandshakeExecutor;
+    private transient int nextNioSelector;
     private transient volatile SSLContext sslContext;
     private transient volatile KeyManager km;
     private transient volatile TrustManager tm;
@@ -777,6 +790,98 @@ public class Device implements Serializable {
         this.executor = executor;
     }
 
+    public final int getNioSelectorThreads() {
+        return nioSelectorThreads;
+    }
+
+    /**
+     * Set the number of event loop threads multiplexing the non-blocking channels of
+     * {@link Connection#setNonBlockingIO(boolean) non-blocking} Connections. Changes do not affect
+     * already started event loops.
+     *
+     * @param nioSelectorThreads
+     *            number of event loop threads.
+     */
+    public final void setNioSelectorThreads(int nioSelectorThreads) {
+        if (nioSelectorThreads <= 0)
+            throw new IllegalArgumentException("nioSelectorThreads: " + nioSelectorThreads);
+        this.nioSelectorThreads = nioSelectorThreads;
+    }
+
+    public final int getTlsHandshakeThreads() {
+        return tlsHandshakeThreads;
+    }
+
+    /**
+     * Set the number of threads performing the TLS handshake of connections accepted by
+     * {@link Connection#isTls() TLS} Connections, so a slow TLS client does not block the accept of other
+     * connections.
+     *
+     * @param tlsHandshakeThreads
+     *            number of TLS handshake threads.
+     */
+    public final synchronized void setTlsHandshakeThreads(int tlsHandshakeThreads) {
+        if (tlsHandshakeThreads <= 0)
+            throw new IllegalArgumentException("tlsHandshakeThreads: " + tlsHandshakeThreads);
+        this.tlsHandshakeThreads = tlsHandshakeThreads;
+        if (tlsHandshakeExecutor != null) {
+            if (tlsHandshakeThreads > tlsHandshakeExecutor.getMaximumPoolSize()) {
+                tlsHandshakeExecutor.setMaximumPoolSize(tlsHandshakeThreads);
+                tlsHandshakeExecutor.setCorePoolSize(tlsHandshakeThreads);
+            } else {
+                tlsHandshakeExecutor.setCorePoolSize(tlsHandshakeThreads);
+                tlsHandshakeExecutor.setMaximumPoolSize(tlsHandshakeThreads);
+            }
+        }
+    }
+
+    public final int getTlsHandshakeQueueSize() {
+        return tlsHandshakeQueueSize;
+    }
+
+    /**
+     * Set the maximal number of accepted TLS connections waiting for a free TLS handshake thread. Further
+     * connections are rejected. Changes do not affect an already started TLS handshake pool.
+     *
+     * @param tlsHandshakeQueueSize
+     *            maximal number of connections waiting for a TLS handshake thread.
+     */
+    public final void setTlsHandshakeQueueSize(int tlsHandshakeQueueSize) {
+        if (tlsHandshakeQueueSize <= 0)
+            throw new IllegalArgumentException("tlsHandshakeQueueSize: " + tlsHandshakeQueueSize);
+        this.tlsHandshakeQueueSize = tlsHandshakeQueueSize;
+    }
+
+    synchronized Executor tlsHandshakeExecutor() {
+        if (tlsHandshakeExecutor == null) {
+            tlsHandshakeExecutor = new ThreadPoolExecutor(tlsHandshakeThreads, tlsHandshakeThreads,
+                    60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(tlsHandshakeQueueSize),
+                    new ThreadFactory() {
+                        private int threadNo;
+
+                        @Override
+                        public synchronized Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, deviceName + "-tls-handshake-" + ++threadNo);
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+            tlsHandshakeExecutor.allowCoreThreadTimeOut(true);
+        }
+        return tlsHandshakeExecutor;
+    }
+
+    synchronized NioSelector nioSelector() {
+        if (nioSelectors == null) {
+            nioSelectors = new NioSelector[Math.max(1, nioSelectorThreads)];
+            for (int i = 0; i < nioSelectors.length; i++)
+                nioSelectors[i] = new NioSelector(this, i);
+        }
+        NioSelector selector = nioSelectors[nextNioSelector];
+        nextNioSelector = (nextNioSelector + 1) % nioSelectors.length;
+        return selector;
+    }
+
     public final ScheduledExecutorService getScheduledExecutor() {
         return scheduledExecutor;
     }
@@ -920,6 +1025,46 @@ public class Device implements Serializable {
         return true;
     }
 
+    public final int getTlsSessionCacheSize() {
+        return tlsSessionCacheSize;
+    }
+
+    /**
+     * Set the maximal number of cached TLS sessions, which may be resumed by abbreviated TLS handshakes.
+     *
+     * @param tlsSessionCacheSize
+     *            maximal number of cached TLS sessions or {@code 0} (= no limit).
+     */
+    public final void setTlsSessionCacheSize(int tlsSessionCacheSize) {
+        if (tlsSessionCacheSize < 0)
+            throw new IllegalArgumentException("tlsSessionCacheSize: " + tlsSessionCacheSize);
+        if (this.tlsSessionCacheSize == tlsSessionCacheSize)
+            return;
+
+        this.tlsSessionCacheSize = tlsSessionCacheSize;
+        needReconfigureTLS();
+    }
+
+    public final int getTlsSessionTimeout() {
+        return tlsSessionTimeout;
+    }
+
+    /**
+     * Set the timeout in s after which cached TLS sessions can no longer be resumed.
+     *
+     * @param tlsSessionTimeout
+     *            timeout in s or {@code 0} (= no timeout).
+     */
+    public final void setTlsSessionTimeout(int tlsSessionTimeout) {
+        if (tlsSessionTimeout < 0)
+            throw new IllegalArgumentException("tlsSessionTimeout: " + tlsSessionTimeout);
+        if (this.tlsSessionTimeout == tlsSessionTimeout)
+            return;
+
+        this.tlsSessionTimeout = tlsSessionTimeout;
+        needReconfigureTLS();
+    }
+
     public final int getLimitOpenAssociations() {
         return limitOpenAssociations;
     }
@@ -1192,6 +1337,11 @@ public class Device implements Serializable {
 
         ctx = SSLContext.getInstance("TLS");
         ctx.init(keyManagers(), trustManagers(), null);
+        for (SSLSessionContext sessionContext :
+                new SSLSessionContext[]{ ctx.getServerSessionContext(), ctx.getClientSessionContext() }) {
+            sessionContext.setSessionCacheSize(tlsSessionCacheSize);
+            sessionContext.setSessionTimeout(tlsSessionTimeout);
+        }
         sslContext = ctx;
         return ctx;
     }
@@ -1210,7 +1360,18 @@ public class Device implements Serializable {
         if (executor == null)
             throw new IllegalStateException("executor not initialized");
 
-        executor.execute(command);
+        DeviceMetrics metrics = getDeviceExtension(DeviceMetrics.class);
+        if (metrics == null) {
+            executor.execute(command);
+            return;
+        }
+        Runnable task = metrics.instrument(command);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            metrics.onTaskRejected();
+            throw e;
+        }
     }
 
     public ScheduledFuture<?> schedule(Runnable command, long delay,
@@ -1302,6 +1463,8 @@ public class Device implements Serializable {
         setThisNodeCertificates(from.thisNodeCertificates);
         setVendorData(from.vendorData);
         setLimitOpenAssociations(from.limitOpenAssociations);
+        setTlsSessionCacheSize(from.tlsSessionCacheSize);
+        setTlsSessionTimeout(from.tlsSessionTimeout);
         setInstalled(from.installed);
         setLimitAssociationsInitiatedBy(from.limitAssociationsInitiatedBy);
         setRoleSelectionNegotiationLenient(from.roleSelectionNegotiationLenient);
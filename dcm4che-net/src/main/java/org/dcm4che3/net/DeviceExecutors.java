@@ -0,0 +1,129 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory of executors for {@link Device#setExecutor}. On Java 21 or newer, the executor may start a virtual
+ * thread for each task, which is selected by the system property {@value #VIRTUAL_THREADS}. On older Java
+ * versions, or if virtual threads are not selected, a cached thread pool is returned.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class DeviceExecutors {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceExecutors.class);
+
+    public static final String VIRTUAL_THREADS = "org.dcm4che3.net.virtualThreads";
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = newVirtualThreadPerTaskExecutorMethod();
+
+    private DeviceExecutors() {}
+
+    private static Method newVirtualThreadPerTaskExecutorMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    public static boolean isVirtualThreadsSelected() {
+        return Boolean.getBoolean(VIRTUAL_THREADS);
+    }
+
+    /**
+     * Returns a new executor which starts a virtual thread for each task, if selected by system property
+     * {@value #VIRTUAL_THREADS} and supported by the Java runtime, otherwise a new cached thread pool.
+     *
+     * @return new executor
+     */
+    public static ExecutorService newExecutor() {
+        return newExecutor(isVirtualThreadsSelected());
+    }
+
+    /**
+     * Returns a new executor which starts a virtual thread for each task, if requested and supported by the Java
+     * runtime, otherwise a new cached thread pool.
+     *
+     * @param virtualThreads if a virtual thread shall be started for each task
+     * @return new executor
+     */
+    public static ExecutorService newExecutor(boolean virtualThreads) {
+        if (virtualThreads) {
+            if (isVirtualThreadsSupported())
+                return newVirtualThreadPerTaskExecutor();
+
+            LOG.warn("Virtual threads not supported by Java {} - use cached thread pool",
+                    System.getProperty("java.version"));
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Returns a new executor which starts a virtual thread for each task.
+     *
+     * @return new executor
+     * @throws UnsupportedOperationException if virtual threads are not supported by the Java runtime
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isVirtualThreadsSupported())
+            throw new UnsupportedOperationException(
+                    "Virtual threads not supported by Java " + System.getProperty("java.version"));
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException(e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dcm4che3.net.metrics.Counter;
+import org.dcm4che3.net.metrics.Histogram;
+import org.dcm4che3.net.metrics.MetricsRegistry;
+
+/**
+ * Device extension which instruments the Associations, DIMSE operations, PDU traffic and task execution of the
+ * Device and records the measurements in a pluggable {@link MetricsRegistry}.
+ * <p>
+ * Without this extension, no measurements are taken. Provided metrics:
+ * <dl>
+ * <dt>{@code dicom_bytes_received_total}, {@code dicom_bytes_sent_total}</dt>
+ * <dd>bytes of PDUs received and sent, labeled by local {@code connection}</dd>
+ * <dt>{@code dicom_pdu_received_bytes}, {@code dicom_pdu_sent_bytes}</dt>
+ * <dd>histograms of the size of received and sent PDUs, labeled by PDU {@code type}</dd>
+ * <dt>{@code dicom_dimse_duration_seconds}</dt>
+ * <dd>histogram of the duration of DIMSE operations from the request to the final response, labeled by
+ * {@code role} ({@code scu} for invoked, {@code scp} for performed operations), {@code dimse},
+ * {@code sop_class} and {@code remote_aet}</dd>
+ * <dt>{@code dicom_operations_in_flight}</dt>
+ * <dd>number of outstanding invoked and performed DIMSE operations, labeled by {@code role}</dd>
+ * <dt>{@code dicom_associations_open}</dt>
+ * <dd>number of open Associations</dd>
+ * <dt>{@code dicom_pdu_decode_queue}, {@code dicom_dimse_dispatch_queue}</dt>
+ * <dd>number of Associations with received PDUs waiting for a thread to decode them in non-blocking I/O mode,
+ * and number of received DIMSE requests waiting for a thread to process them in asynchronous dispatch mode</dd>
+ * <dt>{@code dicom_executor_tasks_queued}, {@code dicom_executor_tasks_active},
+ * {@code dicom_executor_threads}</dt>
+ * <dd>number of tasks passed to {@link Device#execute} waiting for and running on a thread, and number of
+ * threads of the Device executor, if it is a {@link ThreadPoolExecutor}</dd>
+ * </dl>
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ * @see org.dcm4che3.net.metrics.SimpleMetricsRegistry
+ */
+public class DeviceMetrics extends DeviceExtension {
+
+    private static final long serialVersionUID = -3050361318520734520L;
+
+    public static final double[] DURATION_BUCKETS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60 };
+
+    public static final double[] PDU_SIZE_BUCKETS = {
+            16, 256, 1024, 4096, 16384, 65536, 262144, 1048576, 4194304, 16777216 };
+
+    private static final String[] PDU_TYPES = {
+            null, "A-ASSOCIATE-RQ", "A-ASSOCIATE-AC", "A-ASSOCIATE-RJ", "P-DATA-TF",
+            "A-RELEASE-RQ", "A-RELEASE-RP", "A-ABORT" };
+
+    private transient MetricsRegistry registry;
+    private transient ConcurrentHashMap<Connection, ConnectionMetrics> connectionMetrics;
+    private transient Histogram[] pduReceived;
+    private transient Histogram[] pduSent;
+    private transient AtomicLong invoked;
+    private transient AtomicLong performed;
+    private transient AtomicLong decodeQueue;
+    private transient AtomicLong dispatchQueue;
+    private transient AtomicLong tasksQueued;
+    private transient AtomicLong tasksActive;
+
+    public DeviceMetrics() {
+        this(MetricsRegistry.NOOP);
+    }
+
+    public DeviceMetrics(MetricsRegistry registry) {
+        init(registry);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init(MetricsRegistry.NOOP);
+    }
+
+    private void init(MetricsRegistry registry) {
+        this.registry = registry;
+        this.connectionMetrics = new ConcurrentHashMap<>();
+        this.pduReceived = new Histogram[PDU_TYPES.length];
+        this.pduSent = new Histogram[PDU_TYPES.length];
+        for (int i = 1; i < PDU_TYPES.length; i++) {
+            pduReceived[i] = registry.histogram("dicom_pdu_received_bytes",
+                    "Size of received PDUs in bytes", PDU_SIZE_BUCKETS, "type", PDU_TYPES[i]);
+            pduSent[i] = registry.histogram("dicom_pdu_sent_bytes",
+                    "Size of sent PDUs in bytes", PDU_SIZE_BUCKETS, "type", PDU_TYPES[i]);
+        }
+        invoked = gauge("dicom_operations_in_flight",
+                "Number of outstanding DIMSE operations", "role", "scu");
+        performed = gauge("dicom_operations_in_flight",
+                "Number of outstanding DIMSE operations", "role", "scp");
+        decodeQueue = gauge("dicom_pdu_decode_queue",
+                "Number of Associations with received PDUs waiting for decoding");
+        dispatchQueue = gauge("dicom_dimse_dispatch_queue",
+                "Number of received DIMSE requests waiting for processing");
+        tasksQueued = gauge("dicom_executor_tasks_queued",
+                "Number of tasks waiting for a thread of the Device executor");
+        tasksActive = gauge("dicom_executor_tasks_active",
+                "Number of tasks running on threads of the Device executor");
+        registry.gauge("dicom_associations_open", "Number of open Associations",
+                () -> device != null ? device.getNumberOfOpenAssociations() : 0);
+        registry.gauge("dicom_executor_threads", "Number of threads of the Device executor",
+                () -> {
+                    Executor executor = device != null ? device.getExecutor() : null;
+                    return executor instanceof ThreadPoolExecutor
+                            ? ((ThreadPoolExecutor) executor).getPoolSize()
+                            : 0;
+                });
+    }
+
+    private AtomicLong gauge(String name, String help, String... labels) {
+        AtomicLong value = new AtomicLong();
+        registry.gauge(name, help, value::get, labels);
+        return value;
+    }
+
+    public final MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    ConnectionMetrics connectionMetrics(Connection conn) {
+        return connectionMetrics.computeIfAbsent(conn, c -> new ConnectionMetrics(c, registry));
+    }
+
+    void onPDUReceived(ConnectionMetrics cm, int pdutype, long length) {
+        cm.bytesReceived.inc(length);
+        if (pdutype > 0 && pdutype < PDU_TYPES.length)
+            pduReceived[pdutype].observe(length);
+    }
+
+    void onPDUSent(ConnectionMetrics cm, int pdutype, long length) {
+        cm.bytesSent.inc(length);
+        if (pdutype > 0 && pdutype < PDU_TYPES.length)
+            pduSent[pdutype].observe(length);
+    }
+
+    void onInvoke() {
+        invoked.incrementAndGet();
+    }
+
+    void onInvokeCompleted(DimseTimer timer, String remoteAET) {
+        invoked.decrementAndGet();
+        if (timer != null)
+            observe("scu", timer, remoteAET);
+    }
+
+    void onPerform() {
+        performed.incrementAndGet();
+    }
+
+    void onPerformCompleted(DimseTimer timer, String remoteAET) {
+        performed.decrementAndGet();
+        if (timer != null)
+            observe("scp", timer, remoteAET);
+    }
+
+    void onClose(int outstandingInvoked, int outstandingPerformed) {
+        invoked.addAndGet(-outstandingInvoked);
+        performed.addAndGet(-outstandingPerformed);
+    }
+
+    private void observe(String role, DimseTimer timer, String remoteAET) {
+        registry.histogram("dicom_dimse_duration_seconds",
+                "Duration of DIMSE operations from request to final response in seconds",
+                DURATION_BUCKETS,
+                "role", role,
+                "dimse", timer.dimse,
+                "sop_class", timer.cuid != null ? timer.cuid : "",
+                "remote_aet", remoteAET != null ? remoteAET : "")
+                .observe((System.nanoTime() - timer.startNanos) / 1e9);
+    }
+
+    void onDecodeQueued() {
+        decodeQueue.incrementAndGet();
+    }
+
+    void onDecodeStarted() {
+        decodeQueue.decrementAndGet();
+    }
+
+    void onDispatchQueued() {
+        dispatchQueue.incrementAndGet();
+    }
+
+    void onDispatchStarted() {
+        dispatchQueue.decrementAndGet();
+    }
+
+    void onTaskRejected() {
+        tasksQueued.decrementAndGet();
+    }
+
+    Runnable instrument(final Runnable task) {
+        tasksQueued.incrementAndGet();
+        return new Runnable() {
+            @Override
+            public void run() {
+                tasksQueued.decrementAndGet();
+                tasksActive.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    tasksActive.decrementAndGet();
+                }
+            }
+        };
+    }
+
+    static final class ConnectionMetrics {
+        final Counter bytesReceived;
+        final Counter bytesSent;
+
+        private ConnectionMetrics(Connection conn, MetricsRegistry registry) {
+            String name = nameOf(conn);
+            bytesReceived = registry.counter("dicom_bytes_received_total",
+                    "Bytes of received PDUs", "connection", name);
+            bytesSent = registry.counter("dicom_bytes_sent_total",
+                    "Bytes of sent PDUs", "connection", name);
+        }
+
+        private static String nameOf(Connection conn) {
+            if (conn.getCommonName() != null)
+                return conn.getCommonName();
+            return conn.getPort() > 0
+                    ? conn.getHostname() + ':' + conn.getPort()
+                    : conn.getHostname();
+        }
+    }
+
+    static final class DimseTimer {
+        final String dimse;
+        final String cuid;
+        final long startNanos = System.nanoTime();
+
+        DimseTimer(Dimse dimse, String cuid) {
+            String name = dimse.name();
+            this.dimse = name.substring(0, name.length() - 3).replace('_', '-');
+            this.cuid = cuid;
+        }
+    }
+}
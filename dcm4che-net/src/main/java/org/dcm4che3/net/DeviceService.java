@@ -98,7 +98,7 @@ public class DeviceService implements DeviceServiceInterface
     }
 
     protected ExecutorService executerService() {
-        return Executors.newCachedThreadPool();
+        return DeviceExecutors.newExecutor();
     }
 
     protected ScheduledExecutorService scheduledExecuterService() {
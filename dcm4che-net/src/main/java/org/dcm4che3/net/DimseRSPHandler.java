@@ -39,6 +39,7 @@
 package org.dcm4che3.net;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.Tag;
@@ -55,6 +56,7 @@ public class DimseRSPHandler {
     private volatile Timeout timeout;
     private volatile boolean stopOnPending;
     private volatile boolean canceled;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
 
     public DimseRSPHandler(int msgId) {
         this.msgId = msgId;
@@ -73,6 +75,14 @@ public class DimseRSPHandler {
         this.stopOnPending = stopOnPending;
     }
 
+    /**
+     * Returns a future completed after the final response was received or the Association was closed, and this
+     * handler was removed from the Association.
+     */
+    final CompletableFuture<Void> completion() {
+        return completion;
+    }
+
     boolean isStopOnPending() {
         return stopOnPending;
     }
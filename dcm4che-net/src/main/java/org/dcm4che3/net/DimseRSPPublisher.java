@@ -0,0 +1,289 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the pending responses of a C-FIND or C-GET operation: for C-FIND the received Identifiers, for
+ * C-GET the received pending C-GET-RSP commands. The request is sent on subscription by the subscribing thread;
+ * responses are signaled by the thread reading from the Association or by the thread requesting further items.
+ * <p>
+ * Responses are buffered until requested by the subscriber. If more than the specified buffer size of responses
+ * are buffered, because the subscriber does not keep up, the operation is canceled by a C-CANCEL-RQ; responses
+ * received until then are still delivered. Canceling the subscription also sends a C-CANCEL-RQ, if the final
+ * response was not yet received.
+ * <p>
+ * The subscriber is completed after receive of the final response, independent of its status, which is provided
+ * by {@link #finalResponse()}. It is signaled {@link DimseFlow.Subscriber#onError} only if the request could not be
+ * sent or the Association was closed before receive of the final response.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ * @see Association#cfindAsync
+ * @see Association#cgetAsync
+ */
+public class DimseRSPPublisher implements DimseFlow.Publisher<Attributes> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DimseRSPPublisher.class);
+
+    interface Invocation {
+        void invoke(DimseRSPHandler rspHandler) throws IOException, InterruptedException;
+    }
+
+    private final Association as;
+    private final Invocation invocation;
+    private final boolean publishDataset;
+    private final int bufferSize;
+    private final CompletableFuture<Attributes> finalResponse = new CompletableFuture<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean cancelSent = new AtomicBoolean();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final ConcurrentLinkedQueue<Attributes> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Handler handler;
+    private DimseFlow.Subscriber<? super Attributes> subscriber;
+    private volatile boolean invoked;
+    private volatile boolean cancelRequested;
+    private volatile boolean canceled;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    DimseRSPPublisher(Association as, boolean publishDataset, int bufferSize, Invocation invocation) {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+        this.as = as;
+        this.publishDataset = publishDataset;
+        this.bufferSize = bufferSize;
+        this.invocation = invocation;
+        this.handler = new Handler(as.nextMessageID());
+    }
+
+    /**
+     * Returns a future completed with the final response command, or completed exceptionally, if the request could
+     * not be sent or the Association was closed before receive of the final response.
+     *
+     * @return future of the final response command
+     */
+    public CompletableFuture<Attributes> finalResponse() {
+        return finalResponse;
+    }
+
+    @Override
+    public void subscribe(DimseFlow.Subscriber<? super Attributes> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new DimseFlow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Already subscribed"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Subscription());
+        if (canceled) {
+            finalResponse.cancel(false);
+            return;
+        }
+        try {
+            invocation.invoke(handler);
+        } catch (IOException e) {
+            fail(e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+            return;
+        }
+        invoked = true;
+        if (cancelRequested)
+            sendCancel();
+    }
+
+    private void fail(Throwable e) {
+        error = e;
+        done = true;
+        finalResponse.completeExceptionally(e);
+        drain();
+    }
+
+    private void requestCancel() {
+        cancelRequested = true;
+        if (invoked)
+            sendCancel();
+    }
+
+    private void sendCancel() {
+        if (!finalResponse.isDone() && cancelSent.compareAndSet(false, true))
+            try {
+                handler.cancel(as);
+            } catch (IOException e) {
+                LOG.info("{}: failed to send C-CANCEL-RQ:", as, e);
+            }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0)
+            return;
+
+        int missed = 1;
+        for (;;) {
+            long r = requested.get();
+            long e = 0L;
+            while (e != r && !canceled) {
+                Attributes item = queue.poll();
+                if (item == null)
+                    break;
+                queued.decrementAndGet();
+                subscriber.onNext(item);
+                e++;
+            }
+            if (canceled) {
+                while (queue.poll() != null)
+                    queued.decrementAndGet();
+                return;
+            }
+            if (done && queue.isEmpty()) {
+                if (!terminated) {
+                    terminated = true;
+                    if (error != null)
+                        subscriber.onError(error);
+                    else
+                        subscriber.onComplete();
+                }
+                return;
+            }
+            if (e != 0L && r != Long.MAX_VALUE)
+                requested.addAndGet(-e);
+            missed = wip.addAndGet(-missed);
+            if (missed == 0)
+                return;
+        }
+    }
+
+    private final class Subscription implements DimseFlow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("non-positive request: " + n));
+                return;
+            }
+            long r, u;
+            do {
+                r = requested.get();
+                if (r == Long.MAX_VALUE)
+                    break;
+                u = r + n;
+            } while (!requested.compareAndSet(r, u < 0L ? Long.MAX_VALUE : u));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!canceled) {
+                canceled = true;
+                requestCancel();
+                drain();
+            }
+        }
+    }
+
+    private final class Handler extends DimseRSPHandler {
+
+        private volatile Attributes finalRSP;
+
+        Handler(int msgId) {
+            super(msgId);
+        }
+
+        @Override
+        public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+            super.onDimseRSP(as, cmd, data);
+            if (Status.isPending(cmd.getInt(Tag.Status, -1))) {
+                Attributes item = publishDataset ? data : cmd;
+                if (item != null && !canceled) {
+                    queue.offer(item);
+                    int size = queued.incrementAndGet();
+                    if (size > bufferSize && !cancelRequested) {
+                        LOG.info("{}: {} buffered pending DIMSE RSPs - cancel operation", as, size);
+                        requestCancel();
+                    }
+                }
+            } else {
+                finalRSP = cmd;
+                completion().thenRun(() -> {
+                    done = true;
+                    finalResponse.complete(cmd);
+                    drain();
+                });
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onClose(Association as) {
+            super.onClose(as);
+            if (finalRSP == null)
+                fail(CompletableDimseRSP.closedBeforeRSP(as));
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.dcm4che3.util.ByteArrayPool;
+import org.dcm4che3.util.ByteUtils;
+
+/**
+ * Non-blocking transport of one {@link Association}. PDUs are read incrementally by the {@link NioSelector} event
+ * loop and queued until they are complete. Only then the decoding of the queued PDUs is dispatched to
+ * {@link Device#execute}, so no thread is bound to an idle Association. Because {@link PDVInputStream} is consumed
+ * synchronously by {@link DimseRQHandler}s, the decoding thread may still wait for further P-DATA-TF PDUs of a
+ * DIMSE message which spans several PDUs.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+class NioAssociationChannel implements NioSelector.Handler {
+
+    private static final int MAX_PDU_LEN = 0x1000000; // 16MiB
+    private static final int MAX_QUEUED_PDUS = 16;
+    private static final ByteBuffer EOF = ByteBuffer.allocate(0);
+
+    private final Association as;
+    private final SocketChannel ch;
+    private final NioSelector selector;
+    private final LinkedBlockingQueue<ByteBuffer> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean decoding = new AtomicBoolean();
+    private final AtomicBoolean readSuspended = new AtomicBoolean();
+    private final AtomicBoolean eof = new AtomicBoolean();
+    private final ByteBuffer header = ByteBuffer.allocate(6);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition writableChanged = writeLock.newCondition();
+    private final InputStream in = new In();
+    private final OutputStream out = new Out();
+    private byte[] pdu;
+    private ByteBuffer body;
+    private ByteBuffer cur;
+    private boolean writable;
+    private volatile IOException failure;
+
+    NioAssociationChannel(Association as, SocketChannel ch, NioSelector selector) {
+        this.as = as;
+        this.ch = ch;
+        this.selector = selector;
+    }
+
+    InputStream getInputStream() {
+        return in;
+    }
+
+    OutputStream getOutputStream() {
+        return out;
+    }
+
+    void register() throws IOException {
+        selector.register(ch, SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * Signals the termination of the transport connection to the decoding thread.
+     */
+    void closed() {
+        selector.wakeup();
+        onEOF();
+        dispatch();
+        writeLock.lock();
+        try {
+            writableChanged.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Releases all PDUs which were not consumed by the decoder. The PDUs queued or still read by the event loop are
+     * released by the event loop thread after the channel was deregistered, so no further PDU is read.
+     */
+    void release() {
+        if (cur != null && cur != EOF)
+            ByteArrayPool.getDefault().release(cur.array());
+        cur = EOF;
+        selector.deregister(ch, this::releaseReadPDUs);
+    }
+
+    private void releaseReadPDUs() {
+        ByteArrayPool pool = ByteArrayPool.getDefault();
+        if (pdu != null) {
+            pool.release(pdu);
+            pdu = null;
+            body = null;
+        }
+        ByteBuffer bb;
+        while ((bb = queue.poll()) != null)
+            if (bb != EOF)
+                pool.release(bb.array());
+    }
+
+    boolean hasBufferedPDU() {
+        return (cur != null && cur.hasRemaining()) || !queue.isEmpty();
+    }
+
+    void awaitWritable() throws IOException {
+        writeLock.lock();
+        try {
+            writable = false;
+            selector.addInterestOps(ch, SelectionKey.OP_WRITE);
+            while (!writable && ch.isOpen())
+                writableChanged.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            writeLock.unlock();
+        }
+        if (!ch.isOpen())
+            throw new ClosedChannelException();
+    }
+
+    @Override
+    public void onReady(SelectionKey key) throws IOException {
+        if (key.isWritable()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            writeLock.lock();
+            try {
+                writable = true;
+                writableChanged.signalAll();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        if (key.isReadable() && readPDUs(key))
+            dispatch();
+    }
+
+    @Override
+    public void onFailure(Throwable e) {
+        failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        closed();
+    }
+
+    private boolean readPDUs(SelectionKey key) throws IOException {
+        boolean queued = false;
+        for (;;) {
+            if (body == null) {
+                if (ch.read(header) < 0) {
+                    onEOF();
+                    return true;
+                }
+                if (header.hasRemaining())
+                    return queued;
+                int pdulen = ByteUtils.bytesToIntBE(header.array(), 2);
+                if (pdulen < 0 || pdulen > MAX_PDU_LEN) {
+                    Association.LOG.warn("{}: invalid length of PDU[type={}, len={}]",
+                            as, header.get(0) & 0xff, pdulen & 0xFFFFFFFFL);
+                    queue.add(ByteBuffer.wrap(header.array().clone()));
+                    key.cancel();
+                    onEOF();
+                    return true;
+                }
+                pdu = ByteArrayPool.getDefault().acquire(6 + pdulen);
+                System.arraycopy(header.array(), 0, pdu, 0, 6);
+                body = ByteBuffer.wrap(pdu, 6, pdulen);
+                header.clear();
+            }
+            if (ch.read(body) < 0) {
+                onEOF();
+                return true;
+            }
+            if (body.hasRemaining())
+                return queued;
+            queue.add(ByteBuffer.wrap(pdu, 0, body.limit()));
+            pdu = null;
+            body = null;
+            queued = true;
+            if (queue.size() >= MAX_QUEUED_PDUS) {
+                readSuspended.set(true);
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                return true;
+            }
+        }
+    }
+
+    private void onEOF() {
+        if (eof.compareAndSet(false, true))
+            queue.add(EOF);
+    }
+
+    private void dispatch() {
+        if (decoding.compareAndSet(false, true)) {
+            DeviceMetrics metrics = as.getDevice().getDeviceExtension(DeviceMetrics.class);
+            if (metrics == null) {
+                as.getDevice().execute(this::decode);
+            } else {
+                metrics.onDecodeQueued();
+                as.getDevice().execute(() -> {
+                    metrics.onDecodeStarted();
+                    decode();
+                });
+            }
+        }
+    }
+
+    private void decode() {
+        do {
+            if (!as.decodeBufferedPDUs())
+                return; // leave decoding set, no further dispatch
+            decoding.set(false);
+        } while (hasBufferedPDU() && decoding.compareAndSet(false, true));
+    }
+
+    private ByteBuffer current() throws IOException {
+        if (cur != null && cur.hasRemaining())
+            return cur;
+        if (cur == EOF) {
+            if (failure != null)
+                throw failure;
+            return null;
+        }
+        if (cur != null)
+            ByteArrayPool.getDefault().release(cur.array());
+        try {
+            cur = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (readSuspended.get() && queue.size() <= MAX_QUEUED_PDUS / 2
+                && readSuspended.compareAndSet(true, false))
+            selector.addInterestOps(ch, SelectionKey.OP_READ);
+        return current();
+    }
+
+    private class In extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer bb = current();
+            return bb != null ? bb.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            ByteBuffer bb = current();
+            if (bb == null)
+                return -1;
+            int n = Math.min(len, bb.remaining());
+            bb.get(b, off, n);
+            return n;
+        }
+    }
+
+    private class Out extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+            while (bb.hasRemaining())
+                if (ch.write(bb) == 0)
+                    awaitWritable();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.dcm4che3.util.SafeClose;
+
+/**
+ * Event loop multiplexing non-blocking channels of one {@link Device}. The loop is started by
+ * {@link Device#execute} on registration of the first channel and terminates if no channel is registered anymore.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+class NioSelector implements Runnable {
+
+    private static final long SELECT_TIMEOUT = 1000L;
+
+    interface Handler {
+        void onReady(SelectionKey key) throws IOException;
+        void onFailure(Throwable e);
+    }
+
+    private final Device device;
+    private final int index;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private boolean running;
+
+    NioSelector(Device device, int index) {
+        this.device = device;
+        this.index = index;
+    }
+
+    /**
+     * Registers the channel asynchronously by the event loop thread. The channel is switched to non-blocking mode.
+     */
+    void register(SelectableChannel ch, int ops, Handler handler) throws IOException {
+        ch.configureBlocking(false);
+        execute(() -> {
+            try {
+                ch.register(selector, ops, handler);
+            } catch (ClosedChannelException e) {
+                handler.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Adds to the interest set of the channel's key asynchronously by the event loop thread.
+     */
+    void addInterestOps(SelectableChannel ch, int ops) {
+        execute(() -> {
+            SelectionKey key = ch.keyFor(selector);
+            if (key != null)
+                try {
+                    key.interestOps(key.interestOps() | ops);
+                } catch (CancelledKeyException e) {
+                    ((Handler) key.attachment()).onFailure(e);
+                }
+        });
+    }
+
+    /**
+     * Cancels the channel's key and runs the specified task asynchronously by the event loop thread, so the task
+     * does not race with further events of the channel.
+     */
+    void deregister(SelectableChannel ch, Runnable task) {
+        execute(() -> {
+            SelectionKey key = ch.keyFor(selector);
+            if (key != null)
+                key.cancel();
+            task.run();
+        });
+    }
+
+    /**
+     * Wakes up the event loop, so it deregisters closed channels promptly.
+     */
+    void wakeup() {
+        execute(() -> {});
+    }
+
+    void execute(Runnable task) {
+        tasks.add(task);
+        Selector selector;
+        synchronized (this) {
+            selector = this.selector;
+            if (!running) {
+                if (selector == null)
+                    try {
+                        this.selector = Selector.open();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to open Selector", e);
+                    }
+                running = true;
+                device.execute(this);
+                return;
+            }
+        }
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        Connection.LOG.debug("Start NIO Selector #{} of {}", index, device);
+        try {
+            for (;;) {
+                Runnable task;
+                while ((task = tasks.poll()) != null)
+                    task.run();
+                if (selector.keys().isEmpty()) {
+                    synchronized (this) {
+                        if (tasks.isEmpty()) {
+                            running = false;
+                            break;
+                        }
+                    }
+                    continue;
+                }
+                selector.select(SELECT_TIMEOUT);
+                Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                while (iter.hasNext()) {
+                    SelectionKey key = iter.next();
+                    iter.remove();
+                    Handler handler = (Handler) key.attachment();
+                    try {
+                        handler.onReady(key);
+                    } catch (Throwable e) {
+                        key.cancel();
+                        handler.onFailure(e);
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            Connection.LOG.error("NIO Selector #{} of {} failed:", index, device, e);
+            for (SelectionKey key : selector.keys()) {
+                key.cancel();
+                ((Handler) key.attachment()).onFailure(e);
+            }
+            SafeClose.close(selector);
+            synchronized (this) {
+                selector = null;
+                running = false;
+            }
+        }
+        Connection.LOG.debug("Stop NIO Selector #{} of {}", index, device);
+    }
+}
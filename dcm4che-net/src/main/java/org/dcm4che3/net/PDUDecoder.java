@@ -43,7 +43,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
@@ -60,6 +59,7 @@ import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.RoleSelection;
 import org.dcm4che3.net.pdu.UserIdentityAC;
 import org.dcm4che3.net.pdu.UserIdentityRQ;
+import org.dcm4che3.util.ByteArrayPool;
 import org.dcm4che3.util.ByteUtils;
 import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StreamUtils;
@@ -89,8 +89,8 @@ class PDUDecoder extends PDVInputStream {
 
     private final Association as;
     private final InputStream in;
-    private final Thread th;
-    private byte[] buf = new byte[6 + Connection.DEF_MAX_PDU_LENGTH];
+    private Thread th;
+    private byte[] buf = ByteArrayPool.getDefault().acquire(6 + Connection.DEF_MAX_PDU_LENGTH);
     private int pos;
     private int pdutype;
     private int pdulen;
@@ -104,6 +104,19 @@ class PDUDecoder extends PDVInputStream {
         this.th = Thread.currentThread();
     }
 
+    /**
+     * Binds the decoder to the current thread, which continues the decoding of PDUs received by the
+     * non-blocking transport.
+     */
+    void enter() {
+        th = Thread.currentThread();
+    }
+
+    void release() {
+        ByteArrayPool.getDefault().release(buf);
+        buf = ByteUtils.EMPTY_BYTES;
+    }
+
     private int remaining() {
         return pdulen + 6 - pos;
     }
@@ -163,6 +176,7 @@ class PDUDecoder extends PDVInputStream {
         pdulen = getInt();
         Association.LOG.trace("{} >> PDU[type={}, len={}]",
                 new Object[] { as, pdutype, pdulen & 0xFFFFFFFFL });
+        as.onPDUReceived(pdutype, pdulen);
         switch (pdutype) {
         case PDUType.A_ASSOCIATE_RQ:
             readPDU();
@@ -214,8 +228,13 @@ class PDUDecoder extends PDVInputStream {
         if (pdulen < 4 || pdulen > MAX_PDU_LEN)
             abort(AAbort.INVALID_PDU_PARAMETER_VALUE, INVALID_PDU_LENGTH);
 
-        if (6 + pdulen > buf.length)
-            buf = Arrays.copyOf(buf, 6 + pdulen);
+        if (6 + pdulen > buf.length) {
+            ByteArrayPool pool = ByteArrayPool.getDefault();
+            byte[] newbuf = pool.acquire(6 + pdulen);
+            System.arraycopy(buf, 0, newbuf, 0, 10);
+            pool.release(buf);
+            buf = newbuf;
+        }
 
         readFully(10, pdulen - 4);
     }
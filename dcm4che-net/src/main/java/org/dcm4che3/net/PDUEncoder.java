@@ -42,6 +42,10 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.UID;
@@ -58,6 +62,8 @@ import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.pdu.RoleSelection;
 import org.dcm4che3.net.pdu.UserIdentityAC;
 import org.dcm4che3.net.pdu.UserIdentityRQ;
+import org.dcm4che3.util.ByteArrayPool;
+import org.dcm4che3.util.ByteUtils;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -67,28 +73,65 @@ class PDUEncoder extends PDVOutputStream {
 
     private Association as;
     private OutputStream out;
-    private byte[] buf = new byte[Connection.DEF_MAX_PDU_LENGTH + 6];
+    private byte[] buf = ByteArrayPool.getDefault().acquire(Connection.DEF_MAX_PDU_LENGTH + 6);
     private int pos;
     private int pdvpcid;
     private int pdvcmd;
     private int pdvpos;
     private int maxpdulen;
     private Thread th;
-    private Object dimseLock = new Object();
+    private final ReentrantLock dimseLock = new ReentrantLock();
+    private final ReentrantLock pduLock = new ReentrantLock();
+    private FileChannel transferChannel;
+    private long transferPosition;
+    private int transferLength;
+    private byte[] gatherBuf;
+    private int gatherOff;
+    private long sentBytes;
 
     public PDUEncoder(Association as, OutputStream out) {
         this.as = as;
         this.out = out;
     }
 
+    void release() {
+        dimseLock.lock();
+        pduLock.lock();
+        try {
+            ByteArrayPool.getDefault().release(buf);
+            buf = ByteUtils.EMPTY_BYTES;
+        } finally {
+            pduLock.unlock();
+            dimseLock.unlock();
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (buf.length < length) {
+            ByteArrayPool pool = ByteArrayPool.getDefault();
+            pool.release(buf);
+            buf = pool.acquire(length);
+        }
+    }
+
     public void write(AAssociateRQ rq) throws IOException {
-        encode(rq, PDUType.A_ASSOCIATE_RQ, ItemType.RQ_PRES_CONTEXT);
-        writePDU(pos - 6);
+        pduLock.lock();
+        try {
+            encode(rq, PDUType.A_ASSOCIATE_RQ, ItemType.RQ_PRES_CONTEXT);
+            writePDU(pos - 6);
+        } finally {
+            pduLock.unlock();
+        }
     }
 
     public void write(AAssociateAC ac) throws IOException {
-        encode(ac, PDUType.A_ASSOCIATE_AC, ItemType.AC_PRES_CONTEXT);
-        writePDU(pos - 6);
+        pduLock.lock();
+        try {
+            encode(ac, PDUType.A_ASSOCIATE_AC, ItemType.AC_PRES_CONTEXT);
+            writePDU(pos - 6);
+        } finally {
+            pduLock.unlock();
+        }
     }
 
     public void write(AAssociateRJ rj) throws IOException {
@@ -108,7 +151,7 @@ class PDUEncoder extends PDVOutputStream {
         write(PDUType.A_ABORT, 0, aa.getSource(), aa.getReason());
     }
 
-    private synchronized void write(int pdutype, int result, int source,
+    private void write(int pdutype, int result, int source,
             int reason) throws IOException {
         byte[] b = {
                 (byte) pdutype,
@@ -119,20 +162,37 @@ class PDUEncoder extends PDVOutputStream {
                 (byte) source,
                 (byte) reason
         };
-        out.write(b);
-        out.flush();
+        pduLock.lock();
+        try {
+            out.write(b);
+            out.flush();
+        } finally {
+            pduLock.unlock();
+        }
+        as.onPDUSent(pdutype, b.length);
     }
 
-    private synchronized void writePDU(int pdulen) throws IOException {
+    private void writePDU(int pdulen) throws IOException {
+        pduLock.lock();
         try {
-            out.write(buf, 0, 6 + pdulen);
-            out.flush();
+            if (gatherBuf != null) {
+                gatherWrite(6 + pdulen - transferLength);
+            } else {
+                out.write(buf, 0, 6 + pdulen - transferLength);
+                out.flush();
+                if (transferLength > 0)
+                    transferTo(as.getSocket().getChannel());
+            }
+            as.onPDUSent(buf[0] & 0xff, 6 + pdulen);
+            sentBytes += 6 + pdulen;
+            pdvpos = 6;
+            pos = 12;
         } catch (IOException e) {
             as.onIOException(e);
             throw e;
+        } finally {
+            pduLock.unlock();
         }
-        pdvpos = 6;
-        pos = 12;
     }
 
     private void encode(AAssociateRQAC rqac, int pduType, int pcItemType) {
@@ -140,8 +200,7 @@ class PDUEncoder extends PDVOutputStream {
         rqac.checkCalledAET();
 
         int pdulen = rqac.length();
-        if (buf.length < 6 + pdulen)
-            buf = new byte[6 + pdulen];
+        ensureCapacity(6 + pdulen);
         pos = 0;
         put(pduType);
         put(0);
@@ -309,16 +368,37 @@ class PDUEncoder extends PDVOutputStream {
         put(b);
     }
 
+    /**
+     * Writes the specified bytes as data of the current PDV. If gathering writes are enabled, the content of PDUs
+     * completely filled by the specified bytes is sent directly from {@code b} without copying it into the PDU
+     * buffer.
+     *
+     * @see Connection#setGatheringWrite(boolean)
+     */
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
         checkThread();
-        int pos = off;
+        boolean gathering = as.isGatheringWrite();
+        int srcOff = off;
         int remaining = len;
         while (remaining > 0) {
             flushPDataTF();
             int write = Math.min(remaining, free());
-            put(b, pos, write);
-            pos += write;
+            if (gathering && remaining > write) {
+                gatherBuf = b;
+                gatherOff = srcOff;
+                transferLength = write;
+                try {
+                    encodePDVHeader(PDVType.PENDING);
+                    as.writePDataTF();
+                } finally {
+                    gatherBuf = null;
+                    transferLength = 0;
+                }
+            } else {
+                put(b, srcOff, write);
+            }
+            srcOff += write;
             remaining -= write;
         }
     }
@@ -355,6 +435,73 @@ class PDUEncoder extends PDVOutputStream {
         }
     }
 
+    /**
+     * Sends the specified region of the file channel as data of the current PDV. If the Association's socket is
+     * backed by a {@link SocketChannel}, the content of PDUs completely filled by the file region is transferred
+     * by {@link FileChannel#transferTo} without copying it into the PDU buffer.
+     */
+    @Override
+    public void copyFrom(FileChannel fc, long position, long length) throws IOException {
+        checkThread();
+        boolean zeroCopy = as.getSocket().getChannel() != null;
+        while (length > 0) {
+            flushPDataTF();
+            int free = free();
+            if (zeroCopy && pdvpos == 6 && pos == 12 && length > free) {
+                transferChannel = fc;
+                transferPosition = position;
+                transferLength = free;
+                try {
+                    encodePDVHeader(PDVType.PENDING);
+                    as.writePDataTF();
+                } finally {
+                    transferChannel = null;
+                    transferLength = 0;
+                }
+            } else {
+                free = (int) Math.min(length, free);
+                ByteBuffer bb = ByteBuffer.wrap(buf, pos, free);
+                while (bb.hasRemaining())
+                    if (fc.read(bb, position + free - bb.remaining()) < 0)
+                        throw new EOFException();
+                pos += free;
+            }
+            position += free;
+            length -= free;
+        }
+    }
+
+    private void transferTo(SocketChannel sc) throws IOException {
+        long transferred = 0;
+        while (transferred < transferLength) {
+            long n = transferChannel.transferTo(
+                    transferPosition + transferred, transferLength - transferred, sc);
+            if (n == 0) {
+                if (transferPosition + transferred >= transferChannel.size())
+                    throw new EOFException();
+                as.awaitWritable();
+            }
+            transferred += n;
+        }
+    }
+
+    private void gatherWrite(int bufLength) throws IOException {
+        SocketChannel sc = as.getSocket().getChannel();
+        if (sc == null) {
+            out.write(buf, 0, bufLength);
+            out.write(gatherBuf, gatherOff, transferLength);
+            out.flush();
+            return;
+        }
+        ByteBuffer[] srcs = {
+                ByteBuffer.wrap(buf, 0, bufLength),
+                ByteBuffer.wrap(gatherBuf, gatherOff, transferLength)
+        };
+        while (srcs[1].hasRemaining())
+            if (sc.write(srcs) == 0)
+                as.awaitWritable();
+    }
+
     private void checkThread() {
         if (th != Thread.currentThread())
             throw new IllegalStateException("Entered by wrong thread");
@@ -373,7 +520,7 @@ class PDUEncoder extends PDVOutputStream {
 
     private void encodePDVHeader(int last) {
         final int endpos = pos;
-        final int pdvlen = endpos - pdvpos - 4;
+        final int pdvlen = endpos - pdvpos - 4 + transferLength;
         pos = pdvpos;
         putInt(pdvlen);
         put(pdvpcid);
@@ -384,7 +531,7 @@ class PDUEncoder extends PDVOutputStream {
     }
 
     public void writePDataTF() throws IOException {
-        int pdulen = pos - 6;
+        int pdulen = pos - 6 + transferLength;
         pos = 0;
         put(PDUType.P_DATA_TF);
         put(0);
@@ -396,7 +543,8 @@ class PDUEncoder extends PDVOutputStream {
 
     public void writeDIMSE(PresentationContext pc, Attributes cmd,
             DataWriter dataWriter) throws IOException {
-        synchronized (dimseLock) {
+        dimseLock.lock();
+        try {
             int pcid = pc.getPCID();
             String tsuid = pc.getTransferSyntax();
             Dimse dimse = Dimse.valueOf(cmd.getInt(Tag.CommandField, -1));
@@ -408,10 +556,11 @@ class PDUEncoder extends PDVOutputStream {
                     Dimse.LOG.debug("{} << {} Command:\n{}", as, dimse.toString(cmd), cmd);
                 }
             }
+            long dataStartBytes = 0L;
+            long dataStartTime = 0L;
             this.th = Thread.currentThread();
             maxpdulen = as.getMaxPDULengthSend();
-            if (buf.length < maxpdulen + 6)
-                buf = new byte[maxpdulen + 6];
+            ensureCapacity(maxpdulen + 6);
 
             pdvpcid = pcid;
             pdvcmd = PDVType.COMMAND;
@@ -427,6 +576,8 @@ class PDUEncoder extends PDVOutputStream {
                     pos += 6;
                 }
                 pdvcmd = PDVType.DATA;
+                dataStartBytes = sentBytes;
+                dataStartTime = System.nanoTime();
                 if (Dimse.LOG.isDebugEnabled()) {
                     if (dataWriter instanceof DataWriterAdapter)
                         Dimse.LOG.debug("{} << {} Dataset:\n{}", as, dimse.toString(cmd),
@@ -440,7 +591,11 @@ class PDUEncoder extends PDVOutputStream {
                 close();
             }
             as.writePDataTF();
+            if (dataWriter != null)
+                as.onDataSent(sentBytes - dataStartBytes, System.nanoTime() - dataStartTime);
             this.th = null;
+        } finally {
+            dimseLock.unlock();
         }
     }
 }
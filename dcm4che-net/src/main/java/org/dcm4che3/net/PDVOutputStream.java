@@ -38,9 +38,14 @@
 
 package org.dcm4che3.net;
 
+import org.dcm4che3.util.ByteArrayPool;
+
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * @author Gunter Zeilinger <gunterze@gmail.com>
@@ -52,4 +57,30 @@ public abstract class PDVOutputStream extends OutputStream {
             throws IOException;
 
     public abstract void copyFrom(InputStream in) throws IOException;
+
+    /**
+     * Copies the specified region of the file channel, without changing the position of the channel.
+     *
+     * @param fc       source file channel
+     * @param position offset of the region in the file
+     * @param length   length of the region
+     * @throws IOException if an I/O error occurs
+     */
+    public void copyFrom(FileChannel fc, long position, long length) throws IOException {
+        ByteArrayPool pool = ByteArrayPool.getDefault();
+        byte[] buf = pool.acquire((int) Math.min(length, 0x2000));
+        try {
+            while (length > 0) {
+                ByteBuffer bb = ByteBuffer.wrap(buf, 0, (int) Math.min(length, buf.length));
+                int n = fc.read(bb, position);
+                if (n < 0)
+                    throw new EOFException();
+                write(buf, 0, n);
+                position += n;
+                length -= n;
+            }
+        } finally {
+            pool.release(buf);
+        }
+    }
 }
@@ -0,0 +1,318 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.util.ByteArrayPool;
+import org.dcm4che3.util.SafeClose;
+
+/**
+ * Copy of the data of a DIMSE request in chunks of pooled buffers, which can be read by another thread than the
+ * one which received the request. Data exceeding the specified threshold is spilled over into a temporary file.
+ * The buffers are returned to the pool and the temporary file is deleted on {@link #close()}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+class SpooledPDVInputStream extends PDVInputStream {
+
+    private static final int CHUNK_SIZE = 0x10000;
+
+    private final ByteArrayPool pool = ByteArrayPool.getDefault();
+    private final ArrayList<byte[]> chunks = new ArrayList<>();
+    private final long threshold;
+    private final File directory;
+    private File file;
+    private OutputStream fout;
+    private RandomAccessFile raf;
+    private long length;
+    private long pos;
+    private long mark;
+
+    private SpooledPDVInputStream(long threshold, File directory) {
+        this.threshold = threshold;
+        this.directory = directory;
+    }
+
+    /**
+     * Spools the remaining data of the specified stream.
+     *
+     * @param in        the stream to spool
+     * @param threshold maximal number of bytes kept in memory
+     * @param directory directory of the temporary file, {@code null} for the default temporary-file directory
+     */
+    static SpooledPDVInputStream spool(PDVInputStream in, long threshold, File directory) throws IOException {
+        final SpooledPDVInputStream spool = new SpooledPDVInputStream(threshold, directory);
+        try {
+            in.copyTo(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    spool.append(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    spool.append(b, off, len);
+                }
+            });
+            spool.finishSpill();
+        } catch (IOException e) {
+            spool.close();
+            throw e;
+        }
+        return spool;
+    }
+
+    private byte[] tail() {
+        int off = (int) (length % CHUNK_SIZE);
+        if (off == 0 && length / CHUNK_SIZE == chunks.size())
+            chunks.add(pool.acquire(CHUNK_SIZE));
+        return chunks.get(chunks.size() - 1);
+    }
+
+    private void append(int b) throws IOException {
+        if (fout == null && length >= threshold)
+            spill();
+        if (fout != null) {
+            fout.write(b);
+            length++;
+            return;
+        }
+        tail()[(int) (length++ % CHUNK_SIZE)] = (byte) b;
+    }
+
+    private void append(byte[] b, int off, int len) throws IOException {
+        if (fout == null && length + len > threshold)
+            spill();
+        if (fout != null) {
+            fout.write(b, off, len);
+            length += len;
+            return;
+        }
+        while (len > 0) {
+            byte[] chunk = tail();
+            int chunkOff = (int) (length % CHUNK_SIZE);
+            int n = Math.min(len, CHUNK_SIZE - chunkOff);
+            System.arraycopy(b, off, chunk, chunkOff, n);
+            off += n;
+            len -= n;
+            length += n;
+        }
+    }
+
+    private void spill() throws IOException {
+        file = File.createTempFile("dimse", ".spool", directory);
+        fout = new BufferedOutputStream(new FileOutputStream(file), CHUNK_SIZE);
+        long remaining = length;
+        for (byte[] chunk : chunks) {
+            int n = (int) Math.min(remaining, CHUNK_SIZE);
+            fout.write(chunk, 0, n);
+            remaining -= n;
+            pool.release(chunk);
+        }
+        chunks.clear();
+    }
+
+    private void finishSpill() throws IOException {
+        if (fout != null) {
+            fout.close();
+            fout = null;
+            raf = new RandomAccessFile(file, "r");
+        }
+    }
+
+    long length() {
+        return length;
+    }
+
+    boolean isSpilled() {
+        return file != null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pos >= length)
+            return -1;
+        int b;
+        if (raf != null) {
+            raf.seek(pos);
+            b = raf.read();
+        } else {
+            b = chunks.get((int) (pos / CHUNK_SIZE))[(int) (pos % CHUNK_SIZE)] & 0xff;
+        }
+        pos++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        if (pos >= length)
+            return -1;
+        if (raf != null) {
+            raf.seek(pos);
+            int n = raf.read(b, off, (int) Math.min(len, length - pos));
+            pos += n;
+            return n;
+        }
+        int read = 0;
+        while (len > 0 && pos < length) {
+            int chunkOff = (int) (pos % CHUNK_SIZE);
+            int n = (int) Math.min(Math.min(len, CHUNK_SIZE - chunkOff), length - pos);
+            System.arraycopy(chunks.get((int) (pos / CHUNK_SIZE)), chunkOff, b, off, n);
+            off += n;
+            len -= n;
+            pos += n;
+            read += n;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0L, Math.min(n, length - pos));
+        pos += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(length - pos, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        mark = pos;
+    }
+
+    @Override
+    public void reset() {
+        pos = mark;
+    }
+
+    @Override
+    public Attributes readDataset(String tsuid) throws IOException {
+        DicomInputStream in = new DicomInputStream(this, tsuid);
+        try {
+            return in.readDataset();
+        } finally {
+            SafeClose.close(in);
+        }
+    }
+
+    @Override
+    public void copyTo(OutputStream out, int length) throws IOException {
+        if (length > this.length - pos)
+            throw new EOFException("remaining: " + (length - (this.length - pos)));
+        writeTo(out, pos + length);
+    }
+
+    @Override
+    public void copyTo(OutputStream out) throws IOException {
+        writeTo(out, length);
+    }
+
+    private void writeTo(OutputStream out, long end) throws IOException {
+        if (raf != null) {
+            byte[] buf = pool.acquire(CHUNK_SIZE);
+            try {
+                raf.seek(pos);
+                while (pos < end) {
+                    int n = raf.read(buf, 0, (int) Math.min(CHUNK_SIZE, end - pos));
+                    if (n < 0)
+                        throw new EOFException();
+                    out.write(buf, 0, n);
+                    pos += n;
+                }
+            } finally {
+                pool.release(buf);
+            }
+            return;
+        }
+        while (pos < end) {
+            int chunkOff = (int) (pos % CHUNK_SIZE);
+            int n = (int) Math.min(CHUNK_SIZE - chunkOff, end - pos);
+            out.write(chunks.get((int) (pos / CHUNK_SIZE)), chunkOff, n);
+            pos += n;
+        }
+    }
+
+    @Override
+    public long skipAll() {
+        long n = length - pos;
+        pos = length;
+        return n;
+    }
+
+    @Override
+    public void close() {
+        for (byte[] chunk : chunks)
+            pool.release(chunk);
+        chunks.clear();
+        if (file != null) {
+            SafeClose.close(fout);
+            SafeClose.close(raf);
+            fout = null;
+            raf = null;
+            file.delete();
+            file = null;
+        }
+        length = pos = mark = 0L;
+    }
+}
@@ -39,10 +39,21 @@
 package org.dcm4che3.net;
 
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.ServerSocket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
 import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLServerSocket;
@@ -53,11 +64,17 @@ import javax.net.ssl.SSLSocket;
  * @author Gunter Zeilinger <gunterze@gmail.com>
  *
  */
-class TCPListener implements Listener {
+class TCPListener implements Listener, NioSelector.Handler {
+
+    private static final long ONE_SECOND = 1000000000L;
 
     private final Connection conn;
     private final TCPProtocolHandler handler;
     private final ServerSocket ss;
+    private final ConcurrentHashMap<InetAddress, AtomicInteger> pendingPerAddress = new ConcurrentHashMap<>();
+    private NioSelector selector;
+    private long acceptWindowStart = System.nanoTime();
+    private int acceptedInWindow;
 
     public TCPListener(Connection conn, TCPProtocolHandler handler)
             throws IOException, GeneralSecurityException {
@@ -65,14 +82,22 @@ class TCPListener implements Listener {
         
             this.conn = conn;
             this.handler = handler;
-            ss = conn.isTls() ? createTLSServerSocket(conn) : new ServerSocket();
+            ss = conn.isTls() ? createTLSServerSocket(conn)
+                    : conn.isSocketChannel() || conn.isNonBlockingIO() ? ServerSocketChannel.open().socket()
+                    : new ServerSocket();
             conn.setReceiveBufferSize(ss);
             ss.bind(conn.getBindPoint(), conn.getBacklog());
-            conn.getDevice().execute(new Runnable(){
+            if (conn.isNonBlockingIO() && ss.getChannel() != null) {
+                Connection.LOG.info("Start TCP Listener on {}", ss.getLocalSocketAddress());
+                selector = conn.getDevice().nioSelector();
+                selector.register(ss.getChannel(), SelectionKey.OP_ACCEPT, this);
+            } else {
+                conn.getDevice().execute(new Runnable(){
     
-                @Override
-                public void run() { listen(); }
-            });
+                    @Override
+                    public void run() { listen(); }
+                });
+            }
         
         } catch (IOException e) {
             throw new IOException("Unable to start TCPListener on "+conn.getHostname()+":"+conn.getPort(), e);
@@ -96,39 +121,7 @@ class TCPListener implements Listener {
         try {
             while (!ss.isClosed()) {
                 Connection.LOG.debug("Wait for connection on {}", sockAddr);
-                Socket s = ss.accept();
-                ConnectionMonitor monitor = conn.getDevice() != null
-                        ? conn.getDevice().getConnectionMonitor()
-                        : null;
-                if (conn.isBlackListed(s.getInetAddress())) {
-                    if (monitor != null)
-                        monitor.onConnectionRejectedBlacklisted(conn, s);
-                    Connection.LOG.info("Reject blacklisted connection {}", s);
-                    conn.close(s);
-                } else {
-                    try {
-                        conn.setSocketSendOptions(s);
-                        if (s instanceof SSLSocket) {
-                            ((SSLSocket) s).startHandshake();
-                        }
-                    } catch (Throwable e) {
-                        if (monitor != null)
-                            monitor.onConnectionRejected(conn, s, e);
-                        Connection.LOG.warn("Reject connection {}:",s, e);
-                        conn.close(s);
-                        continue;
-                    }
-
-                    if (monitor != null)
-                        monitor.onConnectionAccepted(conn, s);
-                    Connection.LOG.info("Accept connection {}", s);
-                    try {
-                        handler.onAccept(conn, s);
-                    } catch (Throwable e) {
-                        Connection.LOG.warn("Exception on accepted connection {}:",s, e);
-                        conn.close(s);
-                    }
-                }
+                admit(ss.accept());
             }
         } catch (Throwable e) {
             if (!ss.isClosed()) // ignore exception caused by close()
@@ -137,6 +130,165 @@ class TCPListener implements Listener {
         Connection.LOG.info("Stop TCP Listener on {}", sockAddr);
     }
 
+    @Override
+    public void onReady(SelectionKey key) throws IOException {
+        SocketChannel ch;
+        while ((ch = ss.getChannel().accept()) != null) {
+            admit(ch.socket());
+        }
+    }
+
+    @Override
+    public void onFailure(Throwable e) {
+        if (!ss.isClosed()) // ignore exception caused by close()
+            Connection.LOG.error("Exception on listing on {}:", ss.getLocalSocketAddress(), e);
+        Connection.LOG.info("Stop TCP Listener on {}", ss.getLocalSocketAddress());
+    }
+
+    /**
+     * Invoked by the listener thread for each accepted socket. Only checks the blacklist, the accept rate and the
+     * number of pending connections from the same address; the TLS handshake and the protocol specific handling
+     * are dispatched to the TLS handshake pool resp. the executor of the Device.
+     */
+    private void admit(Socket s) {
+        ConnectionMonitor monitor = conn.getDevice() != null
+                ? conn.getDevice().getConnectionMonitor()
+                : null;
+        InetAddress addr = s.getInetAddress();
+        if (conn.isBlackListed(addr)) {
+            if (monitor != null)
+                monitor.onConnectionRejectedBlacklisted(conn, s);
+            Connection.LOG.info("Reject blacklisted connection {}", s);
+            conn.close(s);
+            return;
+        }
+        if (!tryAcquireAcceptRate()) {
+            reject(monitor, s, new IOException(
+                    "Accept rate exceeds limit of " + conn.getMaxAcceptRate() + " connections/s"));
+            return;
+        }
+        if (!tryAcquirePending(addr)) {
+            reject(monitor, s, new IOException(
+                    "Number of pending connections from " + addr + " exceeds limit of "
+                            + conn.getMaxPendingAcceptsPerAddress()));
+            return;
+        }
+        try {
+            if (s instanceof SSLSocket)
+                conn.getDevice().tlsHandshakeExecutor().execute(() -> onAccept(monitor, s));
+            else
+                conn.getDevice().execute(() -> onAccept(monitor, s));
+        } catch (RejectedExecutionException e) {
+            releasePending(addr);
+            reject(monitor, s, e);
+        }
+    }
+
+    private boolean tryAcquireAcceptRate() {
+        int maxAcceptRate = conn.getMaxAcceptRate();
+        if (maxAcceptRate <= 0)
+            return true;
+
+        long now = System.nanoTime();
+        if (now - acceptWindowStart >= ONE_SECOND) {
+            acceptWindowStart = now;
+            acceptedInWindow = 0;
+        }
+        return ++acceptedInWindow <= maxAcceptRate;
+    }
+
+    private boolean tryAcquirePending(InetAddress addr) {
+        int limit = conn.getMaxPendingAcceptsPerAddress();
+        if (limit <= 0)
+            return true;
+
+        AtomicInteger count = pendingPerAddress.computeIfAbsent(addr, k -> new AtomicInteger());
+        if (count.incrementAndGet() <= limit)
+            return true;
+
+        releasePending(addr);
+        return false;
+    }
+
+    private void releasePending(InetAddress addr) {
+        if (!pendingPerAddress.isEmpty())
+            pendingPerAddress.computeIfPresent(addr, (k, count) -> count.decrementAndGet() > 0 ? count : null);
+    }
+
+    private void reject(ConnectionMonitor monitor, Socket s, Throwable e) {
+        if (monitor != null)
+            monitor.onConnectionRejected(conn, s, e);
+        Connection.LOG.warn("Reject connection {}: {}", s, e.getMessage());
+        conn.close(s);
+    }
+
+    private void onAccept(ConnectionMonitor monitor, Socket s) {
+        try {
+            conn.setSocketSendOptions(s);
+            if (s instanceof SSLSocket) {
+                handshake((SSLSocket) s);
+            }
+        } catch (Throwable e) {
+            if (monitor != null)
+                monitor.onConnectionRejected(conn, s, e);
+            Connection.LOG.warn("Reject connection {}:",s, e);
+            conn.close(s);
+            return;
+        } finally {
+            releasePending(s.getInetAddress());
+        }
+
+        if (monitor != null)
+            monitor.onConnectionAccepted(conn, s);
+        Connection.LOG.info("Accept connection {}", s);
+        try {
+            handler.onAccept(conn, s);
+        } catch (Throwable e) {
+            Connection.LOG.warn("Exception on accepted connection {}:",s, e);
+            conn.close(s);
+        }
+    }
+
+    /**
+     * Performs the TLS handshake. The socket read timeout only bounds each single read, so a client trickling
+     * its handshake messages byte by byte would never exceed it. Therefore the socket is also closed if the
+     * whole handshake is not completed within the TLS handshake timeout.
+     */
+    private void handshake(SSLSocket s) throws IOException {
+        int timeout = conn.getTlsHandshakeTimeout();
+        if (timeout <= 0) {
+            s.startHandshake();
+            return;
+        }
+        int prevTimeout = s.getSoTimeout();
+        s.setSoTimeout(timeout);
+        AtomicBoolean done = new AtomicBoolean();
+        ScheduledFuture<?> deadline = conn.getDevice().schedule(() -> {
+            if (done.compareAndSet(false, true))
+                conn.close(s);
+        }, timeout, TimeUnit.MILLISECONDS);
+        try {
+            s.startHandshake();
+        } catch (IOException e) {
+            if (done.compareAndSet(false, true)) {
+                deadline.cancel(false);
+                throw e;
+            }
+            throw handshakeTimeout(timeout, e);
+        }
+        if (!done.compareAndSet(false, true))
+            throw handshakeTimeout(timeout, null);
+        deadline.cancel(false);
+        s.setSoTimeout(prevTimeout);
+    }
+
+    private static SocketTimeoutException handshakeTimeout(int timeout, IOException cause) {
+        SocketTimeoutException e = new SocketTimeoutException(
+                "TLS handshake not completed within " + timeout + " ms");
+        e.initCause(cause);
+        return e;
+    }
+
 
     @Override
     public SocketAddress getEndPoint() {
@@ -150,5 +302,7 @@ class TCPListener implements Listener {
         } catch (Throwable e) {
             // Ignore errors when closing the server socket.
         }
+        if (selector != null)
+            selector.wakeup();
     }
 }
@@ -0,0 +1,185 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Exposes the metrics of a {@link SimpleMetricsRegistry} as read-only attributes of a Dynamic MBean. Each sample
+ * is provided by an attribute named by the sample name and its labels in Prometheus notation, e.g.
+ * {@code dicom_bytes_sent_total{connection="dicom"}}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class JmxMetricsAdapter implements DynamicMBean {
+
+    private final SimpleMetricsRegistry registry;
+    private MBeanServer server;
+    private ObjectName objectName;
+
+    public JmxMetricsAdapter(SimpleMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Registers this MBean at the platform MBean server.
+     *
+     * @param objectName object name, e.g. {@code org.dcm4che3:type=DeviceMetrics,device=dcm4chee-arc}
+     */
+    public void register(ObjectName objectName) throws JMException {
+        register(ManagementFactory.getPlatformMBeanServer(), objectName);
+    }
+
+    public void register(MBeanServer server, ObjectName objectName) throws JMException {
+        server.registerMBean(this, objectName);
+        this.server = server;
+        this.objectName = objectName;
+    }
+
+    public void unregister() throws JMException {
+        if (server != null) {
+            server.unregisterMBean(objectName);
+            server = null;
+            objectName = null;
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Double value = collect().get(attribute);
+        if (value == null)
+            throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Read-only attribute: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Double> values = collect();
+        AttributeList list = new AttributeList(attributes.length);
+        for (String attribute : attributes) {
+            Double value = values.get(attribute);
+            if (value != null)
+                list.add(new Attribute(attribute, value));
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final List<MBeanAttributeInfo> attrs = new ArrayList<>();
+        registry.accept(new SimpleMetricsRegistry.Visitor() {
+            private String help;
+
+            @Override
+            public void visitFamily(String name, String help, SimpleMetricsRegistry.Type type) {
+                this.help = help;
+            }
+
+            @Override
+            public void visitSample(String name, String[] labels, double value) {
+                attrs.add(new MBeanAttributeInfo(attributeName(name, labels), Double.class.getName(), help,
+                        true, false, false));
+            }
+        });
+        return new MBeanInfo(getClass().getName(), "DICOM Device Metrics",
+                attrs.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+
+    private Map<String, Double> collect() {
+        final Map<String, Double> values = new LinkedHashMap<>();
+        registry.accept(new SimpleMetricsRegistry.Visitor() {
+            @Override
+            public void visitFamily(String name, String help, SimpleMetricsRegistry.Type type) {
+            }
+
+            @Override
+            public void visitSample(String name, String[] labels, double value) {
+                values.put(attributeName(name, labels), value);
+            }
+        });
+        return values;
+    }
+
+    static String attributeName(String name, String[] labels) {
+        if (labels.length == 0)
+            return name;
+        StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(labels[i]).append("=\"").append(labels[i + 1]).append('"');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of metrics, which is used by {@link org.dcm4che3.net.DeviceMetrics} to create its instruments.
+ * <p>
+ * Metrics are identified by name and label values. Labels are passed as alternating label names and values,
+ * e.g. {@code counter("dicom_bytes_sent_total", "...", "connection", "dicom")}. Invocations with equal name and
+ * labels return the same instrument.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Registry which discards all measurements.
+     */
+    MetricsRegistry NOOP = new MetricsRegistry() {
+        @Override
+        public Counter counter(String name, String help, String... labels) {
+            return Counter.NOOP;
+        }
+
+        @Override
+        public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+            return Histogram.NOOP;
+        }
+
+        @Override
+        public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        }
+    };
+
+    /**
+     * Returns the monotonically increasing counter with the specified name and labels.
+     *
+     * @param name metric name
+     * @param help description of the metric
+     * @param labels alternating label names and values
+     * @return counter
+     */
+    Counter counter(String name, String help, String... labels);
+
+    /**
+     * Returns the histogram with the specified name, upper bounds of its buckets and labels.
+     *
+     * @param name metric name
+     * @param help description of the metric
+     * @param buckets ascending upper bounds of the buckets, excluding {@code +Inf}
+     * @param labels alternating label names and values
+     * @return histogram
+     */
+    Histogram histogram(String name, String help, double[] buckets, String... labels);
+
+    /**
+     * Registers a gauge with the specified name and labels, whose value is provided on collection.
+     *
+     * @param name metric name
+     * @param help description of the metric
+     * @param value provider of the current value
+     * @param labels alternating label names and values
+     */
+    void gauge(String name, String help, DoubleSupplier value, String... labels);
+}
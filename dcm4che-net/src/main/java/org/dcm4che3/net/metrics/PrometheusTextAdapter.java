@@ -0,0 +1,144 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net.metrics;
+
+import java.io.IOException;
+
+/**
+ * Renders the metrics of a {@link SimpleMetricsRegistry} in the Prometheus text exposition format, e.g. to be
+ * returned by a HTTP endpoint scraped by Prometheus.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class PrometheusTextAdapter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final SimpleMetricsRegistry registry;
+
+    public PrometheusTextAdapter(SimpleMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        try {
+            write(sb);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return sb.toString();
+    }
+
+    public void write(final Appendable out) throws IOException {
+        final IOException[] ex = new IOException[1];
+        registry.accept(new SimpleMetricsRegistry.Visitor() {
+            @Override
+            public void visitFamily(String name, String help, SimpleMetricsRegistry.Type type) {
+                try {
+                    out.append("# HELP ").append(name).append(' ');
+                    appendEscaped(out, help, false);
+                    out.append("\n# TYPE ").append(name).append(' ')
+                            .append(type.name().toLowerCase()).append('\n');
+                } catch (IOException e) {
+                    ex[0] = e;
+                }
+            }
+
+            @Override
+            public void visitSample(String name, String[] labels, double value) {
+                try {
+                    out.append(name);
+                    if (labels.length > 0) {
+                        out.append('{');
+                        for (int i = 0; i < labels.length; i += 2) {
+                            if (i > 0)
+                                out.append(',');
+                            out.append(labels[i]).append("=\"");
+                            appendEscaped(out, labels[i + 1], true);
+                            out.append('"');
+                        }
+                        out.append('}');
+                    }
+                    out.append(' ').append(format(value)).append('\n');
+                } catch (IOException e) {
+                    ex[0] = e;
+                }
+            }
+        });
+        if (ex[0] != null)
+            throw ex[0];
+    }
+
+    static String format(double value) {
+        if (Double.isNaN(value))
+            return "NaN";
+        if (Double.isInfinite(value))
+            return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15)
+            return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    private static void appendEscaped(Appendable out, String s, boolean quote) throws IOException {
+        if (s == null)
+            return;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '"':
+                    out.append(quote ? "\\\"" : "\"");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
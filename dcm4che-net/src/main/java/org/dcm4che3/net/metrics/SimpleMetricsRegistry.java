@@ -0,0 +1,218 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry which keeps the current values of its metrics in memory, to be collected by
+ * {@link #accept(Visitor)}, e.g. by {@link PrometheusTextAdapter} or {@link JmxMetricsAdapter}.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+    public enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    /**
+     * Receives the samples of all metrics on {@link #accept(Visitor)}.
+     */
+    public interface Visitor {
+
+        /**
+         * Invoked for each metric family, before its samples.
+         *
+         * @param name metric name
+         * @param help description of the metric
+         * @param type metric type
+         */
+        void visitFamily(String name, String help, Type type);
+
+        /**
+         * Invoked for each sample. Histograms provide cumulative {@code <name>_bucket} samples with an additional
+         * {@code le} label, and {@code <name>_sum} and {@code <name>_count} samples.
+         *
+         * @param name sample name
+         * @param labels alternating label names and values
+         * @param value sample value
+         */
+        void visitSample(String name, String[] labels, double value);
+    }
+
+    private final ConcurrentSkipListMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).child(labels, null);
+    }
+
+    @Override
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram) family(name, help, Type.HISTOGRAM).child(labels, buckets);
+    }
+
+    @Override
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).children.put(Arrays.asList(checkLabels(labels)), new SimpleGauge(value));
+    }
+
+    /**
+     * Passes the samples of all metrics, ordered by metric name, to the visitor.
+     *
+     * @param visitor receiver of the samples
+     */
+    public void accept(Visitor visitor) {
+        for (Family family : families.values()) {
+            if (family.children.isEmpty())
+                continue;
+            visitor.visitFamily(family.name, family.help, family.type);
+            for (Map.Entry<List<String>, Object> entry : family.children.entrySet()) {
+                String[] labels = entry.getKey().toArray(new String[0]);
+                Object metric = entry.getValue();
+                if (metric instanceof SimpleHistogram)
+                    ((SimpleHistogram) metric).accept(visitor, family.name, labels);
+                else
+                    visitor.visitSample(family.name, labels, ((DoubleSupplier) metric).getAsDouble());
+            }
+        }
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, k -> new Family(name, help, type));
+        if (family.type != type)
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type);
+        return family;
+    }
+
+    private static String[] checkLabels(String[] labels) {
+        if ((labels.length & 1) != 0)
+            throw new IllegalArgumentException("Odd number of label names and values: " + Arrays.toString(labels));
+        return labels;
+    }
+
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final ConcurrentHashMap<List<String>, Object> children = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        Object child(String[] labels, double[] buckets) {
+            return children.computeIfAbsent(Arrays.asList(checkLabels(labels).clone()),
+                    k -> buckets != null ? new SimpleHistogram(buckets) : new SimpleCounter());
+        }
+    }
+
+    private static final class SimpleCounter implements Counter, DoubleSupplier {
+        final LongAdder value = new LongAdder();
+
+        @Override
+        public void inc(long n) {
+            value.add(n);
+        }
+
+        @Override
+        public double getAsDouble() {
+            return value.sum();
+        }
+    }
+
+    private static final class SimpleGauge implements DoubleSupplier {
+        final DoubleSupplier value;
+
+        SimpleGauge(DoubleSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return value.getAsDouble();
+        }
+    }
+
+    private static final class SimpleHistogram implements Histogram {
+        final double[] buckets;
+        final LongAdder[] counts;
+        final DoubleAdder sum = new DoubleAdder();
+
+        SimpleHistogram(double[] buckets) {
+            this.buckets = buckets.clone();
+            this.counts = new LongAdder[buckets.length + 1];
+            for (int i = 0; i < counts.length; i++)
+                counts[i] = new LongAdder();
+        }
+
+        @Override
+        public void observe(double value) {
+            int i = Arrays.binarySearch(buckets, value);
+            counts[i < 0 ? -i - 1 : i].increment();
+            sum.add(value);
+        }
+
+        void accept(Visitor visitor, String name, String[] labels) {
+            String[] bucketLabels = Arrays.copyOf(labels, labels.length + 2);
+            bucketLabels[labels.length] = "le";
+            long count = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                count += counts[i].sum();
+                bucketLabels[labels.length + 1] = i < buckets.length ? Double.toString(buckets[i]) : "+Inf";
+                visitor.visitSample(name + "_bucket", bucketLabels.clone(), count);
+            }
+            visitor.visitSample(name + "_sum", labels, sum.sum());
+            visitor.visitSample(name + "_count", labels, count);
+        }
+    }
+}
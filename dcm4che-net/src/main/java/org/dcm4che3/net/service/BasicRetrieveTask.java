@@ -54,6 +54,7 @@ import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Commands;
 import org.dcm4che3.net.DataWriter;
 import org.dcm4che3.net.Dimse;
+import org.dcm4che3.net.FileDataWriter;
 import org.dcm4che3.net.DimseRSPHandler;
 import org.dcm4che3.net.InputStreamDataWriter;
 import org.dcm4che3.net.Status;
@@ -239,10 +240,13 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
 
     protected void releaseStoreAssociation(Association storeas) {
         try {
-            storeas.release();
+            storeas.getApplicationEntity().release(storeas);
         } catch (IOException e) {
             LOG.warn("{}: failed to release association to {}",
                     rqas, storeas.getRemoteAET(), e);
+        } catch (InterruptedException e) {
+            LOG.warn("{}: interrupted while releasing association to {}",
+                    rqas, storeas.getRemoteAET(), e);
         }
     }
 
@@ -308,7 +312,12 @@ public class BasicRetrieveTask<T extends InstanceLocator> implements RetrieveTas
     protected DataWriter createDataWriter(T inst, String tsuid) throws Exception {
         DicomInputStream in = new DicomInputStream(inst.getFile());
         in.readFileMetaInformation();
-        return new InputStreamDataWriter(in);
+        if (in.getTransferSyntax().equals(UID.DeflatedExplicitVRLittleEndian))
+            return new InputStreamDataWriter(in);
+
+        long fmiEndPos = in.getPosition();
+        in.close();
+        return new FileDataWriter(inst.getFile(), fmiEndPos, -1);
     }
 
     public void writePendingRSP() {
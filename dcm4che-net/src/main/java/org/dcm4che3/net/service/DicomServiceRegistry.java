@@ -39,7 +39,7 @@
 package org.dcm4che3.net.service;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
@@ -57,14 +57,14 @@ import org.dcm4che3.net.pdu.PresentationContext;
  */
 public class DicomServiceRegistry implements DimseRQHandler {
 
-    private final HashMap<String, DimseRQHandler> services =
-            new HashMap<String, DimseRQHandler>();
+    private final ConcurrentHashMap<String, DimseRQHandler> services =
+            new ConcurrentHashMap<String, DimseRQHandler>();
 
     public void addDicomService(DicomService service) {
         addDimseRQHandler(service, service.getSOPClasses());
     }
 
-    public synchronized void addDimseRQHandler(DimseRQHandler service,
+    public void addDimseRQHandler(DimseRQHandler service,
             String... sopClasses) {
         for (String uid : sopClasses)
             services.put(uid, service);
@@ -74,7 +74,7 @@ public class DicomServiceRegistry implements DimseRQHandler {
         removeDimseRQHandler(service.getSOPClasses());
     }
 
-    public synchronized void removeDimseRQHandler(String... sopClasses) {
+    public void removeDimseRQHandler(String... sopClasses) {
         for (String uid : sopClasses)
             services.remove(uid);
     }
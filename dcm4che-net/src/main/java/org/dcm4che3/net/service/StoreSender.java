@@ -0,0 +1,438 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net.service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Connection;
+import org.dcm4che3.net.DataWriter;
+import org.dcm4che3.net.DimseRSPHandler;
+import org.dcm4che3.net.FileDataWriter;
+import org.dcm4che3.net.IncompatibleConnectionException;
+import org.dcm4che3.net.InputStreamDataWriter;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends instances by pipelined C-STOREs over one or several Associations to the same Application Entity.
+ * <p>
+ * Each Association is served by a worker thread of the Device executor, which takes instances passed to
+ * {@link #send} from a shared queue, as long as the Association has credits left. A credit is consumed by each
+ * C-STORE RQ and returned by its final C-STORE RSP, so not more than the window size - by default the negotiated
+ * maximum number of operations invoked asynchronously - C-STOREs are outstanding on one Association. Faster
+ * Associations take more instances from the queue than slower ones. {@link #send} blocks, if the queue is filled
+ * up to the total number of credits of all Associations, which throttles the producer of the instances to the
+ * rate they can be sent.
+ * <p>
+ * Completion of each C-STORE is reported by the {@link CompletableFuture} returned by {@link #send}, completed with
+ * the C-STORE RSP command, or exceptionally, if the instance could not be sent. Completion of all C-STOREs is
+ * reported by the {@link CompletableFuture} returned by {@link #finish}.
+ *
+ * @param <T> type of instance locator
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class StoreSender<T extends InstanceLocator> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StoreSender.class);
+
+    /**
+     * Window size used for Associations negotiated with unlimited number of operations invoked asynchronously.
+     */
+    public static final int DEFAULT_WINDOW = 16;
+
+    private final Item<T> END = new Item<>(null);
+
+    private final List<Association> associations;
+    private final List<Semaphore> credits;
+    private final BlockingQueue<Item<T>> queue;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private volatile boolean finished;
+    private volatile boolean stopped;
+    private int priority;
+    private String moveOriginatorAET;
+    private int moveOriginatorMsgId;
+
+    /**
+     * Creates a sender for the specified Associations.
+     *
+     * @param associations established Associations to the same Application Entity
+     * @param window maximal number of outstanding C-STOREs per Association; {@code 0} to use the negotiated
+     *               maximum number of operations invoked asynchronously, or {@link #DEFAULT_WINDOW}, if unlimited
+     */
+    public StoreSender(List<Association> associations, int window) {
+        if (associations.isEmpty())
+            throw new IllegalArgumentException("No Association");
+        this.associations = new ArrayList<>(associations);
+        this.credits = new ArrayList<>(associations.size());
+        int capacity = 0;
+        for (Association as : associations) {
+            int n = windowOf(as, window);
+            credits.add(new Semaphore(n));
+            capacity += n;
+        }
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    private static int windowOf(Association as, int window) {
+        int maxOpsInvoked = as.getMaxOpsInvoked();
+        if (window <= 0)
+            return maxOpsInvoked > 0 ? maxOpsInvoked : DEFAULT_WINDOW;
+        return maxOpsInvoked > 0 ? Math.min(window, maxOpsInvoked) : window;
+    }
+
+    /**
+     * Opens the specified number of Associations to the remote Application Entity, using the same A-ASSOCIATE-RQ.
+     * Associations already opened are released, if one of the Associations could not be established.
+     *
+     * @param ae local Application Entity
+     * @param remote remote Application Entity
+     * @param rq A-ASSOCIATE-RQ
+     * @param n number of Associations
+     * @return established Associations
+     */
+    public static List<Association> connect(ApplicationEntity ae, ApplicationEntity remote, AAssociateRQ rq, int n)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        return connect(() -> ae.connect(remote, rq), n);
+    }
+
+    /**
+     * Opens the specified number of Associations to the remote Connection, using the same A-ASSOCIATE-RQ.
+     * Associations already opened are released, if one of the Associations could not be established.
+     *
+     * @param ae local Application Entity
+     * @param remote remote Connection
+     * @param rq A-ASSOCIATE-RQ
+     * @param n number of Associations
+     * @return established Associations
+     */
+    public static List<Association> connect(ApplicationEntity ae, Connection remote, AAssociateRQ rq, int n)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        return connect(() -> ae.connect(remote, rq), n);
+    }
+
+    private static List<Association> connect(Connector connector, int n)
+            throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException {
+        List<Association> list = new ArrayList<>(n);
+        try {
+            for (int i = 0; i < n; i++)
+                list.add(connector.connect());
+        } catch (IOException | InterruptedException | IncompatibleConnectionException
+                | GeneralSecurityException | RuntimeException e) {
+            release(list);
+            throw e;
+        }
+        return list;
+    }
+
+    private interface Connector {
+        Association connect()
+                throws IOException, InterruptedException, IncompatibleConnectionException, GeneralSecurityException;
+    }
+
+    private static void release(List<Association> list) {
+        for (Association as : list) {
+            try {
+                as.release();
+            } catch (IOException e) {
+                LOG.info("{}: failed to release association:", as, e);
+            }
+        }
+    }
+
+    public List<Association> getAssociations() {
+        return Collections.unmodifiableList(associations);
+    }
+
+    public final int getPriority() {
+        return priority;
+    }
+
+    public final void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Set Move Originator Application Entity Title and Move Originator Message ID included in the C-STORE RQs
+     * of C-MOVE sub-operations.
+     *
+     * @param aet Move Originator Application Entity Title or {@code null}
+     * @param msgId Move Originator Message ID
+     */
+    public final void setMoveOriginator(String aet, int msgId) {
+        this.moveOriginatorAET = aet;
+        this.moveOriginatorMsgId = msgId;
+    }
+
+    /**
+     * Queues the instance to be sent over one of the Associations. Blocks, if the number of queued instances
+     * reached the total number of credits of all Associations.
+     *
+     * @param inst instance to send
+     * @return future completed with the C-STORE RSP command, or exceptionally, if the instance could not be sent
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws IllegalStateException if {@link #finish} was already invoked
+     */
+    public CompletableFuture<Attributes> send(T inst) throws InterruptedException {
+        if (finished)
+            throw new IllegalStateException("finished");
+        start();
+        Item<T> item = new Item<>(inst);
+        outstanding.incrementAndGet();
+        if (stopped) {
+            fail(item, null, new IOException("No Association available"));
+            return item.future;
+        }
+        queue.put(item);
+        if (stopped)
+            drainQueue();
+        return item.future;
+    }
+
+    /**
+     * Sends all instances provided by the iterator and invokes {@link #finish}.
+     *
+     * @param insts instances to send
+     * @return future completed after all C-STOREs completed
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public CompletableFuture<Void> sendAll(Iterator<? extends T> insts) throws InterruptedException {
+        while (insts.hasNext())
+            send(insts.next());
+        return finish();
+    }
+
+    /**
+     * Signals that no further instances will be sent. The Associations are not released.
+     *
+     * @return future completed after all C-STOREs of previously sent instances completed
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public CompletableFuture<Void> finish() throws InterruptedException {
+        if (!finished) {
+            finished = true;
+            if (started.get())
+                queue.put(END);
+            checkDone();
+        }
+        return done;
+    }
+
+    private void start() {
+        if (!started.compareAndSet(false, true))
+            return;
+
+        activeWorkers.set(associations.size());
+        for (int i = 0; i < associations.size(); i++) {
+            final Association as = associations.get(i);
+            final Semaphore asCredits = credits.get(i);
+            as.getApplicationEntity().getDevice().execute(new Runnable() {
+                @Override
+                public void run() {
+                    work(as, asCredits);
+                }
+            });
+        }
+    }
+
+    private void work(Association as, Semaphore asCredits) {
+        try {
+            for (;;) {
+                asCredits.acquire();
+                Item<T> item = queue.take();
+                if (item == END) {
+                    queue.offer(END);
+                    asCredits.release();
+                    break;
+                }
+                if (!as.isReadyForDataTransfer()) {
+                    if (!queue.offer(item))
+                        fail(item, null, new IOException("Association to " + as.getRemoteAET() + " closed"));
+                    asCredits.release();
+                    break;
+                }
+                try {
+                    store(as, item, asCredits);
+                } catch (InterruptedException e) {
+                    fail(item, asCredits, e);
+                    throw e;
+                } catch (IOException e) {
+                    LOG.info("{}: failed to send {}:", as, item.inst.iuid, e);
+                    fail(item, asCredits, e);
+                    if (!as.isReadyForDataTransfer())
+                        break;
+                } catch (Exception e) {
+                    LOG.info("{}: failed to send {}:", as, item.inst.iuid, e);
+                    fail(item, asCredits, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.info("{}: interrupted while sending instances", as);
+        } finally {
+            if (activeWorkers.decrementAndGet() == 0) {
+                stopped = true;
+                drainQueue();
+            }
+        }
+    }
+
+    private void store(Association as, final Item<T> item, final Semaphore asCredits) throws Exception {
+        T inst = item.inst;
+        String tsuid = selectTransferSyntaxFor(as, inst);
+        DataWriter dataWriter = createDataWriter(as, inst, tsuid);
+        DimseRSPHandler rspHandler = new DimseRSPHandler(as.nextMessageID()) {
+            @Override
+            public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+                super.onDimseRSP(as, cmd, data);
+                if (!Status.isPending(cmd.getInt(Tag.Status, -1)))
+                    complete(item, asCredits, cmd);
+            }
+
+            @Override
+            public void onClose(Association as) {
+                super.onClose(as);
+                fail(item, asCredits, new IOException("Association to " + as.getRemoteAET()
+                        + " closed before receive of C-STORE RSP"));
+            }
+        };
+        if (moveOriginatorAET != null)
+            as.cstore(inst.cuid, inst.iuid, priority, moveOriginatorAET, moveOriginatorMsgId,
+                    dataWriter, tsuid, rspHandler);
+        else
+            as.cstore(inst.cuid, inst.iuid, priority, dataWriter, tsuid, rspHandler);
+    }
+
+    private void complete(Item<T> item, Semaphore asCredits, Attributes cmd) {
+        if (item.future.complete(cmd))
+            onCompleted(asCredits);
+    }
+
+    private void fail(Item<T> item, Semaphore asCredits, Throwable e) {
+        if (item.future.completeExceptionally(e))
+            onCompleted(asCredits);
+    }
+
+    private void onCompleted(Semaphore asCredits) {
+        if (asCredits != null)
+            asCredits.release();
+        outstanding.decrementAndGet();
+        checkDone();
+    }
+
+    private void checkDone() {
+        if (finished && outstanding.get() == 0)
+            done.complete(null);
+    }
+
+    private void drainQueue() {
+        List<Item<T>> items = new ArrayList<>();
+        queue.drainTo(items);
+        for (Item<T> item : items) {
+            if (item == END)
+                queue.offer(END);
+            else
+                fail(item, null, new IOException("No Association available"));
+        }
+    }
+
+    /**
+     * Returns the Transfer Syntax in which the instance shall be sent over the specified Association.
+     *
+     * @param as Association
+     * @param inst instance to send
+     * @return Transfer Syntax UID
+     */
+    protected String selectTransferSyntaxFor(Association as, T inst) throws Exception {
+        return inst.tsuid;
+    }
+
+    /**
+     * Returns the writer of the data set of the instance in the selected Transfer Syntax.
+     *
+     * @param as Association
+     * @param inst instance to send
+     * @param tsuid selected Transfer Syntax UID
+     * @return writer of the data set
+     */
+    protected DataWriter createDataWriter(Association as, T inst, String tsuid) throws Exception {
+        DicomInputStream in = new DicomInputStream(inst.getFile());
+        in.readFileMetaInformation();
+        if (in.getTransferSyntax().equals(UID.DeflatedExplicitVRLittleEndian))
+            return new InputStreamDataWriter(in);
+
+        long fmiEndPos = in.getPosition();
+        in.close();
+        return new FileDataWriter(inst.getFile(), fmiEndPos, -1);
+    }
+
+    private static final class Item<T> {
+        final T inst;
+        final CompletableFuture<Attributes> future = new CompletableFuture<>();
+
+        Item(T inst) {
+            this.inst = inst;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
+import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.PDVInputStream;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * C-STORE SCP, which writes received objects to files in one pass over the received data: the data set is copied
+ * to the file while being parsed for the attributes - up to the Pixel Data or the last of the configured
+ * {@linkplain #setIndexAttributes index attributes} - passed to {@link #onStored}. Optionally, a digest of the
+ * received data set is calculated on the fly.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public abstract class StreamingStoreSCP extends BasicCStoreSCP {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingStoreSCP.class);
+
+    public static final int DEF_BUFFER_SIZE = 65536;
+
+    private String digestAlgorithm;
+    private int[] indexAttributes;
+    private int bufferSize = DEF_BUFFER_SIZE;
+
+    public StreamingStoreSCP() {
+    }
+
+    public StreamingStoreSCP(String... sopClasses) {
+        super(sopClasses);
+    }
+
+    public final String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    /**
+     * Set the algorithm of the digest calculated over the received data set.
+     *
+     * @param digestAlgorithm name of the {@link MessageDigest} algorithm or {@code null}, if no digest shall be
+     *                        calculated
+     */
+    public final void setDigestAlgorithm(String digestAlgorithm) {
+        if (digestAlgorithm != null)
+            newMessageDigest(digestAlgorithm);
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    public final int[] getIndexAttributes() {
+        return indexAttributes != null ? indexAttributes.clone() : null;
+    }
+
+    /**
+     * Set the attributes of the received data set passed to {@link #onStored}. Parsing of the data set stops
+     * after the last of the specified attributes. If {@code null}, all attributes until the Pixel Data are passed.
+     *
+     * @param tags data element tags or {@code null}
+     */
+    public final void setIndexAttributes(int... tags) {
+        if (tags != null) {
+            tags = tags.clone();
+            Arrays.sort(tags);
+        }
+        this.indexAttributes = tags;
+    }
+
+    public final int getBufferSize() {
+        return bufferSize;
+    }
+
+    public final void setBufferSize(int bufferSize) {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Returns the file to which the received object shall be written.
+     *
+     * @param as  Association
+     * @param fmi File Meta Information of the received object
+     * @return file to which the received object shall be written
+     */
+    protected abstract File createFile(Association as, Attributes fmi) throws IOException;
+
+    /**
+     * Invoked after the received object was written to {@code file}. If this method throws an exception, the file
+     * is deleted.
+     *
+     * @param as     Association
+     * @param pc     Presentation Context
+     * @param rq     C-STORE-RQ command
+     * @param rsp    C-STORE-RSP command
+     * @param file   file to which the received object was written
+     * @param fmi    File Meta Information of the received object
+     * @param attrs  attributes of the received data set
+     * @param digest digest of the received data set or {@code null}, if no digest algorithm is configured
+     */
+    protected abstract void onStored(Association as, PresentationContext pc, Attributes rq, Attributes rsp,
+            File file, Attributes fmi, Attributes attrs, byte[] digest) throws Exception;
+
+    @Override
+    protected void store(Association as, PresentationContext pc, Attributes rq, PDVInputStream data,
+            Attributes rsp) throws IOException {
+        String cuid = rq.getString(Tag.AffectedSOPClassUID);
+        String iuid = rq.getString(Tag.AffectedSOPInstanceUID);
+        String tsuid = pc.getTransferSyntax();
+        Attributes fmi = as.createFileMetaInformation(iuid, cuid, tsuid);
+        MessageDigest digest = digestAlgorithm != null ? newMessageDigest(digestAlgorithm) : null;
+        File file = createFile(as, fmi);
+        try {
+            Attributes attrs = storeTo(as, fmi, data, file, digest);
+            onStored(as, pc, rq, rsp, file, fmi, attrs, digest != null ? digest.digest() : null);
+        } catch (DicomServiceException e) {
+            deleteFile(as, file);
+            throw e;
+        } catch (Exception e) {
+            deleteFile(as, file);
+            throw new DicomServiceException(Status.ProcessingFailure, e);
+        }
+    }
+
+    private Attributes storeTo(Association as, Attributes fmi, PDVInputStream data, File file,
+            MessageDigest digest) throws IOException {
+        LOG.info("{}: M-WRITE {}", as, file);
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), bufferSize)) {
+            new DicomOutputStream(out, UID.ExplicitVRLittleEndian).writeFileMetaInformation(fmi);
+            OutputStream sink = digest != null ? new DigestOutputStream(out, digest) : out;
+            DicomInputStream dis = new DicomInputStream(new TeeInputStream(data, sink),
+                    fmi.getString(Tag.TransferSyntaxUID));
+            dis.setIncludeBulkData(IncludeBulkData.NO);
+            Attributes attrs = dis.readDataset(-1, stopPredicate());
+            data.copyTo(sink);
+            return indexAttributes != null ? new Attributes(attrs, indexAttributes) : attrs;
+        }
+    }
+
+    private Predicate<DicomInputStream> stopPredicate() {
+        if (indexAttributes == null || indexAttributes.length == 0)
+            return dis -> dis.tag() == Tag.PixelData;
+
+        int lastTag = indexAttributes[indexAttributes.length - 1];
+        return dis -> dis.tag() == Tag.PixelData || Integer.compareUnsigned(dis.tag(), lastTag) > 0;
+    }
+
+    private static MessageDigest newMessageDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("digestAlgorithm: " + algorithm);
+        }
+    }
+
+    private static void deleteFile(Association as, File file) {
+        if (file.delete())
+            LOG.info("{}: M-DELETE {}", as, file);
+        else
+            LOG.warn("{}: M-DELETE {} failed!", as, file);
+    }
+
+    /**
+     * Copies all bytes read or skipped from the underlying input stream to the sink.
+     */
+    private static final class TeeInputStream extends FilterInputStream {
+
+        private final OutputStream sink;
+        private byte[] skipBuffer;
+
+        TeeInputStream(InputStream in, OutputStream sink) {
+            super(in);
+            this.sink = sink;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0)
+                sink.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0)
+                sink.write(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (skipBuffer == null)
+                skipBuffer = new byte[8192];
+            long remaining = n;
+            int read;
+            while (remaining > 0
+                    && (read = read(skipBuffer, 0, (int) Math.min(remaining, skipBuffer.length))) > 0)
+                remaining -= read;
+            return n - remaining;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
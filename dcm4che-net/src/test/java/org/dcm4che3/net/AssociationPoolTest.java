@@ -0,0 +1,198 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAbort;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class AssociationPoolTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private AssociationPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        acceptor = createDevice("ACCEPTOR", true);
+        acceptor.bindConnections();
+        pool = new AssociationPool(aeOf(createDevice("REQUESTOR", false)));
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+        acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testReuse() throws Exception {
+        Association as1 = pool.lease(aeOf(acceptor), aarq(UID.Verification, UID.CTImageStorage));
+        pool.release(as1);
+        assertEquals(1, pool.getNumberOfIdleAssociations());
+        Association as2 = pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage));
+        assertSame(as1, as2);
+        assertEquals(1, pool.getNumberOfLeasedAssociations());
+        Association as3 = pool.lease(aeOf(acceptor), aarq(UID.MRImageStorage));
+        assertNotSame(as1, as3);
+        pool.release(as2);
+        pool.release(as3);
+        assertEquals(1, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+        assertEquals(2, pool.getNumberOfIdleAssociations());
+        assertEquals(0, pool.getNumberOfLeasedAssociations());
+    }
+
+    @Test(timeout = 20000)
+    public void testReuseAcceptedContextsOnly() throws Exception {
+        AAssociateRQ aarq = aarq(UID.UltrasoundImageStorage);
+        aarq.addPresentationContext(new PresentationContext(3, UID.CTImageStorage,
+                UID.ImplicitVRLittleEndian, UID.ExplicitVRLittleEndian));
+        Association as1 = pool.lease(aeOf(acceptor), aarq);
+        pool.release(as1);
+        assertSame(as1, pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage)));
+        pool.release(as1);
+        AAssociateRQ explicitVR = new AAssociateRQ();
+        explicitVR.addPresentationContextFor(UID.CTImageStorage, UID.ExplicitVRLittleEndian);
+        Association as2 = pool.lease(aeOf(acceptor), explicitVR);
+        assertNotSame(as1, as2);
+        Association as3 = pool.lease(aeOf(acceptor), aarq(UID.UltrasoundImageStorage));
+        assertNotSame(as1, as3);
+        pool.release(as2);
+        pool.release(as3);
+    }
+
+    @Test(timeout = 20000)
+    public void testValidateAfterIdle() throws Exception {
+        pool.setValidateAfterIdle(0);
+        Association as1 = pool.lease(aeOf(acceptor), aarq(UID.Verification, UID.CTImageStorage));
+        pool.release(as1);
+        assertSame(as1, pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage)));
+        pool.release(as1);
+        as1.abort();
+        try {
+            as1.waitForSocketClose();
+        } catch (AAbort expected) {
+        }
+        Association as2 = pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage));
+        assertNotSame(as1, as2);
+        assertTrue(as2.isReadyForDataTransfer());
+        pool.release(as2);
+        assertEquals(1, pool.getNumberOfIdleAssociations());
+    }
+
+    @Test(timeout = 20000)
+    public void testMaxSize() throws Exception {
+        pool.setMaxSize(1);
+        pool.setLeaseTimeout(200);
+        Association as1 = pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage));
+        try {
+            pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage));
+            fail("Expected timeout");
+        } catch (IOException expected) {
+        }
+        pool.release(as1);
+        Association as2 = pool.lease(aeOf(acceptor), aarq(UID.MRImageStorage));
+        assertNotSame(as1, as2);
+        assertFalse(as1.isReadyForDataTransfer());
+        pool.release(as2);
+    }
+
+    @Test(timeout = 20000)
+    public void testIdleTimeout() throws Exception {
+        pool.setIdleTimeout(500);
+        Association as = pool.lease(aeOf(acceptor), aarq(UID.CTImageStorage));
+        pool.release(as);
+        as.waitForSocketClose();
+        assertEquals(0, pool.getNumberOfIdleAssociations());
+    }
+
+    private static AAssociateRQ aarq(String... cuids) {
+        AAssociateRQ aarq = new AAssociateRQ();
+        for (String cuid : cuids)
+            aarq.addPresentationContextFor(cuid, UID.ImplicitVRLittleEndian);
+        return aarq;
+    }
+
+    private Device createDevice(String aet, boolean listening) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        if (listening) {
+            for (String cuid : new String[]{ UID.Verification, UID.CTImageStorage, UID.MRImageStorage })
+                ae.addTransferCapability(new TransferCapability(
+                        null, cuid, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+            serviceRegistry.addDicomService(new BasicCEchoSCP());
+            ae.setDimseRQHandler(serviceRegistry);
+        }
+        return device;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class AsyncDimseRQTest {
+
+    private static final int MAX_OPS = 4;
+    private static final int NUM_STORES = 12;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private final AtomicInteger performing = new AtomicInteger();
+    private final AtomicInteger maxPerforming = new AtomicInteger();
+    private final AtomicInteger spilled = new AtomicInteger();
+    private final Map<String, byte[]> received = new ConcurrentHashMap<>();
+    private int spoolThreshold = Connection.DEF_ASYNC_DIMSE_RQ_SPOOL_THRESHOLD;
+    private File spoolDirectory;
+    private int maxAsyncDimseRQ = Connection.DEF_MAX_ASYNC_DIMSE_RQ;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncDimseRQ() throws Exception {
+        assertEquals(MAX_OPS, store(true, false));
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncDimseRQWithNonBlockingIO() throws Exception {
+        assertEquals(MAX_OPS, store(true, true));
+    }
+
+    @Test(timeout = 20000)
+    public void testSyncDimseRQ() throws Exception {
+        assertEquals(1, store(false, false));
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncDimseRQSpilledToFile() throws Exception {
+        spoolThreshold = 300000;
+        spoolDirectory = tmp.newFolder();
+        assertEquals(MAX_OPS, store(true, false));
+        assertEquals(9, spilled.get());
+        while (spoolDirectory.list().length > 0) // deleted after the response was sent
+            Thread.sleep(10);
+    }
+
+    @Test(timeout = 20000)
+    public void testUnlimitedAsyncDimseRQ() throws Exception {
+        maxAsyncDimseRQ = 2;
+        assertEquals(2, store(true, false, 0));
+    }
+
+    private int store(boolean async, boolean nio) throws Exception {
+        return store(async, nio, MAX_OPS);
+    }
+
+    private int store(boolean async, boolean nio, int maxOps) throws Exception {
+        byte[][] datasets = new byte[NUM_STORES][];
+        Random random = new Random(0);
+        for (int i = 0; i < NUM_STORES; i++)
+            random.nextBytes(datasets[i] = new byte[100000 + i * 77777]);
+
+        acceptor = createDevice("ACCEPTOR", true, async, nio, maxOps);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false, false, nio, maxOps);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.CTImageStorage, UID.ImplicitVRLittleEndian);
+        aarq.setMaxOpsInvoked(maxOps);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+        final AtomicInteger success = new AtomicInteger();
+        try {
+            for (int i = 0; i < NUM_STORES; i++) {
+                final byte[] dataset = datasets[i];
+                as.cstore(UID.CTImageStorage, "1.2." + i, Priority.NORMAL,
+                        new DataWriter() {
+                            @Override
+                            public void writeTo(PDVOutputStream out, String tsuid) throws IOException {
+                                out.write(dataset);
+                            }
+                        },
+                        UID.ImplicitVRLittleEndian,
+                        new DimseRSPHandler(as.nextMessageID()) {
+                            @Override
+                            public void onDimseRSP(Association as, Attributes cmd, Attributes data) {
+                                super.onDimseRSP(as, cmd, data);
+                                if (cmd.getInt(Tag.Status, -1) == Status.Success)
+                                    success.incrementAndGet();
+                            }
+                        });
+            }
+            as.waitForOutstandingRSP();
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+        assertEquals(NUM_STORES, success.get());
+        for (int i = 0; i < NUM_STORES; i++)
+            assertArrayEquals(datasets[i], received.get("1.2." + i));
+        return maxPerforming.get();
+    }
+
+    private Device createDevice(String aet, boolean listening, boolean async, boolean nio, int maxOps) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        Connection conn = connOf(device);
+        conn.setAsyncDimseRQ(async);
+        conn.setNonBlockingIO(nio);
+        conn.setMaxOpsPerformed(maxOps);
+        conn.setMaxOpsInvoked(maxOps);
+        conn.setAsyncDimseRQSpoolThreshold(spoolThreshold);
+        conn.setAsyncDimseRQSpoolDirectory(spoolDirectory);
+        conn.setMaxAsyncDimseRQ(maxAsyncDimseRQ);
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.CTImageStorage, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+            serviceRegistry.addDimseRQHandler(new DimseRQHandler() {
+                @Override
+                public void onDimseRQ(Association as, PresentationContext pc, Dimse dimse, Attributes cmd,
+                        PDVInputStream data) throws IOException {
+                    int n = performing.incrementAndGet();
+                    maxPerforming.accumulateAndGet(n, Math::max);
+                    if (data instanceof SpooledPDVInputStream && ((SpooledPDVInputStream) data).isSpilled())
+                        spilled.incrementAndGet();
+                    try {
+                        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                        data.copyTo(bout);
+                        received.put(cmd.getString(Tag.AffectedSOPInstanceUID), bout.toByteArray());
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    } finally {
+                        performing.decrementAndGet();
+                    }
+                    as.writeDimseRSP(pc, Commands.mkCStoreRSP(cmd, Status.Success));
+                }
+
+                @Override
+                public void onClose(Association as) {
+                }
+            }, UID.CTImageStorage);
+            ae.setDimseRQHandler(serviceRegistry);
+        }
+        return device;
+    }
+}
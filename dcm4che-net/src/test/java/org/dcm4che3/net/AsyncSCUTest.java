@@ -0,0 +1,255 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.dcm4che3.net.service.BasicCFindSCP;
+import org.dcm4che3.net.service.BasicCStoreSCP;
+import org.dcm4che3.net.service.BasicQueryTask;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.dcm4che3.net.service.QueryTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class AsyncSCUTest {
+
+    private static final String FIND_CUID = UID.StudyRootQueryRetrieveInformationModelFind;
+    private static final String STORE_CUID = UID.SecondaryCaptureImageStorage;
+    private static final int NUM_MATCHES = 50;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private Association as;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        acceptor = createAcceptor();
+        acceptor.bindConnections();
+        Device requestor = TestDevices.createDevice("REQUESTOR", false, executor, scheduledExecutor);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.Verification, UID.ImplicitVRLittleEndian);
+        aarq.addPresentationContextFor(FIND_CUID, UID.ImplicitVRLittleEndian);
+        aarq.addPresentationContextFor(STORE_CUID, UID.ImplicitVRLittleEndian);
+        as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (as != null) {
+            as.release();
+            as.waitForSocketClose();
+        }
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testCEchoThenCStore() throws Exception {
+        Attributes rsp = as.cechoAsync()
+                .thenCompose(echoRsp -> as.cstoreAsync(STORE_CUID, "1.2.3.4", Priority.NORMAL,
+                        new DataWriterAdapter(new Attributes()), UID.ImplicitVRLittleEndian))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(Status.Success, rsp.getInt(Tag.Status, -1));
+    }
+
+    @Test(timeout = 20000)
+    public void testCStoreAsyncWithoutPresentationContext() throws Exception {
+        try {
+            as.cstoreAsync(UID.CTImageStorage, "1.2.3.4", Priority.NORMAL,
+                    new DataWriterAdapter(new Attributes()), UID.ImplicitVRLittleEndian)
+                    .get(10, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.ExecutionException e) {
+            assertTrue(e.getCause() instanceof NoPresentationContextException);
+            return;
+        }
+        throw new AssertionError("Expected NoPresentationContextException");
+    }
+
+    @Test(timeout = 20000)
+    public void testCFindAsync() throws Exception {
+        DimseRSPPublisher publisher = as.cfindAsync(FIND_CUID, Priority.NORMAL, keys(), UID.ImplicitVRLittleEndian, 4);
+        CollectingSubscriber subscriber = new CollectingSubscriber(1, Integer.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error.get());
+        assertEquals(NUM_MATCHES, subscriber.items.size());
+        assertEquals(Status.Success, publisher.finalResponse().get().getInt(Tag.Status, -1));
+    }
+
+    @Test(timeout = 20000)
+    public void testCancelSubscription() throws Exception {
+        DimseRSPPublisher publisher = as.cfindAsync(FIND_CUID, Priority.NORMAL, keys(), UID.ImplicitVRLittleEndian, 4);
+        CollectingSubscriber subscriber = new CollectingSubscriber(1, 2);
+        publisher.subscribe(subscriber);
+        assertEquals(Status.Cancel, publisher.finalResponse().get(10, TimeUnit.SECONDS).getInt(Tag.Status, -1));
+        assertEquals(2, subscriber.items.size());
+    }
+
+    @Test(timeout = 20000)
+    public void testBufferOverflowCancelsOperation() throws Exception {
+        DimseRSPPublisher publisher = as.cfindAsync(FIND_CUID, Priority.NORMAL, keys(), UID.ImplicitVRLittleEndian, 3);
+        CollectingSubscriber subscriber = new CollectingSubscriber(0, Integer.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        assertEquals(Status.Cancel, publisher.finalResponse().get(10, TimeUnit.SECONDS).getInt(Tag.Status, -1));
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error.get());
+        assertTrue(subscriber.items.size() > 3);
+        assertTrue(subscriber.items.size() < NUM_MATCHES);
+    }
+
+    private static Attributes keys() {
+        Attributes keys = new Attributes();
+        keys.setString(Tag.QueryRetrieveLevel, VR.CS, "STUDY");
+        keys.setNull(Tag.StudyInstanceUID, VR.UI);
+        return keys;
+    }
+
+    private static class CollectingSubscriber implements DimseFlow.Subscriber<Attributes> {
+        final int batch;
+        final int cancelAfter;
+        final List<Attributes> items = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile DimseFlow.Subscription subscription;
+
+        CollectingSubscriber(int batch, int cancelAfter) {
+            this.batch = batch;
+            this.cancelAfter = cancelAfter;
+        }
+
+        @Override
+        public void onSubscribe(DimseFlow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0)
+                subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(Attributes item) {
+            items.add(item);
+            if (items.size() == cancelAfter)
+                subscription.cancel();
+            else if (batch > 0)
+                subscription.request(batch);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    private Device createAcceptor() {
+        Device device = TestDevices.createDevice("ACCEPTOR", true, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        ae.addTransferCapability(new TransferCapability(
+                null, "*", TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        serviceRegistry.addDicomService(new BasicCEchoSCP());
+        serviceRegistry.addDicomService(new BasicCStoreSCP(STORE_CUID));
+        serviceRegistry.addDicomService(new BasicCFindSCP(FIND_CUID) {
+            @Override
+            protected QueryTask calculateMatches(Association as, PresentationContext pc, Attributes rq,
+                    Attributes keys) {
+                return new BasicQueryTask(as, pc, rq, keys) {
+                    int remaining = NUM_MATCHES;
+
+                    @Override
+                    protected boolean hasMoreMatches() {
+                        return remaining > 0;
+                    }
+
+                    @Override
+                    protected Attributes nextMatch() {
+                        try {
+                            Thread.sleep(10);
+                        } catch (InterruptedException ignore) {
+                        }
+                        Attributes match = new Attributes();
+                        match.setString(Tag.QueryRetrieveLevel, VR.CS, "STUDY");
+                        match.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3." + remaining--);
+                        return match;
+                    }
+                };
+            }
+        });
+        ae.setDimseRQHandler(serviceRegistry);
+        return device;
+    }
+}
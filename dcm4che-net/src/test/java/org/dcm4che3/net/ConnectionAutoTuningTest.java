@@ -0,0 +1,178 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class ConnectionAutoTuningTest {
+
+    private static final long WAN_RTT = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long WAN_THROUGHPUT = 100000000L;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test
+    public void testTuneWAN() {
+        ConnectionAutoTuning tuning = new ConnectionAutoTuning();
+        ConnectionAutoTuning.RemoteProfile profile = new ConnectionAutoTuning.RemoteProfile(WAN_RTT, WAN_THROUGHPUT);
+        Connection conn = new Connection();
+        conn.setPackPDV(false);
+        assertEquals(5000000L, profile.getBandwidthDelayProduct());
+        assertEquals(625000, tuning.receivePDULength(profile, conn));
+        assertEquals(625000, tuning.sendPDULength(profile, conn));
+        assertEquals(ConnectionAutoTuning.DEF_MAX_BUFFER_SIZE, tuning.socketBufferSize(profile));
+        assertTrue(tuning.packPDV(profile, conn));
+        tuning.setMaxPDULength(262144);
+        assertEquals(262144, tuning.receivePDULength(profile, conn));
+        conn.setReceivePDULength(0);
+        assertEquals(0, tuning.receivePDULength(profile, conn));
+    }
+
+    @Test
+    public void testTuneLAN() {
+        ConnectionAutoTuning tuning = new ConnectionAutoTuning();
+        ConnectionAutoTuning.RemoteProfile profile = new ConnectionAutoTuning.RemoteProfile(
+                TimeUnit.MILLISECONDS.toNanos(1), WAN_THROUGHPUT);
+        Connection conn = new Connection();
+        conn.setPackPDV(false);
+        assertEquals(Connection.DEF_MAX_PDU_LENGTH, tuning.receivePDULength(profile, conn));
+        assertEquals(0, tuning.socketBufferSize(profile));
+        assertFalse(tuning.packPDV(profile, conn));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        ConnectionAutoTuning.RemoteProfile profile = new ConnectionAutoTuning.RemoteProfile();
+        profile.onRoundTrip(800);
+        profile.onRoundTrip(1600);
+        assertEquals(900, profile.getRoundTripTime());
+        profile.onRoundTrip(100);
+        assertEquals(100, profile.getRoundTripTime());
+        assertEquals(3, profile.getSamples());
+    }
+
+    @Test(timeout = 20000)
+    public void testConnect() throws Exception {
+        acceptor = createDevice("ACCEPTOR", true);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false);
+        ConnectionAutoTuning tuning = requestor.getDeviceExtension(ConnectionAutoTuning.class);
+        tuning.setRemoteProfile("ACCEPTOR", new ConnectionAutoTuning.RemoteProfile(WAN_RTT, WAN_THROUGHPUT));
+
+        Association as = connect(requestor);
+        assertEquals(625000, as.getAAssociateRQ().getMaxPDULength());
+        assertTrue(as.isPackPDV());
+        ConnectionAutoTuning.RemoteProfile profile = tuning.getRemoteProfile("ACCEPTOR");
+        assertEquals(1, profile.getSamples());
+        tuning.probe(as);
+        tuning.probe(as);
+        assertEquals(3, profile.getSamples());
+        assertTrue(profile.getRoundTripTime() < TimeUnit.MILLISECONDS.toNanos(tuning.getLanRoundTripTime()));
+        as.release();
+        as.waitForSocketClose();
+
+        as = connect(requestor);
+        assertEquals(Connection.DEF_MAX_PDU_LENGTH, as.getAAssociateRQ().getMaxPDULength());
+        assertFalse(as.isPackPDV());
+        as.release();
+        as.waitForSocketClose();
+    }
+
+    private Association connect(Device requestor) throws Exception {
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.Verification, UID.ImplicitVRLittleEndian);
+        return aeOf(requestor).connect(aeOf(acceptor), aarq);
+    }
+
+    private Device createDevice(String aet, boolean listening) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        Connection conn = connOf(device);
+        conn.setPackPDV(false);
+        device.addDeviceExtension(new ConnectionAutoTuning());
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.Verification, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+            serviceRegistry.addDicomService(new BasicCEchoSCP());
+            ae.setDimseRQHandler(serviceRegistry);
+        }
+        return device;
+    }
+}
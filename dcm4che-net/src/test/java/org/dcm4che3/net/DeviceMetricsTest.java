@@ -0,0 +1,160 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.metrics.JmxMetricsAdapter;
+import org.dcm4che3.net.metrics.PrometheusTextAdapter;
+import org.dcm4che3.net.metrics.SimpleMetricsRegistry;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class DeviceMetricsTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testMetrics() throws Exception {
+        SimpleMetricsRegistry scpRegistry = new SimpleMetricsRegistry();
+        SimpleMetricsRegistry scuRegistry = new SimpleMetricsRegistry();
+        acceptor = createDevice("ACCEPTOR", true, scpRegistry);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false, scuRegistry);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.Verification, UID.ImplicitVRLittleEndian);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+        try {
+            as.cecho().next();
+            as.cecho().next();
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+
+        String scu = new PrometheusTextAdapter(scuRegistry).scrape();
+        assertTrue(scu, scu.contains("# TYPE dicom_dimse_duration_seconds histogram\n"));
+        assertTrue(scu, scu.contains("dicom_dimse_duration_seconds_count{role=\"scu\",dimse=\"C-ECHO\","
+                + "sop_class=\"" + UID.Verification + "\",remote_aet=\"ACCEPTOR\"} 2\n"));
+        assertTrue(scu, scu.contains("dicom_pdu_sent_bytes_count{type=\"A-ASSOCIATE-RQ\"} 1\n"));
+        assertTrue(scu, scu.contains("dicom_pdu_received_bytes_count{type=\"A-ASSOCIATE-AC\"} 1\n"));
+        assertTrue(scu, scu.contains("dicom_operations_in_flight{role=\"scu\"} 0\n"));
+
+        String scp = new PrometheusTextAdapter(scpRegistry).scrape();
+        assertTrue(scp, scp.contains("dicom_dimse_duration_seconds_count{role=\"scp\",dimse=\"C-ECHO\","
+                + "sop_class=\"" + UID.Verification + "\",remote_aet=\"REQUESTOR\"} 2\n"));
+        assertTrue(scp, scp.contains("dicom_pdu_received_bytes_count{type=\"P-DATA-TF\"} 2\n"));
+
+        JmxMetricsAdapter jmx = new JmxMetricsAdapter(scpRegistry);
+        String connection = "localhost:" + connOf(acceptor).getPort();
+        Number received = (Number) jmx.getAttribute(
+                "dicom_bytes_received_total{connection=\"" + connection + "\"}");
+        Number sent = (Number) new JmxMetricsAdapter(scuRegistry).getAttribute(
+                "dicom_bytes_sent_total{connection=\"localhost\"}");
+        assertEquals(sent.longValue(), received.longValue());
+        assertTrue(received.longValue() > 0);
+        assertEquals(0, ((Number) jmx.getAttribute("dicom_operations_in_flight{role=\"scp\"}")).intValue());
+    }
+
+    @Test
+    public void testRejectedTask() throws Exception {
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+        Device device = createDevice("ACCEPTOR", false, registry);
+        executor.shutdown();
+        try {
+            device.execute(() -> {});
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+        }
+        String scrape = new PrometheusTextAdapter(registry).scrape();
+        assertTrue(scrape, scrape.contains("dicom_executor_tasks_queued 0\n"));
+    }
+
+    private Device createDevice(String aet, boolean listening, SimpleMetricsRegistry registry) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        device.addDeviceExtension(new DeviceMetrics(registry));
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.Verification, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+            serviceRegistry.addDicomService(new BasicCEchoSCP());
+            ae.setDimseRQHandler(serviceRegistry);
+        }
+        return device;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class FileDataWriterTest {
+
+    private static final int OFFSET = 132;
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private volatile byte[] received;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test
+    public void testSocketChannel() throws Exception {
+        testStore(true, 200000);
+    }
+
+    @Test
+    public void testSocketChannelSmallDataset() throws Exception {
+        testStore(true, 1000);
+    }
+
+    @Test
+    public void testSocket() throws Exception {
+        testStore(false, 200000);
+    }
+
+    private void testStore(boolean socketChannel, int length) throws Exception {
+        byte[] dataset = new byte[length];
+        new Random(length).nextBytes(dataset);
+        byte[] content = new byte[OFFSET + length];
+        System.arraycopy(dataset, 0, content, OFFSET, length);
+        File file = tmp.newFile();
+        Files.write(file.toPath(), content);
+
+        acceptor = createDevice("ACCEPTOR", true, socketChannel);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false, socketChannel);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.CTImageStorage, UID.ImplicitVRLittleEndian);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+        try {
+            DimseRSP rsp = as.cstore(UID.CTImageStorage, "1.2.3", Priority.NORMAL,
+                    new FileDataWriter(file, OFFSET, -1), UID.ImplicitVRLittleEndian);
+            rsp.next();
+            assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+        assertArrayEquals(dataset, received);
+    }
+
+    private Device createDevice(String aet, boolean listening, boolean socketChannel) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        connOf(device).setSocketChannel(socketChannel);
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.CTImageStorage, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            ae.setDimseRQHandler(new DimseRQHandler() {
+                @Override
+                public void onDimseRQ(Association as, PresentationContext pc, Dimse dimse, Attributes cmd,
+                        PDVInputStream data) throws IOException {
+                    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                    data.copyTo(bout);
+                    received = bout.toByteArray();
+                    as.writeDimseRSP(pc, Commands.mkCStoreRSP(cmd, Status.Success));
+                }
+
+                @Override
+                public void onClose(Association as) {
+                }
+            });
+        }
+        return device;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class GatheringWriteTest {
+
+    private static final int[] CHUNKS = { 7, 300000, 16378, 16379, 1, 50000 };
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private volatile byte[] received;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test
+    public void testSocket() throws Exception {
+        testStore(false, false);
+    }
+
+    @Test
+    public void testSocketChannel() throws Exception {
+        testStore(true, false);
+    }
+
+    @Test
+    public void testNonBlockingIO() throws Exception {
+        testStore(true, true);
+    }
+
+    private void testStore(boolean socketChannel, boolean nio) throws Exception {
+        int length = 0;
+        for (int chunk : CHUNKS)
+            length += chunk;
+        final byte[] dataset = new byte[length];
+        new Random(length).nextBytes(dataset);
+
+        acceptor = createDevice("ACCEPTOR", true, socketChannel, nio);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false, socketChannel, nio);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.CTImageStorage, UID.ImplicitVRLittleEndian);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+        try {
+            DimseRSP rsp = as.cstore(UID.CTImageStorage, "1.2.3", Priority.NORMAL,
+                    new DataWriter() {
+                        @Override
+                        public void writeTo(PDVOutputStream out, String tsuid) throws IOException {
+                            int off = 0;
+                            for (int chunk : CHUNKS) {
+                                out.write(dataset, off, chunk);
+                                off += chunk;
+                            }
+                        }
+                    },
+                    UID.ImplicitVRLittleEndian);
+            rsp.next();
+            assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+        assertArrayEquals(dataset, received);
+    }
+
+    private Device createDevice(String aet, boolean listening, boolean socketChannel, boolean nio) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        Connection conn = connOf(device);
+        conn.setSocketChannel(socketChannel);
+        conn.setNonBlockingIO(nio);
+        conn.setGatheringWrite(true);
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.CTImageStorage, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            ae.setDimseRQHandler(new DimseRQHandler() {
+                @Override
+                public void onDimseRQ(Association as, PresentationContext pc, Dimse dimse, Attributes cmd,
+                        PDVInputStream data) throws IOException {
+                    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                    data.copyTo(bout);
+                    received = bout.toByteArray();
+                    as.writeDimseRSP(pc, Commands.mkCStoreRSP(cmd, Status.Success));
+                }
+
+                @Override
+                public void onClose(Association as) {
+                }
+            });
+        }
+        return device;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class InvokeWindowTest {
+
+    private static final int MAX_OPS = 3;
+    private static final int NUM_ECHOS = 12;
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private final AtomicInteger performing = new AtomicInteger();
+    private final AtomicInteger maxPerforming = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testInvokeWindow() throws Exception {
+        acceptor = createDevice("ACCEPTOR", true);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.Verification, UID.ImplicitVRLittleEndian);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+        List<DimseRSP> rsps = new ArrayList<>();
+        try {
+            for (int i = 0; i < NUM_ECHOS; i++) {
+                as.waitForNonBlockingInvoke();
+                rsps.add(as.cecho());
+            }
+            as.waitForOutstandingRSP();
+            for (DimseRSP rsp : rsps) {
+                rsp.next();
+                assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+                assertFalse(rsp.next());
+            }
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+        assertEquals(MAX_OPS, maxPerforming.get());
+    }
+
+    private Device createDevice(String aet, boolean listening) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        Connection conn = connOf(device);
+        conn.setAsyncDimseRQ(true);
+        conn.setMaxOpsInvoked(MAX_OPS);
+        conn.setMaxOpsPerformed(MAX_OPS);
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.Verification, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            ae.setDimseRQHandler(new DimseRQHandler() {
+                @Override
+                public void onDimseRQ(Association as, PresentationContext pc, Dimse dimse, Attributes cmd,
+                        PDVInputStream data) throws IOException {
+                    int n = performing.incrementAndGet();
+                    maxPerforming.accumulateAndGet(n, Math::max);
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    } finally {
+                        performing.decrementAndGet();
+                    }
+                    as.writeDimseRSP(pc, Commands.mkEchoRSP(cmd, Status.Success));
+                }
+
+                @Override
+                public void onClose(Association as) {
+                }
+            });
+        }
+        return device;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.BasicCEchoSCP;
+import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.dcm4che3.util.ByteArrayPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class NioAssociationChannelTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private volatile byte[] received;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testManyAssociations() throws Exception {
+        acceptor = createDevice("ACCEPTOR", true, true);
+        acceptor.setNioSelectorThreads(2);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false, true);
+        List<Association> list = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            list.add(aeOf(requestor).connect(aeOf(acceptor), aarq()));
+        assertEquals(50, acceptor.getNumberOfOpenAssociations());
+        for (Association as : list) {
+            assertTrue(as.isNonBlockingIO());
+            DimseRSP rsp = as.cecho();
+            rsp.next();
+            assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        }
+        for (Association as : list) {
+            as.release();
+            as.waitForSocketClose();
+        }
+        acceptor.waitForNoOpenConnections();
+    }
+
+    @Test(timeout = 20000)
+    public void testStoreToNonBlockingIO() throws Exception {
+        testStore(false, true);
+    }
+
+    @Test(timeout = 20000)
+    public void testStoreFromNonBlockingIO() throws Exception {
+        testStore(true, false);
+    }
+
+    private void testStore(boolean nioRequestor, boolean nioAcceptor) throws Exception {
+        byte[] dataset = new byte[4000000];
+        new Random(0).nextBytes(dataset);
+        File file = tmp.newFile();
+        Files.write(file.toPath(), dataset);
+
+        acceptor = createDevice("ACCEPTOR", true, nioAcceptor);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false, nioRequestor);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq());
+        try {
+            DimseRSP rsp = as.cstore(UID.CTImageStorage, "1.2.3", Priority.NORMAL,
+                    new FileDataWriter(file, 0, -1), UID.ImplicitVRLittleEndian);
+            rsp.next();
+            assertEquals(Status.Success, rsp.getCommand().getInt(Tag.Status, -1));
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+        assertArrayEquals(dataset, received);
+    }
+
+    @Test(timeout = 20000)
+    public void testReleaseIncompletePDUOnClose() throws Exception {
+        List<byte[]> released = new CopyOnWriteArrayList<>();
+        ByteArrayPool prev = ByteArrayPool.getDefault();
+        ByteArrayPool.setDefault(new ByteArrayPool() {
+            @Override
+            public byte[] acquire(int minLength) {
+                return new byte[minLength];
+            }
+
+            @Override
+            public void release(byte[] b) {
+                released.add(b);
+            }
+
+            @Override
+            public long getHitCount() {
+                return 0;
+            }
+
+            @Override
+            public long getMissCount() {
+                return 0;
+            }
+        });
+        try {
+            acceptor = createDevice("ACCEPTOR", true, true);
+            acceptor.bindConnections();
+            Connection conn = connOf(acceptor);
+            try (Socket sock = new Socket(conn.getHostname(), conn.getPort())) {
+                OutputStream out = sock.getOutputStream();
+                // A-ASSOCIATE-RQ PDU header announcing 1000 bytes, followed by only 100 bytes
+                out.write(new byte[]{ 0x01, 0, 0, 0, 0x03, (byte) 0xe8 });
+                out.write(new byte[100]);
+                out.flush();
+                Thread.sleep(100);
+            }
+            acceptor.waitForNoOpenConnections();
+            while (!containsPDU(released, 1006))
+                Thread.sleep(10);
+        } finally {
+            ByteArrayPool.setDefault(prev);
+        }
+    }
+
+    private static boolean containsPDU(List<byte[]> released, int length) {
+        for (byte[] b : released)
+            if (b.length == length)
+                return true;
+        return false;
+    }
+
+    private static AAssociateRQ aarq() {
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.Verification, UID.ImplicitVRLittleEndian);
+        aarq.addPresentationContextFor(UID.CTImageStorage, UID.ImplicitVRLittleEndian);
+        return aarq;
+    }
+
+    private Device createDevice(String aet, boolean listening, boolean nio) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        connOf(device).setNonBlockingIO(nio);
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.Verification, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.CTImageStorage, TransferCapability.Role.SCP, UID.ImplicitVRLittleEndian));
+            DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+            serviceRegistry.addDicomService(new BasicCEchoSCP());
+            serviceRegistry.addDimseRQHandler(new DimseRQHandler() {
+                @Override
+                public void onDimseRQ(Association as, PresentationContext pc, Dimse dimse, Attributes cmd,
+                        PDVInputStream data) throws IOException {
+                    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                    data.copyTo(bout);
+                    received = bout.toByteArray();
+                    as.writeDimseRSP(pc, Commands.mkCStoreRSP(cmd, Status.Success));
+                }
+
+                @Override
+                public void onClose(Association as) {
+                }
+            }, UID.CTImageStorage);
+            ae.setDimseRQHandler(serviceRegistry);
+        }
+        return device;
+    }
+}
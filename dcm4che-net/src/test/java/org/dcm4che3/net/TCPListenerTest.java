@@ -0,0 +1,190 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class TCPListenerTest {
+
+    private static final String[] TLS_CIPHERS = { "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256" };
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device device;
+    private Connection conn;
+    private final List<Throwable> rejected = new CopyOnWriteArrayList<>();
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private final List<Socket> clients = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        device = new Device("ACCEPTOR");
+        conn = new Connection(null, "localhost", TestDevices.freePort());
+        device.addConnection(conn);
+        device.setExecutor(executor);
+        device.setScheduledExecutor(scheduledExecutor);
+        device.setConnectionMonitor(new ConnectionMonitor() {
+            @Override
+            public void onConnectionEstablished(Connection conn, Connection remoteConn, Socket s) {
+            }
+
+            @Override
+            public void onConnectionFailed(Connection conn, Connection remoteConn, Socket s, Throwable e) {
+            }
+
+            @Override
+            public void onConnectionRejectedBlacklisted(Connection conn, Socket s) {
+            }
+
+            @Override
+            public void onConnectionRejected(Connection conn, Socket s, Throwable e) {
+                rejected.add(e);
+            }
+
+            @Override
+            public void onConnectionAccepted(Connection conn, Socket s) {
+                accepted.add(s);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (Socket s : clients)
+            s.close();
+        device.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void testMaxAcceptRate() throws Exception {
+        conn.setMaxAcceptRate(1);
+        device.bindConnections();
+        for (int i = 0; i < 3; i++)
+            connect();
+        awaitEvents(3);
+        assertTrue(rejected.size() >= 1);
+        assertTrue(accepted.size() <= 2);
+    }
+
+    @Test(timeout = 10000)
+    public void testTlsHandshakeTimeout() throws Exception {
+        conn.setTlsCipherSuites(TLS_CIPHERS);
+        conn.setTlsHandshakeTimeout(500);
+        device.bindConnections();
+        long start = System.nanoTime();
+        connect();
+        connect();
+        awaitEvents(2);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        assertEquals(2, rejected.size());
+        assertTrue("handshakes of silent clients not performed concurrently: " + elapsedMillis + " ms",
+                elapsedMillis < 1000);
+    }
+
+    @Test(timeout = 10000)
+    public void testTlsHandshakeDeadline() throws Exception {
+        conn.setTlsCipherSuites(TLS_CIPHERS);
+        conn.setTlsHandshakeTimeout(500);
+        device.bindConnections();
+        long start = System.nanoTime();
+        connect();
+        OutputStream out = clients.get(0).getOutputStream();
+        try {
+            out.write(new byte[]{ 0x16, 0x03, 0x03, 0x02, 0x00 }); // TLS Handshake record of 512 bytes
+            while (rejected.isEmpty()) {
+                Thread.sleep(100);
+                out.write(0);
+            }
+        } catch (IOException closedByListener) {
+        }
+        awaitEvents(1);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0).getMessage(), rejected.get(0).getMessage().contains("TLS handshake"));
+        assertTrue("handshake of trickling client not aborted: " + elapsedMillis + " ms", elapsedMillis < 2000);
+    }
+
+    @Test(timeout = 10000)
+    public void testMaxPendingAcceptsPerAddress() throws Exception {
+        conn.setTlsCipherSuites(TLS_CIPHERS);
+        conn.setTlsHandshakeTimeout(3000);
+        conn.setMaxPendingAcceptsPerAddress(1);
+        device.bindConnections();
+        connect();
+        connect();
+        awaitEvents(1);
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0).getMessage().contains("pending"));
+    }
+
+    private void connect() throws IOException {
+        clients.add(new Socket("localhost", conn.getPort()));
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        while (rejected.size() + accepted.size() < count)
+            Thread.sleep(10);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.net.service;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Commands;
+import org.dcm4che3.net.Connection;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.TestDevices;
+import org.dcm4che3.net.Dimse;
+import org.dcm4che3.net.DimseRQHandler;
+import org.dcm4che3.net.PDVInputStream;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.TransferCapability;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.dcm4che3.net.TestDevices.connOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class StoreSenderTest {
+
+    private static final int NUM_INSTANCES = 40;
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private final Map<String, String> received = new ConcurrentHashMap<>();
+    private final Set<String> callingAssociations = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testSendAll() throws Exception {
+        acceptor = createDevice("ACCEPTOR", true);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false);
+        List<Association> associations = StoreSender.connect(
+                aeOf(requestor), aeOf(acceptor), aarq(), 3);
+        List<InstanceLocator> insts = new ArrayList<>();
+        for (int i = 0; i < NUM_INSTANCES; i++)
+            insts.add(createInstance("1.2.3." + i, i == 7 ? UID.MRImageStorage : UID.CTImageStorage));
+        StoreSender<InstanceLocator> sender = new StoreSender<>(associations, 4);
+        List<CompletableFuture<Attributes>> rsps = new ArrayList<>();
+        try {
+            for (InstanceLocator inst : insts)
+                rsps.add(sender.send(inst));
+            sender.finish().get(10, TimeUnit.SECONDS);
+        } finally {
+            for (Association as : associations) {
+                as.release();
+                as.waitForSocketClose();
+            }
+        }
+        for (int i = 0; i < NUM_INSTANCES; i++) {
+            CompletableFuture<Attributes> rsp = rsps.get(i);
+            assertTrue(rsp.isDone());
+            if (i == 7) {
+                try {
+                    rsp.get();
+                    fail("C-STORE of MR Image without negotiated Presentation Context");
+                } catch (ExecutionException expected) {
+                }
+            } else {
+                assertEquals(Status.Success, rsp.get().getInt(Tag.Status, -1));
+                assertEquals("PAT" + i, received.get("1.2.3." + i));
+            }
+        }
+        assertEquals(NUM_INSTANCES - 1, received.size());
+        assertEquals(3, callingAssociations.size());
+    }
+
+    @Test(timeout = 20000)
+    public void testFinishWithoutSend() throws Exception {
+        acceptor = createDevice("ACCEPTOR", true);
+        acceptor.bindConnections();
+        Device requestor = createDevice("REQUESTOR", false);
+        List<Association> associations = StoreSender.connect(
+                aeOf(requestor), aeOf(acceptor), aarq(), 1);
+        try {
+            assertTrue(new StoreSender<>(associations, 0).finish().isDone());
+        } finally {
+            associations.get(0).release();
+            associations.get(0).waitForSocketClose();
+        }
+    }
+
+    private InstanceLocator createInstance(String iuid, String cuid) throws IOException {
+        Attributes attrs = new Attributes();
+        attrs.setString(Tag.SOPClassUID, VR.UI, cuid);
+        attrs.setString(Tag.SOPInstanceUID, VR.UI, iuid);
+        attrs.setString(Tag.PatientID, VR.LO, "PAT" + iuid.substring(iuid.lastIndexOf('.') + 1));
+        attrs.setBytes(Tag.PixelData, VR.OW, new byte[20000]);
+        File file = tmp.newFile();
+        try (DicomOutputStream out = new DicomOutputStream(file)) {
+            out.writeDataset(attrs.createFileMetaInformation(UID.ExplicitVRLittleEndian), attrs);
+        }
+        return new InstanceLocator(cuid, iuid, UID.ExplicitVRLittleEndian, file.toURI().toString());
+    }
+
+    private static AAssociateRQ aarq() {
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.CTImageStorage, UID.ExplicitVRLittleEndian);
+        return aarq;
+    }
+
+    private Device createDevice(String aet, boolean listening) {
+        Device device = TestDevices.createDevice(aet, listening, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        Connection conn = connOf(device);
+        conn.setAsyncDimseRQ(true);
+        conn.setMaxOpsInvoked(0);
+        conn.setMaxOpsPerformed(0);
+        if (listening) {
+            ae.addTransferCapability(new TransferCapability(
+                    null, UID.CTImageStorage, TransferCapability.Role.SCP, UID.ExplicitVRLittleEndian));
+            DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+            serviceRegistry.addDimseRQHandler(new DimseRQHandler() {
+                @Override
+                public void onDimseRQ(Association as, PresentationContext pc, Dimse dimse, Attributes cmd,
+                        PDVInputStream data) throws IOException {
+                    Attributes attrs = data.readDataset(pc.getTransferSyntax());
+                    received.put(cmd.getString(Tag.AffectedSOPInstanceUID), attrs.getString(Tag.PatientID));
+                    callingAssociations.add(as.toString());
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    as.writeDimseRSP(pc, Commands.mkCStoreRSP(cmd, Status.Success));
+                }
+
+                @Override
+                public void onClose(Association as) {
+                }
+            }, UID.CTImageStorage);
+            ae.setDimseRQHandler(serviceRegistry);
+        }
+        return device;
+    }
+}
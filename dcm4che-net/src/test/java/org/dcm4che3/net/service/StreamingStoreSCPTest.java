@@ -0,0 +1,225 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.net.service;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.io.DicomInputStream;
+import org.dcm4che3.io.DicomOutputStream;
+import org.dcm4che3.net.ApplicationEntity;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.DataWriterAdapter;
+import org.dcm4che3.net.Device;
+import org.dcm4che3.net.TestDevices;
+import org.dcm4che3.net.DimseRSP;
+import org.dcm4che3.net.Priority;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.TransferCapability;
+import org.dcm4che3.net.pdu.AAssociateRQ;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.dcm4che3.net.TestDevices.aeOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class StreamingStoreSCPTest {
+
+    private static final String IUID = "1.2.3.4";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private Device acceptor;
+    private File storedFile;
+    private Attributes storedAttrs;
+    private byte[] storedDigest;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (acceptor != null)
+            acceptor.unbindConnections();
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+
+    @Test(timeout = 20000)
+    public void testStore() throws Exception {
+        StreamingStoreSCP scp = createSCP(Status.Success);
+        scp.setDigestAlgorithm("SHA-256");
+        Attributes dataset = createDataset();
+        assertEquals(Status.Success, store(scp, dataset));
+
+        assertEquals(IUID, storedFile.getName());
+        try (DicomInputStream in = new DicomInputStream(storedFile)) {
+            assertEquals(UID.ExplicitVRLittleEndian, in.getTransferSyntax());
+            assertEquals(IUID, in.readFileMetaInformation().getString(Tag.MediaStorageSOPInstanceUID));
+            assertEquals(dataset, in.readDataset());
+        }
+        assertEquals("Test^Patient", storedAttrs.getString(Tag.PatientName));
+        assertFalse(storedAttrs.contains(Tag.PixelData));
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(encode(dataset)), storedDigest);
+    }
+
+    @Test(timeout = 20000)
+    public void testStoreIndexAttributes() throws Exception {
+        StreamingStoreSCP scp = createSCP(Status.Success);
+        scp.setIndexAttributes(Tag.StudyInstanceUID, Tag.PatientID);
+        Attributes dataset = createDataset();
+        assertEquals(Status.Success, store(scp, dataset));
+
+        assertEquals(2, storedAttrs.size());
+        assertEquals("P1", storedAttrs.getString(Tag.PatientID));
+        assertEquals("1.2.3", storedAttrs.getString(Tag.StudyInstanceUID));
+        assertNull(storedDigest);
+        try (DicomInputStream in = new DicomInputStream(storedFile)) {
+            assertEquals(dataset, in.readDataset());
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testStoreFailed() throws Exception {
+        StreamingStoreSCP scp = createSCP(Status.OutOfResources);
+        assertEquals(Status.OutOfResources, store(scp, createDataset()));
+        assertFalse(storedFile.exists());
+    }
+
+    private int store(StreamingStoreSCP scp, Attributes dataset) throws Exception {
+        acceptor = createDevice(scp);
+        acceptor.bindConnections();
+        Device requestor = TestDevices.createDevice("REQUESTOR", false, executor, scheduledExecutor);
+        AAssociateRQ aarq = new AAssociateRQ();
+        aarq.addPresentationContextFor(UID.CTImageStorage, UID.ExplicitVRLittleEndian);
+        Association as = aeOf(requestor).connect(aeOf(acceptor), aarq);
+        try {
+            DimseRSP rsp = as.cstore(UID.CTImageStorage, IUID, Priority.NORMAL,
+                    new DataWriterAdapter(dataset), UID.ExplicitVRLittleEndian);
+            rsp.next();
+            return rsp.getCommand().getInt(Tag.Status, -1);
+        } finally {
+            as.release();
+            as.waitForSocketClose();
+        }
+    }
+
+    private StreamingStoreSCP createSCP(final int status) throws IOException {
+        final File dir = tmp.newFolder();
+        return new StreamingStoreSCP(UID.CTImageStorage) {
+            @Override
+            protected File createFile(Association as, Attributes fmi) {
+                return storedFile = new File(dir, fmi.getString(Tag.MediaStorageSOPInstanceUID));
+            }
+
+            @Override
+            protected void onStored(Association as, PresentationContext pc, Attributes rq, Attributes rsp,
+                    File file, Attributes fmi, Attributes attrs, byte[] digest) throws Exception {
+                storedAttrs = attrs;
+                storedDigest = digest;
+                if (status != Status.Success)
+                    throw new DicomServiceException(status);
+            }
+        };
+    }
+
+    private static Attributes createDataset() {
+        Attributes dataset = new Attributes();
+        dataset.setString(Tag.SOPClassUID, VR.UI, UID.CTImageStorage);
+        dataset.setString(Tag.SOPInstanceUID, VR.UI, IUID);
+        dataset.setString(Tag.PatientName, VR.PN, "Test^Patient");
+        dataset.setString(Tag.PatientID, VR.LO, "P1");
+        dataset.setString(Tag.StudyInstanceUID, VR.UI, "1.2.3");
+        dataset.setString(Tag.ImageComments, VR.LT, "after index attributes");
+        byte[] pixelData = new byte[300000];
+        new Random(0).nextBytes(pixelData);
+        dataset.setBytes(Tag.PixelData, VR.OW, pixelData);
+        return dataset;
+    }
+
+    private static byte[] encode(Attributes dataset) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (DicomOutputStream out = new DicomOutputStream(bout, UID.ExplicitVRLittleEndian)) {
+            out.writeDataset(null, dataset);
+        }
+        return bout.toByteArray();
+    }
+
+    private Device createDevice(StreamingStoreSCP scp) {
+        Device device = TestDevices.createDevice("ACCEPTOR", true, executor, scheduledExecutor);
+        ApplicationEntity ae = aeOf(device);
+        ae.addTransferCapability(new TransferCapability(
+                null, UID.CTImageStorage, TransferCapability.Role.SCP, UID.ExplicitVRLittleEndian));
+        DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
+        serviceRegistry.addDicomService(scp);
+        ae.setDimseRQHandler(serviceRegistry);
+        return device;
+    }
+}
@@ -195,6 +195,24 @@ public class CLIUtils {
             .desc(rb.getString("request-timeout"))
             .longOpt("request-timeout")
             .build());
+        opts.addOption(Option.builder()
+            .hasArg()
+            .argName("ms")
+            .desc(rb.getString("tls-handshake-timeout"))
+            .longOpt("tls-handshake-timeout")
+            .build());
+        opts.addOption(Option.builder()
+            .hasArg()
+            .argName("no")
+            .desc(rb.getString("max-accept-rate"))
+            .longOpt("max-accept-rate")
+            .build());
+        opts.addOption(Option.builder()
+            .hasArg()
+            .argName("no")
+            .desc(rb.getString("max-pending-accepts"))
+            .longOpt("max-pending-accepts")
+            .build());
     }
 
     public static void addAcceptTimeoutOption(Options opts) {
@@ -220,6 +238,10 @@ public class CLIUtils {
                 .longOpt("sorcv-buffer")
                 .build());
         opts.addOption(null, "tcp-delay", false, rb.getString("tcp-delay"));
+        opts.addOption(null, "socket-channel", false, rb.getString("socket-channel"));
+        opts.addOption(null, "nio", false, rb.getString("nio"));
+        opts.addOption(null, "async-dimse-rq", false, rb.getString("async-dimse-rq"));
+        opts.addOption(null, "gathering-write", false, rb.getString("gathering-write"));
     }
 
     public static void addConnectTimeoutOption(Options opts) {
@@ -520,6 +542,9 @@ public class CLIUtils {
         conn.setPackPDV(!cl.hasOption("not-pack-pdv"));
         conn.setConnectTimeout(getIntOption(cl, "connect-timeout", 0));
         conn.setRequestTimeout(getIntOption(cl, "request-timeout", 0));
+        conn.setTlsHandshakeTimeout(getIntOption(cl, "tls-handshake-timeout", 0));
+        conn.setMaxAcceptRate(getIntOption(cl, "max-accept-rate", 0));
+        conn.setMaxPendingAcceptsPerAddress(getIntOption(cl, "max-pending-accepts", 0));
         conn.setAcceptTimeout(getIntOption(cl, "accept-timeout", 0));
         conn.setReleaseTimeout(getIntOption(cl, "release-timeout", 0));
         conn.setSendTimeout(getIntOption(cl, "send-timeout", 0));
@@ -538,6 +563,10 @@ public class CLIUtils {
         conn.setSendBufferSize(getIntOption(cl, "sosnd-buffer", 0));
         conn.setReceiveBufferSize(getIntOption(cl, "sorcv-buffer", 0));
         conn.setTcpNoDelay(!cl.hasOption("tcp-delay"));
+        conn.setSocketChannel(cl.hasOption("socket-channel"));
+        conn.setNonBlockingIO(cl.hasOption("nio"));
+        conn.setAsyncDimseRQ(cl.hasOption("async-dimse-rq"));
+        conn.setGatheringWrite(cl.hasOption("gathering-write"));
         configureTLS(conn, cl);
     }
 
@@ -90,6 +90,9 @@ public class Dcm2Dcm {
     private DicomEncodingOptions encOpts = DicomEncodingOptions.DEFAULT;
     private final List<Property> params = new ArrayList<Property>();
     private int maxThreads = 1;
+    private int frameThreads = 1;
+    private int maxFramesInFlight;
+    private boolean extendedOffsetTable;
 
     public final void setTransferSyntax(String uid) {
         this.tsuid = uid;
@@ -126,6 +129,22 @@ public class Dcm2Dcm {
         this.maxThreads = maxThreads;
     }
 
+    public void setFrameThreads(int frameThreads) {
+        if (frameThreads <= 0)
+            throw new IllegalArgumentException("frame-threads: " + frameThreads);
+        this.frameThreads = frameThreads;
+    }
+
+    public void setExtendedOffsetTable(boolean extendedOffsetTable) {
+        this.extendedOffsetTable = extendedOffsetTable;
+    }
+
+    public void setMaxFramesInFlight(int maxFramesInFlight) {
+        if (maxFramesInFlight < 0)
+            throw new IllegalArgumentException("max-frames-in-flight: " + maxFramesInFlight);
+        this.maxFramesInFlight = maxFramesInFlight;
+    }
+
     private static Object toValue(String s) {
         try {
             return Double.valueOf(s);
@@ -191,6 +210,24 @@ public class Dcm2Dcm {
                 .desc(rb.getString("max-threads"))
                 .longOpt("max-threads")
                 .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("N")
+                .type(PatternOptionBuilder.NUMBER_VALUE)
+                .desc(rb.getString("frame-threads"))
+                .longOpt("frame-threads")
+                .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("N")
+                .type(PatternOptionBuilder.NUMBER_VALUE)
+                .desc(rb.getString("max-frames-in-flight"))
+                .longOpt("max-frames-in-flight")
+                .build());
+        opts.addOption(Option.builder()
+                .desc(rb.getString("eot"))
+                .longOpt("eot")
+                .build());
         opts.addOption(Option.builder()
                 .hasArg()
                 .argName("max-error")
@@ -251,6 +288,12 @@ public class Dcm2Dcm {
 
             if (cl.hasOption("max-threads"))
                 main.setMaxThreads(((Number) cl.getParsedOptionValue("max-threads")).intValue());
+            if (cl.hasOption("frame-threads"))
+                main.setFrameThreads(((Number) cl.getParsedOptionValue("frame-threads")).intValue());
+            if (cl.hasOption("max-frames-in-flight"))
+                main.setMaxFramesInFlight(
+                        ((Number) cl.getParsedOptionValue("max-frames-in-flight")).intValue());
+            main.setExtendedOffsetTable(cl.hasOption("eot"));
 
             if (cl.hasOption("verify"))
                 main.addCompressionParam("maxPixelValueError",
@@ -402,6 +445,9 @@ public class Dcm2Dcm {
             transcoder.setEncodingOptions(encOpts);
             transcoder.setDestinationTransferSyntax(tsuid);
             transcoder.setCompressParams(params.toArray(new Property[params.size()]));
+            transcoder.setParallelism(frameThreads);
+            transcoder.setMaxFramesInFlight(maxFramesInFlight);
+            transcoder.setExtendedOffsetTable(extendedOffsetTable);
             transcoder.transcode((transcoder1, dataset) -> new FileOutputStream(dest));
         } catch (Exception e) {
             Files.deleteIfExists(dest.toPath());
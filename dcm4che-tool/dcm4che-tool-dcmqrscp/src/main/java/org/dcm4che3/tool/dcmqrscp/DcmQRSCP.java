@@ -63,21 +63,19 @@ import org.dcm4che3.data.UID;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.Sequence;
 import org.dcm4che3.data.VR;
-import org.dcm4che3.io.DicomInputStream;
-import org.dcm4che3.io.DicomOutputStream;
-import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
 import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.media.DicomDirWriter;
 import org.dcm4che3.media.RecordFactory;
 import org.dcm4che3.media.RecordType;
 import org.dcm4che3.net.ApplicationEntity;
 import org.dcm4che3.net.Association;
+import org.dcm4che3.net.AssociationPool;
 import org.dcm4che3.net.AssociationStateException;
 import org.dcm4che3.net.Commands;
 import org.dcm4che3.net.Connection;
 import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DeviceExecutors;
 import org.dcm4che3.net.Dimse;
-import org.dcm4che3.net.PDVInputStream;
 import org.dcm4che3.net.QueryOption;
 import org.dcm4che3.net.Status;
 import org.dcm4che3.net.TransferCapability;
@@ -88,7 +86,6 @@ import org.dcm4che3.net.service.*;
 import org.dcm4che3.tool.common.CLIUtils;
 import org.dcm4che3.tool.common.FilesetInfo;
 import org.dcm4che3.util.AttributesFormat;
-import org.dcm4che3.util.SafeClose;
 import org.dcm4che3.util.StringUtils;
 import org.dcm4che3.util.TagUtils;
 import org.dcm4che3.util.UIDUtils;
@@ -141,39 +138,36 @@ public class DcmQRSCP {
     private final FilesetInfo fsInfo = new FilesetInfo();
     private DicomDirReader ddReader;
     private DicomDirWriter ddWriter;
+    private DicomDirIndex ddIndex;
     private HashMap<String, Connection> remoteConnections = new HashMap<String, Connection>();
 
-    private final class CStoreSCPImpl extends BasicCStoreSCP {
+    private final class CStoreSCPImpl extends StreamingStoreSCP {
 
         CStoreSCPImpl() {
             super("*");
         }
 
         @Override
-        protected void store(Association as, PresentationContext pc,
-                Attributes rq, PDVInputStream data, Attributes rsp)
-                throws IOException {
-            String cuid = rq.getString(Tag.AffectedSOPClassUID);
-            String iuid = rq.getString(Tag.AffectedSOPInstanceUID);
-            String tsuid = pc.getTransferSyntax();
-            File file = new File(storageDir, iuid);
+        protected File createFile(Association as, Attributes fmi) {
+            return new File(storageDir, fmi.getString(Tag.MediaStorageSOPInstanceUID));
+        }
+
+        @Override
+        protected void onStored(Association as, PresentationContext pc,
+                Attributes rq, Attributes rsp, File file, Attributes fmi,
+                Attributes attrs, byte[] digest) throws Exception {
+            File dest = getDestinationFile(attrs);
+            renameTo(as, file, dest);
             try {
-                Attributes fmi = as.createFileMetaInformation(iuid, cuid, tsuid);
-                storeTo(as, fmi, data, file);
-                Attributes attrs = parse(file);
-                File dest = getDestinationFile(attrs);
-                renameTo(as, file, dest);
-                file = dest;
-                if (addDicomDirRecords(as, attrs, fmi, file)) {
+                if (addDicomDirRecords(as, attrs, fmi, dest)) {
                     LOG.info("{}: M-UPDATE {}", as, dicomDir);
                 } else {
                     LOG.info("{}: ignore received object", as);
-                    deleteFile(as, file);
+                    deleteFile(as, dest);
                 }
-                
             } catch (Exception e) {
-                deleteFile(as, file);
-                throw new DicomServiceException(Status.ProcessingFailure, e);
+                deleteFile(as, dest);
+                throw e;
             }
         }
     };
@@ -232,6 +226,9 @@ public class DcmQRSCP {
             if (errorCFind != 0)
                 throw new DicomServiceException(errorCFind);
 
+            if (ddIndex != null)
+                return new IndexQueryTask(as, pc, rq, keys, level, DcmQRSCP.this);
+
             switch(level) {
             case PATIENT:
                 return new PatientQueryTask(as, pc, rq, keys, DcmQRSCP.this);
@@ -328,7 +325,7 @@ public class DcmQRSCP {
         private Association openStoreAssociation(Association as,
                 Connection remote, AAssociateRQ aarq) throws DicomServiceException {
             try {
-                return as.getApplicationEntity().connect(
+                return as.getApplicationEntity().lease(
                         as.getConnection(), remote, aarq);
             } catch (Exception e) {
                 throw new DicomServiceException(Status.UnableToPerformSubOperations, e);
@@ -366,19 +363,6 @@ public class DcmQRSCP {
         device.setDimseRQHandler(createServiceRegistry());
     }
 
-    private void storeTo(Association as, Attributes fmi, 
-            PDVInputStream data, File file) throws IOException  {
-        LOG.info("{}: M-WRITE {}", as, file);
-        file.getParentFile().mkdirs();
-        DicomOutputStream out = new DicomOutputStream(file);
-        try {
-            out.writeFileMetaInformation(fmi);
-            data.copyTo(out);
-        } finally {
-            SafeClose.close(out);
-        }
-    }
-
     private File getDestinationFile(Attributes attrs) {
         File file = new File(storageDir, filePathFormat.format(attrs));
         while (file.exists())
@@ -395,16 +379,6 @@ public class DcmQRSCP {
             throw new IOException("Failed to rename " + from + " to " + dest);
     }
 
-    private static Attributes parse(File file) throws IOException {
-        DicomInputStream in = new DicomInputStream(file);
-        try {
-            in.setIncludeBulkData(IncludeBulkData.NO);
-            return in.readDatasetUntilPixelData();
-        } finally {
-            SafeClose.close(in);
-        }
-    }
-
 
     private static void deleteFile(Association as, File file) {
         if (file.delete())
@@ -618,8 +592,10 @@ public class DcmQRSCP {
         addDelayCFindOptions(opts);
         addDelayCStoreOptions(opts);
         addRemoteConnectionsOption(opts);
+        addAssociationPoolOptions(opts);
         addRoleSelectLenientOption(opts);
         addRelationalLenientOption(opts);
+        opts.addOption(null, "index", false, rb.getString("index"));
         addErrorStatusOption(opts, "cfind-error");
         addErrorStatusOption(opts, "cmove-error");
         addErrorStatusOption(opts, "cget-error");
@@ -752,6 +728,21 @@ public class DcmQRSCP {
                 .build());
      }
 
+    private static void addAssociationPoolOptions(Options opts) {
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("no")
+                .desc(rb.getString("pool-size"))
+                .longOpt("pool-size")
+                .build());
+        opts.addOption(Option.builder()
+                .hasArg()
+                .argName("ms")
+                .desc(rb.getString("pool-idle-timeout"))
+                .longOpt("pool-idle-timeout")
+                .build());
+    }
+
     public static void main(String[] args) {
         try {
             CommandLine cl = parseComandLine(args);
@@ -768,12 +759,15 @@ public class DcmQRSCP {
             configureDelayCFind(main, cl);
             configureDelayCStore(main, cl);
             configureRemoteConnections(main, cl);
+            configureAssociationPool(main, cl);
             configureRoleSelectLenient(main, cl);
             configureRelationalLenient(main, cl);
+            if (cl.hasOption("index"))
+                main.buildDicomDirIndex();
             main.setErrorCFind(CLIUtils.getIntOption(cl, "cfind-error", 0));
             main.setErrorCMove(CLIUtils.getIntOption(cl, "cmove-error", 0));
             main.setErrorCGet(CLIUtils.getIntOption(cl, "cget-error", 0));
-            ExecutorService executorService = Executors.newCachedThreadPool();
+            ExecutorService executorService = DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService = 
                     Executors.newSingleThreadScheduledExecutor();
             main.device.setScheduledExecutor(scheduledExecutorService);
@@ -790,6 +784,16 @@ public class DcmQRSCP {
         }
     }
 
+    private static void configureAssociationPool(DcmQRSCP main, CommandLine cl) {
+        if (cl.hasOption("pool-size")) {
+            AssociationPool pool = new AssociationPool(main.ae);
+            pool.setMaxSize(Integer.parseInt(cl.getOptionValue("pool-size")));
+            pool.setIdleTimeout(CLIUtils.getIntOption(cl, "pool-idle-timeout",
+                    AssociationPool.DEF_IDLE_TIMEOUT));
+            main.ae.setAssociationPool(pool);
+        }
+    }
+
     private static void configureRelationalLenient(DcmQRSCP main, CommandLine cl) {
         main.setRelationalLenient(cl.hasOption("relational-lenient"));
     }
@@ -933,6 +937,25 @@ public class DcmQRSCP {
          return ddWriter;
     }
 
+    final DicomDirIndex getDicomDirIndex() {
+        return ddIndex;
+    }
+
+    /**
+     * Builds an in-memory index of the directory records of the DICOMDIR, which
+     * is updated on each stored object and used for C-FIND matching.
+     */
+    public void buildDicomDirIndex() throws IOException {
+        DicomDirIndex index = DicomDirIndex.build(ddReader);
+        LOG.info("Indexed {} Patients, {} Studies, {} Series, {} Instances of {}",
+                index.size(QueryRetrieveLevel2.PATIENT),
+                index.size(QueryRetrieveLevel2.STUDY),
+                index.size(QueryRetrieveLevel2.SERIES),
+                index.size(QueryRetrieveLevel2.IMAGE),
+                dicomDir);
+        ddIndex = index;
+    }
+
     private void openDicomDir() throws IOException {
         if (!dicomDir.exists())
             DicomDirWriter.createEmptyDirectory(dicomDir,
@@ -1096,6 +1119,8 @@ public class DcmQRSCP {
         instRec = recFact.createRecord(ds, fmi, ddWriter.toFileIDs(f));
         ddWriter.addLowerDirectoryRecord(seriesRec, instRec);
         ddWriter.commit();
+        if (ddIndex != null)
+            ddIndex.add(patRec, studyRec, seriesRec, instRec);
         return true;
     }
 
@@ -0,0 +1,434 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.tool.dcmqrscp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.media.DicomDirReader;
+import org.dcm4che3.media.RecordFactory;
+import org.dcm4che3.media.RecordType;
+import org.dcm4che3.net.service.QueryRetrieveLevel2;
+import org.dcm4che3.util.IntHashMap;
+import org.dcm4che3.util.StringUtils;
+
+/**
+ * In-memory index of the directory records of a DICOMDIR, used to evaluate
+ * C-FIND matching keys without reading non-matching records from the file.
+ * <p>
+ * Per Query/Retrieve level, the index holds the offsets of the directory
+ * records, the index of the parent entry and a few frequently used matching
+ * keys in columnar {@code int} arrays. String values are dictionary encoded,
+ * so the match of a key against a particular value is only evaluated once per
+ * query, regardless of how many records share that value. The first column of
+ * each level holds the unique key, which may be looked up by binary search
+ * over entries sorted by its dictionary code.
+ * <p>
+ * Keys which are not indexed are matched against the directory record, read
+ * by {@link DicomDirReader#readRecord}, after the indexed keys of the entry
+ * and of its parent entries matched.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+class DicomDirIndex {
+
+    private static final int PATIENT = 0;
+    private static final int STUDY = 1;
+    private static final int SERIES = 2;
+    private static final int IMAGE = 3;
+
+    private static final RecordType[] RECORD_TYPES = {
+            RecordType.PATIENT, RecordType.STUDY, RecordType.SERIES, null
+    };
+
+    private static final int[][] COLUMNS = {
+            { Tag.PatientID, Tag.PatientName, Tag.PatientBirthDate, Tag.PatientSex },
+            { Tag.StudyInstanceUID, Tag.StudyDate, Tag.StudyTime, Tag.AccessionNumber, Tag.StudyID },
+            { Tag.SeriesInstanceUID, Tag.Modality, Tag.SeriesNumber },
+            { Tag.ReferencedSOPInstanceUIDInFile, Tag.ReferencedSOPClassUIDInFile, Tag.InstanceNumber }
+    };
+
+    private static final byte UNKNOWN = 0;
+    private static final byte MATCH = 1;
+    private static final byte NO_MATCH = 2;
+
+    private final DicomDirReader ddr;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<String, Integer> codes = new HashMap<String, Integer>();
+    private final ArrayList<String> values = new ArrayList<String>();
+    private final Level[] levels = new Level[COLUMNS.length];
+
+    private DicomDirIndex(DicomDirReader ddr) {
+        this.ddr = ddr;
+        for (int i = 0; i < levels.length; i++)
+            levels[i] = new Level(COLUMNS[i]);
+    }
+
+    /**
+     * Builds the index from all directory records in use of the specified DICOMDIR.
+     */
+    public static DicomDirIndex build(DicomDirReader ddr) throws IOException {
+        DicomDirIndex index = new DicomDirIndex(ddr);
+        index.addLowerRecords(PATIENT, -1, ddr.readFirstRootDirectoryRecord());
+        return index;
+    }
+
+    private void addLowerRecords(int level, int parent, Attributes rec) throws IOException {
+        for (; rec != null; rec = ddr.readNextDirectoryRecord(rec)) {
+            if (!DicomDirReader.inUse(rec) || !isRecordType(level, rec))
+                continue;
+
+            int entry = levels[level].add(rec, parent, this);
+            if (level < IMAGE)
+                addLowerRecords(level + 1, entry, ddr.readLowerDirectoryRecord(rec));
+        }
+    }
+
+    private static boolean isRecordType(int level, Attributes rec) {
+        RecordType type = RECORD_TYPES[level];
+        return type == null || type.name().equals(rec.getString(Tag.DirectoryRecordType));
+    }
+
+    public int size(QueryRetrieveLevel2 qrLevel) {
+        lock.readLock().lock();
+        try {
+            return levels[levelOf(qrLevel)].size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the records of a stored object to the index. Records already
+     * contained in the index are identified by their offset in the DICOMDIR.
+     */
+    public void add(Attributes patRec, Attributes studyRec, Attributes seriesRec, Attributes instRec) {
+        lock.writeLock().lock();
+        try {
+            int entry = levels[PATIENT].findOrAdd(patRec, -1, this);
+            entry = levels[STUDY].findOrAdd(studyRec, entry, this);
+            entry = levels[SERIES].findOrAdd(seriesRec, entry, this);
+            levels[IMAGE].findOrAdd(instRec, entry, this);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a cursor over the entries of the specified Query/Retrieve level
+     * matching the specified query keys.
+     */
+    public Cursor query(QueryRetrieveLevel2 qrLevel, Attributes keys, RecordFactory recFact,
+            boolean ignoreCaseOfPN, boolean matchNoValue) {
+        lock.readLock().lock();
+        try {
+            return new Cursor(levelOf(qrLevel), keys, recFact, ignoreCaseOfPN, matchNoValue);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the directory records of the specified entry and of its parent
+     * entries, starting with the Patient record.
+     */
+    public Attributes[] records(QueryRetrieveLevel2 qrLevel, int entry) throws IOException {
+        int level = levelOf(qrLevel);
+        Attributes[] recs = new Attributes[level + 1];
+        lock.readLock().lock();
+        try {
+            for (; level >= 0; entry = levels[level--].parents[entry])
+                recs[level] = ddr.readRecord(levels[level].offsets[entry]);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return recs;
+    }
+
+    private static int levelOf(QueryRetrieveLevel2 qrLevel) {
+        return qrLevel.ordinal();
+    }
+
+    private int encode(Attributes rec, int tag) {
+        String[] ss = rec.getStrings(tag);
+        if (ss == null || ss.length == 0)
+            return -1;
+
+        String s = ss.length == 1 ? ss[0] : StringUtils.concat(ss, '\\');
+        if (s == null)
+            return -1;
+
+        Integer code = codes.get(s);
+        if (code == null) {
+            codes.put(s, code = values.size());
+            values.add(s);
+        }
+        return code;
+    }
+
+    private static final class Level {
+        final int[] columnTags;
+        final int[][] columns;
+        final IntHashMap<Integer> entryByOffset = new IntHashMap<Integer>();
+        int size;
+        int[] offsets = new int[16];
+        int[] parents = new int[16];
+        long[] sortedByUniqueKey;
+
+        Level(int[] columnTags) {
+            this.columnTags = columnTags;
+            this.columns = new int[columnTags.length][16];
+        }
+
+        int findOrAdd(Attributes rec, int parent, DicomDirIndex index) {
+            Integer entry = entryByOffset.get((int) rec.getItemPosition());
+            return entry != null ? entry : add(rec, parent, index);
+        }
+
+        int add(Attributes rec, int parent, DicomDirIndex index) {
+            if (size == offsets.length) {
+                int newLength = size << 1;
+                offsets = Arrays.copyOf(offsets, newLength);
+                parents = Arrays.copyOf(parents, newLength);
+                for (int i = 0; i < columns.length; i++)
+                    columns[i] = Arrays.copyOf(columns[i], newLength);
+            }
+            int entry = size++;
+            int offset = (int) rec.getItemPosition();
+            offsets[entry] = offset;
+            parents[entry] = parent;
+            for (int i = 0; i < columnTags.length; i++)
+                columns[i][entry] = index.encode(rec, columnTags[i]);
+            entryByOffset.put(offset, entry);
+            sortedByUniqueKey = null;
+            return entry;
+        }
+
+        /**
+         * Returns entries with the specified dictionary code of the unique key
+         * as range {@code [from, to)} in {@link #sortedByUniqueKey}.
+         */
+        synchronized long[] sortedByUniqueKey() {
+            long[] sorted = sortedByUniqueKey;
+            if (sorted == null) {
+                sorted = new long[size];
+                int[] uniqueKeys = columns[0];
+                for (int i = 0; i < sorted.length; i++)
+                    sorted[i] = ((long) uniqueKeys[i] << 32) | i;
+                Arrays.sort(sorted);
+                sortedByUniqueKey = sorted;
+            }
+            return sorted;
+        }
+    }
+
+    public final class Cursor {
+        private final int level;
+        private final int[] sizes = new int[levels.length];
+        private final byte[][] states = new byte[levels.length][];
+        private final ColumnKey[][] columnKeys = new ColumnKey[levels.length][];
+        private final MatchKeys[] recordKeys = new MatchKeys[levels.length];
+        private final boolean matchNoValue;
+        private long[] candidates;
+        private int candidateIndex;
+        private int candidateEnd;
+        private int next;
+
+        Cursor(int level, Attributes keys, RecordFactory recFact,
+                boolean ignoreCaseOfPN, boolean matchNoValue) {
+            this.level = level;
+            this.matchNoValue = matchNoValue;
+            for (int l = 0; l <= level; l++) {
+                Level lv = levels[l];
+                sizes[l] = lv.size;
+                if (l < level)
+                    states[l] = new byte[lv.size];
+                Attributes levelKeys = levelKeys(l, keys, recFact);
+                ArrayList<ColumnKey> list = new ArrayList<ColumnKey>(lv.columnTags.length);
+                for (int i = 0; i < lv.columnTags.length; i++) {
+                    int tag = lv.columnTags[i];
+                    VR vr = levelKeys.getVR(tag);
+                    if (vr == null)
+                        continue;
+
+                    Attributes columnKey = new Attributes(1);
+                    columnKey.addSelected(levelKeys, tag);
+                    levelKeys.remove(tag);
+                    MatchKeys matchKeys = MatchKeys.compile(columnKey, ignoreCaseOfPN, matchNoValue);
+                    if (matchKeys.isEmpty())
+                        continue;
+
+                    list.add(new ColumnKey(i, tag, vr, matchKeys));
+                    if (i == 0 && l == level)
+                        initCandidates(lv, columnKey.getStrings(tag));
+                }
+                columnKeys[l] = list.toArray(new ColumnKey[list.size()]);
+                MatchKeys residual = MatchKeys.compile(levelKeys, ignoreCaseOfPN, matchNoValue);
+                recordKeys[l] = residual.isEmpty() ? null : residual;
+            }
+        }
+
+        private void initCandidates(Level lv, String[] uids) {
+            if (uids == null || uids.length != 1 || StringUtils.containsWildCard(uids[0]))
+                return;
+
+            Integer code = codes.get(uids[0]);
+            if (code == null) {
+                candidates = new long[0];
+                return;
+            }
+            long[] sorted = lv.sortedByUniqueKey();
+            long from = (long) code << 32;
+            int i = Arrays.binarySearch(sorted, from);
+            candidateIndex = i < 0 ? -(i + 1) : i;
+            candidateEnd = candidateIndex;
+            while (candidateEnd < sorted.length && (sorted[candidateEnd] >>> 32) == code)
+                candidateEnd++;
+            candidates = sorted;
+        }
+
+        /**
+         * Returns the next matching entry or {@code -1}, if there is no further match.
+         */
+        public int next() throws IOException {
+            lock.readLock().lock();
+            try {
+                int entry;
+                while ((entry = nextCandidate()) >= 0)
+                    if (matches(level, entry))
+                        return entry;
+                return -1;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int nextCandidate() {
+            if (candidates == null)
+                return next < sizes[level] ? next++ : -1;
+
+            while (candidateIndex < candidateEnd) {
+                int entry = (int) candidates[candidateIndex++];
+                if (entry < sizes[level])
+                    return entry;
+            }
+            return -1;
+        }
+
+        private boolean matches(int l, int entry) throws IOException {
+            if (l < 0)
+                return true;
+
+            byte[] state = states[l];
+            if (state != null && state[entry] != UNKNOWN)
+                return state[entry] == MATCH;
+
+            Level lv = levels[l];
+            boolean match = matchesColumns(l, lv, entry)
+                    && matches(l - 1, lv.parents[entry])
+                    && (recordKeys[l] == null
+                        || recordKeys[l].matches(ddr.readRecord(lv.offsets[entry])));
+            if (state != null)
+                state[entry] = match ? MATCH : NO_MATCH;
+            return match;
+        }
+
+        private boolean matchesColumns(int l, Level lv, int entry) {
+            for (ColumnKey key : columnKeys[l])
+                if (!key.matches(lv.columns[key.column][entry]))
+                    return false;
+            return true;
+        }
+
+        private Attributes levelKeys(int l, Attributes keys, RecordFactory recFact) {
+            int[] selection = recFact.getRecordKeys(l == IMAGE ? RecordType.SR_DOCUMENT : RECORD_TYPES[l]);
+            Attributes levelKeys = new Attributes(selection.length + 1);
+            if (l == IMAGE) {
+                String[] iuids = keys.getStrings(Tag.SOPInstanceUID);
+                if (iuids != null && iuids.length > 0)
+                    levelKeys.setString(Tag.ReferencedSOPInstanceUIDInFile, VR.UI, iuids);
+            }
+            levelKeys.addSelected(keys, selection);
+            return levelKeys;
+        }
+
+        private final class ColumnKey {
+            final int column;
+            final int tag;
+            final VR vr;
+            final MatchKeys matchKeys;
+            byte[] matchesByCode = new byte[values.size()];
+
+            ColumnKey(int column, int tag, VR vr, MatchKeys matchKeys) {
+                this.column = column;
+                this.tag = tag;
+                this.vr = vr;
+                this.matchKeys = matchKeys;
+            }
+
+            boolean matches(int code) {
+                if (code < 0)
+                    return matchNoValue;
+
+                if (code >= matchesByCode.length)
+                    matchesByCode = Arrays.copyOf(matchesByCode, values.size());
+
+                byte state = matchesByCode[code];
+                if (state == UNKNOWN) {
+                    Attributes attrs = new Attributes(1);
+                    attrs.setString(tag, vr, StringUtils.split(values.get(code), '\\'));
+                    matchesByCode[code] = state = matchKeys.matches(attrs) ? MATCH : NO_MATCH;
+                }
+                return state == MATCH;
+            }
+        }
+    }
+}
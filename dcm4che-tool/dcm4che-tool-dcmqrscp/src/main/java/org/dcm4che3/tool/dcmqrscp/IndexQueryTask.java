@@ -0,0 +1,103 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+
+package org.dcm4che3.tool.dcmqrscp;
+
+import java.io.IOException;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.net.Association;
+import org.dcm4che3.net.Status;
+import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.DicomServiceException;
+import org.dcm4che3.net.service.QueryRetrieveLevel2;
+
+/**
+ * Query task scanning the {@link DicomDirIndex} instead of walking the
+ * directory records of the DICOMDIR.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+class IndexQueryTask extends DicomDirQueryTask {
+
+    private final QueryRetrieveLevel2 qrLevel;
+    private final DicomDirIndex index;
+    private final DicomDirIndex.Cursor cursor;
+    private Attributes[] recs;
+
+    public IndexQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys,
+            QueryRetrieveLevel2 qrLevel, DcmQRSCP qrscp) throws DicomServiceException {
+        super(as, pc, rq, keys, qrscp);
+        this.qrLevel = qrLevel;
+        this.index = qrscp.getDicomDirIndex();
+        this.cursor = index.query(qrLevel, keys, recFact, ignoreCaseOfPN, matchNoValue);
+        wrappedFindNext();
+    }
+
+    @Override
+    public boolean hasMoreMatches() throws DicomServiceException {
+        return recs != null;
+    }
+
+    @Override
+    public Attributes nextMatch() throws DicomServiceException {
+        int size = 0;
+        for (Attributes rec : recs)
+            size += rec.size();
+        Attributes ret = new Attributes(size);
+        ret.addAll(recs[0]);
+        for (int i = 1; i < recs.length; i++)
+            ret.addAll(recs[i], true);
+        wrappedFindNext();
+        return ret;
+    }
+
+    private void wrappedFindNext() throws DicomServiceException {
+        try {
+            int entry = cursor.next();
+            recs = entry >= 0 ? index.records(qrLevel, entry) : null;
+        } catch (IOException e) {
+            throw new DicomServiceException(Status.UnableToProcess, e);
+        }
+    }
+}
@@ -39,7 +39,9 @@
 package org.dcm4che3.tool.dcmqrscp;
 
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
 import org.dcm4che3.data.Tag;
+import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Status;
 import org.dcm4che3.net.pdu.PresentationContext;
@@ -51,12 +53,14 @@ import java.io.IOException;
 class InstanceQueryTask extends SeriesQueryTask {
 
     protected final String[] sopIUIDs;
+    protected final MatchKeys instKeys;
     protected Attributes instRec;
 
     public InstanceQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys, DcmQRSCP qrscp)
             throws DicomServiceException {
         super(as, pc, rq, keys, qrscp);
         sopIUIDs = StringUtils.maskNull(keys.getStrings(Tag.SOPInstanceUID));
+        instKeys = DicomDirReader.matchInstanceKeys(keys, recFact, ignoreCaseOfPN, matchNoValue);
         wrappedFindNextInstance();
     }
 
@@ -92,14 +96,14 @@ class InstanceQueryTask extends SeriesQueryTask {
             return false;
 
         if (instRec == null)
-            instRec = ddr.findLowerInstanceRecord(seriesRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            instRec = ddr.findLowerDirectoryRecord(seriesRec, false, instKeys);
         else if (sopIUIDs.length == 1)
             instRec = null;
         else
-            instRec = ddr.findNextInstanceRecord(instRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            instRec = ddr.findNextDirectoryRecord(instRec, false, instKeys);
 
         while (instRec == null && super.findNextSeries())
-            instRec = ddr.findLowerInstanceRecord(seriesRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            instRec = ddr.findLowerDirectoryRecord(seriesRec, false, instKeys);
 
         return instRec != null;
     }
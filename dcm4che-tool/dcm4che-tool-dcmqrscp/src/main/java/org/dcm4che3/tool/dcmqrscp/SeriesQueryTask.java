@@ -42,8 +42,10 @@ import java.io.IOException;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
 import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.media.RecordFactory;
+import org.dcm4che3.media.RecordType;
 import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Status;
 import org.dcm4che3.net.pdu.PresentationContext;
@@ -53,6 +55,7 @@ import org.dcm4che3.util.StringUtils;
 class SeriesQueryTask extends StudyQueryTask {
 
     protected final String[] seriesIUIDs;
+    protected final MatchKeys seriesKeys;
     protected Attributes seriesRec;
 
     public SeriesQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys, DcmQRSCP qrscp)
@@ -60,6 +63,8 @@ class SeriesQueryTask extends StudyQueryTask {
         super(as, pc, rq, keys, qrscp);
         seriesIUIDs = StringUtils.maskNull(
                 keys.getStrings(Tag.SeriesInstanceUID));
+        seriesKeys = DicomDirReader.matchKeys(RecordType.SERIES, keys, recFact,
+                ignoreCaseOfPN, matchNoValue);
         wrappedFindNextSeries();
    }
 
@@ -93,14 +98,14 @@ class SeriesQueryTask extends StudyQueryTask {
             return false;
 
         if (seriesRec == null)
-            seriesRec = ddr.findSeriesRecord(studyRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            seriesRec = ddr.findLowerDirectoryRecord(studyRec, false, seriesKeys);
         else if (seriesIUIDs.length == 1)
             seriesRec = null;
         else
-            seriesRec = ddr.findNextSeriesRecord(seriesRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            seriesRec = ddr.findNextDirectoryRecord(seriesRec, false, seriesKeys);
 
         while (seriesRec == null && super.findNextStudy())
-            seriesRec = ddr.findSeriesRecord(studyRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            seriesRec = ddr.findLowerDirectoryRecord(studyRec, false, seriesKeys);
 
         return seriesRec != null;
     }
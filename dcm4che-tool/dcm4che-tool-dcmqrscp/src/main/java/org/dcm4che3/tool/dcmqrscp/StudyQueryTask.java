@@ -42,8 +42,10 @@ import java.io.IOException;
 
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
 import org.dcm4che3.media.DicomDirReader;
 import org.dcm4che3.media.RecordFactory;
+import org.dcm4che3.media.RecordType;
 import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Status;
 import org.dcm4che3.net.pdu.PresentationContext;
@@ -53,12 +55,15 @@ import org.dcm4che3.util.StringUtils;
 class StudyQueryTask extends PatientQueryTask {
 
     protected final String[] studyIUIDs;
+    protected final MatchKeys studyKeys;
     protected Attributes studyRec;
 
     public StudyQueryTask(Association as, PresentationContext pc, Attributes rq, Attributes keys, DcmQRSCP qrscp)
             throws DicomServiceException {
         super(as, pc, rq, keys, qrscp);
         studyIUIDs = StringUtils.maskNull(keys.getStrings(Tag.StudyInstanceUID));
+        studyKeys = DicomDirReader.matchKeys(RecordType.STUDY, keys, recFact,
+                ignoreCaseOfPN, matchNoValue);
         wrappedFindNextStudy();
     }
 
@@ -89,14 +94,14 @@ class StudyQueryTask extends PatientQueryTask {
             return false;
 
         if (studyRec == null)
-            studyRec = ddr.findStudyRecord(patRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            studyRec = ddr.findLowerDirectoryRecord(patRec, false, studyKeys);
         else if (studyIUIDs.length == 1)
             studyRec = null;
         else
-            studyRec = ddr.findNextStudyRecord(studyRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            studyRec = ddr.findNextDirectoryRecord(studyRec, false, studyKeys);
 
         while (studyRec == null && super.findNextPatient())
-            studyRec = ddr.findStudyRecord(patRec, keys, recFact, ignoreCaseOfPN, matchNoValue);
+            studyRec = ddr.findLowerDirectoryRecord(patRec, false, studyKeys);
 
         return studyRec != null;
     }
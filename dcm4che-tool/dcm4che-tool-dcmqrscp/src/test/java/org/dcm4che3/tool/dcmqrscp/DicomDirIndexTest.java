@@ -0,0 +1,275 @@
+/*
+ * **** BEGIN LICENSE BLOCK *****
+ * Version: MPL 1.1/GPL 2.0/LGPL 2.1
+ *
+ * The contents of this file are subject to the Mozilla Public License Version
+ * 1.1 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTY OF ANY KIND, either express or implied. See the License
+ * for the specific language governing rights and limitations under the
+ * License.
+ *
+ * The Original Code is part of dcm4che, an implementation of DICOM(TM) in
+ * Java(TM), hosted at https://github.com/dcm4che.
+ *
+ * The Initial Developer of the Original Code is
+ * J4Care.
+ * Portions created by the Initial Developer are Copyright (C) 2021
+ * the Initial Developer. All Rights Reserved.
+ *
+ * Contributor(s):
+ * See @authors listed below
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU General Public License Version 2 or later (the "GPL"), or
+ * the GNU Lesser General Public License Version 2.1 or later (the "LGPL"),
+ * in which case the provisions of the GPL or the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of either the GPL or the LGPL, and not to allow others to
+ * use your version of this file under the terms of the MPL, indicate your
+ * decision by deleting the provisions above and replace them with the notice
+ * and other provisions required by the GPL or the LGPL. If you do not delete
+ * the provisions above, a recipient may use your version of this file under
+ * the terms of any one of the MPL, the GPL or the LGPL.
+ *
+ * **** END LICENSE BLOCK *****
+ *
+ */
+
+package org.dcm4che3.tool.dcmqrscp;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dcm4che3.data.Attributes;
+import org.dcm4che3.data.MatchKeys;
+import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.UID;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.media.DicomDirReader;
+import org.dcm4che3.media.DicomDirWriter;
+import org.dcm4che3.media.RecordFactory;
+import org.dcm4che3.media.RecordType;
+import org.dcm4che3.net.service.QueryRetrieveLevel2;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares C-FIND matches of {@link DicomDirIndex} with the matches of the
+ * linear scan over the directory records of the DICOMDIR, as performed by
+ * {@link PatientQueryTask} and its sub-classes.
+ *
+ * @author Gunter Zeilinger <gunterze@gmail.com>
+ * @since Oct 2026
+ */
+public class DicomDirIndexTest {
+
+    private static final String[] PATIENT_NAMES = { "Doe^John", "Doe^Jane", "Smith^Anna" };
+    private static final String[] MODALITIES = { "CT", "MR" };
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final RecordFactory recFact = new RecordFactory();
+    private DicomDirWriter ddWriter;
+
+    @Before
+    public void setUp() throws IOException {
+        recFact.loadDefaultConfiguration();
+        recFact.setRecordKeys(RecordType.PATIENT, new int[] {
+                Tag.SpecificCharacterSet, Tag.PatientName, Tag.PatientID, Tag.PatientBirthDate, Tag.PatientSex });
+        File dicomDir = new File(tmp.getRoot(), "DICOMDIR");
+        DicomDirWriter.createEmptyDirectory(dicomDir, "1.2.40.0.13.1.1", "TEST", null, null);
+        ddWriter = DicomDirWriter.open(dicomDir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ddWriter.close();
+    }
+
+    @Test
+    public void testBuild() throws IOException {
+        addRecords(null);
+        DicomDirIndex index = DicomDirIndex.build(ddWriter);
+        assertEquals(3, index.size(QueryRetrieveLevel2.PATIENT));
+        assertEquals(6, index.size(QueryRetrieveLevel2.STUDY));
+        assertEquals(12, index.size(QueryRetrieveLevel2.SERIES));
+        assertEquals(36, index.size(QueryRetrieveLevel2.IMAGE));
+        assertMatchesLinearScan(index);
+    }
+
+    @Test
+    public void testAdd() throws IOException {
+        DicomDirIndex index = DicomDirIndex.build(ddWriter);
+        addRecords(index);
+        assertEquals(3, index.size(QueryRetrieveLevel2.PATIENT));
+        assertEquals(36, index.size(QueryRetrieveLevel2.IMAGE));
+        assertMatchesLinearScan(index);
+    }
+
+    @Test
+    public void testUniqueKeyLookup() throws IOException {
+        addRecords(null);
+        DicomDirIndex index = DicomDirIndex.build(ddWriter);
+        assertEquals(1, query(index, QueryRetrieveLevel2.STUDY,
+                keys(Tag.StudyInstanceUID, VR.UI, studyIUID(1, 0))).size());
+        assertEquals(0, query(index, QueryRetrieveLevel2.STUDY,
+                keys(Tag.StudyInstanceUID, VR.UI, "1.2.3.4.5")).size());
+        assertEquals(1, query(index, QueryRetrieveLevel2.IMAGE,
+                keys(Tag.SOPInstanceUID, VR.UI, sopIUID(2, 1, 0, 2))).size());
+    }
+
+    private void assertMatchesLinearScan(DicomDirIndex index) throws IOException {
+        assertSameMatches(index, QueryRetrieveLevel2.PATIENT, new Attributes());
+        assertSameMatches(index, QueryRetrieveLevel2.PATIENT, keys(Tag.PatientName, VR.PN, "Doe*"));
+        assertSameMatches(index, QueryRetrieveLevel2.PATIENT, keys(Tag.PatientID, VR.LO, "P0", "P2"));
+        assertSameMatches(index, QueryRetrieveLevel2.PATIENT, keys(Tag.PatientBirthDate, VR.DA, "-19700101"));
+        assertSameMatches(index, QueryRetrieveLevel2.STUDY, keys(Tag.StudyDate, VR.DA, "20200101-20200630"));
+        assertSameMatches(index, QueryRetrieveLevel2.STUDY, keys(Tag.StudyInstanceUID, VR.UI, studyIUID(1, 1)));
+        assertSameMatches(index, QueryRetrieveLevel2.STUDY,
+                keys(Tag.StudyInstanceUID, VR.UI, studyIUID(0, 1), studyIUID(2, 0)));
+        assertSameMatches(index, QueryRetrieveLevel2.STUDY, keys(Tag.AccessionNumber, VR.SH, "A1?"));
+        assertSameMatches(index, QueryRetrieveLevel2.STUDY, keys(Tag.StudyDescription, VR.LO, "*head*"));
+        Attributes keys = keys(Tag.PatientName, VR.PN, "Doe^J*");
+        keys.setString(Tag.StudyDate, VR.DA, "20200301-");
+        assertSameMatches(index, QueryRetrieveLevel2.STUDY, keys);
+        assertSameMatches(index, QueryRetrieveLevel2.SERIES, keys(Tag.Modality, VR.CS, "MR"));
+        keys = keys(Tag.Modality, VR.CS, "CT", "US");
+        keys.setString(Tag.PatientID, VR.LO, "P1");
+        assertSameMatches(index, QueryRetrieveLevel2.SERIES, keys);
+        assertSameMatches(index, QueryRetrieveLevel2.IMAGE, keys(Tag.InstanceNumber, VR.IS, "2"));
+        assertSameMatches(index, QueryRetrieveLevel2.IMAGE,
+                keys(Tag.SOPInstanceUID, VR.UI, sopIUID(0, 0, 1, 0), sopIUID(2, 1, 1, 2)));
+        keys = keys(Tag.SeriesInstanceUID, VR.UI, seriesIUID(1, 0, 1));
+        keys.setString(Tag.InstanceNumber, VR.IS, "1");
+        assertSameMatches(index, QueryRetrieveLevel2.IMAGE, keys);
+    }
+
+    private void assertSameMatches(DicomDirIndex index, QueryRetrieveLevel2 qrLevel, Attributes keys)
+            throws IOException {
+        List<Long> expected = scan(qrLevel, keys);
+        assertEquals(qrLevel + " " + keys, expected, query(index, qrLevel, keys));
+    }
+
+    private List<Long> query(DicomDirIndex index, QueryRetrieveLevel2 qrLevel, Attributes keys)
+            throws IOException {
+        List<Long> matches = new ArrayList<Long>();
+        DicomDirIndex.Cursor cursor = index.query(qrLevel, keys, recFact, false, false);
+        for (int entry; (entry = cursor.next()) >= 0;) {
+            Attributes[] recs = index.records(qrLevel, entry);
+            matches.add(recs[recs.length - 1].getItemPosition());
+        }
+        return matches;
+    }
+
+    private List<Long> scan(QueryRetrieveLevel2 qrLevel, Attributes keys) throws IOException {
+        int level = qrLevel.ordinal();
+        MatchKeys[] levelKeys = {
+                DicomDirReader.matchKeys(RecordType.PATIENT, keys, recFact, false, false),
+                DicomDirReader.matchKeys(RecordType.STUDY, keys, recFact, false, false),
+                DicomDirReader.matchKeys(RecordType.SERIES, keys, recFact, false, false),
+                DicomDirReader.matchInstanceKeys(keys, recFact, false, false)
+        };
+        List<Long> matches = new ArrayList<Long>();
+        scan(ddWriter.findRootDirectoryRecord(false, levelKeys[0]), 0, level, levelKeys, matches);
+        return matches;
+    }
+
+    private void scan(Attributes rec, int l, int level, MatchKeys[] levelKeys, List<Long> matches)
+            throws IOException {
+        for (; rec != null; rec = ddWriter.findNextDirectoryRecord(rec, false, levelKeys[l])) {
+            if (l == level)
+                matches.add(rec.getItemPosition());
+            else
+                scan(ddWriter.findLowerDirectoryRecord(rec, false, levelKeys[l + 1]), l + 1, level, levelKeys,
+                        matches);
+        }
+    }
+
+    private void addRecords(DicomDirIndex index) throws IOException {
+        for (int p = 0; p < PATIENT_NAMES.length; p++)
+            for (int st = 0; st < 2; st++)
+                for (int se = 0; se < 2; se++)
+                    for (int i = 0; i < 3; i++)
+                        addRecords(index, dataset(p, st, se, i));
+    }
+
+    /**
+     * Adds the records of one object as {@link DcmQRSCP#addDicomDirRecords} does.
+     */
+    private void addRecords(DicomDirIndex index, Attributes ds) throws IOException {
+        String iuid = ds.getString(Tag.SOPInstanceUID);
+        Attributes fmi = Attributes.createFileMetaInformation(iuid, UID.CTImageStorage, UID.ExplicitVRLittleEndian);
+        Attributes patRec = ddWriter.findPatientRecord(ds.getString(Tag.PatientID));
+        if (patRec == null) {
+            patRec = recFact.createRecord(RecordType.PATIENT, null, ds, null, null);
+            ddWriter.addRootDirectoryRecord(patRec);
+        }
+        Attributes studyRec = ddWriter.findStudyRecord(patRec, ds.getString(Tag.StudyInstanceUID));
+        if (studyRec == null) {
+            studyRec = recFact.createRecord(RecordType.STUDY, null, ds, null, null);
+            ddWriter.addLowerDirectoryRecord(patRec, studyRec);
+        }
+        Attributes seriesRec = ddWriter.findSeriesRecord(studyRec, ds.getString(Tag.SeriesInstanceUID));
+        if (seriesRec == null) {
+            seriesRec = recFact.createRecord(RecordType.SERIES, null, ds, null, null);
+            ddWriter.addLowerDirectoryRecord(studyRec, seriesRec);
+        }
+        Attributes instRec = recFact.createRecord(ds, fmi, new String[] { "DICOM", iuid });
+        ddWriter.addLowerDirectoryRecord(seriesRec, instRec);
+        ddWriter.commit();
+        if (index != null)
+            index.add(patRec, studyRec, seriesRec, instRec);
+    }
+
+    private static Attributes dataset(int p, int st, int se, int i) {
+        Attributes ds = new Attributes();
+        ds.setString(Tag.SpecificCharacterSet, VR.CS, "ISO_IR 100");
+        ds.setString(Tag.PatientName, VR.PN, PATIENT_NAMES[p]);
+        ds.setString(Tag.PatientID, VR.LO, "P" + p);
+        ds.setString(Tag.PatientBirthDate, VR.DA, (1950 + p * 15) + "0101");
+        ds.setString(Tag.PatientSex, VR.CS, p == 0 ? "M" : "F");
+        ds.setString(Tag.StudyInstanceUID, VR.UI, studyIUID(p, st));
+        ds.setString(Tag.StudyDate, VR.DA, "2020" + String.format("%02d", 1 + p * 4 + st) + "15");
+        ds.setString(Tag.StudyTime, VR.TM, "120000");
+        ds.setString(Tag.AccessionNumber, VR.SH, "A" + p + st);
+        ds.setString(Tag.StudyID, VR.SH, String.valueOf(st + 1));
+        ds.setString(Tag.StudyDescription, VR.LO, st == 0 ? "CT head" : "MR knee");
+        ds.setString(Tag.SeriesInstanceUID, VR.UI, seriesIUID(p, st, se));
+        ds.setString(Tag.Modality, VR.CS, MODALITIES[(st + se) % MODALITIES.length]);
+        ds.setString(Tag.SeriesNumber, VR.IS, String.valueOf(se + 1));
+        ds.setString(Tag.SOPClassUID, VR.UI, UID.CTImageStorage);
+        ds.setString(Tag.SOPInstanceUID, VR.UI, sopIUID(p, st, se, i));
+        ds.setString(Tag.InstanceNumber, VR.IS, String.valueOf(i + 1));
+        return ds;
+    }
+
+    private static String studyIUID(int p, int st) {
+        return "1.2.40.0.13.1." + p + "." + st;
+    }
+
+    private static String seriesIUID(int p, int st, int se) {
+        return studyIUID(p, st) + "." + se;
+    }
+
+    private static String sopIUID(int p, int st, int se, int i) {
+        return seriesIUID(p, st, se) + "." + i;
+    }
+
+    private static Attributes keys(int tag, VR vr, String... values) {
+        Attributes keys = new Attributes();
+        keys.setString(tag, vr, values);
+        return keys;
+    }
+}
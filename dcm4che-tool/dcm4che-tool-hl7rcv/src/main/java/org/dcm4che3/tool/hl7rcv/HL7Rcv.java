@@ -44,6 +44,7 @@ import org.dcm4che3.io.SAXTransformer;
 import org.dcm4che3.net.Connection;
 import org.dcm4che3.net.Connection.Protocol;
 import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DeviceExecutors;
 import org.dcm4che3.net.hl7.HL7Application;
 import org.dcm4che3.net.hl7.HL7DeviceExtension;
 import org.dcm4che3.net.hl7.HL7MessageListener;
@@ -187,7 +188,7 @@ public class HL7Rcv {
             CommandLine cl = parseComandLine(args);
             HL7Rcv main = new HL7Rcv();
             configure(main, cl);
-            ExecutorService executorService = Executors.newCachedThreadPool();
+            ExecutorService executorService = DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService = 
                     Executors.newSingleThreadScheduledExecutor();
             main.device.setScheduledExecutor(scheduledExecutorService);
@@ -60,6 +60,7 @@ import org.dcm4che3.net.Association;
 import org.dcm4che3.net.Commands;
 import org.dcm4che3.net.Connection;
 import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DeviceExecutors;
 import org.dcm4che3.net.Dimse;
 import org.dcm4che3.net.Status;
 import org.dcm4che3.net.TransferCapability;
@@ -140,7 +141,7 @@ public class IanSCP extends Device {
            configureTransferCapability(main.ae, cl);
            main.setStatus(CLIUtils.getIntOption(cl, "status", 0));
            main.setStorageDirectory(getStorageDirectory(cl));
-           ExecutorService executorService = Executors.newCachedThreadPool();
+           ExecutorService executorService = DeviceExecutors.newExecutor();
            ScheduledExecutorService scheduledExecutorService = 
                    Executors.newSingleThreadScheduledExecutor();
            main.setScheduledExecutor(scheduledExecutorService);
@@ -43,6 +43,7 @@ import org.dcm4che3.data.*;
 import org.dcm4che3.net.ApplicationEntity;
 import org.dcm4che3.net.Connection;
 import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DeviceExecutors;
 import org.dcm4che3.net.IncompatibleConnectionException;
 import org.dcm4che3.tool.common.CLIUtils;
 import org.dcm4che3.tool.common.DicomFiles;
@@ -133,7 +134,7 @@ public class Modality {
                 scanFiles(cl.getArgList(), tmpPrefix, tmpSuffix, tmpDir, mppsscu, storescu, stgcmtscu);
             }
             ExecutorService executorService =
-                    Executors.newCachedThreadPool();
+                    DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService =
                     Executors.newSingleThreadScheduledExecutor();
             device.setExecutor(executorService);
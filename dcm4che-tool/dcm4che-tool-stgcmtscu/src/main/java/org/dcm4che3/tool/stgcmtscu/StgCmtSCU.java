@@ -188,7 +188,7 @@ public class StgCmtSCU {
                 });
             }
             ExecutorService executorService =
-                    Executors.newCachedThreadPool();
+                    DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService =
                     Executors.newSingleThreadScheduledExecutor();
             device.setExecutor(executorService);
@@ -53,18 +53,13 @@ import org.apache.commons.cli.ParseException;
 import org.dcm4che3.data.Tag;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.VR;
-import org.dcm4che3.io.DicomInputStream;
-import org.dcm4che3.io.DicomOutputStream;
-import org.dcm4che3.io.DicomInputStream.IncludeBulkData;
 import org.dcm4che3.net.*;
 import org.dcm4che3.net.pdu.PresentationContext;
 import org.dcm4che3.net.service.BasicCEchoSCP;
-import org.dcm4che3.net.service.BasicCStoreSCP;
-import org.dcm4che3.net.service.DicomServiceException;
 import org.dcm4che3.net.service.DicomServiceRegistry;
+import org.dcm4che3.net.service.StreamingStoreSCP;
 import org.dcm4che3.tool.common.CLIUtils;
 import org.dcm4che3.util.AttributesFormat;
-import org.dcm4che3.util.SafeClose;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,7 +83,7 @@ public class StoreSCP {
     private int status;
     private int[] receiveDelays;
     private int[] responseDelays;
-    private final BasicCStoreSCP cstoreSCP = new BasicCStoreSCP("*") {
+    private final StreamingStoreSCP cstoreSCP = new StreamingStoreSCP("*") {
 
         @Override
         protected void store(Association as, PresentationContext pc,
@@ -97,29 +92,29 @@ public class StoreSCP {
             sleep(as, receiveDelays);
             try {
                 rsp.setInt(Tag.Status, VR.US, status);
-                if (storageDir == null)
-                    return;
-
-                String cuid = rq.getString(Tag.AffectedSOPClassUID);
-                String iuid = rq.getString(Tag.AffectedSOPInstanceUID);
-                String tsuid = pc.getTransferSyntax();
-                File file = new File(storageDir, iuid + PART_EXT);
-                try {
-                    storeTo(as, as.createFileMetaInformation(iuid, cuid, tsuid),
-                            data, file);
-                    renameTo(as, file, new File(storageDir,
-                            filePathFormat == null
-                                    ? iuid
-                                    : filePathFormat.format(parse(file))));
-                } catch (Exception e) {
-                    deleteFile(as, file);
-                    throw new DicomServiceException(Status.ProcessingFailure, e);
-                }
+                if (storageDir != null)
+                    super.store(as, pc, rq, data, rsp);
             } finally {
                 sleep(as, responseDelays);
             }
         }
 
+        @Override
+        protected File createFile(Association as, Attributes fmi) {
+            return new File(storageDir,
+                    fmi.getString(Tag.MediaStorageSOPInstanceUID) + PART_EXT);
+        }
+
+        @Override
+        protected void onStored(Association as, PresentationContext pc,
+                Attributes rq, Attributes rsp, File file, Attributes fmi,
+                Attributes attrs, byte[] digest) throws IOException {
+            renameTo(as, file, new File(storageDir,
+                    filePathFormat == null
+                            ? fmi.getString(Tag.MediaStorageSOPInstanceUID)
+                            : filePathFormat.format(attrs)));
+        }
+
     };
 
     private void sleep(Association as, int[] delays) {
@@ -141,19 +136,6 @@ public class StoreSCP {
         ae.addConnection(conn);
     }
 
-    private void storeTo(Association as, Attributes fmi, 
-            PDVInputStream data, File file) throws IOException  {
-        LOG.info("{}: M-WRITE {}", as, file);
-        file.getParentFile().mkdirs();
-        DicomOutputStream out = new DicomOutputStream(file);
-        try {
-            out.writeFileMetaInformation(fmi);
-            data.copyTo(out);
-        } finally {
-            SafeClose.close(out);
-        }
-    }
-
     private static void renameTo(Association as, File from, File dest)
             throws IOException {
         LOG.info("{}: M-RENAME {} to {}", as, from, dest);
@@ -163,23 +145,6 @@ public class StoreSCP {
             throw new IOException("Failed to rename " + from + " to " + dest);
     }
 
-    private static Attributes parse(File file) throws IOException {
-        DicomInputStream in = new DicomInputStream(file);
-        try {
-            in.setIncludeBulkData(IncludeBulkData.NO);
-            return in.readDatasetUntilPixelData();
-        } finally {
-            SafeClose.close(in);
-        }
-    }
-
-    private static void deleteFile(Association as, File file) {
-        if (file.delete())
-            LOG.info("{}: M-DELETE {}", as, file);
-        else
-            LOG.warn("{}: M-DELETE {} failed!", as, file);
-    }
-
     private DicomServiceRegistry createServiceRegistry() {
         DicomServiceRegistry serviceRegistry = new DicomServiceRegistry();
         serviceRegistry.addDicomService(new BasicCEchoSCP());
@@ -280,7 +245,7 @@ public class StoreSCP {
             main.setResponseDelays(CLIUtils.getIntsOption(cl, "response-delay"));
             configureTransferCapability(main.ae, cl);
             configureStorageDirectory(main, cl);
-            ExecutorService executorService = Executors.newCachedThreadPool();
+            ExecutorService executorService = DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService = 
                     Executors.newSingleThreadScheduledExecutor();
             main.device.setScheduledExecutor(scheduledExecutorService);
@@ -52,6 +52,8 @@ import org.dcm4che3.io.SAXReader;
 import org.dcm4che3.net.*;
 import org.dcm4che3.net.pdu.AAssociateRQ;
 import org.dcm4che3.net.pdu.PresentationContext;
+import org.dcm4che3.net.service.InstanceLocator;
+import org.dcm4che3.net.service.StoreSender;
 import org.dcm4che3.tool.common.CLIUtils;
 import org.dcm4che3.tool.common.DicomFiles;
 import org.dcm4che3.util.SafeClose;
@@ -63,6 +65,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
 import java.security.GeneralSecurityException;
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.ResourceBundle;
@@ -98,6 +101,8 @@ public class StoreSCU {
     private File tmpDir;
     private File tmpFile;
     private Association as;
+    private List<Association> associations = Collections.emptyList();
+    private int parallelAssociations = 1;
 
     private long totalSize;
     private int filesScanned;
@@ -155,6 +160,18 @@ public class StoreSCU {
         this.priority = priority;
     }
 
+    /**
+     * Set number of Associations opened by {@link #open()} to send the files in parallel. If greater than 1,
+     * C-STOREs are sent by {@link StoreSender} and the {@link RSPHandlerFactory} is not used.
+     *
+     * @param parallelAssociations number of parallel Associations
+     */
+    public final void setParallelAssociations(int parallelAssociations) {
+        if (parallelAssociations < 1)
+            throw new IllegalArgumentException("parallelAssociations: " + parallelAssociations);
+        this.parallelAssociations = parallelAssociations;
+    }
+
     public final void setUIDSuffix(String uidSuffix) {
         this.uidSuffix = uidSuffix;
     }
@@ -185,6 +202,7 @@ public class StoreSCU {
         addRelatedSOPClassOptions(opts);
         addAttributesOption(opts);
         addUIDSuffixOption(opts);
+        addParallelOption(opts);
         return CLIUtils.parseComandLine(args, opts, rb, StoreSCU.class);
     }
 
@@ -202,6 +220,12 @@ public class StoreSCU {
                 .longOpt("uid-suffix").build());
     }
 
+    private static void addParallelOption(Options opts) {
+        opts.addOption(Option.builder().hasArg().argName("no")
+                .desc(rb.getString("parallel"))
+                .longOpt("parallel").build());
+    }
+
     public static void addTmpFileOptions(Options opts) {
         opts.addOption(Option.builder().hasArg().argName("directory")
                 .desc(rb.getString("tmp-file-dir"))
@@ -243,6 +267,7 @@ public class StoreSCU {
             CLIUtils.addAttributes(main.attrs, cl.getOptionValues("s"));
             main.setUIDSuffix(cl.getOptionValue("uid-suffix"));
             main.setPriority(CLIUtils.priorityOf(cl));
+            main.setParallelAssociations(CLIUtils.getIntOption(cl, "parallel", 1));
             List<String> argList = cl.getArgList();
             boolean echo = argList.isEmpty();
             if (!echo) {
@@ -259,7 +284,7 @@ public class StoreSCU {
                         (t2 - t1) / n));
             }
             ExecutorService executorService = Executors
-                    .newSingleThreadExecutor();
+                    .newCachedThreadPool();
             ScheduledExecutorService scheduledExecutorService = Executors
                     .newSingleThreadScheduledExecutor();
             device.setExecutor(executorService);
@@ -362,6 +387,10 @@ public class StoreSCU {
         BufferedReader fileInfos = new BufferedReader(new InputStreamReader(
                 new FileInputStream(tmpFile)));
         try {
+            if (associations.size() > 1) {
+                sendFilesParallel(fileInfos);
+                return;
+            }
             String line;
             while (as.isReadyForDataTransfer()
                     && (line = fileInfos.readLine()) != null) {
@@ -383,6 +412,74 @@ public class StoreSCU {
         }
     }
 
+    private void sendFilesParallel(BufferedReader fileInfos) throws IOException {
+        StoreSender<InstanceLocator> sender = new StoreSender<InstanceLocator>(associations, 0) {
+            @Override
+            protected String selectTransferSyntaxFor(Association as, InstanceLocator inst) {
+                return selectTransferSyntax(as, inst.cuid, inst.tsuid);
+            }
+
+            @Override
+            protected DataWriter createDataWriter(Association as, InstanceLocator inst, String tsuid)
+                    throws Exception {
+                return StoreSCU.this.createDataWriter(inst.getFile(), (Long) inst.getObject(), inst.tsuid, tsuid);
+            }
+        };
+        sender.setPriority(priority);
+        try {
+            String line;
+            while ((line = fileInfos.readLine()) != null) {
+                String[] ss = StringUtils.split(line, '\t');
+                final File f = new File(ss[4]);
+                InstanceLocator inst = new InstanceLocator(ss[1], iuidOf(ss[0]), ss[2], f.toURI().toString())
+                        .setObject(Long.valueOf(ss[3]));
+                sender.send(inst).whenComplete((cmd, e) -> {
+                    if (cmd != null)
+                        onCStoreRSP(cmd, f);
+                    else {
+                        System.out.print('E');
+                        e.printStackTrace();
+                    }
+                });
+            }
+            sender.finish().join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String iuidOf(String iuid) {
+        String s = attrs != null ? attrs.getString(Tag.SOPInstanceUID) : null;
+        return s != null ? s : uidSuffix != null ? iuid + uidSuffix : iuid;
+    }
+
+    private DataWriter createDataWriter(File f, long fmiEndPos, String filets, String ts)
+            throws Exception {
+        if (f.getName().endsWith(".xml")) {
+            Attributes parsedDicomFile = SAXReader.parse(new FileInputStream(f));
+            CLIUtils.updateAttributes(parsedDicomFile, attrs, uidSuffix);
+            if (!ts.equals(filets)) {
+                Decompressor.decompress(parsedDicomFile, filets);
+            }
+            return new DataWriterAdapter(parsedDicomFile);
+        }
+        if (uidSuffix == null && attrs.isEmpty() && ts.equals(filets))
+            return new FileDataWriter(f, fmiEndPos, -1);
+
+        DicomInputStream in = new DicomInputStream(f);
+        try {
+            in.setIncludeBulkData(IncludeBulkData.URI);
+            Attributes data = in.readDataset();
+            CLIUtils.updateAttributes(data, attrs, uidSuffix);
+            if (!ts.equals(filets)) {
+                Decompressor.decompress(data, filets);
+            }
+            return new DataWriterAdapter(data);
+        } finally {
+            SafeClose.close(in);
+        }
+    }
+
     public boolean addFile(BufferedWriter fileInfos, File f, long endFmi,
             Attributes fmi, Attributes ds) throws IOException {
         String cuid = fmi.getString(Tag.MediaStorageSOPClassUID);
@@ -430,7 +527,7 @@ public class StoreSCU {
     public void send(final File f, long fmiEndPos, String cuid, String iuid,
             String filets) throws IOException, InterruptedException,
             ParserConfigurationException, SAXException {
-        String ts = selectTransferSyntax(cuid, filets);
+        String ts = selectTransferSyntax(as, cuid, filets);
 
         if (f.getName().endsWith(".xml")) {
             Attributes parsedDicomFile = SAXReader.parse(new FileInputStream(f));
@@ -444,15 +541,8 @@ public class StoreSCU {
                     rspHandlerFactory.createDimseRSPHandler(f));
         } else {
             if (uidSuffix == null && attrs.isEmpty() && ts.equals(filets)) {
-                FileInputStream in = new FileInputStream(f);
-                try {
-                    in.skip(fmiEndPos);
-                    InputStreamDataWriter data = new InputStreamDataWriter(in);
-                    as.cstore(cuid, iuid, priority, data, ts,
-                            rspHandlerFactory.createDimseRSPHandler(f));
-                } finally {
-                    SafeClose.close(in);
-                }
+                as.cstore(cuid, iuid, priority, new FileDataWriter(f, fmiEndPos, -1), ts,
+                        rspHandlerFactory.createDimseRSPHandler(f));
             } else {
                 DicomInputStream in = new DicomInputStream(f);
                 try {
@@ -473,7 +563,7 @@ public class StoreSCU {
         }
     }
 
-    private String selectTransferSyntax(String cuid, String filets) {
+    private static String selectTransferSyntax(Association as, String cuid, String filets) {
         Set<String> tss = as.getTransferSyntaxesFor(cuid);
         if (tss.contains(filets))
             return filets;
@@ -485,7 +575,7 @@ public class StoreSCU {
     }
 
     public void close() throws IOException, InterruptedException {
-        if (as != null) {
+        for (Association as : associations) {
             if (as.isReadyForDataTransfer())
                 as.release();
             as.waitForSocketClose();
@@ -494,10 +584,11 @@ public class StoreSCU {
 
     public void open() throws IOException, InterruptedException,
             IncompatibleConnectionException, GeneralSecurityException {
-        as = ae.connect(remote, rq);
+        associations = StoreSender.connect(ae, remote, rq, parallelAssociations);
+        as = associations.get(0);
     }
 
-    private void onCStoreRSP(Attributes cmd, File f) {
+    private synchronized void onCStoreRSP(Attributes cmd, File f) {
         int status = cmd.getInt(Tag.Status, -1);
         switch (status) {
         case Status.Success:
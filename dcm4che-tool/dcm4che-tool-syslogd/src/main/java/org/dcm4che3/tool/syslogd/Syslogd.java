@@ -57,6 +57,7 @@ import org.apache.commons.cli.ParseException;
 import org.dcm4che3.net.Connection;
 import org.dcm4che3.net.Connection.Protocol;
 import org.dcm4che3.net.Device;
+import org.dcm4che3.net.DeviceExecutors;
 import org.dcm4che3.net.audit.AuditRecordHandler;
 import org.dcm4che3.net.audit.AuditRecordRepository;
 import org.dcm4che3.tool.common.CLIUtils;
@@ -133,7 +134,7 @@ public class Syslogd {
             CommandLine cl = parseComandLine(args);
             Syslogd main = new Syslogd();
             configure(main, cl);
-            ExecutorService executorService = Executors.newCachedThreadPool();
+            ExecutorService executorService = DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService = 
                     Executors.newSingleThreadScheduledExecutor();
             main.device.setScheduledExecutor(scheduledExecutorService);
@@ -238,7 +238,7 @@ public class UpsSCU {
             main.remote.setTlsCipherSuites(conn.getTlsCipherSuites());
             main.addVerificationPresentationContext();
             ExecutorService executorService =
-                    Executors.newCachedThreadPool();
+                    DeviceExecutors.newExecutor();
             ScheduledExecutorService scheduledExecutorService =
                     Executors.newSingleThreadScheduledExecutor();
             device.setExecutor(executorService);